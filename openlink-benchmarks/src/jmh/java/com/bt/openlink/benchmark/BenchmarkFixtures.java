@@ -0,0 +1,168 @@
+package com.bt.openlink.benchmark;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetCallHistoryFixtures;
+import com.bt.openlink.GetFeaturesFixtures;
+import com.bt.openlink.GetInterestFixtures;
+import com.bt.openlink.GetInterestsFixtures;
+import com.bt.openlink.GetProfileFixtures;
+import com.bt.openlink.GetProfilesFixtures;
+import com.bt.openlink.MakeCallFixtures;
+import com.bt.openlink.ManageVoiceMessageFixtures;
+import com.bt.openlink.PubSubMessageFixtures;
+import com.bt.openlink.PubSubPublishFixtures;
+import com.bt.openlink.PubSubSubscribeFixtures;
+import com.bt.openlink.QueryFeaturesFixtures;
+import com.bt.openlink.RequestActionFixtures;
+import com.bt.openlink.SetFeaturesFixtures;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallStatus;
+
+/**
+ * Stanzas used by the benchmarks. These are the fixtures from the core tests, with any stanza that carries calls
+ * scaled up so that it has a realistic number of them.
+ */
+public final class BenchmarkFixtures {
+
+    private static final String CALL_START_TAG = "<call>";
+    private static final String CALL_END_TAG = "</call>";
+    private static final String CALL_ID_TEXT = ">" + CoreFixtures.CALL_ID + "<";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @param callsPerStatus
+     *            the number of calls in each callstatus element
+     * @param callHistoryRows
+     *            the number of calls in each callhistory element
+     * @return the IQ stanzas that are common to both the Smack and Tinder libraries, keyed by the simple name of the
+     *         class that represents them
+     */
+    @Nonnull
+    public static Map<String, String> getCommandStanzas(final int callsPerStatus, final int callHistoryRows) {
+        final Map<String, String> stanzas = new LinkedHashMap<>();
+        stanzas.put("GetProfilesRequest", GetProfilesFixtures.GET_PROFILES_REQUEST);
+        stanzas.put("GetProfilesResult", GetProfilesFixtures.GET_PROFILES_RESULT_WITH_NO_NOTES);
+        stanzas.put("GetProfileRequest", GetProfileFixtures.GET_PROFILE_REQUEST);
+        stanzas.put("GetProfileResult", GetProfileFixtures.GET_PROFILE_RESULT);
+        stanzas.put("GetInterestsRequest", GetInterestsFixtures.GET_INTERESTS_REQUEST);
+        stanzas.put("GetInterestsResult", GetInterestsFixtures.GET_INTERESTS_RESULT);
+        stanzas.put("GetInterestRequest", GetInterestFixtures.GET_INTEREST_REQUEST);
+        stanzas.put("GetInterestResult", GetInterestFixtures.GET_INTEREST_RESULT);
+        stanzas.put("GetFeaturesRequest", GetFeaturesFixtures.GET_FEATURES_REQUEST);
+        stanzas.put("GetFeaturesResult", GetFeaturesFixtures.GET_FEATURES_RESULT);
+        stanzas.put("GetCallHistoryRequest", GetCallHistoryFixtures.GET_CALL_HISTORY_REQUEST_WITH_ALL_FIELDS);
+        stanzas.put("GetCallHistoryResult", withHistoricalCalls(GetCallHistoryFixtures.CALL_HISTORY_RESULT, callHistoryRows));
+        stanzas.put("QueryFeaturesRequest", QueryFeaturesFixtures.QUERY_FEATURES_REQUEST);
+        stanzas.put("QueryFeaturesResult", QueryFeaturesFixtures.QUERY_FEATURES_RESULT);
+        stanzas.put("SetFeaturesRequest", SetFeaturesFixtures.SET_FEATURES_REQUEST);
+        stanzas.put("SetFeaturesResult", SetFeaturesFixtures.SET_FEATURES_RESULT);
+        stanzas.put("ManageVoiceMessageRequest", ManageVoiceMessageFixtures.MANAGE_VOICE_MESSAGE_REQUEST);
+        stanzas.put("ManageVoiceMessageResult", ManageVoiceMessageFixtures.MANAGE_VOICE_MESSAGE_QUERY_RESULT);
+        stanzas.put("MakeCallRequest", MakeCallFixtures.MAKE_CALL_REQUEST);
+        stanzas.put("MakeCallResult", withCalls(MakeCallFixtures.MAKE_CALL_RESULT, callsPerStatus));
+        stanzas.put("RequestActionRequest", RequestActionFixtures.REQUEST_ACTION_REQUEST_WITH_FEATURES);
+        stanzas.put("RequestActionResult", withCalls(RequestActionFixtures.REQUEST_ACTION_RESULT, callsPerStatus));
+        return Collections.unmodifiableMap(stanzas);
+    }
+
+    /**
+     * @param callsPerStatus
+     *            the number of calls in each callstatus element
+     * @return the pubsub IQ stanzas that are only supported by the Tinder library, keyed by the simple name of the
+     *         class that represents them
+     */
+    @Nonnull
+    public static Map<String, String> getPubSubStanzas(final int callsPerStatus) {
+        final Map<String, String> stanzas = new LinkedHashMap<>();
+        stanzas.put("PubSubPublishRequest", withCalls(PubSubPublishFixtures.PUBLISH_REQUEST_CALL_STATUS, callsPerStatus));
+        stanzas.put("PubSubSubscriptionRequest", PubSubSubscribeFixtures.SUBSCRIBE_REQUEST);
+        stanzas.put("PubSubSubscriptionResult", PubSubSubscribeFixtures.SUBSCRIBE_RESULT);
+        return Collections.unmodifiableMap(stanzas);
+    }
+
+    /**
+     * @param callsPerStatus
+     *            the number of calls in each callstatus element
+     * @return the message stanzas, keyed by the simple name of the class that represents them
+     */
+    @Nonnull
+    public static Map<String, String> getMessageStanzas(final int callsPerStatus) {
+        final Map<String, String> stanzas = new LinkedHashMap<>();
+        stanzas.put("CallStatusMessage", withCalls(PubSubMessageFixtures.CALL_STATUS_MESSAGE, callsPerStatus));
+        stanzas.put("DeviceStatusMessage", PubSubMessageFixtures.DEVICE_STATUS_MESSAGE);
+        return Collections.unmodifiableMap(stanzas);
+    }
+
+    /**
+     * Replaces the single call in a stanza with the requested number of copies, each of which has a unique call id.
+     *
+     * @param stanza
+     *            the stanza containing exactly one call
+     * @param callCount
+     *            the number of calls required
+     * @return the scaled stanza
+     */
+    @Nonnull
+    static String withCalls(@Nonnull final String stanza, final int callCount) {
+        final int callStart = stanza.indexOf(CALL_START_TAG);
+        final int callEnd = stanza.lastIndexOf(CALL_END_TAG) + CALL_END_TAG.length();
+        if (callStart < 0 || callEnd < callStart) {
+            throw new IllegalArgumentException("The stanza does not contain a call");
+        }
+        final String call = stanza.substring(callStart, callEnd);
+        final StringBuilder calls = new StringBuilder(call.length() * callCount);
+        for (int i = 0; i < callCount; i++) {
+            calls.append(call.replace(CALL_ID_TEXT, ">" + CoreFixtures.CALL_ID + "-" + i + "<")).append('\n');
+        }
+        return stanza.substring(0, callStart) + calls + stanza.substring(callEnd);
+    }
+
+    @Nonnull
+    static String withHistoricalCalls(@Nonnull final String stanza, final int callCount) {
+        return withCalls(stanza, callCount)
+                .replace("count='1' start='0' total='2'", "count='" + callCount + "' start='0' total='" + callCount + "'");
+    }
+
+    /**
+     * @param callCount
+     *            the number of calls required
+     * @return a call status with the given number of copies of a conferenced call, each with its own call id
+     */
+    @Nonnull
+    static CallStatus getCallStatus(final int callCount) {
+        final Call fixture = CoreFixtures.CALL_OUTGOING_CONFERENCED;
+        final CallStatus.Builder builder = CallStatus.Builder.start().setCallStatusBusy(false);
+        for (int i = 0; i < callCount; i++) {
+            final Call.Builder callBuilder = Call.Builder.start()
+                    .setId(CallId.from(CoreFixtures.CALL_ID + "-" + i).get())
+                    .setSite(fixture.getSite().get())
+                    .setProfileId(fixture.getProfileId().get())
+                    .setDeviceId(fixture.getDeviceId().get())
+                    .setUserId(fixture.getUserId().get())
+                    .setInterestId(fixture.getInterestId().get())
+                    .setChanged(fixture.getChanged().get())
+                    .setState(fixture.getState().get())
+                    .setDirection(fixture.getDirection().get())
+                    .setCallerNumber(fixture.getCallerNumber().get())
+                    .setCallerName(fixture.getCallerName().get())
+                    .setCalledNumber(fixture.getCalledNumber().get())
+                    .setCalledName(fixture.getCalledName().get())
+                    .setStartTime(fixture.getStartTime().get())
+                    .setDuration(fixture.getDuration().get());
+            fixture.getActions().forEach(callBuilder::addAction);
+            fixture.getFeatures().forEach(callBuilder::addFeature);
+            fixture.getParticipants().forEach(callBuilder::addParticipant);
+            builder.addCall(callBuilder.build());
+        }
+        return builder.build();
+    }
+}
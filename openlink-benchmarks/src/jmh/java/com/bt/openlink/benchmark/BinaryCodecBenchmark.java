@@ -0,0 +1,78 @@
+package com.bt.openlink.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.codec.BinaryCodec;
+import com.bt.openlink.type.CallStatus;
+
+/**
+ * Compares the {@link BinaryCodec} with Java serialization for a call status of a realistic size. The encoded sizes
+ * are printed by the set up, as JMH has no way to report them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BinaryCodecBenchmark {
+
+    @Param({ "1", "8", "64" })
+    public int callsPerStatus;
+
+    private CallStatus callStatus;
+    private byte[] binaryEncoding;
+    private byte[] javaSerialization;
+
+    @Setup
+    public void setUp() throws IOException {
+        callStatus = BenchmarkFixtures.getCallStatus(callsPerStatus);
+        binaryEncoding = BinaryCodec.encode(callStatus);
+        javaSerialization = serialize(callStatus);
+        System.out.printf("%n%d calls: binary %d bytes, Java serialization %d bytes%n", callsPerStatus, binaryEncoding.length, javaSerialization.length);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return BinaryCodec.encode(callStatus);
+    }
+
+    @Benchmark
+    public CallStatus binaryDecode() {
+        return BinaryCodec.decodeCallStatus(binaryEncoding);
+    }
+
+    @Benchmark
+    public byte[] javaSerialize() throws IOException {
+        return serialize(callStatus);
+    }
+
+    @Benchmark
+    public Object javaDeserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(javaSerialization))) {
+            return in.readObject();
+        }
+    }
+
+    @Nonnull
+    private static byte[] serialize(@Nonnull final Object value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,119 @@
+package com.bt.openlink.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.history.CallHistoryPage;
+import com.bt.openlink.history.CallHistoryQuery;
+import com.bt.openlink.history.CallHistoryStore;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.HistoricalCall;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.UserId;
+
+/**
+ * Measures answering a get-call-history request for a page of one user's calls from a {@link CallHistoryStore}, and
+ * appending a call to it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CallHistoryStoreBenchmark {
+
+    private static final int USERS = 100;
+    private static final long PAGE_SIZE = 50;
+
+    @Param({ "100000" })
+    public int calls;
+
+    private Path directory;
+    private CallHistoryStore<String> store;
+    private CallHistoryQuery userQuery;
+    private CallHistoryQuery callerQuery;
+    private int nextCall;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("openlink-history");
+        store = CallHistoryStore.open(directory, CallHistoryStore.DEFAULT_SEGMENT_SIZE, Function.identity(), Function.identity());
+        for (nextCall = 0; nextCall < calls; nextCall++) {
+            store.append(getCall(nextCall));
+        }
+        userQuery = CallHistoryQuery.Builder.start()
+                .setUserId(getUserId(7))
+                .setStart(PAGE_SIZE)
+                .setCount(PAGE_SIZE)
+                .build();
+        callerQuery = CallHistoryQuery.Builder.start()
+                .setCallerNumber(getCallerNumber(7))
+                .setCount(PAGE_SIZE)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public CallHistoryPage<String> queryByUser() {
+        return store.query(userQuery);
+    }
+
+    @Benchmark
+    public CallHistoryPage<String> queryByCaller() {
+        return store.query(callerQuery);
+    }
+
+    @Benchmark
+    public long append() throws IOException {
+        return store.append(getCall(nextCall++));
+    }
+
+    private static HistoricalCall<String> getCall(final int i) {
+        return HistoricalCall.Builder.<String> start()
+                .setId(CallId.from("call-" + i).orElseThrow(IllegalStateException::new))
+                .setUserId(getUserId(i % USERS))
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setState(CallState.CONNECTION_CLEARED)
+                .setDirection(i % 3 == 0 ? CallDirection.OUTGOING : CallDirection.INCOMING)
+                .setCallerNumber(getCallerNumber(i % 1000))
+                .setCallerName(CoreFixtures.CALLER_NAME)
+                .setCalledNumber(CoreFixtures.CALLED_NUMBER)
+                .setCalledName(CoreFixtures.CALLED_NAME)
+                .setStartTime(CoreFixtures.START_TIME.plusSeconds(i))
+                .setDuration(Duration.ofSeconds(i % 600))
+                .setTsc("tsc@example.com")
+                .build();
+    }
+
+    private static UserId getUserId(final int i) {
+        return UserId.from("user-" + i).orElseThrow(IllegalStateException::new);
+    }
+
+    private static PhoneNumber getCallerNumber(final int i) {
+        return PhoneNumber.from("+4420790" + i).orElseThrow(IllegalStateException::new);
+    }
+}
@@ -0,0 +1,110 @@
+package com.bt.openlink.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.history.CallHistoryPage;
+import com.bt.openlink.history.CallHistoryQuery;
+import com.bt.openlink.history.ColumnarCallHistory;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.CallType;
+import com.bt.openlink.type.HistoricalCall;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.UserId;
+
+/**
+ * Measures answering get-call-history requests from a {@link ColumnarCallHistory}: a page of one user's calls, of one
+ * user's missed calls in a day, and of the calls from one number.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ColumnarCallHistoryBenchmark {
+
+    private static final int USERS = 1000;
+    private static final long PAGE_SIZE = 50;
+
+    @Param({ "1000000" })
+    public int calls;
+
+    private ColumnarCallHistory<String> history;
+    private CallHistoryQuery userQuery;
+    private CallHistoryQuery missedCallQuery;
+    private CallHistoryQuery callerQuery;
+
+    @Setup
+    public void setUp() {
+        history = new ColumnarCallHistory<>(calls);
+        for (int i = 0; i < calls; i++) {
+            history.add(getCall(i));
+        }
+        userQuery = CallHistoryQuery.Builder.start()
+                .setUserId(getUserId(7))
+                .setStart(PAGE_SIZE)
+                .setCount(PAGE_SIZE)
+                .build();
+        missedCallQuery = CallHistoryQuery.Builder.start()
+                .setUserId(getUserId(7))
+                .setCallType(CallType.MISSED)
+                .setFrom(CoreFixtures.START_TIME.plusSeconds(calls / 2))
+                .setUpTo(CoreFixtures.START_TIME.plusSeconds(calls / 2 + 86400))
+                .setCount(PAGE_SIZE)
+                .build();
+        callerQuery = CallHistoryQuery.Builder.start()
+                .setCallerNumber(getCallerNumber(7))
+                .setCount(PAGE_SIZE)
+                .build();
+    }
+
+    @Benchmark
+    public CallHistoryPage<String> queryByUser() {
+        return history.query(userQuery);
+    }
+
+    @Benchmark
+    public CallHistoryPage<String> queryMissedCallsByUserAndDay() {
+        return history.query(missedCallQuery);
+    }
+
+    @Benchmark
+    public CallHistoryPage<String> queryByCaller() {
+        return history.query(callerQuery);
+    }
+
+    private static HistoricalCall<String> getCall(final int i) {
+        return HistoricalCall.Builder.<String> start()
+                .setId(CallId.from("call-" + i).orElseThrow(IllegalStateException::new))
+                .setUserId(getUserId(i % USERS))
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setState(i % 7 == 0 ? CallState.CALL_MISSED : CallState.CONNECTION_CLEARED)
+                .setDirection(i % 3 == 0 ? CallDirection.OUTGOING : CallDirection.INCOMING)
+                .setCallerNumber(getCallerNumber(i % 10000))
+                .setCallerName(CoreFixtures.CALLER_NAME)
+                .setCalledNumber(CoreFixtures.CALLED_NUMBER)
+                .setCalledName(CoreFixtures.CALLED_NAME)
+                .setStartTime(CoreFixtures.START_TIME.plusSeconds(i))
+                .setDuration(Duration.ofSeconds(i % 600))
+                .setTsc("tsc@example.com")
+                .build();
+    }
+
+    private static UserId getUserId(final int i) {
+        return UserId.from("user-" + i).orElseThrow(IllegalStateException::new);
+    }
+
+    private static PhoneNumber getCallerNumber(final int i) {
+        return PhoneNumber.from("+4420790" + i).orElseThrow(IllegalStateException::new);
+    }
+}
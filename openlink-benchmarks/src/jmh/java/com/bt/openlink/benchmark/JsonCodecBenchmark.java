@@ -0,0 +1,61 @@
+package com.bt.openlink.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.codec.JsonCodec;
+import com.bt.openlink.codec.JsonReader;
+import com.bt.openlink.codec.JsonWriter;
+import com.bt.openlink.type.CallStatus;
+
+/**
+ * Measures the conversion of a call status to and from JSON, which happens as often as the generation of a callstatus
+ * element measured by {@link SmackCallStatusBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonCodecBenchmark {
+
+    @Param({ "1", "8", "64" })
+    public int callsPerStatus;
+
+    private CallStatus callStatus;
+    private String json;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        callStatus = BenchmarkFixtures.getCallStatus(callsPerStatus);
+        json = JsonCodec.toJson(callStatus);
+        buffer = ByteBuffer.allocateDirect(json.length() * 2);
+    }
+
+    @Benchmark
+    public String writeString() {
+        return JsonCodec.toJson(callStatus);
+    }
+
+    @Benchmark
+    public ByteBuffer writeByteBuffer() throws IOException {
+        buffer.clear();
+        JsonCodec.write(new JsonWriter(buffer), callStatus);
+        return buffer;
+    }
+
+    @Benchmark
+    public CallStatus read() throws IOException {
+        return JsonCodec.readCallStatus(new JsonReader(new StringReader(json)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.bt.openlink.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.bt.openlink.dispatch.OrderedDispatcher;
+import com.bt.openlink.type.InterestId;
+
+/**
+ * Measures handling a burst of call status events spread over many interests, on the receiving thread and on the lanes
+ * of an {@link OrderedDispatcher}. Handling an event is simulated by a fixed amount of work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OrderedDispatcherBenchmark {
+
+    private static final int EVENTS_PER_BURST = 10_000;
+    private static final int INTERESTS = 500;
+
+    @Param({ "1", "4" })
+    public int lanes;
+
+    @Param({ "1000" })
+    public int workPerEvent;
+
+    private final InterestId[] interestIds = new InterestId[INTERESTS];
+    private final AtomicLong handledCount = new AtomicLong();
+    private OrderedDispatcher<InterestId> dispatcher;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < INTERESTS; i++) {
+            interestIds[i] = InterestId.from("interest-" + i).orElseThrow(IllegalStateException::new);
+        }
+        dispatcher = new OrderedDispatcher<>(lanes, 1024, interestId -> interestId, this::handle);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        dispatcher.close();
+        dispatcher.awaitTermination(Duration.ofSeconds(10));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_BURST)
+    public void receivingThread() {
+        for (int i = 0; i < EVENTS_PER_BURST; i++) {
+            handle(interestIds[i % INTERESTS]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_BURST)
+    public void dispatcher() throws InterruptedException {
+        final long target = handledCount.get() + EVENTS_PER_BURST;
+        for (int i = 0; i < EVENTS_PER_BURST; i++) {
+            dispatcher.dispatch(interestIds[i % INTERESTS]);
+        }
+        while (handledCount.get() < target) {
+            Thread.yield();
+        }
+    }
+
+    private void handle(final InterestId interestId) {
+        Blackhole.consumeCPU(workPerEvent);
+        handledCount.incrementAndGet();
+    }
+}
@@ -0,0 +1,97 @@
+package com.bt.openlink.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.bt.openlink.correlation.PendingResultRegistry;
+
+/**
+ * Measures registering a request and completing it with its result whilst many other requests are outstanding, with a
+ * {@link PendingResultRegistry} and with a map of futures each timed out by a task on a scheduled executor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PendingResultRegistryBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Param({ "1000", "100000" })
+    public int outstandingRequests;
+
+    private ScheduledThreadPoolExecutor executor;
+    private PendingResultRegistry<String> registry;
+    private ConcurrentMap<String, CompletableFuture<String>> futures;
+    private ConcurrentMap<String, ScheduledFuture<?>> timers;
+    private long nextId;
+
+    @Setup
+    public void setUp() {
+        executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        registry = new PendingResultRegistry<>(executor, Duration.ofMillis(10), 4096);
+        futures = new ConcurrentHashMap<>();
+        timers = new ConcurrentHashMap<>();
+        for (int i = 0; i < outstandingRequests; i++) {
+            registry.register(nextId(), TIMEOUT);
+            scheduleTimeout(nextId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        registry.close();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public CompletableFuture<String> registry() {
+        final String id = nextId();
+        final CompletableFuture<String> future = registry.register(id, TIMEOUT);
+        registry.complete(id, id);
+        return future;
+    }
+
+    @Benchmark
+    public CompletableFuture<String> scheduledExecutor() {
+        final String id = nextId();
+        final CompletableFuture<String> future = scheduleTimeout(id);
+        futures.remove(id);
+        timers.remove(id).cancel(false);
+        future.complete(id);
+        return future;
+    }
+
+    private CompletableFuture<String> scheduleTimeout(final String id) {
+        final CompletableFuture<String> future = new CompletableFuture<>();
+        futures.put(id, future);
+        timers.put(id, executor.schedule(() -> {
+            timers.remove(id);
+            final CompletableFuture<String> timedOut = futures.remove(id);
+            if (timedOut != null) {
+                timedOut.completeExceptionally(new TimeoutException());
+            }
+        }, TIMEOUT.toNanos(), TimeUnit.NANOSECONDS));
+        return future;
+    }
+
+    private String nextId() {
+        return Long.toString(nextId++);
+    }
+}
@@ -0,0 +1,72 @@
+package com.bt.openlink.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jivesoftware.smack.packet.Stanza;
+import org.jivesoftware.smack.provider.ProviderManager;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.smack.iq.OpenlinkIQProvider;
+
+/**
+ * Measures the parsing and XML generation of every Openlink IQ supported by the Smack library. Run with the
+ * {@code gc} profiler (the default for the {@code jmh} task) to see the allocation per stanza.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SmackBenchmark {
+
+    @Param({
+            "GetProfilesRequest", "GetProfilesResult",
+            "GetProfileRequest", "GetProfileResult",
+            "GetInterestsRequest", "GetInterestsResult",
+            "GetInterestRequest", "GetInterestResult",
+            "GetFeaturesRequest", "GetFeaturesResult",
+            "GetCallHistoryRequest", "GetCallHistoryResult",
+            "QueryFeaturesRequest", "QueryFeaturesResult",
+            "SetFeaturesRequest", "SetFeaturesResult",
+            "ManageVoiceMessageRequest", "ManageVoiceMessageResult",
+            "MakeCallRequest", "MakeCallResult",
+            "RequestActionRequest", "RequestActionResult"
+    })
+    public String stanzaType;
+
+    @Param("8")
+    public int callsPerStatus;
+
+    @Param("50")
+    public int callHistoryRows;
+
+    private String stanzaXml;
+    private Stanza stanza;
+
+    @Setup
+    public void setUp() throws Exception {
+        ProviderManager.addIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), new OpenlinkIQProvider());
+        stanzaXml = BenchmarkFixtures.getCommandStanzas(callsPerStatus, callHistoryRows).get(stanzaType);
+        stanza = PacketParserUtils.parseStanza(stanzaXml);
+        if (!stanza.getClass().getSimpleName().equals(stanzaType)) {
+            throw new IllegalStateException("Expected a " + stanzaType + " but parsed a " + stanza.getClass().getName());
+        }
+    }
+
+    @Benchmark
+    public Stanza parse() throws Exception {
+        return PacketParserUtils.parseStanza(stanzaXml);
+    }
+
+    @Benchmark
+    public String toXML() {
+        return stanza.toXML().toString();
+    }
+}
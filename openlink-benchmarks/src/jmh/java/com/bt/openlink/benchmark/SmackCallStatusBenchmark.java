@@ -0,0 +1,46 @@
+package com.bt.openlink.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jivesoftware.smack.provider.ProviderManager;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.smack.iq.OpenlinkIQProvider;
+import com.bt.openlink.smack.iq.RequestActionResult;
+
+/**
+ * Measures the XML generation of a callstatus element by the Smack library as the number of calls grows. The figure
+ * of interest is {@code gc.alloc.rate.norm} from the {@code gc} profiler; the bytes allocated per call should stay
+ * flat as {@code callsPerStatus} increases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SmackCallStatusBenchmark {
+
+    @Param({ "1", "8", "64" })
+    public int callsPerStatus;
+
+    private RequestActionResult requestActionResult;
+
+    @Setup
+    public void setUp() throws Exception {
+        ProviderManager.addIQProvider("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), new OpenlinkIQProvider());
+        final String stanzaXml = BenchmarkFixtures.getCommandStanzas(callsPerStatus, 1).get(RequestActionResult.class.getSimpleName());
+        requestActionResult = PacketParserUtils.parseStanza(stanzaXml);
+    }
+
+    @Benchmark
+    public String toXML() {
+        return requestActionResult.toXML().toString();
+    }
+}
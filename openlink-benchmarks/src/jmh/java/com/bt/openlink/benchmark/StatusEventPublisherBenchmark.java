@@ -0,0 +1,87 @@
+package com.bt.openlink.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.bt.openlink.reactive.OverflowStrategy;
+import com.bt.openlink.reactive.StatusEventPublisher;
+import com.bt.openlink.type.InterestId;
+
+/**
+ * Measures publishing a status event to subscribers that never request any, as a stalled UI would, with each
+ * {@link OverflowStrategy}. The {@code gc.alloc.rate.norm} figure shows the cost of holding the undelivered events.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StatusEventPublisherBenchmark {
+
+    private static final int INTERESTS = 100;
+
+    @Param({ "DROP_OLDEST", "LATEST_PER_INTEREST" })
+    public OverflowStrategy overflowStrategy;
+
+    @Param({ "10" })
+    public int subscribers;
+
+    private final InterestId[] interestIds = new InterestId[INTERESTS];
+    private StatusEventPublisher<InterestId> publisher;
+    private int nextInterest;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < INTERESTS; i++) {
+            interestIds[i] = InterestId.from("interest-" + i).orElseThrow(IllegalStateException::new);
+        }
+        publisher = new StatusEventPublisher<>(Runnable::run, Optional::of, overflowStrategy, 1000);
+        for (int i = 0; i < subscribers; i++) {
+            publisher.subscribe(new StalledSubscriber());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        publisher.close();
+    }
+
+    @Benchmark
+    public void publish() {
+        publisher.publish(interestIds[nextInterest]);
+        nextInterest = (nextInterest + 1) % INTERESTS;
+    }
+
+    private static final class StalledSubscriber implements Subscriber<InterestId> {
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            // Never requests any events
+        }
+
+        @Override
+        public void onNext(final InterestId interestId) {
+            throw new IllegalStateException("No events were requested");
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            // Nothing to do
+        }
+
+        @Override
+        public void onComplete() {
+            // Nothing to do
+        }
+    }
+}
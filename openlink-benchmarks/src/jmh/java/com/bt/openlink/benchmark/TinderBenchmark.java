@@ -0,0 +1,96 @@
+package com.bt.openlink.benchmark;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+import org.dom4j.io.SAXReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.xmpp.packet.IQ;
+import org.xmpp.packet.Message;
+import org.xmpp.packet.Packet;
+
+import com.bt.openlink.tinder.iq.OpenlinkIQParser;
+import com.bt.openlink.tinder.message.OpenlinkMessageParser;
+
+/**
+ * Measures the parsing and XML generation of every Openlink stanza supported by the Tinder library. The parse
+ * benchmark starts from an unparsed Tinder packet, as would be received by an Openfire component, and includes the
+ * construction of the DOM of the parsed stanza. Run with the {@code gc} profiler (the default for the {@code jmh} task)
+ * to see the allocation per stanza.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TinderBenchmark {
+
+    @Param({
+            "GetProfilesRequest", "GetProfilesResult",
+            "GetProfileRequest", "GetProfileResult",
+            "GetInterestsRequest", "GetInterestsResult",
+            "GetInterestRequest", "GetInterestResult",
+            "GetFeaturesRequest", "GetFeaturesResult",
+            "GetCallHistoryRequest", "GetCallHistoryResult",
+            "QueryFeaturesRequest", "QueryFeaturesResult",
+            "SetFeaturesRequest", "SetFeaturesResult",
+            "ManageVoiceMessageRequest", "ManageVoiceMessageResult",
+            "MakeCallRequest", "MakeCallResult",
+            "RequestActionRequest", "RequestActionResult",
+            "PubSubPublishRequest", "PubSubSubscriptionRequest", "PubSubSubscriptionResult",
+            "CallStatusMessage", "DeviceStatusMessage"
+    })
+    public String stanzaType;
+
+    @Param("8")
+    public int callsPerStatus;
+
+    @Param("50")
+    public int callHistoryRows;
+
+    private Packet unparsedPacket;
+    private Packet parsedPacket;
+
+    @Setup
+    public void setUp() throws DocumentException {
+        final Map<String, String> iqStanzas = new HashMap<>(BenchmarkFixtures.getCommandStanzas(callsPerStatus, callHistoryRows));
+        iqStanzas.putAll(BenchmarkFixtures.getPubSubStanzas(callsPerStatus));
+        final Map<String, String> messageStanzas = BenchmarkFixtures.getMessageStanzas(callsPerStatus);
+        if (messageStanzas.containsKey(stanzaType)) {
+            unparsedPacket = new Message(elementFrom(messageStanzas.get(stanzaType)));
+        } else {
+            unparsedPacket = new IQ(elementFrom(iqStanzas.get(stanzaType)));
+        }
+        parsedPacket = parse();
+        if (!parsedPacket.getClass().getSimpleName().equals(stanzaType)) {
+            throw new IllegalStateException("Expected a " + stanzaType + " but parsed a " + parsedPacket.getClass().getName());
+        }
+    }
+
+    private static Element elementFrom(final String stanza) throws DocumentException {
+        return new SAXReader().read(new StringReader(stanza)).getRootElement();
+    }
+
+    @Benchmark
+    public Packet parse() {
+        if (unparsedPacket instanceof Message) {
+            return OpenlinkMessageParser.parse((Message) unparsedPacket);
+        } else {
+            return OpenlinkIQParser.parse((IQ) unparsedPacket);
+        }
+    }
+
+    @Benchmark
+    public String toXML() {
+        return parsedPacket.toXML();
+    }
+}
@@ -0,0 +1,88 @@
+package com.bt.openlink.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xmpp.packet.JID;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.tinder.message.CallStatusMessage;
+import com.bt.openlink.tinder.message.CallStatusMessageFanOut;
+import com.bt.openlink.type.CallStatus;
+
+/**
+ * Measures sending one call status event to every watcher of an interest with the Tinder library, by building a
+ * message for each watcher and by fanning a single message out to all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TinderFanOutBenchmark {
+
+    private static final JID FROM = new JID(CoreFixtures.FROM_JID_STRING);
+
+    @Param({ "10", "100" })
+    public int recipients;
+
+    @Param({ "8" })
+    public int callsPerStatus;
+
+    private CallStatus callStatus;
+    private final List<JID> recipientJids = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        callStatus = BenchmarkFixtures.getCallStatus(callsPerStatus);
+        for (int i = 0; i < recipients; i++) {
+            recipientJids.add(new JID("watcher-" + i, "example.com", "turret"));
+        }
+    }
+
+    @Benchmark
+    public void buildEach(final Blackhole blackhole) {
+        int id = 0;
+        for (final JID recipient : recipientJids) {
+            blackhole.consume(buildMessage(recipient, Integer.toString(id++)).toXML());
+        }
+    }
+
+    @Benchmark
+    public void fanOutMessages(final Blackhole blackhole) {
+        final CallStatusMessageFanOut fanOut = new CallStatusMessageFanOut(buildMessage(recipientJids.get(0), null));
+        int id = 0;
+        for (final JID recipient : recipientJids) {
+            blackhole.consume(fanOut.createMessage(recipient, Integer.toString(id++)).toXML());
+        }
+    }
+
+    @Benchmark
+    public void fanOutXml(final Blackhole blackhole) {
+        final CallStatusMessageFanOut fanOut = new CallStatusMessageFanOut(buildMessage(recipientJids.get(0), null));
+        int id = 0;
+        for (final JID recipient : recipientJids) {
+            blackhole.consume(fanOut.toXML(recipient, Integer.toString(id++)));
+        }
+    }
+
+    private CallStatusMessage buildMessage(final JID recipient, final String id) {
+        final CallStatusMessage.Builder builder = CallStatusMessage.Builder.start()
+                .setTo(recipient)
+                .setFrom(FROM)
+                .setPubSubNodeId(CoreFixtures.INTEREST_ID)
+                .setCallStatus(callStatus);
+        if (id != null) {
+            builder.setId(id);
+        }
+        return builder.build();
+    }
+}
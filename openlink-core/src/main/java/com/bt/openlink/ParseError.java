@@ -0,0 +1,127 @@
+package com.bt.openlink;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A problem found whilst parsing a stanza. The message is only formatted when it is first read, so errors that are
+ * counted or discarded cost no more than the values they refer to.
+ */
+public final class ParseError {
+
+    /**
+     * The kinds of parse error, each with the template of its message.
+     */
+    public enum Code {
+        /** An error whose message was supplied already formatted */
+        MESSAGE("%s"),
+        /** Arguments; the stanza description, the element or attribute name and the value */
+        INVALID_INTEGER("Invalid %s; invalid %s '%s'; please supply an integer"),
+        /** Arguments; the stanza description, the attribute name and the value */
+        INVALID_NUMBER_ATTRIBUTE("Invalid %s; Unable to parse number attribute %s: '%s'"),
+        /** Arguments; the stanza description, the element or attribute name and the value */
+        INVALID_ISO_8601_TIMESTAMP("Invalid %s; invalid %s '%s'; format should be compliant with XEP-0082"),
+        /** Arguments; the stanza description, the element or attribute name and the value */
+        INVALID_JAVA_UTIL_DATE("Invalid %s; invalid %s '%s'; format should be 'dow mon dd hh:mm:ss zzz yyyy'"),
+        /** Arguments; the stanza description, the element name, the value and the expected date format */
+        INVALID_DATE("Invalid %s; invalid %s '%s'; date format is '%s'"),
+        /** Arguments; the stanza description, the element name and the value */
+        INVALID_VALUE("Invalid %1$s; invalid %2$s '%3$s'; please supply a valid %2$s"),
+        /** Arguments; the stanza description and the value */
+        INVALID_FEATURE_TYPE("Invalid %s; invalid feature type - '%s'"),
+        /** Arguments; the stanza description and the value */
+        INVALID_CALL_TYPE("Invalid %s; invalid calltype - '%s' should be 'in', 'out' or 'missed'"),
+        /** Arguments; the stanza description and the value */
+        INVALID_BOOLEAN("Invalid %s: %s is neither true or false"),
+        /** Arguments; the stanza description and the value */
+        INVALID_ACTION("Invalid %s: %s is not a valid action"),
+        /** Arguments; the stanza description and the attribute name */
+        MISSING_ATTRIBUTE("Invalid %s; missing '%s' attribute is mandatory"),
+        /** Arguments; the element name */
+        UNRECOGNISED_ELEMENT("Unrecognised element:%s"),
+        /** Arguments; the element name */
+        UNRECOGNISED_FEATURE_ELEMENT("Unrecognised feature element:%s"),
+        /** Arguments; the element name */
+        UNRECOGNISED_TAG("Unrecognised tag: %s");
+
+        @Nonnull private final String template;
+
+        Code(@Nonnull final String template) {
+            this.template = template;
+        }
+
+        @Nonnull
+        public String getTemplate() {
+            return template;
+        }
+    }
+
+    @Nonnull private final Code code;
+    @Nullable private final String path;
+    @Nonnull private final Object[] arguments;
+    @Nullable private String message;
+
+    /**
+     * @param code
+     *            the kind of error
+     * @param path
+     *            the name of the element or attribute that is in error, if known
+     * @param arguments
+     *            the arguments of the message template of the code
+     */
+    public ParseError(@Nonnull final Code code, @Nullable final String path, @Nonnull final Object... arguments) {
+        this.code = code;
+        this.path = path;
+        this.arguments = arguments;
+    }
+
+    /**
+     * @param message
+     *            the message of the error
+     * @return an error with the code {@link Code#MESSAGE}
+     */
+    @Nonnull
+    public static ParseError of(@Nonnull final String message) {
+        final ParseError parseError = new ParseError(Code.MESSAGE, null, message);
+        parseError.message = message;
+        return parseError;
+    }
+
+    @Nonnull
+    public Code getCode() {
+        return code;
+    }
+
+    /**
+     * @return the name of the element or attribute that is in error, or {@code null} if not known
+     */
+    @Nullable
+    public String getPath() {
+        return path;
+    }
+
+    @Nonnull
+    public Object[] getArguments() {
+        return arguments.clone();
+    }
+
+    /**
+     * @return the formatted message
+     */
+    @Nonnull
+    public String getMessage() {
+        String formattedMessage = message;
+        if (formattedMessage == null) {
+            formattedMessage = String.format(code.template, arguments);
+            message = formattedMessage;
+        }
+        return formattedMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "ParseError[code=" + code + ", path=" + path + ", arguments=" + Arrays.toString(arguments) + ']';
+    }
+}
@@ -0,0 +1,23 @@
+package com.bt.openlink;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Thrown when a stanza is parsed with the {@link ParseErrorMode#FAIL_FAST} mode and an error is found.
+ */
+public class ParseErrorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    @Nonnull private final transient ParseError parseError;
+
+    public ParseErrorException(@Nonnull final ParseError parseError) {
+        super(parseError.getMessage());
+        this.parseError = parseError;
+    }
+
+    @Nonnull
+    public ParseError getParseError() {
+        return parseError;
+    }
+}
@@ -0,0 +1,68 @@
+package com.bt.openlink;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Controls what happens to the errors found whilst parsing a received stanza.
+ * <p>
+ * The mode that applies to a parse is the one set for the current thread by {@link #enter()}, if any, otherwise the
+ * default. The default is set by the {@value #DEFAULT_PROPERTY} system property, or by {@link #setDefault}, and is
+ * {@link #COLLECT} if neither is used or the property is not recognised.
+ */
+public enum ParseErrorMode {
+    /**
+     * Every error is kept, and is available from the parsed stanza.
+     */
+    COLLECT,
+    /**
+     * Only the number of errors of each {@link ParseError.Code} is kept; the list of errors of the parsed stanza is
+     * always empty.
+     */
+    COUNT_ONLY,
+    /**
+     * The first error aborts the parse with a {@link ParseErrorException}.
+     */
+    FAIL_FAST;
+
+    static final String DEFAULT_PROPERTY = "com.bt.openlink.parseErrorMode";
+
+    private static final ScopedDefault<ParseErrorMode> SETTING = new ScopedDefault<>(ScopedDefault.getProperty(DEFAULT_PROPERTY, values(), COLLECT));
+
+    /**
+     * Sets the mode on the current thread until the returned scope is closed, e.g.
+     *
+     * <pre>
+     * try (ScopedDefault.Scope ignored = ParseErrorMode.FAIL_FAST.enter()) {
+     *     ...
+     * }
+     * </pre>
+     *
+     * @return the scope of the mode
+     */
+    @Nonnull
+    public ScopedDefault.Scope enter() {
+        return SETTING.enter(this);
+    }
+
+    /**
+     * @return the mode that applies to a stanza parsed on the current thread
+     */
+    @Nonnull
+    public static ParseErrorMode current() {
+        return SETTING.current();
+    }
+
+    @Nonnull
+    public static ParseErrorMode getDefault() {
+        return SETTING.getDefault();
+    }
+
+    /**
+     * @param mode
+     *            the mode that applies to threads that have not entered one of their own
+     */
+    public static void setDefault(@Nonnull final ParseErrorMode mode) {
+        SETTING.setDefault(mode);
+    }
+
+}
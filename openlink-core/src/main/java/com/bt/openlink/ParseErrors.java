@@ -0,0 +1,152 @@
+package com.bt.openlink;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * The errors found whilst parsing a stanza. This is a list of the error messages, so can be passed wherever a
+ * {@code List<String>} of errors is expected, but each message is only formatted when it is read. What is kept depends
+ * on the {@link ParseErrorMode} that applied when the list was created.
+ */
+public final class ParseErrors extends AbstractList<String> implements RandomAccess {
+
+    private static final ParseErrors NONE = new ParseErrors(ParseErrorMode.COLLECT, true);
+
+    @Nonnull private final ParseErrorMode mode;
+    private final boolean readOnly;
+    @Nonnull private final List<ParseError> errors;
+    @Nonnull private final int[] countsByCode = new int[ParseError.Code.values().length];
+    private int count;
+
+    private ParseErrors(@Nonnull final ParseErrorMode mode, final boolean readOnly) {
+        this.mode = mode;
+        this.readOnly = readOnly;
+        this.errors = mode == ParseErrorMode.COLLECT && !readOnly ? new ArrayList<>() : Collections.emptyList();
+    }
+
+    /**
+     * @return an empty list of errors that uses the {@link ParseErrorMode} of the current thread
+     */
+    @Nonnull
+    public static ParseErrors create() {
+        return new ParseErrors(ParseErrorMode.current(), false);
+    }
+
+    /**
+     * @return an empty list to which errors cannot be added
+     */
+    @Nonnull
+    public static ParseErrors none() {
+        return NONE;
+    }
+
+    /**
+     * @param parseErrors
+     *            the errors to copy
+     * @return the same errors if they are already {@code ParseErrors}, otherwise a new list containing each of the
+     *         messages
+     */
+    @Nonnull
+    public static ParseErrors copyOf(@Nullable final List<String> parseErrors) {
+        if (parseErrors instanceof ParseErrors) {
+            return (ParseErrors) parseErrors;
+        }
+        if (parseErrors == null || parseErrors.isEmpty()) {
+            return NONE;
+        }
+        final ParseErrors copy = new ParseErrors(ParseErrorMode.COLLECT, false);
+        copy.addAll(parseErrors);
+        return copy;
+    }
+
+    /**
+     * Reports an error, only formatting the message if the errors are not {@code ParseErrors}.
+     *
+     * @param parseErrors
+     *            the errors to add to
+     * @param code
+     *            the kind of error
+     * @param path
+     *            the name of the element or attribute that is in error, if known
+     * @param arguments
+     *            the arguments of the message template of the code
+     */
+    public static void report(@Nonnull final List<String> parseErrors, @Nonnull final ParseError.Code code, @Nullable final String path, @Nonnull final Object... arguments) {
+        if (parseErrors instanceof ParseErrors) {
+            ((ParseErrors) parseErrors).add(new ParseError(code, path, arguments));
+        } else {
+            parseErrors.add(new ParseError(code, path, arguments).getMessage());
+        }
+    }
+
+    /**
+     * @param parseError
+     *            the error to add
+     * @throws ParseErrorException
+     *             if the list was created with the {@link ParseErrorMode#FAIL_FAST} mode
+     */
+    public void add(@Nonnull final ParseError parseError) {
+        if (readOnly) {
+            throw new UnsupportedOperationException();
+        }
+        if (mode == ParseErrorMode.FAIL_FAST) {
+            throw new ParseErrorException(parseError);
+        }
+        count++;
+        countsByCode[parseError.getCode().ordinal()]++;
+        if (mode == ParseErrorMode.COLLECT) {
+            errors.add(parseError);
+        }
+    }
+
+    @Override
+    public boolean add(@Nonnull final String message) {
+        add(ParseError.of(message));
+        return true;
+    }
+
+    @Override
+    public String get(final int index) {
+        return errors.get(index).getMessage();
+    }
+
+    @Override
+    public int size() {
+        return errors.size();
+    }
+
+    /**
+     * @return the errors, unformatted
+     */
+    @Nonnull
+    public List<ParseError> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * @return the number of errors found, including those that were not kept
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @param code
+     *            the kind of error
+     * @return the number of errors of that kind found, including those that were not kept
+     */
+    public int getCount(@Nonnull final ParseError.Code code) {
+        return countsByCode[code.ordinal()];
+    }
+
+    @Nonnull
+    public ParseErrorMode getMode() {
+        return mode;
+    }
+}
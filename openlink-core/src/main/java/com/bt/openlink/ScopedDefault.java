@@ -0,0 +1,91 @@
+package com.bt.openlink;
+
+import java.util.logging.Logger;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A setting that has a default value, which can be overridden for the current thread until the {@link Scope} returned
+ * by {@link #enter} is closed. Used by {@link ValidationPolicy} and {@link ParseErrorMode}.
+ *
+ * @param <T>
+ *            the type of the setting
+ */
+public final class ScopedDefault<T> {
+
+    private static final Logger LOGGER = Logger.getLogger(ScopedDefault.class.getName());
+
+    @Nonnull private final ThreadLocal<T> threadValue = new ThreadLocal<>();
+    @Nonnull private volatile T defaultValue;
+
+    ScopedDefault(@Nonnull final T defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Reads the value of a setting from a system property, ignoring case and surrounding white space. A value that is
+     * not recognised is logged and ignored, so that a mistyped property cannot stop the setting from being used.
+     *
+     * @return the value named by the property, or the fallback if the property is not set or is not recognised
+     */
+    @Nonnull
+    static <E extends Enum<E>> E getProperty(@Nonnull final String property, @Nonnull final E[] values, @Nonnull final E fallback) {
+        final String name = System.getProperty(property);
+        if (name == null) {
+            return fallback;
+        }
+        for (final E value : values) {
+            if (value.name().equalsIgnoreCase(name.trim())) {
+                return value;
+            }
+        }
+        LOGGER.warning(() -> "Ignoring the unrecognised value '" + name + "' of the system property " + property + "; using " + fallback);
+        return fallback;
+    }
+
+    @Nonnull
+    Scope enter(@Nonnull final T value) {
+        final T previous = threadValue.get();
+        threadValue.set(value);
+        return new Scope(() -> {
+            if (previous == null) {
+                threadValue.remove();
+            } else {
+                threadValue.set(previous);
+            }
+        });
+    }
+
+    @Nonnull
+    T current() {
+        final T value = threadValue.get();
+        return value == null ? defaultValue : value;
+    }
+
+    @Nonnull
+    T getDefault() {
+        return defaultValue;
+    }
+
+    void setDefault(@Nonnull final T defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    /**
+     * Restores the value that applied to the thread before the scope was entered.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        @Nonnull private final Runnable restore;
+
+        private Scope(@Nonnull final Runnable restore) {
+            this.restore = restore;
+        }
+
+        @Override
+        public void close() {
+            restore.run();
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.bt.openlink;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Controls how much of a received stanza is validated as it is parsed. The policy applies wherever the errors of a
+ * stanza are collected rather than thrown, i.e. to {@code validate(List)} and so to a builder's {@code build(List)},
+ * including when a stanza is built in code that way. A stanza built with {@code build()} is always checked for its
+ * mandatory values, regardless of the policy.
+ * <p>
+ * The policy that applies to a parse is the one set for the current thread by {@link #enter()}, if any, otherwise the
+ * default. The default is set by the {@value #DEFAULT_PROPERTY} system property, or by {@link #setDefault}, and is
+ * {@link #FULL} if neither is used or the property is not recognised.
+ */
+public enum ValidationPolicy {
+    /**
+     * Every check is made; missing mandatory values, duplicate ids and calls that are on a different interest to the
+     * pub-sub node they are published to are all reported as parse errors.
+     */
+    FULL,
+    /**
+     * Only the cheap checks are made, i.e. that mandatory attributes and values are present. Checks that have to
+     * compare the items of a stanza with each other, such as for duplicate ids, are skipped.
+     */
+    STRUCTURAL,
+    /**
+     * No checks are made. Values that cannot be decoded are still reported as parse errors. Suitable only for stanzas
+     * from a trusted Openlink server.
+     */
+    NONE;
+
+    static final String DEFAULT_PROPERTY = "com.bt.openlink.validationPolicy";
+
+    private static final ScopedDefault<ValidationPolicy> SETTING = new ScopedDefault<>(ScopedDefault.getProperty(DEFAULT_PROPERTY, values(), FULL));
+
+    /**
+     * Sets the policy on the current thread until the returned scope is closed, e.g.
+     *
+     * <pre>
+     * try (ScopedDefault.Scope ignored = ValidationPolicy.NONE.enter()) {
+     *     ...
+     * }
+     * </pre>
+     *
+     * @return the scope of the policy
+     */
+    @Nonnull
+    public ScopedDefault.Scope enter() {
+        return SETTING.enter(this);
+    }
+
+    /**
+     * @return {@code true} if the mandatory attributes and values of a stanza are to be checked
+     */
+    public boolean checksStructure() {
+        return this != NONE;
+    }
+
+    /**
+     * @return {@code true} if the items of a stanza are to be checked against each other and the rest of the stanza
+     */
+    public boolean checksConsistency() {
+        return this == FULL;
+    }
+
+    /**
+     * @return the policy that applies to a stanza parsed on the current thread
+     */
+    @Nonnull
+    public static ValidationPolicy current() {
+        return SETTING.current();
+    }
+
+    @Nonnull
+    public static ValidationPolicy getDefault() {
+        return SETTING.getDefault();
+    }
+
+    /**
+     * @param policy
+     *            the policy that applies to threads that have not entered one of their own
+     */
+    public static void setDefault(@Nonnull final ValidationPolicy policy) {
+        SETTING.setDefault(policy);
+    }
+
+}
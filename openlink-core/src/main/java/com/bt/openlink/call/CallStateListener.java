@@ -0,0 +1,50 @@
+package com.bt.openlink.call;
+
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.Changed;
+
+/**
+ * Receives the changes made to a {@link CallStateStore}. Only real differences are reported; a call that is received
+ * again without any change does not result in a callback.
+ */
+public interface CallStateListener {
+
+    /**
+     * Called when a call is seen for the first time.
+     *
+     * @param call
+     *            the new call
+     */
+    default void onCallAdded(@Nonnull final Call call) {
+        // By default additions are ignored
+    }
+
+    /**
+     * Called when a call that is already known has changed.
+     *
+     * @param previousCall
+     *            the call as it was before the change
+     * @param call
+     *            the call as it is now
+     * @param changes
+     *            the aspects of the call that have changed; never empty
+     */
+    default void onCallChanged(@Nonnull final Call previousCall, @Nonnull final Call call, @Nonnull final Set<Changed> changes) {
+        // By default changes are ignored
+    }
+
+    /**
+     * Called when a call that is known has been cleared, and so is no longer held by the store.
+     *
+     * @param call
+     *            the call with a {@link com.bt.openlink.type.CallState#CONNECTION_CLEARED} state
+     */
+    default void onCallRemoved(@Nonnull final Call call) {
+        // By default removals are ignored
+    }
+
+}
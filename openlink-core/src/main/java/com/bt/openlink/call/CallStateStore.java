@@ -0,0 +1,224 @@
+package com.bt.openlink.call;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.CallStatus;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.Participant;
+
+/**
+ * Holds the current calls on each interest, updated incrementally from the calls in received call status events.
+ * Each incoming call is compared with the call already held and {@link CallStateListener listeners} are told only of
+ * the differences, described using {@link Changed} values. Calls that reach the
+ * {@link CallState#CONNECTION_CLEARED} state are dropped from the store.
+ * <p>
+ * Calls that have no interest id or no call id cannot be tracked and are ignored.
+ * <p>
+ * Listeners are notified after the store has been updated and its lock released, so a listener may safely query or
+ * update the store. The notifications are delivered one at a time, in the order the updates were applied, even when
+ * the store is updated from several threads; to keep that order, a thread that updates the store whilst another is
+ * notifying the listeners leaves its notifications to that thread, so they may be delivered after its update returns.
+ * An update made by a listener is notified once the notification that caused it has been delivered to every listener.
+ */
+public class CallStateStore {
+
+    @Nonnull private final Map<InterestId, Map<CallId, Call>> callsByInterest = new HashMap<>();
+    @Nonnull private final List<CallStateListener> listeners = new CopyOnWriteArrayList<>();
+    // The following are guarded by this
+    @Nonnull private final Queue<Consumer<CallStateListener>> pendingNotifications = new ArrayDeque<>();
+    private boolean notifying;
+
+    public void addListener(@Nonnull final CallStateListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@Nonnull final CallStateListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Applies every call in a call status to the store.
+     *
+     * @param callStatus
+     *            the call status to apply
+     */
+    public void update(@Nonnull final CallStatus callStatus) {
+        synchronized (this) {
+            callStatus.getCalls().forEach(this::apply);
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Applies a single call to the store, notifying the listeners of any difference it makes.
+     *
+     * @param call
+     *            the call to apply
+     */
+    public void update(@Nonnull final Call call) {
+        synchronized (this) {
+            apply(call);
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Applies a call whilst holding the lock, queueing the notifications so the listeners can be called once the lock
+     * is released.
+     */
+    private void apply(@Nonnull final Call call) {
+        final Optional<InterestId> interestId = call.getInterestId();
+        final Optional<CallId> callId = call.getId();
+        if (!interestId.isPresent() || !callId.isPresent()) {
+            return;
+        }
+
+        if (call.getState().orElse(null) == CallState.CONNECTION_CLEARED) {
+            final Map<CallId, Call> calls = callsByInterest.get(interestId.get());
+            if (calls != null && calls.remove(callId.get()) != null) {
+                if (calls.isEmpty()) {
+                    callsByInterest.remove(interestId.get());
+                }
+                pendingNotifications.add(listener -> listener.onCallRemoved(call));
+            }
+            return;
+        }
+
+        final Call previousCall = callsByInterest.computeIfAbsent(interestId.get(), id -> new LinkedHashMap<>()).put(callId.get(), call);
+        if (previousCall == null) {
+            pendingNotifications.add(listener -> listener.onCallAdded(call));
+        } else {
+            final Set<Changed> changes = getChanges(previousCall, call);
+            if (!changes.isEmpty()) {
+                final Set<Changed> unmodifiableChanges = Collections.unmodifiableSet(changes);
+                pendingNotifications.add(listener -> listener.onCallChanged(previousCall, call, unmodifiableChanges));
+            }
+        }
+    }
+
+    /**
+     * Delivers the queued notifications, unless another thread - or this one, further up the stack - is already
+     * delivering them.
+     */
+    private void notifyListeners() {
+        synchronized (this) {
+            if (notifying) {
+                return;
+            }
+            notifying = true;
+        }
+        try {
+            while (true) {
+                final Consumer<CallStateListener> notification;
+                synchronized (this) {
+                    notification = pendingNotifications.poll();
+                    if (notification == null) {
+                        notifying = false;
+                        return;
+                    }
+                }
+                listeners.forEach(notification);
+            }
+        } catch (final RuntimeException | Error e) {
+            synchronized (this) {
+                notifying = false;
+            }
+            throw e;
+        }
+    }
+
+    @Nonnull
+    public synchronized Optional<Call> getCall(@Nonnull final InterestId interestId, @Nonnull final CallId callId) {
+        final Map<CallId, Call> calls = callsByInterest.get(interestId);
+        return calls == null ? Optional.empty() : Optional.ofNullable(calls.get(callId));
+    }
+
+    /**
+     * @param interestId
+     *            the interest
+     * @return the current calls on the interest, in the order they were first seen
+     */
+    @Nonnull
+    public synchronized List<Call> getCalls(@Nonnull final InterestId interestId) {
+        final Map<CallId, Call> calls = callsByInterest.get(interestId);
+        return calls == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(calls.values()));
+    }
+
+    /**
+     * Compares two versions of the same call. Changes to the voice message and microphone cannot be determined by
+     * comparison, so are taken from the {@link Call#getChanged() changed} value of the new call.
+     */
+    @Nonnull
+    static Set<Changed> getChanges(@Nonnull final Call previousCall, @Nonnull final Call call) {
+        final Set<Changed> changes = EnumSet.noneOf(Changed.class);
+        if (!Objects.equals(previousCall.getState(), call.getState())) {
+            changes.add(Changed.STATE);
+        }
+        if (!Objects.equals(previousCall.getActions(), call.getActions())) {
+            changes.add(Changed.ACTIONS);
+        }
+        if (!participantsEqual(previousCall.getParticipants(), call.getParticipants())) {
+            changes.add(Changed.PARTICIPANT);
+        }
+        if (!Objects.equals(previousCall.getCallerNumber(), call.getCallerNumber())
+                || !Objects.equals(previousCall.getCallerName(), call.getCallerName())
+                || !Objects.equals(previousCall.getCallerE164Numbers(), call.getCallerE164Numbers())) {
+            changes.add(Changed.CALLER);
+        }
+        if (!Objects.equals(previousCall.getCalledNumber(), call.getCalledNumber())
+                || !Objects.equals(previousCall.getCalledName(), call.getCalledName())
+                || !Objects.equals(previousCall.getCalledDestination(), call.getCalledDestination())
+                || !Objects.equals(previousCall.getCalledE164Numbers(), call.getCalledE164Numbers())) {
+            changes.add(Changed.CALLED);
+        }
+        if (!Objects.equals(previousCall.isPrivate(), call.isPrivate())) {
+            changes.add(Changed.PRIVACY);
+        }
+        if (!Objects.equals(previousCall.getActiveHandset(), call.getActiveHandset())) {
+            changes.add(Changed.HANDSET);
+        }
+        call.getChanged()
+                .filter(changed -> changed == Changed.VOICE_MESSAGE || changed == Changed.MICROPHONE)
+                .ifPresent(changes::add);
+        return changes;
+    }
+
+    private static boolean participantsEqual(@Nonnull final List<Participant> previousParticipants, @Nonnull final List<Participant> participants) {
+        if (previousParticipants.size() != participants.size()) {
+            return false;
+        }
+        for (int i = 0; i < participants.size(); i++) {
+            final Participant previousParticipant = previousParticipants.get(i);
+            final Participant participant = participants.get(i);
+            if (!Objects.equals(previousParticipant.getJID(), participant.getJID())
+                    || !Objects.equals(previousParticipant.getNumber(), participant.getNumber())
+                    || !Objects.equals(previousParticipant.getDestinationNumber(), participant.getDestinationNumber())
+                    || !Objects.equals(previousParticipant.getType(), participant.getType())
+                    || !Objects.equals(previousParticipant.getParticipantCategory(), participant.getParticipantCategory())
+                    || !Objects.equals(previousParticipant.getDirection(), participant.getDirection())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,618 @@
+package com.bt.openlink.codec;
+
+import java.io.Serializable;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallFeature;
+import com.bt.openlink.type.CallFeatureBoolean;
+import com.bt.openlink.type.CallFeatureDeviceKey;
+import com.bt.openlink.type.CallFeatureHandset;
+import com.bt.openlink.type.CallFeatureSpeakerChannel;
+import com.bt.openlink.type.CallFeatureTextValue;
+import com.bt.openlink.type.CallFeatureVoiceRecorder;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.CallStatus;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.ConferenceId;
+import com.bt.openlink.type.DeviceId;
+import com.bt.openlink.type.DeviceKey;
+import com.bt.openlink.type.DeviceType;
+import com.bt.openlink.type.Feature;
+import com.bt.openlink.type.FeatureId;
+import com.bt.openlink.type.FeatureType;
+import com.bt.openlink.type.HistoricalCall;
+import com.bt.openlink.type.Interest;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.InterestType;
+import com.bt.openlink.type.Key;
+import com.bt.openlink.type.KeyColor;
+import com.bt.openlink.type.KeyFunction;
+import com.bt.openlink.type.KeyId;
+import com.bt.openlink.type.KeyInterest;
+import com.bt.openlink.type.KeyLabel;
+import com.bt.openlink.type.KeyModifier;
+import com.bt.openlink.type.KeyPage;
+import com.bt.openlink.type.KeyPageId;
+import com.bt.openlink.type.KeyPageLabel;
+import com.bt.openlink.type.KeyPageLocalKeyPage;
+import com.bt.openlink.type.KeyPageModule;
+import com.bt.openlink.type.KeyQualifier;
+import com.bt.openlink.type.OriginatorReference;
+import com.bt.openlink.type.Participant;
+import com.bt.openlink.type.ParticipantCategory;
+import com.bt.openlink.type.ParticipantType;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.Profile;
+import com.bt.openlink.type.ProfileId;
+import com.bt.openlink.type.RecorderChannel;
+import com.bt.openlink.type.RecorderNumber;
+import com.bt.openlink.type.RecorderPort;
+import com.bt.openlink.type.RecorderType;
+import com.bt.openlink.type.RequestAction;
+import com.bt.openlink.type.Site;
+import com.bt.openlink.type.TelephonyCallId;
+import com.bt.openlink.type.UserId;
+import com.bt.openlink.type.VoiceRecorderInfo;
+
+/**
+ * A compact binary encoding of calls, call statuses, profiles, interests and historical calls, for replicating them
+ * between processes or caching them. It is several times smaller and faster than Java serialization.
+ * <p>
+ * Each encoding starts with the {@link #VERSION} of the format and the kind of value encoded. Numbers are written as
+ * variable length integers, enum constants by ordinal, and each string only once per encoding, with any repeat - such
+ * as a site name or interest id shared by every call of a call status - written as a reference to the first. Values
+ * are decoded exactly as they were encoded, even if they would not pass validation.
+ * <p>
+ * As enum constants are written by ordinal, new constants must only ever be added to the end of an enum; any other
+ * change to an encoded type requires a new version of the format.
+ */
+public final class BinaryCodec {
+
+    /**
+     * The version of the format written by this codec. Encodings of this or any earlier version can be decoded.
+     */
+    public static final int VERSION = 1;
+
+    private static final int KIND_CALL = 1;
+    private static final int KIND_CALL_STATUS = 2;
+    private static final int KIND_PROFILE = 3;
+    private static final int KIND_INTEREST = 4;
+    private static final int KIND_HISTORICAL_CALL = 5;
+
+    private static final int FEATURE_BOOLEAN = 1;
+    private static final int FEATURE_HANDSET = 2;
+    private static final int FEATURE_SPEAKER_CHANNEL = 3;
+    private static final int FEATURE_DEVICE_KEY = 4;
+    private static final int FEATURE_TEXT_VALUE = 5;
+    private static final int FEATURE_VOICE_RECORDER = 6;
+
+    private static final CallState[] CALL_STATES = CallState.values();
+    private static final CallDirection[] CALL_DIRECTIONS = CallDirection.values();
+    private static final Changed[] CHANGES = Changed.values();
+    private static final FeatureType[] FEATURE_TYPES = FeatureType.values();
+    private static final ParticipantType[] PARTICIPANT_TYPES = ParticipantType.values();
+    private static final ParticipantCategory[] PARTICIPANT_CATEGORIES = ParticipantCategory.values();
+    private static final RequestAction[] REQUEST_ACTIONS = RequestAction.values();
+    private static final Site.Type[] SITE_TYPES = Site.Type.values();
+
+    private BinaryCodec() {
+    }
+
+    @Nonnull
+    public static byte[] encode(@Nonnull final Call call) {
+        final BinaryWriter writer = startEncoding(KIND_CALL);
+        writeCall(writer, call);
+        return writer.toByteArray();
+    }
+
+    @Nonnull
+    public static byte[] encode(@Nonnull final CallStatus callStatus) {
+        final BinaryWriter writer = startEncoding(KIND_CALL_STATUS);
+        writeCallStatus(writer, callStatus);
+        return writer.toByteArray();
+    }
+
+    @Nonnull
+    public static byte[] encode(@Nonnull final Profile profile) {
+        final BinaryWriter writer = startEncoding(KIND_PROFILE);
+        writeProfile(writer, profile);
+        return writer.toByteArray();
+    }
+
+    @Nonnull
+    public static byte[] encode(@Nonnull final Interest interest) {
+        final BinaryWriter writer = startEncoding(KIND_INTEREST);
+        writeInterest(writer, interest);
+        return writer.toByteArray();
+    }
+
+    /**
+     * @param historicalCall
+     *            the call to encode
+     * @param tscEncoder
+     *            converts the TSC of the call to a string, e.g. {@code Jid::toString}
+     * @param <J>
+     *            the type of the TSC
+     * @return the encoded call
+     */
+    @Nonnull
+    public static <J extends Serializable> byte[] encode(@Nonnull final HistoricalCall<J> historicalCall, @Nonnull final Function<? super J, String> tscEncoder) {
+        final BinaryWriter writer = startEncoding(KIND_HISTORICAL_CALL);
+        writer.writeType(historicalCall.getId().orElse(null));
+        writer.writeType(historicalCall.getUserId().orElse(null));
+        writer.writeType(historicalCall.getInterestId().orElse(null));
+        writer.writeEnum(historicalCall.getState().orElse(null));
+        writer.writeEnum(historicalCall.getDirection().orElse(null));
+        writer.writeType(historicalCall.getCallerNumber().orElse(null));
+        writer.writeString(historicalCall.getCallerName().orElse(null));
+        writer.writeType(historicalCall.getCalledNumber().orElse(null));
+        writer.writeString(historicalCall.getCalledName().orElse(null));
+        writer.writeInstant(historicalCall.getStartTime().orElse(null));
+        writer.writeDuration(historicalCall.getDuration().orElse(null));
+        writer.writeString(historicalCall.getTsc().map(tscEncoder).orElse(null));
+        return writer.toByteArray();
+    }
+
+    /**
+     * @param bytes
+     *            the encoded call
+     * @return the decoded call
+     * @throws IllegalArgumentException
+     *             if the bytes are not an encoded call
+     */
+    @Nonnull
+    public static Call decodeCall(@Nonnull final byte[] bytes) {
+        final BinaryReader reader = startDecoding(bytes, KIND_CALL);
+        final Call call = readCall(reader);
+        reader.checkFullyRead();
+        return call;
+    }
+
+    /**
+     * @param bytes
+     *            the encoded call status
+     * @return the decoded call status
+     * @throws IllegalArgumentException
+     *             if the bytes are not an encoded call status
+     */
+    @Nonnull
+    public static CallStatus decodeCallStatus(@Nonnull final byte[] bytes) {
+        final BinaryReader reader = startDecoding(bytes, KIND_CALL_STATUS);
+        final CallStatus callStatus = readCallStatus(reader);
+        reader.checkFullyRead();
+        return callStatus;
+    }
+
+    /**
+     * @param bytes
+     *            the encoded profile
+     * @return the decoded profile
+     * @throws IllegalArgumentException
+     *             if the bytes are not an encoded profile
+     */
+    @Nonnull
+    public static Profile decodeProfile(@Nonnull final byte[] bytes) {
+        final BinaryReader reader = startDecoding(bytes, KIND_PROFILE);
+        final Profile profile = readProfile(reader);
+        reader.checkFullyRead();
+        return profile;
+    }
+
+    /**
+     * @param bytes
+     *            the encoded interest
+     * @return the decoded interest
+     * @throws IllegalArgumentException
+     *             if the bytes are not an encoded interest
+     */
+    @Nonnull
+    public static Interest decodeInterest(@Nonnull final byte[] bytes) {
+        final BinaryReader reader = startDecoding(bytes, KIND_INTEREST);
+        final Interest interest = readInterest(reader);
+        reader.checkFullyRead();
+        return interest;
+    }
+
+    /**
+     * @param bytes
+     *            the encoded call
+     * @param tscDecoder
+     *            converts the string written by the TSC encoder back to a TSC
+     * @param <J>
+     *            the type of the TSC
+     * @return the decoded call
+     * @throws IllegalArgumentException
+     *             if the bytes are not an encoded historical call
+     */
+    @Nonnull
+    public static <J extends Serializable> HistoricalCall<J> decodeHistoricalCall(@Nonnull final byte[] bytes, @Nonnull final Function<String, ? extends J> tscDecoder) {
+        final BinaryReader reader = startDecoding(bytes, KIND_HISTORICAL_CALL);
+        final HistoricalCall.Builder<J> builder = HistoricalCall.Builder.start();
+        reader.readType(CallId::from, builder::setId);
+        reader.readType(UserId::from, builder::setUserId);
+        reader.readType(InterestId::from, builder::setInterestId);
+        reader.readEnum(CALL_STATES, builder::setState);
+        reader.readEnum(CALL_DIRECTIONS, builder::setDirection);
+        reader.readType(PhoneNumber::from, builder::setCallerNumber);
+        reader.readString(builder::setCallerName);
+        reader.readType(PhoneNumber::from, builder::setCalledNumber);
+        reader.readString(builder::setCalledName);
+        reader.readInstant(builder::setStartTime);
+        reader.readDuration(builder::setDuration);
+        reader.readString(tsc -> builder.setTsc(tscDecoder.apply(tsc)));
+        reader.checkFullyRead();
+        return builder.build(reader.buildErrors());
+    }
+
+    @Nonnull
+    private static BinaryWriter startEncoding(final int kind) {
+        final BinaryWriter writer = new BinaryWriter();
+        writer.writeVarLong(VERSION);
+        writer.writeVarLong(kind);
+        return writer;
+    }
+
+    @Nonnull
+    private static BinaryReader startDecoding(@Nonnull final byte[] bytes, final int expectedKind) {
+        final BinaryReader reader = new BinaryReader(bytes);
+        final long version = reader.readVarLong();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Invalid encoding; unsupported version " + version);
+        }
+        final long kind = reader.readVarLong();
+        if (kind != expectedKind) {
+            throw new IllegalArgumentException("Invalid encoding; expected kind " + expectedKind + " but was " + kind);
+        }
+        return reader;
+    }
+
+    private static void writeCallStatus(@Nonnull final BinaryWriter writer, @Nonnull final CallStatus callStatus) {
+        writer.writeBoolean(callStatus.isCallStatusBusy().orElse(null));
+        writer.writeType(callStatus.getCallForward().orElse(null));
+        writer.writeList(callStatus.getCalls(), BinaryCodec::writeCall);
+    }
+
+    @Nonnull
+    private static CallStatus readCallStatus(@Nonnull final BinaryReader reader) {
+        final CallStatus.Builder builder = CallStatus.Builder.start();
+        reader.readBoolean(builder::setCallStatusBusy);
+        reader.readType(PhoneNumber::from, builder::setCallForward);
+        reader.readList(BinaryCodec::readCall, builder::addCall);
+        return builder.build(reader.buildErrors());
+    }
+
+    private static void writeCall(@Nonnull final BinaryWriter writer, @Nonnull final Call call) {
+        writer.writeType(call.getId().orElse(null));
+        writer.writeType(call.getTelephonyCallId().orElse(null));
+        writer.writeType(call.getConferenceId().orElse(null));
+        writeSite(writer, call.getSite().orElse(null));
+        writer.writeType(call.getProfileId().orElse(null));
+        writer.writeType(call.getDeviceId().orElse(null));
+        writer.writeType(call.getUserId().orElse(null));
+        writer.writeType(call.getInterestId().orElse(null));
+        writer.writeEnum(call.getChanged().orElse(null));
+        writer.writeEnum(call.getState().orElse(null));
+        writer.writeEnum(call.getDirection().orElse(null));
+        writer.writeType(call.getCallerNumber().orElse(null));
+        writer.writeString(call.getCallerName().orElse(null));
+        writer.writeList(call.getCallerE164Numbers(), BinaryWriter::writeType);
+        writer.writeType(call.getCalledNumber().orElse(null));
+        writer.writeString(call.getCalledName().orElse(null));
+        writer.writeType(call.getCalledDestination().orElse(null));
+        writer.writeList(call.getCalledE164Numbers(), BinaryWriter::writeType);
+        writer.writeList(call.getOriginatorReferences(), (w, originatorReference) -> {
+            w.writeString(originatorReference.getKey());
+            w.writeString(originatorReference.getValue());
+        });
+        writer.writeInstant(call.getStartTime().orElse(null));
+        writer.writeDuration(call.getDuration().orElse(null));
+        writer.writeList(call.getActions(), BinaryWriter::writeEnum);
+        writer.writeList(call.getFeatures(), BinaryCodec::writeCallFeature);
+        writer.writeList(call.getParticipants(), BinaryCodec::writeParticipant);
+    }
+
+    @Nonnull
+    private static Call readCall(@Nonnull final BinaryReader reader) {
+        final Call.Builder builder = Call.Builder.start();
+        reader.readType(CallId::from, builder::setId);
+        reader.readType(TelephonyCallId::from, builder::setTelephonyCallId);
+        reader.readType(ConferenceId::from, builder::setConferenceId);
+        final Site site = readSite(reader);
+        if (site != null) {
+            builder.setSite(site);
+        }
+        reader.readType(ProfileId::from, builder::setProfileId);
+        reader.readType(DeviceId::from, builder::setDeviceId);
+        reader.readType(UserId::from, builder::setUserId);
+        reader.readType(InterestId::from, builder::setInterestId);
+        reader.readEnum(CHANGES, builder::setChanged);
+        reader.readEnum(CALL_STATES, builder::setState);
+        reader.readEnum(CALL_DIRECTIONS, builder::setDirection);
+        reader.readType(PhoneNumber::from, builder::setCallerNumber);
+        reader.readString(builder::setCallerName);
+        reader.readList(r -> r.readType(PhoneNumber::from), builder::addCallerE164Number);
+        reader.readType(PhoneNumber::from, builder::setCalledNumber);
+        reader.readString(builder::setCalledName);
+        reader.readType(PhoneNumber::from, builder::setCalledDestination);
+        reader.readList(r -> r.readType(PhoneNumber::from), builder::addCalledE164Number);
+        reader.readList(r -> new OriginatorReference(r.readRequiredString("originator reference key"), r.readRequiredString("originator reference value")), builder::addOriginatorReference);
+        reader.readInstant(builder::setStartTime);
+        reader.readDuration(builder::setDuration);
+        reader.readList(r -> r.readEnum(REQUEST_ACTIONS), builder::addAction);
+        reader.readList(BinaryCodec::readCallFeature, builder::addFeature);
+        reader.readList(BinaryCodec::readParticipant, builder::addParticipant);
+        return builder.build(reader.buildErrors());
+    }
+
+    private static void writeSite(@Nonnull final BinaryWriter writer, @Nullable final Site site) {
+        if (site == null) {
+            writer.writeVarLong(0);
+            return;
+        }
+        writer.writeVarLong(1);
+        writer.writeLong(site.getId().orElse(null));
+        writer.writeBoolean(site.isDefault().orElse(null));
+        writer.writeEnum(site.getType().orElse(null));
+        writer.writeString(site.getName().orElse(null));
+    }
+
+    @Nullable
+    private static Site readSite(@Nonnull final BinaryReader reader) {
+        if (reader.readVarLong() == 0) {
+            return null;
+        }
+        final Site.Builder builder = Site.Builder.start();
+        reader.readLong(builder::setId);
+        reader.readBoolean(builder::setDefault);
+        reader.readEnum(SITE_TYPES, builder::setType);
+        reader.readString(builder::setName);
+        return builder.build(reader.buildErrors());
+    }
+
+    private static void writeCallFeature(@Nonnull final BinaryWriter writer, @Nonnull final CallFeature feature) {
+        final Class<?> featureClass = feature.getClass();
+        if (featureClass == CallFeatureBoolean.class) {
+            writeFeature(writer, FEATURE_BOOLEAN, feature);
+            writer.writeBoolean(((CallFeatureBoolean) feature).isEnabled().orElse(null));
+        } else if (featureClass == CallFeatureHandset.class) {
+            final CallFeatureHandset handset = (CallFeatureHandset) feature;
+            writeFeature(writer, FEATURE_HANDSET, feature);
+            writer.writeBoolean(handset.isEnabled().orElse(null));
+            writer.writeBoolean(handset.isMicrophoneEnabled().orElse(null));
+        } else if (featureClass == CallFeatureSpeakerChannel.class) {
+            final CallFeatureSpeakerChannel speakerChannel = (CallFeatureSpeakerChannel) feature;
+            writeFeature(writer, FEATURE_SPEAKER_CHANNEL, feature);
+            writer.writeLong(speakerChannel.getChannel().orElse(null));
+            writer.writeBoolean(speakerChannel.isMicrophoneActive().orElse(null));
+            writer.writeBoolean(speakerChannel.isMuteRequested().orElse(null));
+        } else if (featureClass == CallFeatureDeviceKey.class) {
+            writeFeature(writer, FEATURE_DEVICE_KEY, feature);
+            writer.writeList(((CallFeatureDeviceKey) feature).getDeviceKeys(), BinaryWriter::writeType);
+        } else if (featureClass == CallFeatureTextValue.class) {
+            writeFeature(writer, FEATURE_TEXT_VALUE, feature);
+            writer.writeString(((CallFeatureTextValue) feature).getValue().orElse(null));
+        } else if (featureClass == CallFeatureVoiceRecorder.class) {
+            writeFeature(writer, FEATURE_VOICE_RECORDER, feature);
+            writeVoiceRecorderInfo(writer, ((CallFeatureVoiceRecorder) feature).getVoiceRecorderInfo().orElse(null));
+        } else {
+            throw new IllegalArgumentException("Unable to encode a call feature of type " + featureClass.getName());
+        }
+    }
+
+    private static void writeFeature(@Nonnull final BinaryWriter writer, final int kind, @Nonnull final Feature feature) {
+        writer.writeVarLong(kind);
+        writer.writeType(feature.getId().orElse(null));
+        writer.writeEnum(feature.getType().orElse(null));
+        writer.writeString(feature.getLabel().orElse(null));
+    }
+
+    @Nonnull
+    private static CallFeature readCallFeature(@Nonnull final BinaryReader reader) {
+        final int kind = reader.readVarInt();
+        switch (kind) {
+        case FEATURE_BOOLEAN:
+            final CallFeatureBoolean.Builder booleanBuilder = readFeature(reader, CallFeatureBoolean.Builder.start());
+            reader.readBoolean(booleanBuilder::setEnabled);
+            return booleanBuilder.build(reader.buildErrors());
+        case FEATURE_HANDSET:
+            final CallFeatureHandset.Builder handsetBuilder = readFeature(reader, CallFeatureHandset.Builder.start());
+            reader.readBoolean(handsetBuilder::setEnabled);
+            reader.readBoolean(handsetBuilder::setMicrophoneEnabled);
+            return handsetBuilder.build(reader.buildErrors());
+        case FEATURE_SPEAKER_CHANNEL:
+            final CallFeatureSpeakerChannel.Builder speakerChannelBuilder = readFeature(reader, CallFeatureSpeakerChannel.Builder.start());
+            reader.readLong(speakerChannelBuilder::setChannel);
+            reader.readBoolean(speakerChannelBuilder::setMicrophoneActive);
+            reader.readBoolean(speakerChannelBuilder::setMuteRequested);
+            return speakerChannelBuilder.build(reader.buildErrors());
+        case FEATURE_DEVICE_KEY:
+            final CallFeatureDeviceKey.Builder deviceKeyBuilder = readFeature(reader, CallFeatureDeviceKey.Builder.start());
+            reader.readList(r -> r.readType(DeviceKey::from), deviceKeyBuilder::addDeviceKey);
+            return deviceKeyBuilder.build(reader.buildErrors());
+        case FEATURE_TEXT_VALUE:
+            final CallFeatureTextValue.Builder textValueBuilder = readFeature(reader, CallFeatureTextValue.Builder.start());
+            reader.readString(textValueBuilder::setValue);
+            return textValueBuilder.build(reader.buildErrors());
+        case FEATURE_VOICE_RECORDER:
+            final CallFeatureVoiceRecorder.Builder voiceRecorderBuilder = readFeature(reader, CallFeatureVoiceRecorder.Builder.start());
+            final VoiceRecorderInfo voiceRecorderInfo = readVoiceRecorderInfo(reader);
+            if (voiceRecorderInfo != null) {
+                voiceRecorderBuilder.setVoiceRecorderInfo(voiceRecorderInfo);
+            }
+            return voiceRecorderBuilder.build(reader.buildErrors());
+        default:
+            throw new IllegalArgumentException("Invalid encoding; unknown call feature kind " + kind);
+        }
+    }
+
+    @Nonnull
+    private static <B extends Feature.AbstractFeatureBuilder<B>> B readFeature(@Nonnull final BinaryReader reader, @Nonnull final B builder) {
+        reader.readType(FeatureId::from, builder::setId);
+        reader.readEnum(FEATURE_TYPES, builder::setType);
+        reader.readString(builder::setLabel);
+        return builder;
+    }
+
+    private static void writeVoiceRecorderInfo(@Nonnull final BinaryWriter writer, @Nullable final VoiceRecorderInfo voiceRecorderInfo) {
+        if (voiceRecorderInfo == null) {
+            writer.writeVarLong(0);
+            return;
+        }
+        writer.writeVarLong(1);
+        writer.writeType(voiceRecorderInfo.getRecorderNumber().orElse(null));
+        writer.writeType(voiceRecorderInfo.getRecorderPort().orElse(null));
+        writer.writeType(voiceRecorderInfo.getRecorderChannel().orElse(null));
+        writer.writeType(voiceRecorderInfo.getRecorderType().orElse(null));
+    }
+
+    @Nullable
+    private static VoiceRecorderInfo readVoiceRecorderInfo(@Nonnull final BinaryReader reader) {
+        if (reader.readVarLong() == 0) {
+            return null;
+        }
+        final VoiceRecorderInfo.Builder builder = VoiceRecorderInfo.Builder.start();
+        reader.readType(RecorderNumber::from, builder::setRecorderNumber);
+        reader.readType(RecorderPort::from, builder::setRecorderPort);
+        reader.readType(RecorderChannel::from, builder::setRecorderChannel);
+        reader.readType(RecorderType::from, builder::setRecorderType);
+        return builder.build(reader.buildErrors());
+    }
+
+    private static void writeParticipant(@Nonnull final BinaryWriter writer, @Nonnull final Participant participant) {
+        writer.writeString(participant.getJID().orElse(null));
+        writer.writeType(participant.getNumber().orElse(null));
+        writer.writeList(participant.getE164Numbers(), BinaryWriter::writeType);
+        writer.writeType(participant.getDestinationNumber().orElse(null));
+        writer.writeEnum(participant.getType().orElse(null));
+        writer.writeEnum(participant.getParticipantCategory().orElse(null));
+        writer.writeEnum(participant.getDirection().orElse(null));
+        writer.writeInstant(participant.getStartTime().orElse(null));
+        writer.writeDuration(participant.getDuration().orElse(null));
+    }
+
+    @Nonnull
+    private static Participant readParticipant(@Nonnull final BinaryReader reader) {
+        final Participant.Builder builder = Participant.Builder.start();
+        reader.readString(builder::setJID);
+        reader.readType(PhoneNumber::from, builder::setNumber);
+        reader.readList(r -> r.readType(PhoneNumber::from), builder::addE164Number);
+        reader.readType(PhoneNumber::from, builder::setDestinationNumber);
+        reader.readEnum(PARTICIPANT_TYPES, builder::setType);
+        reader.readEnum(PARTICIPANT_CATEGORIES, builder::setParticipantCategory);
+        reader.readEnum(CALL_DIRECTIONS, builder::setDirection);
+        reader.readInstant(builder::setStartTime);
+        reader.readDuration(builder::setDuration);
+        return builder.build(reader.buildErrors());
+    }
+
+    private static void writeProfile(@Nonnull final BinaryWriter writer, @Nonnull final Profile profile) {
+        writer.writeType(profile.getId().orElse(null));
+        writer.writeBoolean(profile.isDefaultProfile().orElse(null));
+        writer.writeType(profile.getDeviceType().orElse(null));
+        writer.writeType(profile.getDeviceId().orElse(null));
+        writer.writeString(profile.getLabel().orElse(null));
+        writer.writeBoolean(profile.isOnline().orElse(null));
+        writeSite(writer, profile.getSite().orElse(null));
+        writer.writeList(profile.getActions(), BinaryWriter::writeEnum);
+        writer.writeList(profile.getKeyPages(), BinaryCodec::writeKeyPage);
+    }
+
+    @Nonnull
+    private static Profile readProfile(@Nonnull final BinaryReader reader) {
+        final Profile.Builder builder = Profile.Builder.start();
+        reader.readType(ProfileId::from, builder::setId);
+        reader.readBoolean(builder::setDefault);
+        reader.readType(DeviceType::from, builder::setDeviceType);
+        reader.readType(DeviceId::from, builder::setDeviceId);
+        reader.readString(builder::setLabel);
+        reader.readBoolean(builder::setOnline);
+        final Site site = readSite(reader);
+        if (site != null) {
+            builder.setSite(site);
+        }
+        reader.readList(r -> r.readEnum(REQUEST_ACTIONS), builder::addAction);
+        reader.readList(BinaryCodec::readKeyPage, builder::addKeyPage);
+        return builder.build(reader.buildErrors());
+    }
+
+    private static void writeKeyPage(@Nonnull final BinaryWriter writer, @Nonnull final KeyPage keyPage) {
+        writer.writeType(keyPage.getKeyPageId().orElse(null));
+        writer.writeType(keyPage.getKeyPageLabel().orElse(null));
+        writer.writeType(keyPage.getKeyPageModule().orElse(null));
+        writer.writeType(keyPage.getLocalKeyPage().orElse(null));
+        writer.writeList(keyPage.getKeys(), BinaryCodec::writeKey);
+    }
+
+    @Nonnull
+    private static KeyPage readKeyPage(@Nonnull final BinaryReader reader) {
+        final KeyPage.Builder builder = KeyPage.Builder.start();
+        reader.readType(KeyPageId::from, builder::setkeypageId);
+        reader.readType(KeyPageLabel::from, builder::setKeypageLabel);
+        reader.readType(KeyPageModule::from, builder::setKeypageModule);
+        reader.readType(KeyPageLocalKeyPage::from, builder::setLocalKeypage);
+        reader.readList(BinaryCodec::readKey, builder::addKey);
+        return builder.build(reader.buildErrors());
+    }
+
+    private static void writeKey(@Nonnull final BinaryWriter writer, @Nonnull final Key key) {
+        writer.writeType(key.getId().orElse(null));
+        writer.writeType(key.getLabel().orElse(null));
+        writer.writeType(key.getFunction().orElse(null));
+        writer.writeType(key.getModifier().orElse(null));
+        writer.writeType(key.getQualifier().orElse(null));
+        writer.writeType(key.getColor().orElse(null));
+        writer.writeType(key.getInterest().orElse(null));
+    }
+
+    @Nonnull
+    private static Key readKey(@Nonnull final BinaryReader reader) {
+        final Key.Builder builder = Key.Builder.start();
+        reader.readType(KeyId::from, builder::setId);
+        reader.readType(KeyLabel::from, builder::setLabel);
+        reader.readType(KeyFunction::from, builder::setFunction);
+        reader.readType(KeyModifier::from, builder::setModifier);
+        reader.readType(KeyQualifier::from, builder::setQualifier);
+        reader.readType(KeyColor::from, builder::setColor);
+        reader.readType(KeyInterest::from, builder::setInterest);
+        return builder.build(reader.buildErrors());
+    }
+
+    private static void writeInterest(@Nonnull final BinaryWriter writer, @Nonnull final Interest interest) {
+        writer.writeType(interest.getId().orElse(null));
+        writer.writeType(interest.getType().orElse(null));
+        writer.writeString(interest.getLabel().orElse(null));
+        writer.writeBoolean(interest.isDefaultInterest().orElse(null));
+        if (interest.getCallStatus().isPresent()) {
+            writer.writeVarLong(1);
+            writeCallStatus(writer, interest.getCallStatus().get());
+        } else {
+            writer.writeVarLong(0);
+        }
+        writer.writeLong(interest.getMaxCalls().map(Integer::longValue).orElse(null));
+        writer.writeType(interest.getNumber().orElse(null));
+        writer.writeType(interest.getCallForward().orElse(null));
+    }
+
+    @Nonnull
+    private static Interest readInterest(@Nonnull final BinaryReader reader) {
+        final Interest.Builder builder = Interest.Builder.start();
+        reader.readType(InterestId::from, builder::setId);
+        reader.readType(InterestType::from, builder::setType);
+        reader.readString(builder::setLabel);
+        reader.readBoolean(builder::setDefault);
+        if (reader.readVarLong() != 0) {
+            builder.setCallStatus(readCallStatus(reader));
+        }
+        reader.readLong(maxCalls -> builder.setMaxCalls(Math.toIntExact(maxCalls)));
+        reader.readType(PhoneNumber::from, builder::setNumber);
+        reader.readType(PhoneNumber::from, builder::setCallForward);
+        return builder.build(reader.buildErrors());
+    }
+
+}
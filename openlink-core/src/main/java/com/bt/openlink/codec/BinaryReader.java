@@ -0,0 +1,188 @@
+package com.bt.openlink.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Reads the primitive values written by a {@link BinaryWriter}.
+ */
+final class BinaryReader {
+
+    @Nonnull private final byte[] buffer;
+    private int position;
+    @Nonnull private final List<String> stringTable = new ArrayList<>();
+    /**
+     * The errors of the builders of decoded values, which are discarded; a value is decoded exactly as it was encoded,
+     * even if it was incomplete
+     */
+    @Nonnull private final List<String> buildErrors = new ArrayList<>();
+
+    BinaryReader(@Nonnull final byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position >= buffer.length) {
+                throw new IllegalArgumentException("Invalid encoding; unexpected end of data");
+            }
+            final byte b = buffer[position++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Invalid encoding; malformed varint at offset " + position);
+    }
+
+    int readVarInt() {
+        final long value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid encoding; value " + value + " is out of range");
+        }
+        return (int) value;
+    }
+
+    long readSignedVarLong() {
+        final long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Nullable
+    Long readLong() {
+        return readVarLong() == 0 ? null : readSignedVarLong();
+    }
+
+    void readLong(@Nonnull final Consumer<Long> setter) {
+        final Long value = readLong();
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    void readBoolean(@Nonnull final Consumer<Boolean> setter) {
+        final long value = readVarLong();
+        if (value > 2) {
+            throw new IllegalArgumentException("Invalid encoding; invalid boolean " + value);
+        }
+        if (value != 0) {
+            setter.accept(value == 2);
+        }
+    }
+
+    @Nullable
+    <E extends Enum<E>> E readEnum(@Nonnull final E[] values) {
+        final int value = readVarInt();
+        if (value == 0) {
+            return null;
+        }
+        if (value > values.length) {
+            throw new IllegalArgumentException("Invalid encoding; unknown " + values.getClass().getComponentType().getSimpleName() + ' ' + (value - 1));
+        }
+        return values[value - 1];
+    }
+
+    <E extends Enum<E>> void readEnum(@Nonnull final E[] values, @Nonnull final Consumer<E> setter) {
+        final E value = readEnum(values);
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    @Nullable
+    String readString() {
+        final int marker = readVarInt();
+        if (marker == 0) {
+            return null;
+        }
+        if (marker > 1) {
+            if (marker - 2 >= stringTable.size()) {
+                throw new IllegalArgumentException("Invalid encoding; unknown string reference " + (marker - 2));
+            }
+            return stringTable.get(marker - 2);
+        }
+        final int length = readVarInt();
+        if (length > buffer.length - position) {
+            throw new IllegalArgumentException("Invalid encoding; unexpected end of data");
+        }
+        final String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        stringTable.add(value);
+        return value;
+    }
+
+    void readString(@Nonnull final Consumer<String> setter) {
+        final String value = readString();
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    @Nonnull
+    String readRequiredString(@Nonnull final String description) {
+        final String value = readString();
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid encoding; missing " + description);
+        }
+        return value;
+    }
+
+    @Nullable
+    <T> T readType(@Nonnull final Function<String, Optional<T>> factory) {
+        final String value = readString();
+        return value == null ? null : factory.apply(value).orElse(null);
+    }
+
+    <T> void readType(@Nonnull final Function<String, Optional<T>> factory, @Nonnull final Consumer<T> setter) {
+        final T value = readType(factory);
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    void readInstant(@Nonnull final Consumer<Instant> setter) {
+        if (readVarLong() != 0) {
+            final long seconds = readSignedVarLong();
+            setter.accept(Instant.ofEpochSecond(seconds, readVarInt()));
+        }
+    }
+
+    void readDuration(@Nonnull final Consumer<Duration> setter) {
+        if (readVarLong() != 0) {
+            final long seconds = readSignedVarLong();
+            setter.accept(Duration.ofSeconds(seconds, readVarInt()));
+        }
+    }
+
+    <T> void readList(@Nonnull final Function<BinaryReader, T> elementReader, @Nonnull final Consumer<T> adder) {
+        final int size = readVarInt();
+        for (int i = 0; i < size; i++) {
+            final T element = elementReader.apply(this);
+            if (element != null) {
+                adder.accept(element);
+            }
+        }
+    }
+
+    @Nonnull
+    List<String> buildErrors() {
+        buildErrors.clear();
+        return buildErrors;
+    }
+
+    void checkFullyRead() {
+        if (position != buffer.length) {
+            throw new IllegalArgumentException("Invalid encoding; " + (buffer.length - position) + " unexpected trailing bytes");
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.bt.openlink.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.AbstractType;
+
+/**
+ * Writes the primitive values of the binary encoding. Each nullable value carries its own absent marker, so fields
+ * that are not set cost a single byte.
+ */
+final class BinaryWriter {
+
+    @Nonnull private byte[] buffer = new byte[256];
+    private int position;
+    @Nonnull private final Map<String, Integer> stringTable = new HashMap<>();
+
+    void writeVarLong(final long value) {
+        ensureCapacity(10);
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        buffer[position++] = (byte) remaining;
+    }
+
+    void writeSignedVarLong(final long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeLong(@Nullable final Long value) {
+        if (value == null) {
+            writeVarLong(0);
+        } else {
+            writeVarLong(1);
+            writeSignedVarLong(value);
+        }
+    }
+
+    void writeBoolean(@Nullable final Boolean value) {
+        writeVarLong(value == null ? 0 : value ? 2 : 1);
+    }
+
+    void writeEnum(@Nullable final Enum<?> value) {
+        writeVarLong(value == null ? 0 : value.ordinal() + 1L);
+    }
+
+    /**
+     * Writes a string as either a reference to an identical string already written to this encoding, or as its UTF-8
+     * bytes; 0 means absent, 1 is followed by the length and the bytes, and n refers to the (n - 1)th string.
+     */
+    void writeString(@Nullable final String value) {
+        if (value == null) {
+            writeVarLong(0);
+            return;
+        }
+        final Integer index = stringTable.get(value);
+        if (index != null) {
+            writeVarLong(index + 2L);
+            return;
+        }
+        stringTable.put(value, stringTable.size());
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(1);
+        writeVarLong(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    void writeType(@Nullable final AbstractType<String> value) {
+        writeString(value == null ? null : value.value());
+    }
+
+    void writeInstant(@Nullable final Instant value) {
+        if (value == null) {
+            writeVarLong(0);
+        } else {
+            writeVarLong(1);
+            writeSignedVarLong(value.getEpochSecond());
+            writeVarLong(value.getNano());
+        }
+    }
+
+    void writeDuration(@Nullable final Duration value) {
+        if (value == null) {
+            writeVarLong(0);
+        } else {
+            writeVarLong(1);
+            writeSignedVarLong(value.getSeconds());
+            writeVarLong(value.getNano());
+        }
+    }
+
+    <T> void writeList(@Nonnull final List<T> values, @Nonnull final BiConsumer<BinaryWriter, T> elementWriter) {
+        writeVarLong(values.size());
+        for (final T value : values) {
+            elementWriter.accept(this, value);
+        }
+    }
+
+    @Nonnull
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(final int length) {
+        if (position + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+        }
+    }
+}
@@ -0,0 +1,1136 @@
+package com.bt.openlink.codec;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.internal.TimestampCodec;
+import com.bt.openlink.type.AbstractType;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallFeature;
+import com.bt.openlink.type.CallFeatureBoolean;
+import com.bt.openlink.type.CallFeatureDeviceKey;
+import com.bt.openlink.type.CallFeatureHandset;
+import com.bt.openlink.type.CallFeatureSpeakerChannel;
+import com.bt.openlink.type.CallFeatureTextValue;
+import com.bt.openlink.type.CallFeatureVoiceRecorder;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.CallStatus;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.ConferenceId;
+import com.bt.openlink.type.DeviceId;
+import com.bt.openlink.type.DeviceKey;
+import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.DeviceType;
+import com.bt.openlink.type.Feature;
+import com.bt.openlink.type.FeatureId;
+import com.bt.openlink.type.FeatureType;
+import com.bt.openlink.type.HistoricalCall;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.Key;
+import com.bt.openlink.type.KeyColor;
+import com.bt.openlink.type.KeyFunction;
+import com.bt.openlink.type.KeyId;
+import com.bt.openlink.type.KeyInterest;
+import com.bt.openlink.type.KeyLabel;
+import com.bt.openlink.type.KeyModifier;
+import com.bt.openlink.type.KeyPage;
+import com.bt.openlink.type.KeyPageId;
+import com.bt.openlink.type.KeyPageLabel;
+import com.bt.openlink.type.KeyPageLocalKeyPage;
+import com.bt.openlink.type.KeyPageModule;
+import com.bt.openlink.type.KeyQualifier;
+import com.bt.openlink.type.ManageVoiceMessageAction;
+import com.bt.openlink.type.OriginatorReference;
+import com.bt.openlink.type.Participant;
+import com.bt.openlink.type.ParticipantCategory;
+import com.bt.openlink.type.ParticipantType;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.Profile;
+import com.bt.openlink.type.ProfileId;
+import com.bt.openlink.type.RecorderChannel;
+import com.bt.openlink.type.RecorderNumber;
+import com.bt.openlink.type.RecorderPort;
+import com.bt.openlink.type.RecorderType;
+import com.bt.openlink.type.RequestAction;
+import com.bt.openlink.type.Site;
+import com.bt.openlink.type.TelephonyCallId;
+import com.bt.openlink.type.UserId;
+import com.bt.openlink.type.VoiceMessage;
+import com.bt.openlink.type.VoiceMessageFeature;
+import com.bt.openlink.type.VoiceMessageStatus;
+import com.bt.openlink.type.VoiceRecorderInfo;
+
+/**
+ * Converts call statuses, calls, device statuses, profiles and historical calls to and from JSON, for clients such as
+ * browsers that do not speak XMPP. Values are streamed straight to a {@link JsonWriter} and from a {@link JsonReader},
+ * so they can be embedded in a larger document such as a websocket message envelope.
+ * <p>
+ * The schema is stable: each value is an object whose property names follow the getters of the type, absent values and
+ * empty lists are omitted, enum constants are written as they appear in Openlink XML (e.g. {@code "CallOriginated"} or
+ * {@code "AnswerCall"}), times as ISO-8601 strings with millisecond precision and durations as a number of
+ * milliseconds. A call feature has a {@code kind} property, which must be its first, identifying which sort of feature
+ * it is. Properties that are not recognised are skipped, so new properties may be added without breaking existing
+ * readers. As with the binary codec, values are read exactly as they were written, even if they would not pass
+ * validation.
+ */
+public final class JsonCodec {
+
+    private static final String KIND_BOOLEAN = "boolean";
+    private static final String KIND_HANDSET = "handset";
+    private static final String KIND_SPEAKER_CHANNEL = "speakerChannel";
+    private static final String KIND_DEVICE_KEY = "deviceKey";
+    private static final String KIND_TEXT_VALUE = "textValue";
+    private static final String KIND_VOICE_RECORDER = "voiceRecorder";
+
+    @FunctionalInterface
+    private interface ValueWriter<T> {
+        void write(@Nonnull JsonWriter writer, @Nonnull T value) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ValueReader<T> {
+        @Nullable
+        T read(@Nonnull JsonReader reader) throws IOException;
+    }
+
+    private JsonCodec() {
+    }
+
+    /**
+     * A convenience method that writes a call status to a string.
+     *
+     * @param callStatus
+     *            the call status to write
+     * @return the call status as JSON
+     */
+    @Nonnull
+    public static String toJson(@Nonnull final CallStatus callStatus) {
+        final StringWriter stringWriter = new StringWriter();
+        try {
+            write(new JsonWriter(stringWriter), callStatus);
+        } catch (final IOException e) {
+            // A StringWriter does not throw
+            throw new UncheckedIOException(e);
+        }
+        return stringWriter.toString();
+    }
+
+    public static void write(@Nonnull final JsonWriter writer, @Nonnull final CallStatus callStatus) throws IOException {
+        writer.beginObject();
+        writeBoolean(writer, "callStatusBusy", callStatus.isCallStatusBusy().orElse(null));
+        writeType(writer, "callForward", callStatus.getCallForward().orElse(null));
+        writeArray(writer, "calls", callStatus.getCalls(), JsonCodec::write);
+        writer.endObject();
+    }
+
+    public static void write(@Nonnull final JsonWriter writer, @Nonnull final Call call) throws IOException {
+        writer.beginObject();
+        writeType(writer, "id", call.getId().orElse(null));
+        writeType(writer, "telephonyCallId", call.getTelephonyCallId().orElse(null));
+        writeType(writer, "conferenceId", call.getConferenceId().orElse(null));
+        writeSite(writer, call.getSite().orElse(null));
+        writeType(writer, "profileId", call.getProfileId().orElse(null));
+        writeType(writer, "deviceId", call.getDeviceId().orElse(null));
+        writeType(writer, "userId", call.getUserId().orElse(null));
+        writeType(writer, "interestId", call.getInterestId().orElse(null));
+        writeString(writer, "changed", call.getChanged().map(Changed::getId).orElse(null));
+        writeString(writer, "state", call.getState().map(CallState::getLabel).orElse(null));
+        writeString(writer, "direction", call.getDirection().map(CallDirection::getLabel).orElse(null));
+        writeType(writer, "callerNumber", call.getCallerNumber().orElse(null));
+        writeString(writer, "callerName", call.getCallerName().orElse(null));
+        writeArray(writer, "callerE164Numbers", call.getCallerE164Numbers(), JsonCodec::writeType);
+        writeType(writer, "calledNumber", call.getCalledNumber().orElse(null));
+        writeString(writer, "calledName", call.getCalledName().orElse(null));
+        writeType(writer, "calledDestination", call.getCalledDestination().orElse(null));
+        writeArray(writer, "calledE164Numbers", call.getCalledE164Numbers(), JsonCodec::writeType);
+        writeArray(writer, "originatorReferences", call.getOriginatorReferences(), (w, originatorReference) -> {
+            w.beginObject();
+            writeString(w, "key", originatorReference.getKey());
+            writeString(w, "value", originatorReference.getValue());
+            w.endObject();
+        });
+        writeInstant(writer, "startTime", call.getStartTime().orElse(null));
+        writeDuration(writer, "duration", call.getDuration().orElse(null));
+        writeArray(writer, "actions", call.getActions(), (w, action) -> w.value(action.getId()));
+        writeArray(writer, "features", call.getFeatures(), JsonCodec::writeCallFeature);
+        writeArray(writer, "participants", call.getParticipants(), JsonCodec::writeParticipant);
+        writer.endObject();
+    }
+
+    public static void write(@Nonnull final JsonWriter writer, @Nonnull final DeviceStatus deviceStatus) throws IOException {
+        writer.beginObject();
+        writeBoolean(writer, "online", deviceStatus.isOnline().orElse(null));
+        writeType(writer, "profileId", deviceStatus.getProfileId().orElse(null));
+        writeType(writer, "deviceId", deviceStatus.getDeviceId().orElse(null));
+        writeArray(writer, "features", deviceStatus.getFeatures(), JsonCodec::writeVoiceMessageFeature);
+        writer.endObject();
+    }
+
+    public static void write(@Nonnull final JsonWriter writer, @Nonnull final Profile profile) throws IOException {
+        writer.beginObject();
+        writeType(writer, "id", profile.getId().orElse(null));
+        writeBoolean(writer, "default", profile.isDefaultProfile().orElse(null));
+        writeType(writer, "deviceType", profile.getDeviceType().orElse(null));
+        writeType(writer, "deviceId", profile.getDeviceId().orElse(null));
+        writeString(writer, "label", profile.getLabel().orElse(null));
+        writeBoolean(writer, "online", profile.isOnline().orElse(null));
+        writeSite(writer, profile.getSite().orElse(null));
+        writeArray(writer, "actions", profile.getActions(), (w, action) -> w.value(action.getId()));
+        writeArray(writer, "keyPages", profile.getKeyPages(), JsonCodec::writeKeyPage);
+        writer.endObject();
+    }
+
+    /**
+     * @param writer
+     *            where to write the call
+     * @param historicalCall
+     *            the call to write
+     * @param tscEncoder
+     *            converts the TSC of the call to a string, e.g. {@code Jid::toString}
+     * @param <J>
+     *            the type of the TSC
+     * @throws IOException
+     *             if the call could not be written
+     */
+    public static <J extends Serializable> void write(@Nonnull final JsonWriter writer, @Nonnull final HistoricalCall<J> historicalCall, @Nonnull final Function<? super J, String> tscEncoder) throws IOException {
+        writer.beginObject();
+        writeType(writer, "id", historicalCall.getId().orElse(null));
+        writeType(writer, "userId", historicalCall.getUserId().orElse(null));
+        writeType(writer, "interestId", historicalCall.getInterestId().orElse(null));
+        writeString(writer, "state", historicalCall.getState().map(CallState::getLabel).orElse(null));
+        writeString(writer, "direction", historicalCall.getDirection().map(CallDirection::getLabel).orElse(null));
+        writeType(writer, "callerNumber", historicalCall.getCallerNumber().orElse(null));
+        writeString(writer, "callerName", historicalCall.getCallerName().orElse(null));
+        writeType(writer, "calledNumber", historicalCall.getCalledNumber().orElse(null));
+        writeString(writer, "calledName", historicalCall.getCalledName().orElse(null));
+        writeInstant(writer, "startTime", historicalCall.getStartTime().orElse(null));
+        writeDuration(writer, "duration", historicalCall.getDuration().orElse(null));
+        writeString(writer, "tsc", historicalCall.getTsc().map(tscEncoder).orElse(null));
+        writer.endObject();
+    }
+
+    /**
+     * @param reader
+     *            positioned at a call status
+     * @return the call status read
+     * @throws IOException
+     *             if the call status could not be read
+     * @throws IllegalArgumentException
+     *             if the next value is not a call status
+     */
+    @Nonnull
+    public static CallStatus readCallStatus(@Nonnull final JsonReader reader) throws IOException {
+        final CallStatus.Builder builder = CallStatus.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "callStatusBusy":
+                readBoolean(reader, builder::setCallStatusBusy);
+                break;
+            case "callForward":
+                readType(reader, PhoneNumber::from, builder::setCallForward);
+                break;
+            case "calls":
+                readArray(reader, JsonCodec::readCall, builder::addCall);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    /**
+     * @param reader
+     *            positioned at a call
+     * @return the call read
+     * @throws IOException
+     *             if the call could not be read
+     * @throws IllegalArgumentException
+     *             if the next value is not a call
+     */
+    @Nonnull
+    public static Call readCall(@Nonnull final JsonReader reader) throws IOException {
+        final Call.Builder builder = Call.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "id":
+                readType(reader, CallId::from, builder::setId);
+                break;
+            case "telephonyCallId":
+                readType(reader, TelephonyCallId::from, builder::setTelephonyCallId);
+                break;
+            case "conferenceId":
+                readType(reader, ConferenceId::from, builder::setConferenceId);
+                break;
+            case "site":
+                readValue(reader, JsonCodec::readSite, builder::setSite);
+                break;
+            case "profileId":
+                readType(reader, ProfileId::from, builder::setProfileId);
+                break;
+            case "deviceId":
+                readType(reader, DeviceId::from, builder::setDeviceId);
+                break;
+            case "userId":
+                readType(reader, UserId::from, builder::setUserId);
+                break;
+            case "interestId":
+                readType(reader, InterestId::from, builder::setInterestId);
+                break;
+            case "changed":
+                readType(reader, Changed::from, builder::setChanged);
+                break;
+            case "state":
+                readType(reader, CallState::from, builder::setState);
+                break;
+            case "direction":
+                readType(reader, CallDirection::from, builder::setDirection);
+                break;
+            case "callerNumber":
+                readType(reader, PhoneNumber::from, builder::setCallerNumber);
+                break;
+            case "callerName":
+                readString(reader, builder::setCallerName);
+                break;
+            case "callerE164Numbers":
+                readArray(reader, r -> readType(r, PhoneNumber::from), builder::addCallerE164Number);
+                break;
+            case "calledNumber":
+                readType(reader, PhoneNumber::from, builder::setCalledNumber);
+                break;
+            case "calledName":
+                readString(reader, builder::setCalledName);
+                break;
+            case "calledDestination":
+                readType(reader, PhoneNumber::from, builder::setCalledDestination);
+                break;
+            case "calledE164Numbers":
+                readArray(reader, r -> readType(r, PhoneNumber::from), builder::addCalledE164Number);
+                break;
+            case "originatorReferences":
+                readArray(reader, JsonCodec::readOriginatorReference, builder::addOriginatorReference);
+                break;
+            case "startTime":
+                readInstant(reader, builder::setStartTime);
+                break;
+            case "duration":
+                readDuration(reader, builder::setDuration);
+                break;
+            case "actions":
+                readArray(reader, r -> readType(r, RequestAction::from), builder::addAction);
+                break;
+            case "features":
+                readArray(reader, JsonCodec::readCallFeature, builder::addFeature);
+                break;
+            case "participants":
+                readArray(reader, JsonCodec::readParticipant, builder::addParticipant);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    /**
+     * @param reader
+     *            positioned at a device status
+     * @return the device status read
+     * @throws IOException
+     *             if the device status could not be read
+     * @throws IllegalArgumentException
+     *             if the next value is not a device status
+     */
+    @Nonnull
+    public static DeviceStatus readDeviceStatus(@Nonnull final JsonReader reader) throws IOException {
+        final DeviceStatus.Builder builder = DeviceStatus.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "online":
+                readBoolean(reader, builder::setOnline);
+                break;
+            case "profileId":
+                readType(reader, ProfileId::from, builder::setProfileId);
+                break;
+            case "deviceId":
+                readType(reader, DeviceId::from, builder::setDeviceId);
+                break;
+            case "features":
+                readArray(reader, JsonCodec::readVoiceMessageFeature, builder::addFeature);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    /**
+     * @param reader
+     *            positioned at a profile
+     * @return the profile read
+     * @throws IOException
+     *             if the profile could not be read
+     * @throws IllegalArgumentException
+     *             if the next value is not a profile
+     */
+    @Nonnull
+    public static Profile readProfile(@Nonnull final JsonReader reader) throws IOException {
+        final Profile.Builder builder = Profile.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "id":
+                readType(reader, ProfileId::from, builder::setId);
+                break;
+            case "default":
+                readBoolean(reader, builder::setDefault);
+                break;
+            case "deviceType":
+                readType(reader, DeviceType::from, builder::setDeviceType);
+                break;
+            case "deviceId":
+                readType(reader, DeviceId::from, builder::setDeviceId);
+                break;
+            case "label":
+                readString(reader, builder::setLabel);
+                break;
+            case "online":
+                readBoolean(reader, builder::setOnline);
+                break;
+            case "site":
+                readValue(reader, JsonCodec::readSite, builder::setSite);
+                break;
+            case "actions":
+                readArray(reader, r -> readType(r, RequestAction::from), builder::addAction);
+                break;
+            case "keyPages":
+                readArray(reader, JsonCodec::readKeyPage, builder::addKeyPage);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    /**
+     * @param reader
+     *            positioned at a historical call
+     * @param tscDecoder
+     *            converts the string written by the TSC encoder back to a TSC
+     * @param <J>
+     *            the type of the TSC
+     * @return the call read
+     * @throws IOException
+     *             if the call could not be read
+     * @throws IllegalArgumentException
+     *             if the next value is not a historical call
+     */
+    @Nonnull
+    public static <J extends Serializable> HistoricalCall<J> readHistoricalCall(@Nonnull final JsonReader reader, @Nonnull final Function<String, ? extends J> tscDecoder) throws IOException {
+        final HistoricalCall.Builder<J> builder = HistoricalCall.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "id":
+                readType(reader, CallId::from, builder::setId);
+                break;
+            case "userId":
+                readType(reader, UserId::from, builder::setUserId);
+                break;
+            case "interestId":
+                readType(reader, InterestId::from, builder::setInterestId);
+                break;
+            case "state":
+                readType(reader, CallState::from, builder::setState);
+                break;
+            case "direction":
+                readType(reader, CallDirection::from, builder::setDirection);
+                break;
+            case "callerNumber":
+                readType(reader, PhoneNumber::from, builder::setCallerNumber);
+                break;
+            case "callerName":
+                readString(reader, builder::setCallerName);
+                break;
+            case "calledNumber":
+                readType(reader, PhoneNumber::from, builder::setCalledNumber);
+                break;
+            case "calledName":
+                readString(reader, builder::setCalledName);
+                break;
+            case "startTime":
+                readInstant(reader, builder::setStartTime);
+                break;
+            case "duration":
+                readDuration(reader, builder::setDuration);
+                break;
+            case "tsc":
+                readString(reader, tsc -> builder.setTsc(tscDecoder.apply(tsc)));
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    private static void writeSite(@Nonnull final JsonWriter writer, @Nullable final Site site) throws IOException {
+        if (site == null) {
+            return;
+        }
+        writer.name("site").beginObject();
+        final Optional<Long> id = site.getId();
+        if (id.isPresent()) {
+            writer.name("id").value(id.get());
+        }
+        writeBoolean(writer, "default", site.isDefault().orElse(null));
+        writeString(writer, "type", site.getType().map(Site.Type::getLabel).orElse(null));
+        writeString(writer, "name", site.getName().orElse(null));
+        writer.endObject();
+    }
+
+    @Nonnull
+    private static Site readSite(@Nonnull final JsonReader reader) throws IOException {
+        final Site.Builder builder = Site.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "id":
+                readLong(reader, builder::setId);
+                break;
+            case "default":
+                readBoolean(reader, builder::setDefault);
+                break;
+            case "type":
+                readType(reader, Site.Type::from, builder::setType);
+                break;
+            case "name":
+                readString(reader, builder::setName);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    @Nonnull
+    private static OriginatorReference readOriginatorReference(@Nonnull final JsonReader reader) throws IOException {
+        String key = null;
+        String value = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            if ("key".equals(name)) {
+                key = nextString(reader);
+            } else if ("value".equals(name)) {
+                value = nextString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Invalid JSON; an originator reference must have a key and a value");
+        }
+        return new OriginatorReference(key, value);
+    }
+
+    private static void writeCallFeature(@Nonnull final JsonWriter writer, @Nonnull final CallFeature feature) throws IOException {
+        final Class<?> featureClass = feature.getClass();
+        if (featureClass == CallFeatureBoolean.class) {
+            writeFeature(writer, KIND_BOOLEAN, feature);
+            writeBoolean(writer, "enabled", ((CallFeatureBoolean) feature).isEnabled().orElse(null));
+        } else if (featureClass == CallFeatureHandset.class) {
+            final CallFeatureHandset handset = (CallFeatureHandset) feature;
+            writeFeature(writer, KIND_HANDSET, feature);
+            writeBoolean(writer, "enabled", handset.isEnabled().orElse(null));
+            writeBoolean(writer, "microphoneEnabled", handset.isMicrophoneEnabled().orElse(null));
+        } else if (featureClass == CallFeatureSpeakerChannel.class) {
+            final CallFeatureSpeakerChannel speakerChannel = (CallFeatureSpeakerChannel) feature;
+            writeFeature(writer, KIND_SPEAKER_CHANNEL, feature);
+            final Optional<Long> channel = speakerChannel.getChannel();
+            if (channel.isPresent()) {
+                writer.name("channel").value(channel.get());
+            }
+            writeBoolean(writer, "microphoneActive", speakerChannel.isMicrophoneActive().orElse(null));
+            writeBoolean(writer, "muteRequested", speakerChannel.isMuteRequested().orElse(null));
+        } else if (featureClass == CallFeatureDeviceKey.class) {
+            writeFeature(writer, KIND_DEVICE_KEY, feature);
+            writeArray(writer, "deviceKeys", ((CallFeatureDeviceKey) feature).getDeviceKeys(), JsonCodec::writeType);
+        } else if (featureClass == CallFeatureTextValue.class) {
+            writeFeature(writer, KIND_TEXT_VALUE, feature);
+            writeString(writer, "value", ((CallFeatureTextValue) feature).getValue().orElse(null));
+        } else if (featureClass == CallFeatureVoiceRecorder.class) {
+            writeFeature(writer, KIND_VOICE_RECORDER, feature);
+            final Optional<VoiceRecorderInfo> voiceRecorderInfo = ((CallFeatureVoiceRecorder) feature).getVoiceRecorderInfo();
+            if (voiceRecorderInfo.isPresent()) {
+                writer.name("voiceRecorderInfo");
+                writeVoiceRecorderInfo(writer, voiceRecorderInfo.get());
+            }
+        } else {
+            throw new IllegalArgumentException("Unable to write a call feature of type " + featureClass.getName());
+        }
+        writer.endObject();
+    }
+
+    private static void writeFeature(@Nonnull final JsonWriter writer, @Nonnull final String kind, @Nonnull final Feature feature) throws IOException {
+        writer.beginObject();
+        writer.name("kind").value(kind);
+        writeType(writer, "id", feature.getId().orElse(null));
+        writeString(writer, "type", feature.getType().map(FeatureType::getId).orElse(null));
+        writeString(writer, "label", feature.getLabel().orElse(null));
+    }
+
+    @Nonnull
+    private static CallFeature readCallFeature(@Nonnull final JsonReader reader) throws IOException {
+        reader.beginObject();
+        if (!reader.hasNext() || !"kind".equals(reader.nextName())) {
+            throw new IllegalArgumentException("Invalid JSON; the first property of a call feature must be its kind");
+        }
+        final String kind = reader.nextString();
+        final CallFeature feature;
+        switch (kind) {
+        case KIND_BOOLEAN:
+            final CallFeatureBoolean.Builder booleanBuilder = CallFeatureBoolean.Builder.start();
+            readFeature(reader, booleanBuilder, (name, r) -> {
+                if ("enabled".equals(name)) {
+                    readBoolean(r, booleanBuilder::setEnabled);
+                    return true;
+                }
+                return false;
+            });
+            feature = booleanBuilder.build(new ArrayList<>());
+            break;
+        case KIND_HANDSET:
+            final CallFeatureHandset.Builder handsetBuilder = CallFeatureHandset.Builder.start();
+            readFeature(reader, handsetBuilder, (name, r) -> {
+                if ("enabled".equals(name)) {
+                    readBoolean(r, handsetBuilder::setEnabled);
+                } else if ("microphoneEnabled".equals(name)) {
+                    readBoolean(r, handsetBuilder::setMicrophoneEnabled);
+                } else {
+                    return false;
+                }
+                return true;
+            });
+            feature = handsetBuilder.build(new ArrayList<>());
+            break;
+        case KIND_SPEAKER_CHANNEL:
+            final CallFeatureSpeakerChannel.Builder speakerChannelBuilder = CallFeatureSpeakerChannel.Builder.start();
+            readFeature(reader, speakerChannelBuilder, (name, r) -> {
+                if ("channel".equals(name)) {
+                    readLong(r, speakerChannelBuilder::setChannel);
+                } else if ("microphoneActive".equals(name)) {
+                    readBoolean(r, speakerChannelBuilder::setMicrophoneActive);
+                } else if ("muteRequested".equals(name)) {
+                    readBoolean(r, speakerChannelBuilder::setMuteRequested);
+                } else {
+                    return false;
+                }
+                return true;
+            });
+            feature = speakerChannelBuilder.build(new ArrayList<>());
+            break;
+        case KIND_DEVICE_KEY:
+            final CallFeatureDeviceKey.Builder deviceKeyBuilder = CallFeatureDeviceKey.Builder.start();
+            readFeature(reader, deviceKeyBuilder, (name, r) -> {
+                if ("deviceKeys".equals(name)) {
+                    readArray(r, r2 -> readType(r2, DeviceKey::from), deviceKeyBuilder::addDeviceKey);
+                    return true;
+                }
+                return false;
+            });
+            feature = deviceKeyBuilder.build(new ArrayList<>());
+            break;
+        case KIND_TEXT_VALUE:
+            final CallFeatureTextValue.Builder textValueBuilder = CallFeatureTextValue.Builder.start();
+            readFeature(reader, textValueBuilder, (name, r) -> {
+                if ("value".equals(name)) {
+                    readString(r, textValueBuilder::setValue);
+                    return true;
+                }
+                return false;
+            });
+            feature = textValueBuilder.build(new ArrayList<>());
+            break;
+        case KIND_VOICE_RECORDER:
+            final CallFeatureVoiceRecorder.Builder voiceRecorderBuilder = CallFeatureVoiceRecorder.Builder.start();
+            readFeature(reader, voiceRecorderBuilder, (name, r) -> {
+                if ("voiceRecorderInfo".equals(name)) {
+                    readValue(r, JsonCodec::readVoiceRecorderInfo, voiceRecorderBuilder::setVoiceRecorderInfo);
+                    return true;
+                }
+                return false;
+            });
+            feature = voiceRecorderBuilder.build(new ArrayList<>());
+            break;
+        default:
+            throw new IllegalArgumentException("Invalid JSON; unknown kind of call feature '" + kind + "'");
+        }
+        reader.endObject();
+        return feature;
+    }
+
+    @FunctionalInterface
+    private interface PropertyReader {
+        /**
+         * @return true if the property was read, false if it was not recognised and is still to be read
+         */
+        boolean read(@Nonnull String name, @Nonnull JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Reads the remaining properties of a feature, passing any that are not common to all features to the given reader.
+     */
+    private static <B extends Feature.AbstractFeatureBuilder<B>> void readFeature(@Nonnull final JsonReader reader, @Nonnull final B builder, @Nonnull final PropertyReader propertyReader) throws IOException {
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "id":
+                readType(reader, FeatureId::from, builder::setId);
+                break;
+            case "type":
+                readType(reader, FeatureType::from, builder::setType);
+                break;
+            case "label":
+                readString(reader, builder::setLabel);
+                break;
+            default:
+                if (!propertyReader.read(name, reader)) {
+                    reader.skipValue();
+                }
+                break;
+            }
+        }
+    }
+
+    private static void writeVoiceRecorderInfo(@Nonnull final JsonWriter writer, @Nonnull final VoiceRecorderInfo voiceRecorderInfo) throws IOException {
+        writer.beginObject();
+        writeType(writer, "recorderNumber", voiceRecorderInfo.getRecorderNumber().orElse(null));
+        writeType(writer, "recorderPort", voiceRecorderInfo.getRecorderPort().orElse(null));
+        writeType(writer, "recorderChannel", voiceRecorderInfo.getRecorderChannel().orElse(null));
+        writeType(writer, "recorderType", voiceRecorderInfo.getRecorderType().orElse(null));
+        writer.endObject();
+    }
+
+    @Nonnull
+    private static VoiceRecorderInfo readVoiceRecorderInfo(@Nonnull final JsonReader reader) throws IOException {
+        final VoiceRecorderInfo.Builder builder = VoiceRecorderInfo.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "recorderNumber":
+                readType(reader, RecorderNumber::from, builder::setRecorderNumber);
+                break;
+            case "recorderPort":
+                readType(reader, RecorderPort::from, builder::setRecorderPort);
+                break;
+            case "recorderChannel":
+                readType(reader, RecorderChannel::from, builder::setRecorderChannel);
+                break;
+            case "recorderType":
+                readType(reader, RecorderType::from, builder::setRecorderType);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    private static void writeParticipant(@Nonnull final JsonWriter writer, @Nonnull final Participant participant) throws IOException {
+        writer.beginObject();
+        writeString(writer, "jid", participant.getJID().orElse(null));
+        writeType(writer, "number", participant.getNumber().orElse(null));
+        writeArray(writer, "e164Numbers", participant.getE164Numbers(), JsonCodec::writeType);
+        writeType(writer, "destinationNumber", participant.getDestinationNumber().orElse(null));
+        writeString(writer, "type", participant.getType().map(ParticipantType::getId).orElse(null));
+        writeString(writer, "category", participant.getParticipantCategory().map(ParticipantCategory::getId).orElse(null));
+        writeString(writer, "direction", participant.getDirection().map(CallDirection::getLabel).orElse(null));
+        writeInstant(writer, "startTime", participant.getStartTime().orElse(null));
+        writeDuration(writer, "duration", participant.getDuration().orElse(null));
+        writer.endObject();
+    }
+
+    @Nonnull
+    private static Participant readParticipant(@Nonnull final JsonReader reader) throws IOException {
+        final Participant.Builder builder = Participant.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "jid":
+                readString(reader, builder::setJID);
+                break;
+            case "number":
+                readType(reader, PhoneNumber::from, builder::setNumber);
+                break;
+            case "e164Numbers":
+                readArray(reader, r -> readType(r, PhoneNumber::from), builder::addE164Number);
+                break;
+            case "destinationNumber":
+                readType(reader, PhoneNumber::from, builder::setDestinationNumber);
+                break;
+            case "type":
+                readType(reader, ParticipantType::from, builder::setType);
+                break;
+            case "category":
+                readType(reader, ParticipantCategory::from, builder::setParticipantCategory);
+                break;
+            case "direction":
+                readType(reader, CallDirection::from, builder::setDirection);
+                break;
+            case "startTime":
+                readInstant(reader, builder::setStartTime);
+                break;
+            case "duration":
+                readDuration(reader, builder::setDuration);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    private static void writeVoiceMessageFeature(@Nonnull final JsonWriter writer, @Nonnull final VoiceMessageFeature feature) throws IOException {
+        writer.beginObject();
+        writeType(writer, "id", feature.getId().orElse(null));
+        final Optional<VoiceMessage> voiceMessage = feature.getVoiceMessage();
+        if (voiceMessage.isPresent()) {
+            writer.name("voiceMessage").beginObject();
+            writeString(writer, "label", voiceMessage.get().getLabel().orElse(null));
+            writeString(writer, "status", voiceMessage.get().getStatus().map(VoiceMessageStatus::getLabel).orElse(null));
+            writeString(writer, "action", voiceMessage.get().getAction().map(ManageVoiceMessageAction::getId).orElse(null));
+            writeDuration(writer, "messageLength", voiceMessage.get().getMessageLength().orElse(null));
+            writeInstant(writer, "creationDate", voiceMessage.get().getCreationDate().orElse(null));
+            writeType(writer, "extension", voiceMessage.get().getExtension().orElse(null));
+            writer.endObject();
+        }
+        writer.endObject();
+    }
+
+    @Nonnull
+    private static VoiceMessageFeature readVoiceMessageFeature(@Nonnull final JsonReader reader) throws IOException {
+        final VoiceMessageFeature.Builder builder = VoiceMessageFeature.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "id":
+                readType(reader, FeatureId::from, builder::setId);
+                break;
+            case "voiceMessage":
+                readValue(reader, JsonCodec::readVoiceMessage, builder::setVoiceMessage);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    @Nonnull
+    private static VoiceMessage readVoiceMessage(@Nonnull final JsonReader reader) throws IOException {
+        final VoiceMessage.Builder builder = VoiceMessage.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "label":
+                readString(reader, builder::setLabel);
+                break;
+            case "status":
+                readType(reader, VoiceMessageStatus::from, builder::setStatus);
+                break;
+            case "action":
+                readType(reader, ManageVoiceMessageAction::from, builder::setAction);
+                break;
+            case "messageLength":
+                readDuration(reader, builder::setMessageLength);
+                break;
+            case "creationDate":
+                readInstant(reader, builder::setCreationDate);
+                break;
+            case "extension":
+                readType(reader, PhoneNumber::from, builder::setExtension);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    private static void writeKeyPage(@Nonnull final JsonWriter writer, @Nonnull final KeyPage keyPage) throws IOException {
+        writer.beginObject();
+        writeType(writer, "id", keyPage.getKeyPageId().orElse(null));
+        writeType(writer, "label", keyPage.getKeyPageLabel().orElse(null));
+        writeType(writer, "module", keyPage.getKeyPageModule().orElse(null));
+        writeType(writer, "localKeyPage", keyPage.getLocalKeyPage().orElse(null));
+        writeArray(writer, "keys", keyPage.getKeys(), JsonCodec::writeKey);
+        writer.endObject();
+    }
+
+    @Nonnull
+    private static KeyPage readKeyPage(@Nonnull final JsonReader reader) throws IOException {
+        final KeyPage.Builder builder = KeyPage.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "id":
+                readType(reader, KeyPageId::from, builder::setkeypageId);
+                break;
+            case "label":
+                readType(reader, KeyPageLabel::from, builder::setKeypageLabel);
+                break;
+            case "module":
+                readType(reader, KeyPageModule::from, builder::setKeypageModule);
+                break;
+            case "localKeyPage":
+                readType(reader, KeyPageLocalKeyPage::from, builder::setLocalKeypage);
+                break;
+            case "keys":
+                readArray(reader, JsonCodec::readKey, builder::addKey);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    private static void writeKey(@Nonnull final JsonWriter writer, @Nonnull final Key key) throws IOException {
+        writer.beginObject();
+        writeType(writer, "id", key.getId().orElse(null));
+        writeType(writer, "label", key.getLabel().orElse(null));
+        writeType(writer, "function", key.getFunction().orElse(null));
+        writeType(writer, "modifier", key.getModifier().orElse(null));
+        writeType(writer, "qualifier", key.getQualifier().orElse(null));
+        writeType(writer, "color", key.getColor().orElse(null));
+        writeType(writer, "interest", key.getInterest().orElse(null));
+        writer.endObject();
+    }
+
+    @Nonnull
+    private static Key readKey(@Nonnull final JsonReader reader) throws IOException {
+        final Key.Builder builder = Key.Builder.start();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+            case "id":
+                readType(reader, KeyId::from, builder::setId);
+                break;
+            case "label":
+                readType(reader, KeyLabel::from, builder::setLabel);
+                break;
+            case "function":
+                readType(reader, KeyFunction::from, builder::setFunction);
+                break;
+            case "modifier":
+                readType(reader, KeyModifier::from, builder::setModifier);
+                break;
+            case "qualifier":
+                readType(reader, KeyQualifier::from, builder::setQualifier);
+                break;
+            case "color":
+                readType(reader, KeyColor::from, builder::setColor);
+                break;
+            case "interest":
+                readType(reader, KeyInterest::from, builder::setInterest);
+                break;
+            default:
+                reader.skipValue();
+                break;
+            }
+        }
+        reader.endObject();
+        return builder.build(new ArrayList<>());
+    }
+
+    private static void writeString(@Nonnull final JsonWriter writer, @Nonnull final String name, @Nullable final String value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(value);
+        }
+    }
+
+    private static void writeType(@Nonnull final JsonWriter writer, @Nonnull final String name, @Nullable final AbstractType<String> value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(value.value());
+        }
+    }
+
+    private static void writeType(@Nonnull final JsonWriter writer, @Nonnull final AbstractType<String> value) throws IOException {
+        writer.value(value.value());
+    }
+
+    private static void writeBoolean(@Nonnull final JsonWriter writer, @Nonnull final String name, @Nullable final Boolean value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(value);
+        }
+    }
+
+    private static void writeInstant(@Nonnull final JsonWriter writer, @Nonnull final String name, @Nullable final Instant value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(TimestampCodec.formatISO8601(value));
+        }
+    }
+
+    private static void writeDuration(@Nonnull final JsonWriter writer, @Nonnull final String name, @Nullable final Duration value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(value.toMillis());
+        }
+    }
+
+    private static <T> void writeArray(@Nonnull final JsonWriter writer, @Nonnull final String name, @Nonnull final List<T> values, @Nonnull final ValueWriter<? super T> valueWriter) throws IOException {
+        if (values.isEmpty()) {
+            return;
+        }
+        writer.name(name).beginArray();
+        for (final T value : values) {
+            valueWriter.write(writer, value);
+        }
+        writer.endArray();
+    }
+
+    /**
+     * @return the next string, or null if the next value is null
+     */
+    @Nullable
+    private static String nextString(@Nonnull final JsonReader reader) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    private static void readString(@Nonnull final JsonReader reader, @Nonnull final Consumer<String> setter) throws IOException {
+        final String value = nextString(reader);
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    @Nullable
+    private static <T> T readType(@Nonnull final JsonReader reader, @Nonnull final Function<String, Optional<T>> factory) throws IOException {
+        final String value = nextString(reader);
+        return value == null ? null : factory.apply(value).orElse(null);
+    }
+
+    private static <T> void readType(@Nonnull final JsonReader reader, @Nonnull final Function<String, Optional<T>> factory, @Nonnull final Consumer<T> setter) throws IOException {
+        final T value = readType(reader, factory);
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    private static void readBoolean(@Nonnull final JsonReader reader, @Nonnull final Consumer<Boolean> setter) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            reader.nextNull();
+        } else {
+            setter.accept(reader.nextBoolean());
+        }
+    }
+
+    private static void readLong(@Nonnull final JsonReader reader, @Nonnull final Consumer<Long> setter) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            reader.nextNull();
+        } else {
+            setter.accept(reader.nextLong());
+        }
+    }
+
+    private static void readInstant(@Nonnull final JsonReader reader, @Nonnull final Consumer<Instant> setter) throws IOException {
+        final String value = nextString(reader);
+        if (value != null) {
+            try {
+                setter.accept(TimestampCodec.parseISO8601(value));
+            } catch (final DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid JSON; invalid time '" + value + "'", e);
+            }
+        }
+    }
+
+    private static void readDuration(@Nonnull final JsonReader reader, @Nonnull final Consumer<Duration> setter) throws IOException {
+        readLong(reader, millis -> setter.accept(Duration.ofMillis(millis)));
+    }
+
+    private static <T> void readValue(@Nonnull final JsonReader reader, @Nonnull final ValueReader<T> valueReader, @Nonnull final Consumer<T> setter) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            reader.nextNull();
+            return;
+        }
+        final T value = valueReader.read(reader);
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    private static <T> void readArray(@Nonnull final JsonReader reader, @Nonnull final ValueReader<T> valueReader, @Nonnull final Consumer<T> adder) throws IOException {
+        if (reader.peek() == JsonReader.Token.NULL) {
+            reader.nextNull();
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            final T value = valueReader.read(reader);
+            if (value != null) {
+                adder.accept(value);
+            }
+        }
+        reader.endArray();
+    }
+}
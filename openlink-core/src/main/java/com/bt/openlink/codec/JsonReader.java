@@ -0,0 +1,470 @@
+package com.bt.openlink.codec;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Reads a JSON document one token at a time from a {@link Reader}, holding no more than a small buffer of it in memory.
+ * Each method either consumes the next token, if it is of the expected type, or throws an
+ * {@link IllegalArgumentException} describing what was found instead.
+ */
+public final class JsonReader {
+
+    /**
+     * The type of a JSON token.
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int DOCUMENT_START = 0;
+    private static final int DOCUMENT_END = 1;
+    private static final int OBJECT_START = 2;
+    private static final int OBJECT_AFTER_NAME = 3;
+    private static final int OBJECT_AFTER_VALUE = 4;
+    private static final int ARRAY_START = 5;
+    private static final int ARRAY_AFTER_VALUE = 6;
+
+    @Nonnull private final Reader in;
+    @Nonnull private final char[] buffer = new char[1024];
+    private int position;
+    private int limit;
+    private long bufferOffset;
+    @Nonnull private int[] stack = new int[16];
+    private int depth;
+    private Token peeked;
+    @Nonnull private final StringBuilder stringBuilder = new StringBuilder();
+
+    /**
+     * @param in
+     *            the document to read; it is not closed by this reader
+     */
+    public JsonReader(@Nonnull final Reader in) {
+        this.in = in;
+        stack[depth++] = DOCUMENT_START;
+    }
+
+    /**
+     * @return the type of the next token, without consuming it
+     * @throws IOException
+     *             if the document could not be read
+     */
+    @Nonnull
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        final int context = stack[depth - 1];
+        int c;
+        switch (context) {
+        case OBJECT_START:
+        case OBJECT_AFTER_VALUE:
+            c = nextNonWhitespace();
+            if (c == '}') {
+                peeked = Token.END_OBJECT;
+            } else {
+                if (context == OBJECT_AFTER_VALUE) {
+                    if (c != ',') {
+                        throw syntaxError("expected ',' or '}'", c);
+                    }
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw syntaxError("expected a name", c);
+                }
+                peeked = Token.NAME;
+            }
+            break;
+        case OBJECT_AFTER_NAME:
+            c = nextNonWhitespace();
+            if (c != ':') {
+                throw syntaxError("expected ':'", c);
+            }
+            peeked = valueToken(nextNonWhitespace());
+            break;
+        case ARRAY_START:
+        case ARRAY_AFTER_VALUE:
+            c = nextNonWhitespace();
+            if (c == ']') {
+                peeked = Token.END_ARRAY;
+            } else {
+                if (context == ARRAY_AFTER_VALUE) {
+                    if (c != ',') {
+                        throw syntaxError("expected ',' or ']'", c);
+                    }
+                    c = nextNonWhitespace();
+                }
+                peeked = valueToken(c);
+            }
+            break;
+        case DOCUMENT_START:
+            peeked = valueToken(nextNonWhitespace());
+            break;
+        default:
+            c = nextNonWhitespace();
+            if (c != -1) {
+                throw syntaxError("expected the end of the document", c);
+            }
+            peeked = Token.END_DOCUMENT;
+            break;
+        }
+        return peeked;
+    }
+
+    /**
+     * @return true if the current object or array has another element
+     * @throws IOException
+     *             if the document could not be read
+     */
+    public boolean hasNext() throws IOException {
+        final Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    public void beginObject() throws IOException {
+        consume(Token.BEGIN_OBJECT);
+        valueConsumed();
+        push(OBJECT_START);
+    }
+
+    public void endObject() throws IOException {
+        consume(Token.END_OBJECT);
+        depth--;
+    }
+
+    public void beginArray() throws IOException {
+        consume(Token.BEGIN_ARRAY);
+        valueConsumed();
+        push(ARRAY_START);
+    }
+
+    public void endArray() throws IOException {
+        consume(Token.END_ARRAY);
+        depth--;
+    }
+
+    @Nonnull
+    public String nextName() throws IOException {
+        consume(Token.NAME);
+        final String name = readString();
+        stack[depth - 1] = OBJECT_AFTER_NAME;
+        return name;
+    }
+
+    @Nonnull
+    public String nextString() throws IOException {
+        consume(Token.STRING);
+        valueConsumed();
+        return readString();
+    }
+
+    public long nextLong() throws IOException {
+        consume(Token.NUMBER);
+        valueConsumed();
+        boolean negative = false;
+        int c = read();
+        if (c == '-') {
+            negative = true;
+            c = read();
+        }
+        if (c < '0' || c > '9') {
+            throw syntaxError("expected a digit", c);
+        }
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            final int digit = c - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw syntaxError("number out of range", c);
+            }
+            value = value * 10 - digit;
+            c = read();
+        }
+        if (c == '.' || c == 'e' || c == 'E') {
+            throw syntaxError("expected a whole number", c);
+        }
+        unread(c);
+        if (!negative && value == Long.MIN_VALUE) {
+            throw syntaxError("number out of range", c);
+        }
+        return negative ? value : -value;
+    }
+
+    public boolean nextBoolean() throws IOException {
+        consume(Token.BOOLEAN);
+        valueConsumed();
+        if (read() == 't') {
+            readLiteral("rue");
+            return true;
+        }
+        readLiteral("alse");
+        return false;
+    }
+
+    public void nextNull() throws IOException {
+        consume(Token.NULL);
+        valueConsumed();
+        readLiteral("null");
+    }
+
+    /**
+     * Consumes the next value, including everything within it if it is an object or array. Nested objects and arrays
+     * are skipped without recursion, so however deeply they are nested the stack cannot overflow.
+     *
+     * @throws IOException
+     *             if the document could not be read
+     */
+    public void skipValue() throws IOException {
+        // The number of objects and arrays within the value that have been begun but not yet ended
+        int nesting = 0;
+        do {
+            final Token token = peek();
+            if (nesting == 0 && (token == Token.NAME || token == Token.END_OBJECT || token == Token.END_ARRAY)) {
+                throw syntaxError("expected a value", -1);
+            }
+            switch (token) {
+            case BEGIN_OBJECT:
+                beginObject();
+                nesting++;
+                break;
+            case END_OBJECT:
+                endObject();
+                nesting--;
+                break;
+            case BEGIN_ARRAY:
+                beginArray();
+                nesting++;
+                break;
+            case END_ARRAY:
+                endArray();
+                nesting--;
+                break;
+            case NAME:
+                nextName();
+                break;
+            case STRING:
+                consume(Token.STRING);
+                valueConsumed();
+                skipString();
+                break;
+            case NUMBER:
+                consume(Token.NUMBER);
+                valueConsumed();
+                int c;
+                do {
+                    c = read();
+                } while ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E');
+                unread(c);
+                break;
+            case BOOLEAN:
+                nextBoolean();
+                break;
+            case NULL:
+                nextNull();
+                break;
+            default:
+                throw syntaxError("expected a value", -1);
+            }
+        } while (nesting > 0);
+    }
+
+    private void consume(@Nonnull final Token expected) throws IOException {
+        final Token token = peek();
+        if (token != expected) {
+            throw new IllegalArgumentException("Invalid JSON; expected " + expected + " but was " + token + " at offset " + offset());
+        }
+        peeked = null;
+    }
+
+    private void valueConsumed() {
+        switch (stack[depth - 1]) {
+        case DOCUMENT_START:
+            stack[depth - 1] = DOCUMENT_END;
+            break;
+        case OBJECT_AFTER_NAME:
+            stack[depth - 1] = OBJECT_AFTER_VALUE;
+            break;
+        case ARRAY_START:
+            stack[depth - 1] = ARRAY_AFTER_VALUE;
+            break;
+        default:
+            break;
+        }
+    }
+
+    private void push(final int context) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = context;
+    }
+
+    /**
+     * @return the token starting with the given character; the opening quote of a string is consumed, the first
+     *         character of any other scalar is left to be read again
+     */
+    @Nonnull
+    private Token valueToken(final int c) {
+        switch (c) {
+        case '{':
+            return Token.BEGIN_OBJECT;
+        case '[':
+            return Token.BEGIN_ARRAY;
+        case '"':
+            return Token.STRING;
+        case 't':
+        case 'f':
+            unread(c);
+            return Token.BOOLEAN;
+        case 'n':
+            unread(c);
+            return Token.NULL;
+        default:
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                unread(c);
+                return Token.NUMBER;
+            }
+            throw syntaxError("expected a value", c);
+        }
+    }
+
+    @Nonnull
+    private String readString() throws IOException {
+        // Most strings have no escapes and fit in the buffer, so can be copied straight from it
+        int start = position;
+        for (int i = position; i < limit; i++) {
+            final char c = buffer[i];
+            if (c == '"') {
+                position = i + 1;
+                return new String(buffer, start, i - start);
+            }
+            if (c == '\\') {
+                break;
+            }
+        }
+        stringBuilder.setLength(0);
+        while (true) {
+            if (position == limit && !fill()) {
+                throw syntaxError("unterminated string", -1);
+            }
+            start = position;
+            while (position < limit) {
+                final char c = buffer[position++];
+                if (c == '"') {
+                    stringBuilder.append(buffer, start, position - start - 1);
+                    return stringBuilder.toString();
+                }
+                if (c == '\\') {
+                    stringBuilder.append(buffer, start, position - start - 1);
+                    stringBuilder.append(readEscape());
+                    start = position;
+                }
+            }
+            stringBuilder.append(buffer, start, position - start);
+        }
+    }
+
+    private void skipString() throws IOException {
+        int c;
+        while ((c = read()) != '"') {
+            if (c == -1) {
+                throw syntaxError("unterminated string", c);
+            }
+            if (c == '\\') {
+                readEscape();
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        final int c = read();
+        switch (c) {
+        case '"':
+        case '\\':
+        case '/':
+            return (char) c;
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'u':
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                final int digit = Character.digit(read(), 16);
+                if (digit < 0) {
+                    throw syntaxError("invalid unicode escape", c);
+                }
+                value = (value << 4) | digit;
+            }
+            return (char) value;
+        default:
+            throw syntaxError("invalid escape", c);
+        }
+    }
+
+    private void readLiteral(@Nonnull final String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            final int c = read();
+            if (c != literal.charAt(i)) {
+                throw syntaxError("expected '" + literal + "'", c);
+            }
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c == ' ' || c == '\n' || c == '\r' || c == '\t');
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Steps back over the character just returned by {@link #read()}, which is always still in the buffer.
+     */
+    private void unread(final int c) {
+        if (c != -1) {
+            position--;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        bufferOffset += limit;
+        position = 0;
+        limit = 0;
+        int count;
+        do {
+            count = in.read(buffer, 0, buffer.length);
+        } while (count == 0);
+        if (count < 0) {
+            return false;
+        }
+        limit = count;
+        return true;
+    }
+
+    private long offset() {
+        return bufferOffset + position;
+    }
+
+    @Nonnull
+    private IllegalArgumentException syntaxError(@Nonnull final String message, final int c) {
+        final String found = c == -1 ? "the end of the document" : "'" + (char) c + "'";
+        return new IllegalArgumentException("Invalid JSON; " + message + " but found " + found + " at offset " + offset());
+    }
+}
@@ -0,0 +1,328 @@
+package com.bt.openlink.codec;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Writes a JSON document one token at a time, directly to a {@link Writer} or as UTF-8 to a {@link ByteBuffer}, without
+ * building the document in memory. Names and values are written in the order they are supplied; the writer checks only
+ * that the tokens form a single well-formed JSON value.
+ */
+public final class JsonWriter implements Flushable {
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int NONEMPTY_OBJECT = 3;
+    private static final int DANGLING_NAME = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final String[] REPLACEMENT_CHARS = new String[128];
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            REPLACEMENT_CHARS[i] = String.format("\\u%04x", i);
+        }
+        REPLACEMENT_CHARS['"'] = "\\\"";
+        REPLACEMENT_CHARS['\\'] = "\\\\";
+        REPLACEMENT_CHARS['\t'] = "\\t";
+        REPLACEMENT_CHARS['\b'] = "\\b";
+        REPLACEMENT_CHARS['\n'] = "\\n";
+        REPLACEMENT_CHARS['\r'] = "\\r";
+        REPLACEMENT_CHARS['\f'] = "\\f";
+    }
+
+    @Nonnull private final Writer out;
+    @Nonnull private int[] stack = new int[16];
+    private int depth;
+    @Nonnull private final char[] digits = new char[20];
+
+    /**
+     * @param out
+     *            where to write the document; it is neither buffered nor closed by this writer
+     */
+    public JsonWriter(@Nonnull final Writer out) {
+        this.out = out;
+        stack[depth++] = EMPTY_DOCUMENT;
+    }
+
+    /**
+     * @param buffer
+     *            where to write the UTF-8 encoded document, starting at its current position. A
+     *            {@link BufferOverflowException} is thrown if the document does not fit.
+     */
+    public JsonWriter(@Nonnull final ByteBuffer buffer) {
+        this(new ByteBufferWriter(buffer));
+    }
+
+    @Nonnull
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        out.write('{');
+        return this;
+    }
+
+    @Nonnull
+    public JsonWriter endObject() throws IOException {
+        final int context = stack[depth - 1];
+        if (context != EMPTY_OBJECT && context != NONEMPTY_OBJECT) {
+            throw new IllegalStateException("Unable to end an object; " + describe(context));
+        }
+        depth--;
+        out.write('}');
+        return this;
+    }
+
+    @Nonnull
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        out.write('[');
+        return this;
+    }
+
+    @Nonnull
+    public JsonWriter endArray() throws IOException {
+        final int context = stack[depth - 1];
+        if (context != EMPTY_ARRAY && context != NONEMPTY_ARRAY) {
+            throw new IllegalStateException("Unable to end an array; " + describe(context));
+        }
+        depth--;
+        out.write(']');
+        return this;
+    }
+
+    @Nonnull
+    public JsonWriter name(@Nonnull final String name) throws IOException {
+        final int context = stack[depth - 1];
+        if (context == NONEMPTY_OBJECT) {
+            out.write(',');
+        } else if (context != EMPTY_OBJECT) {
+            throw new IllegalStateException("Unable to write the name '" + name + "'; " + describe(context));
+        }
+        stack[depth - 1] = DANGLING_NAME;
+        writeString(name);
+        out.write(':');
+        return this;
+    }
+
+    @Nonnull
+    public JsonWriter value(@Nullable final String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+
+    @Nonnull
+    public JsonWriter value(final long value) throws IOException {
+        beforeValue();
+        if (value == Long.MIN_VALUE) {
+            out.write(Long.toString(value));
+            return this;
+        }
+        long remaining = Math.abs(value);
+        int start = digits.length;
+        do {
+            digits[--start] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (value < 0) {
+            digits[--start] = '-';
+        }
+        out.write(digits, start, digits.length - start);
+        return this;
+    }
+
+    @Nonnull
+    public JsonWriter value(final boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    @Nonnull
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        out.write("null");
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void beforeValue() throws IOException {
+        final int context = stack[depth - 1];
+        switch (context) {
+        case EMPTY_DOCUMENT:
+            stack[depth - 1] = NONEMPTY_DOCUMENT;
+            break;
+        case EMPTY_ARRAY:
+            stack[depth - 1] = NONEMPTY_ARRAY;
+            break;
+        case NONEMPTY_ARRAY:
+            out.write(',');
+            break;
+        case DANGLING_NAME:
+            stack[depth - 1] = NONEMPTY_OBJECT;
+            break;
+        default:
+            throw new IllegalStateException("Unable to write a value; " + describe(context));
+        }
+    }
+
+    private void push(final int context) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = context;
+    }
+
+    @Nonnull
+    private static String describe(final int context) {
+        switch (context) {
+        case NONEMPTY_DOCUMENT:
+            return "the document is complete";
+        case EMPTY_OBJECT:
+        case NONEMPTY_OBJECT:
+            return "a name is expected";
+        case DANGLING_NAME:
+            return "a value is expected";
+        default:
+            return "not within an object";
+        }
+    }
+
+    private void writeString(@Nonnull final String value) throws IOException {
+        out.write('"');
+        int last = 0;
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            final String replacement;
+            if (c < 128) {
+                replacement = REPLACEMENT_CHARS[c];
+                if (replacement == null) {
+                    continue;
+                }
+            } else if (c == '\u2028') {
+                replacement = "\\u2028";
+            } else if (c == '\u2029') {
+                replacement = "\\u2029";
+            } else {
+                continue;
+            }
+            if (last < i) {
+                out.write(value, last, i - last);
+            }
+            out.write(replacement);
+            last = i + 1;
+        }
+        if (last < length) {
+            out.write(value, last, length - last);
+        }
+        out.write('"');
+    }
+
+    /**
+     * Encodes characters as UTF-8 straight into a buffer, so that no intermediate string or character buffer is needed.
+     */
+    private static final class ByteBufferWriter extends Writer {
+
+        @Nonnull private final ByteBuffer buffer;
+        private char highSurrogate;
+
+        private ByteBufferWriter(@Nonnull final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(final int c) {
+            final char ch = (char) c;
+            if (highSurrogate != 0) {
+                final char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate(ch)) {
+                    final int codePoint = Character.toCodePoint(high, ch);
+                    require(4);
+                    buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                    return;
+                }
+                require(1);
+                buffer.put((byte) '?');
+            }
+            if (ch < 0x80) {
+                require(1);
+                buffer.put((byte) ch);
+            } else if (ch < 0x800) {
+                require(2);
+                buffer.put((byte) (0xC0 | (ch >> 6)));
+                buffer.put((byte) (0x80 | (ch & 0x3F)));
+            } else if (Character.isHighSurrogate(ch)) {
+                highSurrogate = ch;
+            } else if (Character.isLowSurrogate(ch)) {
+                require(1);
+                buffer.put((byte) '?');
+            } else {
+                require(3);
+                buffer.put((byte) (0xE0 | (ch >> 12)));
+                buffer.put((byte) (0x80 | ((ch >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (ch & 0x3F)));
+            }
+        }
+
+        @Override
+        public void write(@Nonnull final char[] chars, final int offset, final int length) {
+            for (int i = offset; i < offset + length; i++) {
+                write(chars[i]);
+            }
+        }
+
+        @Override
+        public void write(@Nonnull final String string, final int offset, final int length) {
+            final int end = offset + length;
+            int i = offset;
+            while (i < end) {
+                final char ch = string.charAt(i);
+                if (ch < 0x80 && highSurrogate == 0 && buffer.hasRemaining()) {
+                    buffer.put((byte) ch);
+                } else {
+                    write(ch);
+                }
+                i++;
+            }
+        }
+
+        private void require(final int length) {
+            if (buffer.remaining() < length) {
+                throw new BufferOverflowException();
+            }
+        }
+
+        @Override
+        public void flush() {
+            // Nothing is buffered
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.bt.openlink.correlation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Correlates the results of requests with the requests awaiting them, by stanza id, failing any request whose result
+ * does not arrive in time.
+ * <p>
+ * Rather than schedule a timer for each request, the registry places each in one bucket of a hashed timing wheel - an
+ * array of buckets, one for each tick of a clock, where a request's bucket is its deadline tick modulo the number of
+ * buckets. A single task advances the wheel every tick, failing the requests in the new bucket that are due. So
+ * registering and completing a request costs the same however many are pending, and creates no timer; the cost is
+ * that a request times out up to a tick late.
+ * <p>
+ * A request that times out is remembered for a further timeout period, so that its result, if it then arrives, is
+ * counted as {@link #getLateResultCount() late}. A result for any other unknown stanza id is ignored.
+ * <p>
+ * The registry is thread-safe. Futures are completed on the thread that supplies the result, or that advances the
+ * wheel.
+ *
+ * @param <R>
+ *            the type of result
+ */
+public final class PendingResultRegistry<R> implements AutoCloseable {
+
+    private static final int PENDING = 0;
+    private static final int COMPLETED = 1;
+    private static final int TIMED_OUT = 2;
+
+    @Nonnull private final LongSupplier nanoTime;
+    private final long tickNanos;
+    private final long startNanos;
+    @Nonnull private final Bucket<R>[] wheel;
+    private final int mask;
+    @Nonnull private final ConcurrentMap<String, Timeout<R>> timeoutsById = new ConcurrentHashMap<>();
+    @Nonnull private final LongAdder completedCount = new LongAdder();
+    @Nonnull private final LongAdder timedOutCount = new LongAdder();
+    @Nonnull private final LongAdder lateResultCount = new LongAdder();
+    @Nullable private final ScheduledFuture<?> tickTask;
+    // The last tick whose bucket has been, or is being, expired
+    private volatile long tick;
+
+    /**
+     * Creates a registry whose wheel is advanced by a task scheduled on an executor.
+     *
+     * @param executor
+     *            the executor to advance the wheel
+     * @param tickDuration
+     *            the time between ticks; timeouts are rounded up to a whole number of ticks
+     * @param ticksPerWheel
+     *            the number of buckets in the wheel, rounded up to a power of two; ideally enough to span the longest
+     *            timeout, so that each request is examined only when it is due
+     */
+    public PendingResultRegistry(@Nonnull final ScheduledExecutorService executor, @Nonnull final Duration tickDuration, final int ticksPerWheel) {
+        this(System::nanoTime, tickDuration, ticksPerWheel, executor);
+    }
+
+    /**
+     * Creates a registry whose wheel is only advanced by calls to {@link #expireTimeouts()}.
+     */
+    PendingResultRegistry(@Nonnull final LongSupplier nanoTime, @Nonnull final Duration tickDuration, final int ticksPerWheel) {
+        this(nanoTime, tickDuration, ticksPerWheel, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private PendingResultRegistry(@Nonnull final LongSupplier nanoTime, @Nonnull final Duration tickDuration, final int ticksPerWheel, @Nullable final ScheduledExecutorService executor) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("The tick duration must be positive");
+        }
+        if (ticksPerWheel < 1 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("The number of ticks per wheel must be between 1 and 2^30");
+        }
+        this.nanoTime = nanoTime;
+        this.tickNanos = tickDuration.toNanos();
+        this.startNanos = nanoTime.getAsLong();
+        int wheelSize = 1;
+        while (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+        this.wheel = (Bucket<R>[]) new Bucket<?>[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket<>();
+        }
+        this.mask = wheelSize - 1;
+        this.tickTask = executor == null ? null : executor.scheduleAtFixedRate(this::expireTimeouts, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registers a request that is awaiting its result.
+     *
+     * @param stanzaId
+     *            the id of the request, which its result will share
+     * @param timeout
+     *            how long to wait for the result
+     * @return a future completed with the result, or exceptionally with a {@link TimeoutException} if it does not arrive
+     *         in time
+     * @throws IllegalArgumentException
+     *             if a request with the same id is already registered
+     */
+    @Nonnull
+    public CompletableFuture<R> register(@Nonnull final String stanzaId, @Nonnull final Duration timeout) {
+        final long timeoutNanos = timeout.toNanos();
+        // Round the deadline up, so that a request never times out early
+        final long deadlineTick = (nanoTime.getAsLong() - startNanos + timeoutNanos + tickNanos - 1) / tickNanos;
+        final Timeout<R> entry = new Timeout<>(stanzaId, timeoutNanos, deadlineTick);
+        if (timeoutsById.putIfAbsent(stanzaId, entry) != null) {
+            throw new IllegalArgumentException("A request with the stanza id '" + stanzaId + "' is already registered");
+        }
+        final Bucket<R> bucket = wheel[(int) (deadlineTick & mask)];
+        boolean due = false;
+        synchronized (bucket) {
+            // The request may already have been completed, and the wheel may have passed the deadline
+            if (entry.state == PENDING) {
+                due = tick >= deadlineTick;
+                if (!due) {
+                    bucket.link(entry);
+                }
+            }
+        }
+        if (due) {
+            timeOut(entry);
+        }
+        return entry.future;
+    }
+
+    /**
+     * Completes the request awaiting a result.
+     *
+     * @param stanzaId
+     *            the id of the result
+     * @param result
+     *            the result
+     * @return {@code true} if a request was awaiting the result, otherwise {@code false}
+     */
+    public boolean complete(@Nonnull final String stanzaId, @Nonnull final R result) {
+        final Timeout<R> entry = remove(stanzaId, true);
+        return entry != null && entry.future.complete(result);
+    }
+
+    /**
+     * Fails the request awaiting a result, e.g. because it could not be sent.
+     *
+     * @param stanzaId
+     *            the id of the request
+     * @param throwable
+     *            the reason the request failed
+     * @return {@code true} if the request was awaiting its result, otherwise {@code false}
+     */
+    public boolean completeExceptionally(@Nonnull final String stanzaId, @Nonnull final Throwable throwable) {
+        final Timeout<R> entry = remove(stanzaId, false);
+        return entry != null && entry.future.completeExceptionally(throwable);
+    }
+
+    @Nullable
+    private Timeout<R> remove(@Nonnull final String stanzaId, final boolean resultReceived) {
+        final Timeout<R> entry = timeoutsById.remove(stanzaId);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.compareAndSetState(PENDING, COMPLETED)) {
+            // Only a request that has timed out can be in the map but not pending
+            if (resultReceived) {
+                lateResultCount.increment();
+            }
+            return null;
+        }
+        final Bucket<R> bucket = wheel[(int) (entry.deadlineTick & mask)];
+        synchronized (bucket) {
+            bucket.unlink(entry);
+        }
+        completedCount.increment();
+        return entry;
+    }
+
+    /**
+     * Advances the wheel to the current time, failing every request that is due. Only needs to be called if the
+     * registry is not advanced by an executor.
+     */
+    public synchronized void expireTimeouts() {
+        final long currentTick = (nanoTime.getAsLong() - startNanos) / tickNanos;
+        while (tick < currentTick) {
+            final long expiringTick = tick + 1;
+            tick = expiringTick;
+            final List<Timeout<R>> dueTimeouts = new ArrayList<>();
+            final Bucket<R> bucket = wheel[(int) (expiringTick & mask)];
+            synchronized (bucket) {
+                Timeout<R> entry = bucket.head;
+                while (entry != null) {
+                    final Timeout<R> next = entry.next;
+                    if (entry.deadlineTick <= expiringTick) {
+                        bucket.unlink(entry);
+                        if (entry.state == PENDING) {
+                            dueTimeouts.add(entry);
+                        } else {
+                            // Either a request that timed out and has been remembered long enough, or one that is
+                            // being completed
+                            timeoutsById.remove(entry.stanzaId, entry);
+                        }
+                    }
+                    entry = next;
+                }
+            }
+            dueTimeouts.forEach(this::timeOut);
+        }
+    }
+
+    private void timeOut(@Nonnull final Timeout<R> entry) {
+        if (!entry.compareAndSetState(PENDING, TIMED_OUT)) {
+            return;
+        }
+        timedOutCount.increment();
+        entry.future.completeExceptionally(new TimeoutException("No result received for the request with stanza id '" + entry.stanzaId + "'"));
+        // Remember the request for a further period so a late result can be counted
+        entry.deadlineTick += (entry.timeoutNanos + tickNanos - 1) / tickNanos;
+        final Bucket<R> bucket = wheel[(int) (entry.deadlineTick & mask)];
+        synchronized (bucket) {
+            bucket.link(entry);
+        }
+    }
+
+    /**
+     * @return the number of requests awaiting their result, or that have timed out and are remembered
+     */
+    public int size() {
+        return timeoutsById.size();
+    }
+
+    /**
+     * @return the number of requests that have been completed, successfully or otherwise, before they timed out
+     */
+    public long getCompletedCount() {
+        return completedCount.sum();
+    }
+
+    /**
+     * @return the number of requests that have timed out
+     */
+    public long getTimedOutCount() {
+        return timedOutCount.sum();
+    }
+
+    /**
+     * @return the number of results that arrived after their request had timed out
+     */
+    public long getLateResultCount() {
+        return lateResultCount.sum();
+    }
+
+    /**
+     * Stops advancing the wheel, if it is advanced by an executor. Requests still awaiting their result will no longer
+     * time out.
+     */
+    @Override
+    public void close() {
+        if (tickTask != null) {
+            tickTask.cancel(false);
+        }
+    }
+
+    /**
+     * A doubly linked list of the requests due in one tick of each rotation of the wheel; only accessed whilst holding
+     * its lock.
+     */
+    private static final class Bucket<R> {
+
+        @Nullable private Timeout<R> head;
+
+        private void link(@Nonnull final Timeout<R> entry) {
+            entry.linked = true;
+            entry.previous = null;
+            entry.next = head;
+            if (head != null) {
+                head.previous = entry;
+            }
+            head = entry;
+        }
+
+        private void unlink(@Nonnull final Timeout<R> entry) {
+            if (!entry.linked) {
+                return;
+            }
+            if (entry.previous == null) {
+                head = entry.next;
+            } else {
+                entry.previous.next = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.previous = entry.previous;
+            }
+            entry.linked = false;
+            entry.previous = null;
+            entry.next = null;
+        }
+    }
+
+    private static final class Timeout<R> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        @Nonnull private final String stanzaId;
+        private final long timeoutNanos;
+        @Nonnull private final CompletableFuture<R> future = new CompletableFuture<>();
+        private volatile int state = PENDING;
+        // Only changed once the request has timed out, by the thread that timed it out
+        private volatile long deadlineTick;
+        // The following are guarded by the lock of the bucket for the deadline tick
+        private boolean linked;
+        @Nullable private Timeout<R> previous;
+        @Nullable private Timeout<R> next;
+
+        private Timeout(@Nonnull final String stanzaId, final long timeoutNanos, final long deadlineTick) {
+            this.stanzaId = stanzaId;
+            this.timeoutNanos = timeoutNanos;
+            this.deadlineTick = deadlineTick;
+        }
+
+        private boolean compareAndSetState(final int expectedState, final int newState) {
+            return STATE.compareAndSet(this, expectedState, newState);
+        }
+    }
+}
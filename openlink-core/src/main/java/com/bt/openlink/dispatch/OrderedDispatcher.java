@@ -0,0 +1,318 @@
+package com.bt.openlink.dispatch;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Handles events on a fixed number of lanes, each a single thread with its own bounded queue. Every event is given a
+ * key - for call status events, the interest or pub-sub node they relate to - and all the events with the same key are
+ * handled on the same lane, so in the order they were dispatched. Events with different keys are usually handled on
+ * different lanes, so in parallel. An event without a key is handled on the first lane.
+ * <p>
+ * When the queue of a lane is full, {@link #dispatch(Object)} waits for room, so a thread that receives events faster
+ * than they are handled is slowed to match; {@link #tryDispatch(Object, Duration)} gives up instead, leaving the caller
+ * to decide what to drop.
+ * <p>
+ * If the handler throws an exception, it is passed to the lane thread's
+ * {@link Thread.UncaughtExceptionHandler uncaught exception handler} and the lane carries on with the next event. If
+ * it throws an error, the lane ends and the error is passed to the same handler; dispatching an event to that lane
+ * then fails. Interrupting a lane's thread interrupts the event being handled, not the lane, which only ends once the
+ * dispatcher is closed.
+ * <p>
+ * The lanes are platform threads by default. On a runtime with virtual threads, {@link #virtualThreadFactory()} can be
+ * used to create lanes that tie up no platform thread whilst they wait for events, e.g. when there are many more lanes
+ * than cores.
+ *
+ * @param <E>
+ *            the type of event
+ */
+public final class OrderedDispatcher<E> implements AutoCloseable {
+
+    private static final Object CLOSE = new Object();
+    private static final long LANE_CHECK_INTERVAL_MILLIS = 100;
+    private static final AtomicInteger DISPATCHER_COUNT = new AtomicInteger();
+
+    @Nonnull private final Function<? super E, ?> keyFunction;
+    @Nonnull private final Consumer<? super E> handler;
+    @Nonnull private final List<Lane> lanes;
+    private volatile boolean closed;
+
+    /**
+     * Creates a dispatcher whose lanes are daemon platform threads.
+     *
+     * @param laneCount
+     *            the number of lanes; typically the number of cores available
+     * @param queueCapacity
+     *            the number of events each lane can hold before dispatching waits
+     * @param keyFunction
+     *            returns the key of an event, or {@code null} if it has none
+     * @param handler
+     *            handles each event
+     */
+    public OrderedDispatcher(final int laneCount, final int queueCapacity, @Nonnull final Function<? super E, ?> keyFunction, @Nonnull final Consumer<? super E> handler) {
+        this(laneCount, queueCapacity, keyFunction, handler, platformThreadFactory());
+    }
+
+    /**
+     * Creates a dispatcher whose lanes are created by a thread factory.
+     *
+     * @param laneCount
+     *            the number of lanes; typically the number of cores available
+     * @param queueCapacity
+     *            the number of events each lane can hold before dispatching waits
+     * @param keyFunction
+     *            returns the key of an event, or {@code null} if it has none
+     * @param handler
+     *            handles each event
+     * @param threadFactory
+     *            creates the thread for each lane
+     */
+    public OrderedDispatcher(final int laneCount, final int queueCapacity, @Nonnull final Function<? super E, ?> keyFunction, @Nonnull final Consumer<? super E> handler, @Nonnull final ThreadFactory threadFactory) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("There must be at least one lane");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("The queue capacity must be at least one");
+        }
+        this.keyFunction = keyFunction;
+        this.handler = handler;
+        final List<Lane> newLanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            newLanes.add(new Lane(queueCapacity, threadFactory));
+        }
+        this.lanes = Collections.unmodifiableList(newLanes);
+        lanes.forEach(lane -> lane.thread.start());
+    }
+
+    /**
+     * @return a factory for virtual threads, if the runtime supports them
+     */
+    @Nonnull
+    public static Optional<ThreadFactory> virtualThreadFactory() {
+        try {
+            // Thread.ofVirtual().factory(), which cannot be called directly whilst Java 8 is supported
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return Optional.of((ThreadFactory) factory.invoke(builder));
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Nonnull
+    private static ThreadFactory platformThreadFactory() {
+        final String namePrefix = "openlink-dispatcher-" + DISPATCHER_COUNT.incrementAndGet() + "-lane-";
+        final AtomicInteger laneNumber = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, namePrefix + laneNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Queues an event to be handled after every event with the same key that has already been dispatched, waiting if
+     * the queue of its lane is full.
+     *
+     * @param event
+     *            the event to handle
+     * @throws InterruptedException
+     *             if interrupted whilst waiting for room in the queue
+     * @throws IllegalStateException
+     *             if the dispatcher has been closed, or the lane for the event has ended after an error
+     */
+    public void dispatch(@Nonnull final E event) throws InterruptedException {
+        checkNotClosed();
+        final Lane lane = getLane(event);
+        lane.checkNotFailed();
+        // Wait in steps, so that a lane ending whilst its queue is full does not leave the caller waiting forever
+        while (!lane.queue.offer(event, LANE_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+            lane.checkNotFailed();
+        }
+    }
+
+    /**
+     * Queues an event to be handled after every event with the same key that has already been dispatched, unless the
+     * queue of its lane remains full for the time given.
+     *
+     * @param event
+     *            the event to handle
+     * @param timeout
+     *            how long to wait for room in the queue; may be zero
+     * @return {@code true} if the event was queued, {@code false} if the queue was full
+     * @throws InterruptedException
+     *             if interrupted whilst waiting for room in the queue
+     * @throws IllegalStateException
+     *             if the dispatcher has been closed, or the lane for the event has ended after an error
+     */
+    public boolean tryDispatch(@Nonnull final E event, @Nonnull final Duration timeout) throws InterruptedException {
+        checkNotClosed();
+        final Lane lane = getLane(event);
+        lane.checkNotFailed();
+        return lane.queue.offer(event, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void checkNotClosed() {
+        if (closed) {
+            throw new IllegalStateException("The dispatcher has been closed");
+        }
+    }
+
+    @Nonnull
+    private Lane getLane(@Nonnull final E event) {
+        final Object key = keyFunction.apply(event);
+        if (key == null) {
+            return lanes.get(0);
+        }
+        // Spread the higher bits of the hash code, as keys often differ only in those
+        final int hashCode = key.hashCode();
+        return lanes.get(Math.floorMod(hashCode ^ (hashCode >>> 16), lanes.size()));
+    }
+
+    /**
+     * @return the number of lanes
+     */
+    public int getLaneCount() {
+        return lanes.size();
+    }
+
+    /**
+     * @return the number of events waiting to be handled, across all lanes
+     */
+    public int getQueuedCount() {
+        int queuedCount = 0;
+        for (final Lane lane : lanes) {
+            queuedCount += lane.queue.size();
+        }
+        return queuedCount;
+    }
+
+    /**
+     * Stops accepting events. Each lane handles the events already queued and then ends; an event dispatched whilst
+     * the dispatcher is being closed may not be handled. Waits for room in any full queue of a lane that has not ended
+     * after an error, but not for the lanes to end; see {@link #awaitTermination(Duration)}.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        boolean interrupted = false;
+        for (final Lane lane : lanes) {
+            while (lane.failure == null) {
+                try {
+                    if (lane.queue.offer(CLOSE, LANE_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        break;
+                    }
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for every lane to end after the dispatcher has been closed.
+     *
+     * @param timeout
+     *            how long to wait
+     * @return {@code true} if every lane has ended, {@code false} if the time elapsed first
+     * @throws InterruptedException
+     *             if interrupted whilst waiting
+     */
+    public boolean awaitTermination(@Nonnull final Duration timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        for (final Lane lane : lanes) {
+            final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            // Joining for zero milliseconds would wait forever
+            if (remainingMillis > 0) {
+                lane.thread.join(remainingMillis);
+            }
+        }
+        return lanes.stream().noneMatch(lane -> lane.thread.isAlive());
+    }
+
+    private final class Lane implements Runnable {
+
+        @Nonnull private final BlockingQueue<Object> queue;
+        @Nonnull private final Thread thread;
+        @Nullable private volatile Throwable failure;
+
+        private Lane(final int queueCapacity, @Nonnull final ThreadFactory threadFactory) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = threadFactory.newThread(this);
+        }
+
+        @Override
+        public void run() {
+            try {
+                Object event;
+                while ((event = take()) != CLOSE) {
+                    handle(event);
+                }
+                // Handle any events that raced with closing the dispatcher
+                while ((event = queue.poll()) != null) {
+                    if (event != CLOSE) {
+                        handle(event);
+                    }
+                }
+            } catch (final Throwable t) {
+                // Recorded before the thread ends, so that dispatching and closing stop waiting on this lane
+                failure = t;
+                throw t;
+            }
+        }
+
+        @Nonnull
+        private Object take() {
+            while (true) {
+                try {
+                    return queue.take();
+                } catch (final InterruptedException e) {
+                    // Only closing the dispatcher ends a lane
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void handle(@Nullable final Object event) {
+            try {
+                handler.accept((E) event);
+            } catch (final RuntimeException e) {
+                final Thread currentThread = Thread.currentThread();
+                final Thread.UncaughtExceptionHandler exceptionHandler = currentThread.getUncaughtExceptionHandler();
+                if (exceptionHandler != null) {
+                    exceptionHandler.uncaughtException(currentThread, e);
+                }
+            } finally {
+                // An interrupt of one event must not carry over to the next
+                Thread.interrupted();
+            }
+        }
+
+        private void checkNotFailed() {
+            final Throwable laneFailure = failure;
+            if (laneFailure != null) {
+                throw new IllegalStateException("The lane for the event has ended after an error", laneFailure);
+            }
+        }
+    }
+}
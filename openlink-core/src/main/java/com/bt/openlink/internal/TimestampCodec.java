@@ -0,0 +1,359 @@
+package com.bt.openlink.internal;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Formats and parses the timestamps that appear in Openlink stanzas. There are three formats in use;
+ * <ul>
+ * <li>ISO-8601 (as profiled by XEP-0082) with millisecond precision in UTC, e.g. {@code 2011-12-13T14:15:16.178Z}</li>
+ * <li>the format of {@link java.util.Date#toString()} in UTC, e.g. {@code Tue Dec 13 14:15:16 UTC 2011}</li>
+ * <li>the format of {@link Timestamp#toString()} in the default time zone, e.g. {@code 2011-12-13 14:15:16.178}</li>
+ * </ul>
+ * The common cases are formatted and parsed by hand, without going through a {@link DateTimeFormatter}. The text for
+ * the whole seconds of recently formatted values is cached, as the same start time is typically formatted many times
+ * (once for a call and again for each of its participants, and again for every subsequent event for that call).
+ * Anything outside the common cases falls back to the JDK, so the results (and exceptions) are the same as before.
+ */
+public final class TimestampCodec {
+
+    private static final DateTimeFormatter ISO_8601_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter JAVA_UTIL_DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.ENGLISH);
+    private static final String[] DAYS_OF_WEEK = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+    private static final String[] MONTHS = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+    private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+    private static final int[] POWERS_OF_TEN = { 1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000 };
+    // 0000-01-01T00:00:00Z and 10000-01-01T00:00:00Z; outside this range the year is not four digits
+    private static final long MIN_FAST_EPOCH_SECOND = -62167219200L;
+    private static final long MAX_FAST_EPOCH_SECOND = 253402300800L;
+    // 1900-01-01T00:00:00Z; java.sql.Timestamp uses the Julian calendar for older dates, so leave those to the JDK
+    private static final long MIN_FAST_SQL_EPOCH_SECOND = -2208988800L;
+    private static final int CACHE_SIZE = 256;
+    private static final SecondText[] ISO_8601_CACHE = new SecondText[CACHE_SIZE];
+    private static final SecondText[] JAVA_UTIL_DATE_CACHE = new SecondText[CACHE_SIZE];
+    private static final SecondText[] SQL_TIMESTAMP_CACHE = new SecondText[CACHE_SIZE];
+    private static volatile DefaultZone defaultZone = new DefaultZone(TimeZone.getDefault());
+
+    private TimestampCodec() {
+    }
+
+    /**
+     * @param instant
+     *            the instant to format
+     * @return the instant in ISO-8601 format, e.g. {@code 2011-12-13T14:15:16.178Z}
+     */
+    @Nonnull
+    public static String formatISO8601(@Nonnull final Instant instant) {
+        final long epochSecond = instant.getEpochSecond();
+        if (epochSecond < MIN_FAST_EPOCH_SECOND || epochSecond >= MAX_FAST_EPOCH_SECOND) {
+            return ISO_8601_FORMATTER.format(instant);
+        }
+        final String secondText = getSecondText(ISO_8601_CACHE, epochSecond, ZoneOffset.UTC, TimestampCodec::formatISO8601Seconds);
+        final int millis = instant.getNano() / 1_000_000;
+        final StringBuilder sb = new StringBuilder(24).append(secondText).append('.');
+        appendDigits(sb, millis, 3);
+        return sb.append('Z').toString();
+    }
+
+    /**
+     * @param text
+     *            the text to parse, in the ISO-8601 format produced by {@link Instant#toString()}
+     * @return the parsed instant
+     * @throws DateTimeParseException
+     *             if the text cannot be parsed
+     */
+    @Nonnull
+    public static Instant parseISO8601(@Nonnull final CharSequence text) {
+        // yyyy-MM-ddTHH:mm:ss[.f{1,9}]Z
+        final int length = text.length();
+        if (length >= 20 && length != 21 && length <= 30
+                && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == 'T'
+                && text.charAt(13) == ':' && text.charAt(16) == ':' && text.charAt(length - 1) == 'Z'
+                && (length == 20 || text.charAt(19) == '.')) {
+            final int year = parseDigits(text, 0, 4);
+            final int month = parseDigits(text, 5, 2);
+            final int day = parseDigits(text, 8, 2);
+            final int hour = parseDigits(text, 11, 2);
+            final int minute = parseDigits(text, 14, 2);
+            final int second = parseDigits(text, 17, 2);
+            int nanos = 0;
+            if (length > 20) {
+                final int fractionDigits = length - 21;
+                final int fraction = parseDigits(text, 20, fractionDigits);
+                nanos = fraction < 0 ? -1 : fraction * POWERS_OF_TEN[9 - fractionDigits];
+            }
+            if (year >= 0 && nanos >= 0 && isValidDateTime(year, month, day, hour, minute, second)) {
+                return Instant.ofEpochSecond(toEpochSecond(year, month, day, hour, minute, second), nanos);
+            }
+        }
+        return Instant.parse(text);
+    }
+
+    /**
+     * @param instant
+     *            the instant to format
+     * @return the instant in the format used by {@link java.util.Date#toString()}, in UTC, e.g.
+     *         {@code Tue Dec 13 14:15:16 UTC 2011}
+     */
+    @Nonnull
+    public static String formatJavaUtilDate(@Nonnull final Instant instant) {
+        final long epochSecond = instant.getEpochSecond();
+        if (epochSecond < MIN_FAST_EPOCH_SECOND || epochSecond >= MAX_FAST_EPOCH_SECOND) {
+            return JAVA_UTIL_DATE_FORMATTER.format(instant.atZone(ZoneId.of("UTC")));
+        }
+        return getSecondText(JAVA_UTIL_DATE_CACHE, epochSecond, ZoneOffset.UTC, TimestampCodec::formatJavaUtilDateSeconds);
+    }
+
+    /**
+     * @param text
+     *            the text to parse, in the format used by {@link java.util.Date#toString()}
+     * @return the parsed instant
+     * @throws DateTimeParseException
+     *             if the text cannot be parsed
+     */
+    @Nonnull
+    public static Instant parseJavaUtilDate(@Nonnull final CharSequence text) {
+        // EEE MMM dd HH:mm:ss UTC yyyy
+        if (text.length() == 28
+                && text.charAt(3) == ' ' && text.charAt(7) == ' ' && text.charAt(10) == ' '
+                && text.charAt(13) == ':' && text.charAt(16) == ':' && text.charAt(19) == ' '
+                && text.charAt(20) == 'U' && text.charAt(21) == 'T' && text.charAt(22) == 'C' && text.charAt(23) == ' ') {
+            final int month = indexOf(MONTHS, text, 4) + 1;
+            final int day = parseDigits(text, 8, 2);
+            final int hour = parseDigits(text, 11, 2);
+            final int minute = parseDigits(text, 14, 2);
+            final int second = parseDigits(text, 17, 2);
+            final int year = parseDigits(text, 24, 4);
+            if (year >= 0 && isValidDateTime(year, month, day, hour, minute, second)) {
+                final long epochSecond = toEpochSecond(year, month, day, hour, minute, second);
+                if (indexOf(DAYS_OF_WEEK, text, 0) == getDayOfWeekIndex(epochSecond)) {
+                    return Instant.ofEpochSecond(epochSecond);
+                }
+            }
+        }
+        return Instant.from(JAVA_UTIL_DATE_FORMATTER.parse(text));
+    }
+
+    /**
+     * @param instant
+     *            the instant to format
+     * @return the instant in the format used by {@link Timestamp#toString()}, in the default time zone, e.g.
+     *         {@code 2011-12-13 14:15:16.178}
+     */
+    @Nonnull
+    public static String formatSqlTimestamp(@Nonnull final Instant instant) {
+        final long epochSecond = instant.getEpochSecond();
+        if (epochSecond < MIN_FAST_SQL_EPOCH_SECOND || epochSecond >= MAX_FAST_EPOCH_SECOND) {
+            return Timestamp.from(instant).toString();
+        }
+        final String secondText = getSecondText(SQL_TIMESTAMP_CACHE, epochSecond, getDefaultZone(), TimestampCodec::formatSqlTimestampSeconds);
+        final int nanos = instant.getNano();
+        final StringBuilder sb = new StringBuilder(29).append(secondText).append('.');
+        if (nanos == 0) {
+            return sb.append('0').toString();
+        }
+        // Timestamp prints all nine digits of the nanoseconds, less any trailing zeros
+        int digits = 9;
+        int value = nanos;
+        while (value % 10 == 0) {
+            value /= 10;
+            digits--;
+        }
+        appendDigits(sb, value, digits);
+        return sb.toString();
+    }
+
+    /**
+     * @param text
+     *            the text to parse, in the format used by {@link Timestamp#toString()}, in the default time zone
+     * @return the parsed instant
+     * @throws IllegalArgumentException
+     *             if the text cannot be parsed
+     */
+    @Nonnull
+    public static Instant parseSqlTimestamp(@Nonnull final String text) {
+        return Timestamp.valueOf(text).toInstant();
+    }
+
+    @FunctionalInterface
+    private interface SecondsFormatter {
+        String format(long epochSecond, ZoneId zone);
+    }
+
+    private static final class SecondText {
+        private final long epochSecond;
+        @Nonnull private final ZoneId zone;
+        @Nonnull private final String text;
+
+        private SecondText(final long epochSecond, @Nonnull final ZoneId zone, @Nonnull final String text) {
+            this.epochSecond = epochSecond;
+            this.zone = zone;
+            this.text = text;
+        }
+    }
+
+    private static final class DefaultZone {
+        @Nonnull private final String timeZoneId;
+        @Nonnull private final ZoneId zone;
+
+        private DefaultZone(@Nonnull final TimeZone timeZone) {
+            this.timeZoneId = timeZone.getID();
+            this.zone = timeZone.toZoneId();
+        }
+    }
+
+    /**
+     * @return the same value as {@link ZoneId#systemDefault()}, but only converting the default time zone to a zone
+     *         when it has changed
+     */
+    @Nonnull
+    private static ZoneId getDefaultZone() {
+        final TimeZone timeZone = TimeZone.getDefault();
+        DefaultZone current = defaultZone;
+        if (!current.timeZoneId.equals(timeZone.getID())) {
+            current = new DefaultZone(timeZone);
+            defaultZone = current;
+        }
+        return current.zone;
+    }
+
+    @Nonnull
+    private static String getSecondText(@Nonnull final SecondText[] cache, final long epochSecond, @Nonnull final ZoneId zone, @Nonnull final SecondsFormatter formatter) {
+        // Entries are immutable, so a racing reader sees either a complete old entry or a complete new one
+        final int index = (int) (epochSecond & (CACHE_SIZE - 1));
+        final SecondText cached = cache[index];
+        if (cached != null && cached.epochSecond == epochSecond && cached.zone.equals(zone)) {
+            return cached.text;
+        }
+        final String text = formatter.format(epochSecond, zone);
+        cache[index] = new SecondText(epochSecond, zone, text);
+        return text;
+    }
+
+    @Nonnull
+    private static String formatISO8601Seconds(final long epochSecond, @Nonnull final ZoneId zone) {
+        final LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        final StringBuilder sb = new StringBuilder(19);
+        appendDate(sb, dateTime, '-');
+        sb.append('T');
+        appendTime(sb, dateTime);
+        return sb.toString();
+    }
+
+    @Nonnull
+    private static String formatJavaUtilDateSeconds(final long epochSecond, @Nonnull final ZoneId zone) {
+        final LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        final StringBuilder sb = new StringBuilder(28)
+                .append(DAYS_OF_WEEK[dateTime.getDayOfWeek().ordinal()]).append(' ')
+                .append(MONTHS[dateTime.getMonthValue() - 1]).append(' ');
+        appendDigits(sb, dateTime.getDayOfMonth(), 2);
+        sb.append(' ');
+        appendTime(sb, dateTime);
+        sb.append(" UTC ");
+        appendDigits(sb, dateTime.getYear(), 4);
+        return sb.toString();
+    }
+
+    @Nonnull
+    private static String formatSqlTimestampSeconds(final long epochSecond, @Nonnull final ZoneId zone) {
+        final LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone);
+        final StringBuilder sb = new StringBuilder(19);
+        appendDate(sb, dateTime, '-');
+        sb.append(' ');
+        appendTime(sb, dateTime);
+        return sb.toString();
+    }
+
+    private static void appendDate(@Nonnull final StringBuilder sb, @Nonnull final LocalDateTime dateTime, final char separator) {
+        appendDigits(sb, dateTime.getYear(), 4);
+        sb.append(separator);
+        appendDigits(sb, dateTime.getMonthValue(), 2);
+        sb.append(separator);
+        appendDigits(sb, dateTime.getDayOfMonth(), 2);
+    }
+
+    private static void appendTime(@Nonnull final StringBuilder sb, @Nonnull final LocalDateTime dateTime) {
+        appendDigits(sb, dateTime.getHour(), 2);
+        sb.append(':');
+        appendDigits(sb, dateTime.getMinute(), 2);
+        sb.append(':');
+        appendDigits(sb, dateTime.getSecond(), 2);
+    }
+
+    private static void appendDigits(@Nonnull final StringBuilder sb, final int value, final int digits) {
+        for (int divisor = POWERS_OF_TEN[digits - 1]; divisor > 0; divisor /= 10) {
+            sb.append((char) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    /**
+     * @return the value of the digits, or -1 if any of the characters is not a digit
+     */
+    private static int parseDigits(@Nonnull final CharSequence text, final int start, final int digits) {
+        int value = 0;
+        for (int i = start; i < start + digits; i++) {
+            final char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int indexOf(@Nonnull final String[] names, @Nonnull final CharSequence text, final int start) {
+        for (int i = 0; i < names.length; i++) {
+            final String name = names[i];
+            if (text.charAt(start) == name.charAt(0) && text.charAt(start + 1) == name.charAt(1) && text.charAt(start + 2) == name.charAt(2)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isValidDateTime(final int year, final int month, final int day, final int hour, final int minute, final int second) {
+        if (month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return false;
+        }
+        return day <= DAYS_IN_MONTH[month - 1] || (month == 2 && day == 29 && isLeapYear(year));
+    }
+
+    private static long toEpochSecond(final int year, final int month, final int day, final int hour, final int minute, final int second) {
+        // The same algorithm as LocalDate.toEpochDay(), without creating the LocalDate
+        long total = 365L * year;
+        if (year >= 0) {
+            total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        } else {
+            total -= year / -4 - year / -100 + year / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+        final long epochDay = total - 719528;
+        return epochDay * 86400 + hour * 3600 + minute * 60 + second;
+    }
+
+    private static boolean isLeapYear(final int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int getDayOfWeekIndex(final long epochSecond) {
+        // 1970-01-01 was a Thursday, index 3 counting from Monday
+        return (int) Math.floorMod(Math.floorDiv(epochSecond, 86400) + 3, 7L);
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.bt.openlink.iq;
+
+import java.io.Serializable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.HistoricalCall;
+
+/**
+ * Receives the contents of a get-call-history result as it is parsed, so that large results can be processed without
+ * holding every {@link HistoricalCall} in memory at once.
+ *
+ * @param <J>
+ *            the type of JID used by the XMPP library
+ */
+@FunctionalInterface
+public interface CallHistoryListener<J extends Serializable> {
+
+    /**
+     * Called once, before any calls are delivered, with the values from the callhistory element. Any value that is
+     * missing or invalid is {@code null}.
+     *
+     * @param totalRecordCount
+     *            the total number of records available
+     * @param firstRecordNumber
+     *            the number of the first record in this result
+     * @param recordCountInBatch
+     *            the number of records in this result
+     */
+    default void onCallHistory(@Nullable final Long totalRecordCount, @Nullable final Long firstRecordNumber, @Nullable final Long recordCountInBatch) {
+        // By default the header values are ignored
+    }
+
+    /**
+     * Called for each call in the result, in document order.
+     *
+     * @param call
+     *            the call that has just been parsed
+     */
+    void onHistoricalCall(@Nonnull final HistoricalCall<J> call);
+
+}
@@ -8,6 +8,7 @@ import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.HistoricalCall;
 
 public abstract class GetCallHistoryResultBuilder<B extends GetCallHistoryResultBuilder, J extends Serializable, T extends Enum<T>> extends IQBuilder<B, J, T> {
@@ -16,6 +17,7 @@ public abstract class GetCallHistoryResultBuilder<B extends GetCallHistoryResult
     @Nullable private Long firstRecordNumber;
     @Nullable private Long recordCountInBatch;
     @Nonnull private List<HistoricalCall<J>> calls = new ArrayList<>();
+    private long streamedCallCount;
 
     protected GetCallHistoryResultBuilder(final Class<T> typeClass) {
         super(typeClass);
@@ -59,6 +61,19 @@ public abstract class GetCallHistoryResultBuilder<B extends GetCallHistoryResult
         return (B) this;
     }
 
+    /**
+     * Records that a call has been passed to a {@link CallHistoryListener} rather than added to this builder, so that
+     * it is still included when validating the number of records in the batch.
+     *
+     * @return this builder
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    public B addStreamedCall() {
+        streamedCallCount++;
+        return (B) this;
+    }
+
     @Nonnull
     public Optional<Long> getTotalRecordCount() {
         return Optional.ofNullable(totalRecordCount);
@@ -79,18 +94,23 @@ public abstract class GetCallHistoryResultBuilder<B extends GetCallHistoryResult
         return calls;
     }
 
+    private long getCallCount() {
+        return calls.size() + streamedCallCount;
+    }
+
     @Override
     protected void validate() {
         super.validate();
         if (totalRecordCount == null) {
             throw new IllegalStateException("The total record count of the get-call-history result has not been set");
         }
-        if (firstRecordNumber == null && calls.size() > 0) {
+        final long callCount = getCallCount();
+        if (firstRecordNumber == null && callCount > 0) {
             throw new IllegalStateException("The first record number of the get-call-history result has not been set");
         }
         if (recordCountInBatch == null) {
-            recordCountInBatch = (long) calls.size();
-        } else if (recordCountInBatch != calls.size()) {
+            recordCountInBatch = callCount;
+        } else if (recordCountInBatch != callCount) {
             throw new IllegalStateException("The number of records of the get-call-history result is not correctly set");
         }
     }
@@ -101,18 +121,25 @@ public abstract class GetCallHistoryResultBuilder<B extends GetCallHistoryResult
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        final long callCount = getCallCount();
+        if (!ValidationPolicy.current().checksStructure()) {
+            if (recordCountInBatch == null) {
+                recordCountInBatch = callCount;
+            }
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
         if (totalRecordCount == null) {
             errors.add("Invalid call history; missing or invalid total record count");
         }
-        if (firstRecordNumber == null && calls.size() > 0) {
+        if (firstRecordNumber == null && callCount > 0) {
             errors.add("Invalid call history; missing or invalid first record number");
         }
         if (recordCountInBatch == null) {
-            recordCountInBatch = (long) calls.size();
-        } else if (recordCountInBatch != calls.size()) {
+            recordCountInBatch = callCount;
+        } else if (recordCountInBatch != callCount) {
             errors.add("Invalid call history; incorrect batch record count");
         }
     }
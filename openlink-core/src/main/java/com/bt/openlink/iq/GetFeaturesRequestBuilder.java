@@ -6,6 +6,7 @@ import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.ProfileId;
 
 public abstract class GetFeaturesRequestBuilder<B extends GetFeaturesRequestBuilder, J, T extends Enum<T>> extends IQBuilder<B, J, T> {
@@ -48,6 +49,9 @@ public abstract class GetFeaturesRequestBuilder<B extends GetFeaturesRequestBuil
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
@@ -1,13 +1,16 @@
 package com.bt.openlink.iq;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.Feature;
 import com.bt.openlink.type.FeatureId;
 import com.bt.openlink.type.ProfileId;
@@ -62,14 +65,15 @@ public abstract class GetFeaturesResultBuilder<B extends GetFeaturesResultBuilde
     }
 
     private void validateUniqueness(final Consumer<FeatureId> errorConsumer) {
-        for (int i = 0; i < features.size(); i++) {
-            final Optional<FeatureId> featureIdOptional = features.get(i).getId();
-            if (featureIdOptional.isPresent()) {
-                for (int j = i + 1; j < features.size(); j++) {
-                    if (featureIdOptional.equals(features.get(j).getId())) {
-                        errorConsumer.accept(featureIdOptional.get());
-                    }
-                }
+        if (features.size() < 2) {
+            return;
+        }
+        final Set<FeatureId> featureIds = new HashSet<>(features.size() * 2);
+        final Set<FeatureId> duplicateFeatureIds = new HashSet<>();
+        for (final Feature feature : features) {
+            final FeatureId featureId = feature.getId().orElse(null);
+            if (featureId != null && !featureIds.add(featureId) && duplicateFeatureIds.add(featureId)) {
+                errorConsumer.accept(featureId);
             }
         }
     }
@@ -80,13 +84,18 @@ public abstract class GetFeaturesResultBuilder<B extends GetFeaturesResultBuilde
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
         if(profileId==null) {
             errors.add("Invalid get-features result stanza; missing profile");
         }
-        validateUniqueness(profile -> errors.add("Invalid get-features result stanza; each feature id must be unique - " + profile + " appears more than once"));
+        if (ValidationPolicy.current().checksConsistency()) {
+            validateUniqueness(profile -> errors.add("Invalid get-features result stanza; each feature id must be unique - " + profile + " appears more than once"));
+        }
     }
 
 }
@@ -1,12 +1,14 @@
 package com.bt.openlink.iq;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.Interest;
 import com.bt.openlink.type.InterestId;
 
@@ -45,12 +47,15 @@ public abstract class GetInterestsResultBuilder<B extends GetInterestsResultBuil
     }
 
     private void validateUniqueness(final Consumer<InterestId> errorConsumer) {
-        for (int i = 0; i < interests.size(); i++) {
-            final Optional<InterestId> interestIdOptional = interests.get(i).getId();
-            for (int j = i + 1; j < interests.size(); j++) {
-                if (interestIdOptional.isPresent() && interestIdOptional.equals(interests.get(j).getId())) {
-                    errorConsumer.accept(interestIdOptional.get());
-                }
+        if (interests.size() < 2) {
+            return;
+        }
+        final Set<InterestId> interestIds = new HashSet<>(interests.size() * 2);
+        final Set<InterestId> duplicateInterestIds = new HashSet<>();
+        for (final Interest interest : interests) {
+            final InterestId interestId = interest.getId().orElse(null);
+            if (interestId != null && !interestIds.add(interestId) && duplicateInterestIds.add(interestId)) {
+                errorConsumer.accept(interestId);
             }
         }
     }
@@ -61,9 +66,14 @@ public abstract class GetInterestsResultBuilder<B extends GetInterestsResultBuil
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
-        validateUniqueness(interestId -> errors.add("Invalid get-interests result stanza; each interest id must be unique - " + interestId + " appears more than once"));
+        if (ValidationPolicy.current().checksConsistency()) {
+            validateUniqueness(interestId -> errors.add("Invalid get-interests result stanza; each interest id must be unique - " + interestId + " appears more than once"));
+        }
     }
 }
@@ -6,6 +6,8 @@ import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ValidationPolicy;
+
 public abstract class GetProfilesRequestBuilder<B extends GetProfilesRequestBuilder, J, T extends Enum<T>> extends IQBuilder<B, J, T> {
 
     @Nullable private J jid;
@@ -46,6 +48,9 @@ public abstract class GetProfilesRequestBuilder<B extends GetProfilesRequestBuil
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
@@ -1,12 +1,14 @@
 package com.bt.openlink.iq;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.Profile;
 import com.bt.openlink.type.ProfileId;
 
@@ -45,14 +47,15 @@ public abstract class GetProfilesResultBuilder<B extends GetProfilesResultBuilde
     }
 
     private void validateUniqueness(final Consumer<ProfileId> errorConsumer) {
-        for (int i = 0; i < profiles.size(); i++) {
-            final Optional<ProfileId> profileIdOptional = profiles.get(i).getId();
-            if (profileIdOptional.isPresent()) {
-                for (int j = i + 1; j < profiles.size(); j++) {
-                    if (profileIdOptional.equals(profiles.get(j).getId())) {
-                        errorConsumer.accept(profileIdOptional.get());
-                    }
-                }
+        if (profiles.size() < 2) {
+            return;
+        }
+        final Set<ProfileId> profileIds = new HashSet<>(profiles.size() * 2);
+        final Set<ProfileId> duplicateProfileIds = new HashSet<>();
+        for (final Profile profile : profiles) {
+            final ProfileId profileId = profile.getId().orElse(null);
+            if (profileId != null && !profileIds.add(profileId) && duplicateProfileIds.add(profileId)) {
+                errorConsumer.accept(profileId);
             }
         }
     }
@@ -63,9 +66,14 @@ public abstract class GetProfilesResultBuilder<B extends GetProfilesResultBuilde
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
-        validateUniqueness(profileId -> errors.add("Invalid get-profiles result stanza; each profile id must be unique - " + profileId + " appears more than once"));
+        if (ValidationPolicy.current().checksConsistency()) {
+            validateUniqueness(profileId -> errors.add("Invalid get-profiles result stanza; each profile id must be unique - " + profileId + " appears more than once"));
+        }
     }
 }
\ No newline at end of file
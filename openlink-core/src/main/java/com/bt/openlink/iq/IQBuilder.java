@@ -7,6 +7,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.bt.openlink.StanzaBuilder;
+import com.bt.openlink.ValidationPolicy;
 
 @SuppressWarnings("unchecked")
 public abstract class IQBuilder<B extends IQBuilder, J, T extends Enum<T>> extends StanzaBuilder<B, J> {
@@ -43,6 +44,9 @@ public abstract class IQBuilder<B extends IQBuilder, J, T extends Enum<T>> exten
     }
 
     public void validate(final List<String> errors) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (!getTo().isPresent()) {
             errors.add("Invalid stanza; missing 'to' attribute is mandatory");
         }
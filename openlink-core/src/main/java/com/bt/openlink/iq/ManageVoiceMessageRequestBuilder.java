@@ -7,6 +7,7 @@ import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.FeatureId;
 import com.bt.openlink.type.ManageVoiceMessageAction;
 import com.bt.openlink.type.ProfileId;
@@ -63,6 +64,9 @@ public abstract class ManageVoiceMessageRequestBuilder<B extends ManageVoiceMess
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
@@ -1,6 +1,7 @@
 package com.bt.openlink.iq;
 
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.DeviceStatus;
 
 import javax.annotation.Nonnull;
@@ -36,6 +37,9 @@ public class ManageVoiceMessageResultBuilder <B extends ManageVoiceMessageResult
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
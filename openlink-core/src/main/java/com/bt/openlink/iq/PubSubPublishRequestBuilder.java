@@ -7,6 +7,7 @@ import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.Call;
 import com.bt.openlink.type.CallStatus;
 import com.bt.openlink.type.DeviceStatus;
@@ -111,12 +112,18 @@ public abstract class PubSubPublishRequestBuilder<B extends PubSubPublishRequest
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
         if (pubSubNodeId == null) {
             errors.add("Invalid pub-sub publish request stanza; missing node id/interest id");
         }
+        if (!ValidationPolicy.current().checksConsistency()) {
+            return;
+        }
         getCallStatus().ifPresent(
                 cs -> validateCallsAreOnTheCorrectInterest(cs,
                         call -> errors.add("Invalid pub-sub publish request stanza; the call with id " + call.getId().orElse(null) + " is on interest " + call.getInterestId().orElse(null)
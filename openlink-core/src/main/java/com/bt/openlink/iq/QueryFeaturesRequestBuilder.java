@@ -1,5 +1,6 @@
 package com.bt.openlink.iq;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.ProfileId;
 
 import javax.annotation.Nonnull;
@@ -48,6 +49,9 @@ public class QueryFeaturesRequestBuilder<B extends QueryFeaturesRequestBuilder,
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
@@ -5,6 +5,7 @@ import java.util.List;
 
 import javax.annotation.Nonnull;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.ActiveFeature;
 
 @SuppressWarnings("unchecked")
@@ -45,6 +46,9 @@ public abstract class QueryFeaturesResultBuilder<B extends QueryFeaturesResultBu
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
@@ -7,6 +7,7 @@ import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.CallId;
 import com.bt.openlink.type.InterestId;
 import com.bt.openlink.type.MakeCallFeature;
@@ -147,6 +148,9 @@ public abstract class RequestActionRequestBuilder<B extends RequestActionRequest
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
@@ -1,5 +1,6 @@
 package com.bt.openlink.iq;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.FeatureId;
 import com.bt.openlink.type.PhoneNumber;
 import com.bt.openlink.type.ProfileId;
@@ -154,6 +155,9 @@ public class SetFeaturesRequestBuilder<B extends SetFeaturesRequestBuilder, J, T
     }
 
     protected void validate(List<String> errors, boolean checkIQFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
+        }
         if (checkIQFields) {
             super.validate(errors);
         }
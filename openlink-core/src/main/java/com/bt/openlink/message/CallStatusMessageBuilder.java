@@ -7,6 +7,7 @@ import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.Call;
 import com.bt.openlink.type.CallStatus;
 import com.bt.openlink.type.InterestId;
@@ -28,8 +29,8 @@ public abstract class CallStatusMessageBuilder<B extends CallStatusMessageBuilde
     }
 
     @Override
-    protected void validate() {
-        super.validate();
+    protected void validate(final boolean checkStanzaFields) {
+        super.validate(checkStanzaFields);
         if (callStatus == null) {
             throw new IllegalStateException("The callstatus message has no calls");
         }
@@ -42,16 +43,20 @@ public abstract class CallStatusMessageBuilder<B extends CallStatusMessageBuilde
     }
 
     @Override
-    public void validate(final List<String> errors) {
+    protected void validate(final List<String> errors, final boolean checkStanzaFields) {
+        final ValidationPolicy policy = ValidationPolicy.current();
+        if (!policy.checksStructure()) {
+            return;
+        }
+        super.validate(errors, checkStanzaFields);
         if (callStatus == null) {
             errors.add("Invalid callstatus message stanza; missing or invalid calls");
+        } else if (policy.checksConsistency()) {
+            validateCallsAreOnTheCorrectInterest(callStatus, call ->
+                    errors.add("Invalid callstatus message stanza; the call with id " + call.getId().orElse(null) + " is on interest " + call.getInterestId().orElse(null)
+                            + " which differs from the pub-sub node id "
+                            + getPubSubNodeId().orElse(null)));
         }
-        getCallStatus().ifPresent(
-                status ->
-                validateCallsAreOnTheCorrectInterest(status, call ->
-                        errors.add("Invalid callstatus message stanza; the call with id " + call.getId().orElse(null) + " is on interest " + call.getInterestId().orElse(null)
-                                + " which differs from the pub-sub node id "
-                                + getPubSubNodeId().orElse(null))));
     }
 
     private void validateCallsAreOnTheCorrectInterest(final CallStatus callStatus, final Consumer<Call> errorConsumer) {
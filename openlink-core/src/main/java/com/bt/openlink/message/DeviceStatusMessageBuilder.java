@@ -6,6 +6,7 @@ import java.util.Optional;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.DeviceStatus;
 
 public abstract class DeviceStatusMessageBuilder<B extends DeviceStatusMessageBuilder, J> extends PubSubMessageBuilder<B, J> {
@@ -25,22 +26,19 @@ public abstract class DeviceStatusMessageBuilder<B extends DeviceStatusMessageBu
     }
 
     @Override
-    protected void validate() {
-        super.validate();
+    protected void validate(final boolean checkStanzaFields) {
+        super.validate(checkStanzaFields);
         if (deviceStatus == null) {
             throw new IllegalStateException("The stanza 'deviceStatus' has not been set");
         }
     }
 
     @Override
-    public void validate(final List<String> errors) {
-        validate(errors, true);
-    }
-
-    protected void validate(List<String> errors, boolean checkIQFields) {
-        if (checkIQFields) {
-            super.validate(errors);
+    protected void validate(final List<String> errors, final boolean checkStanzaFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
         }
+        super.validate(errors, checkStanzaFields);
         if (deviceStatus == null) {
             errors.add("Invalid devicestatus message stanza; the 'deviceStatus' has not been set");
         }
@@ -8,6 +8,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import com.bt.openlink.StanzaBuilder;
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.type.InterestId;
 import com.bt.openlink.type.ItemId;
 import com.bt.openlink.type.PubSubNodeId;
@@ -60,11 +61,22 @@ public abstract class PubSubMessageBuilder<B extends PubSubMessageBuilder, J> ex
     }
 
     protected void validate() {
-        if (!getTo().isPresent()) {
-            throw new IllegalStateException("The stanza 'to' has not been set");
-        }
-        if (!getFrom().isPresent()) {
-            throw new IllegalStateException("The stanza 'from' has not been set");
+        validate(true);
+    }
+
+    /**
+     * @param checkStanzaFields
+     *            {@code false} to skip the checks of the stanza addresses, e.g. when building a pub-sub event that is
+     *            carried by a separate message
+     */
+    protected void validate(final boolean checkStanzaFields) {
+        if (checkStanzaFields) {
+            if (!getTo().isPresent()) {
+                throw new IllegalStateException("The stanza 'to' has not been set");
+            }
+            if (!getFrom().isPresent()) {
+                throw new IllegalStateException("The stanza 'from' has not been set");
+            }
         }
         // Note; not necessary to validate id/type as these can be automatically set
         if (pubSubNodeId == null) {
@@ -76,14 +88,23 @@ public abstract class PubSubMessageBuilder<B extends PubSubMessageBuilder, J> ex
     }
 
     public void validate(final List<String> errors) {
-        if (!getTo().isPresent()) {
-            errors.add("Invalid stanza; missing 'to' attribute is mandatory");
-        }
-        if (!getFrom().isPresent()) {
-            errors.add("Invalid stanza; missing 'from' attribute is mandatory");
+        validate(errors, true);
+    }
+
+    protected void validate(final List<String> errors, final boolean checkStanzaFields) {
+        if (!ValidationPolicy.current().checksStructure()) {
+            return;
         }
-        if (!getId().isPresent()) {
-            errors.add("Invalid stanza; missing 'id' attribute is mandatory");
+        if (checkStanzaFields) {
+            if (!getTo().isPresent()) {
+                errors.add("Invalid stanza; missing 'to' attribute is mandatory");
+            }
+            if (!getFrom().isPresent()) {
+                errors.add("Invalid stanza; missing 'from' attribute is mandatory");
+            }
+            if (!getId().isPresent()) {
+                errors.add("Invalid stanza; missing 'id' attribute is mandatory");
+            }
         }
         if (pubSubNodeId == null) {
             errors.add("Invalid callstatus message stanza; the 'pubSubNodeId' has not been set");
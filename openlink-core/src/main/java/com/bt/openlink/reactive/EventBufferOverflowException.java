@@ -0,0 +1,16 @@
+package com.bt.openlink.reactive;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Ends a subscription to a {@link StatusEventPublisher} whose {@link OverflowStrategy#BUFFER buffer} has overflowed.
+ */
+public class EventBufferOverflowException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public EventBufferOverflowException(@Nonnull final String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.bt.openlink.reactive;
+
+/**
+ * What a {@link StatusEventPublisher} does with the events for a subscriber that has not requested them, once the
+ * subscriber's buffer is full.
+ */
+public enum OverflowStrategy {
+
+    /**
+     * Buffers events up to the buffer size; if the buffer overflows, the subscription is ended with an
+     * {@link EventBufferOverflowException}.
+     */
+    BUFFER,
+
+    /**
+     * Buffers events up to the buffer size; if the buffer is full, the oldest event is dropped to make room.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Keeps only the latest event for each interest; an event replaces, in its place, any earlier event for the same
+     * interest that has not been delivered. Suits events, such as call status, that each give the current state of an
+     * interest. Events without an interest are treated as being for an interest of their own.
+     */
+    LATEST_PER_INTEREST
+
+}
@@ -0,0 +1,323 @@
+package com.bt.openlink.reactive;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.bt.openlink.type.InterestId;
+
+/**
+ * Publishes received status events, such as call status and device status messages, as a Reactive Streams
+ * {@link Publisher}. Each subscriber receives the events published after it subscribed, only as fast as it requests
+ * them, either for every interest or, with {@link #forInterests(Collection)}, for just some.
+ * <p>
+ * {@link #publish(Object)} never waits for a subscriber. The events a subscriber has not yet requested are held for it
+ * according to the publisher's {@link OverflowStrategy}, so a slow subscriber costs at most a bounded number of events,
+ * rather than an ever-growing queue.
+ * <p>
+ * Events are delivered to each subscriber by tasks run on an executor, one at a time and in the order they were
+ * published, apart from those replaced under {@link OverflowStrategy#LATEST_PER_INTEREST}. The publisher is
+ * thread-safe.
+ *
+ * @param <E>
+ *            the type of event
+ */
+public final class StatusEventPublisher<E> implements Publisher<E>, AutoCloseable {
+
+    // The key for events without an interest, under LATEST_PER_INTEREST
+    private static final Object NO_INTEREST = new Object();
+
+    @Nonnull private final Executor executor;
+    @Nonnull private final Function<? super E, Optional<InterestId>> interestFunction;
+    @Nonnull private final OverflowStrategy overflowStrategy;
+    private final int bufferSize;
+    @Nonnull private final List<StatusSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    @Nonnull private final LongAdder droppedCount = new LongAdder();
+    private volatile boolean closed;
+
+    /**
+     * @param executor
+     *            the executor to deliver events to subscribers
+     * @param interestFunction
+     *            returns the interest of an event, if any, e.g. from its pub-sub node id
+     * @param overflowStrategy
+     *            what to do with events a subscriber has not yet requested
+     * @param bufferSize
+     *            the number of events held for each subscriber; not used by
+     *            {@link OverflowStrategy#LATEST_PER_INTEREST}, which holds one event for each interest
+     */
+    public StatusEventPublisher(@Nonnull final Executor executor, @Nonnull final Function<? super E, Optional<InterestId>> interestFunction, @Nonnull final OverflowStrategy overflowStrategy, final int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("The buffer size must be at least one");
+        }
+        this.executor = executor;
+        this.interestFunction = interestFunction;
+        this.overflowStrategy = overflowStrategy;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Subscribes to the events for every interest, and those without an interest.
+     *
+     * @param subscriber
+     *            the subscriber
+     */
+    @Override
+    public void subscribe(@Nonnull final Subscriber<? super E> subscriber) {
+        subscribe(subscriber, null);
+    }
+
+    /**
+     * @param interestIds
+     *            the interests
+     * @return a publisher of only the events for the interests given
+     */
+    @Nonnull
+    public Publisher<E> forInterests(@Nonnull final Collection<InterestId> interestIds) {
+        final Set<InterestId> interestIdSet = Collections.unmodifiableSet(new HashSet<>(interestIds));
+        return subscriber -> subscribe(subscriber, interestIdSet);
+    }
+
+    private void subscribe(@Nonnull final Subscriber<? super E> subscriber, @Nullable final Set<InterestId> interestIds) {
+        Objects.requireNonNull(subscriber, "The subscriber must not be null");
+        final StatusSubscription subscription = new StatusSubscription(subscriber, interestIds);
+        subscriptions.add(subscription);
+        if (closed) {
+            subscription.complete();
+        }
+        subscription.start();
+    }
+
+    /**
+     * Passes an event to every subscriber that is interested in it.
+     *
+     * @param event
+     *            the event
+     * @throws IllegalStateException
+     *             if the publisher has been closed
+     */
+    public void publish(@Nonnull final E event) {
+        if (closed) {
+            throw new IllegalStateException("The publisher has been closed");
+        }
+        final InterestId interestId = interestFunction.apply(event).orElse(null);
+        for (final StatusSubscription subscription : subscriptions) {
+            subscription.offer(event, interestId);
+        }
+    }
+
+    /**
+     * @return the number of current subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * @return the number of events that have been dropped or replaced, across all subscribers, because a subscriber
+     *         had not requested them
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Stops publishing. Each subscriber is completed once it has been delivered the events already held for it.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        subscriptions.forEach(StatusSubscription::complete);
+    }
+
+    private final class StatusSubscription implements Subscription {
+
+        @Nonnull private final Subscriber<? super E> subscriber;
+        @Nullable private final Set<InterestId> interestIds;
+        // The following four are guarded by this subscription's lock
+        @Nonnull private final Queue<E> buffer = new ArrayDeque<>();
+        @Nonnull private final Map<Object, E> latestByInterest = new LinkedHashMap<>();
+        @Nullable private Throwable error;
+        private boolean completed;
+        @Nonnull private final AtomicLong requested = new AtomicLong();
+        @Nonnull private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean started;
+        private volatile boolean cancelled;
+
+        private StatusSubscription(@Nonnull final Subscriber<? super E> subscriber, @Nullable final Set<InterestId> interestIds) {
+            this.subscriber = subscriber;
+            this.interestIds = interestIds;
+        }
+
+        private void start() {
+            try {
+                subscriber.onSubscribe(this);
+            } catch (final RuntimeException e) {
+                cancel();
+                return;
+            }
+            started = true;
+            drain();
+        }
+
+        private void offer(@Nonnull final E event, @Nullable final InterestId interestId) {
+            if (cancelled || interestIds != null && !interestIds.contains(interestId)) {
+                return;
+            }
+            synchronized (this) {
+                if (completed || error != null) {
+                    return;
+                }
+                if (overflowStrategy == OverflowStrategy.LATEST_PER_INTEREST) {
+                    if (latestByInterest.put(interestId == null ? NO_INTEREST : interestId, event) != null) {
+                        droppedCount.increment();
+                    }
+                } else if (buffer.size() < bufferSize) {
+                    buffer.add(event);
+                } else if (overflowStrategy == OverflowStrategy.DROP_OLDEST) {
+                    buffer.remove();
+                    buffer.add(event);
+                    droppedCount.increment();
+                } else {
+                    droppedCount.add(buffer.size() + 1L);
+                    buffer.clear();
+                    error = new EventBufferOverflowException("More than " + bufferSize + " events were awaiting delivery to the subscriber");
+                }
+            }
+            drain();
+        }
+
+        @Nullable
+        private E poll() {
+            if (overflowStrategy != OverflowStrategy.LATEST_PER_INTEREST) {
+                return buffer.poll();
+            }
+            final Iterator<E> iterator = latestByInterest.values().iterator();
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            final E event = iterator.next();
+            iterator.remove();
+            return event;
+        }
+
+        private void complete() {
+            synchronized (this) {
+                completed = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                synchronized (this) {
+                    if (error == null) {
+                        error = new IllegalArgumentException("The number of events requested must be positive, but was " + n);
+                    }
+                }
+            } else {
+                // Demand beyond Long.MAX_VALUE is treated as unbounded
+                requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            synchronized (this) {
+                buffer.clear();
+                latestByInterest.clear();
+            }
+        }
+
+        /**
+         * Delivers events on the executor. Only one task delivers at a time; a thread that finds another already
+         * delivering leaves it to check again.
+         */
+        private void drain() {
+            if (!started || pendingDrains.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                executor.execute(this::deliverEvents);
+            } catch (final RejectedExecutionException e) {
+                cancel();
+                subscriber.onError(e);
+            }
+        }
+
+        private void deliverEvents() {
+            int drains = 1;
+            do {
+                if (!cancelled) {
+                    deliverRequestedEvents();
+                }
+                drains = pendingDrains.addAndGet(-drains);
+            } while (drains != 0);
+        }
+
+        private void deliverRequestedEvents() {
+            final long requestedCount = requested.get();
+            long deliveredCount = 0;
+            while (!cancelled) {
+                final Throwable failure;
+                final E event;
+                final boolean finished;
+                synchronized (this) {
+                    failure = error;
+                    event = failure == null && deliveredCount != requestedCount ? poll() : null;
+                    finished = failure == null && event == null && completed && buffer.isEmpty() && latestByInterest.isEmpty();
+                }
+                if (failure != null) {
+                    cancel();
+                    subscriber.onError(failure);
+                    return;
+                }
+                if (finished) {
+                    cancel();
+                    subscriber.onComplete();
+                    return;
+                }
+                if (event == null) {
+                    break;
+                }
+                try {
+                    subscriber.onNext(event);
+                } catch (final RuntimeException e) {
+                    cancel();
+                    return;
+                }
+                deliveredCount++;
+            }
+            if (deliveredCount != 0 && requestedCount != Long.MAX_VALUE) {
+                requested.addAndGet(-deliveredCount);
+            }
+        }
+    }
+}
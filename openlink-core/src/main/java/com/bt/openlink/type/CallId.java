@@ -8,6 +8,7 @@ import javax.annotation.Nullable;
 public final class CallId extends AbstractType<String> {
 
     private static final long serialVersionUID = -5759218422447278390L;
+    private static final IdentifierCache<CallId> CACHE = new IdentifierCache<>(CallId::new);
 
     private CallId(final String value) {
         super(value);
@@ -15,12 +16,12 @@ public final class CallId extends AbstractType<String> {
 
     @Nonnull
     public static Optional<CallId> from(@Nullable final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new CallId(value));
+        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(CACHE.get(value));
     }
 
     @Nonnull
     public static CallId from(@Nonnull final AbstractType<String> type) {
-        return new CallId(type.value());
+        return CACHE.get(type.value());
     }
 
 }
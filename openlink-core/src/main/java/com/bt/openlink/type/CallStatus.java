@@ -3,13 +3,17 @@ package com.bt.openlink.type;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ValidationPolicy;
+
 public class CallStatus implements Serializable {
     private static final long serialVersionUID = 1042623536248308079L;
     @Nullable private final Boolean callStatusBusy;
@@ -86,24 +90,28 @@ public class CallStatus implements Serializable {
 
         @Nonnull
         public CallStatus build(List<String> errors) {
-            if (calls.isEmpty()) {
+            final ValidationPolicy policy = ValidationPolicy.current();
+            if (policy.checksStructure() && calls.isEmpty()) {
                 errors.add("Invalid callstatus; missing or invalid calls");
             }
 
-            validateUniqueness(callId -> errors.add("Invalid callstatus; each call id must be unique - " + callId + " appears more than once"));
+            if (policy.checksConsistency()) {
+                validateUniqueness(callId -> errors.add("Invalid callstatus; each call id must be unique - " + callId + " appears more than once"));
+            }
 
             return new CallStatus(this);
         }
 
         private void validateUniqueness(final Consumer<CallId> errorConsumer) {
-            for (int i = 0; i < calls.size(); i++) {
-                final Optional<CallId> callIdOptional = calls.get(i).getId();
-                if (callIdOptional.isPresent()) {
-                    for (int j = i + 1; j < calls.size(); j++) {
-                        if (callIdOptional.equals(calls.get(j).getId())) {
-                            errorConsumer.accept(callIdOptional.get());
-                        }
-                    }
+            if (calls.size() < 2) {
+                return;
+            }
+            final Set<CallId> callIds = new HashSet<>(calls.size() * 2);
+            final Set<CallId> duplicateCallIds = new HashSet<>();
+            for (final Call call : calls) {
+                final CallId callId = call.getId().orElse(null);
+                if (callId != null && !callIds.add(callId) && duplicateCallIds.add(callId)) {
+                    errorConsumer.accept(callId);
                 }
             }
         }
@@ -8,6 +8,7 @@ import javax.annotation.Nullable;
 public final class DeviceId extends AbstractType<String> {
 
     private static final long serialVersionUID = -260244141561957509L;
+    private static final IdentifierCache<DeviceId> CACHE = new IdentifierCache<>(DeviceId::new);
 
     private DeviceId(final String value) {
         super(value);
@@ -15,12 +16,12 @@ public final class DeviceId extends AbstractType<String> {
 
     @Nonnull
     public static Optional<DeviceId> from(@Nullable final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new DeviceId(value));
+        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(CACHE.get(value));
     }
 
     @Nonnull
     public static DeviceId from(@Nonnull final AbstractType<String> type) {
-        return new DeviceId(type.value());
+        return CACHE.get(type.value());
     }
 
 }
@@ -8,6 +8,7 @@ import javax.annotation.Nullable;
 public final class FeatureId extends AbstractType<String> {
 
     private static final long serialVersionUID = 7800997081484600725L;
+    private static final IdentifierCache<FeatureId> CACHE = new IdentifierCache<>(FeatureId::new);
 
     private FeatureId(final String value) {
         super(value);
@@ -15,12 +16,12 @@ public final class FeatureId extends AbstractType<String> {
 
     @Nonnull
     public static Optional<FeatureId> from(@Nullable final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new FeatureId(value));
+        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(CACHE.get(value));
     }
 
     @Nonnull
     public static FeatureId from(@Nonnull final AbstractType<String> type) {
-        return new FeatureId(type.value());
+        return CACHE.get(type.value());
     }
 
 }
@@ -0,0 +1,68 @@
+package com.bt.openlink.type;
+
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A bounded cache of identifiers, so that the same interest, profile, call or number parsed from many stanzas is held
+ * as a single instance rather than one per stanza. The cache is direct-mapped; each value hashes to a single slot,
+ * and a new value simply replaces whatever was in its slot. This keeps lookups lock-free and the memory used fixed.
+ * <p>
+ * The number of slots for each identifier type is set by the {@value #SIZE_PROPERTY} system property, which defaults
+ * to {@value #DEFAULT_SIZE}. Setting it to zero disables caching.
+ *
+ * @param <T>
+ *            the type of identifier
+ */
+final class IdentifierCache<T extends AbstractType<String>> {
+
+    static final String SIZE_PROPERTY = "com.bt.openlink.identifierCacheSize";
+    private static final int DEFAULT_SIZE = 4096;
+    private static final int MAXIMUM_SIZE = 1 << 20;
+
+    @Nonnull private final Function<String, T> factory;
+    private final T[] entries;
+    private final int mask;
+
+    IdentifierCache(@Nonnull final Function<String, T> factory) {
+        this(factory, Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+    }
+
+    @SuppressWarnings("unchecked")
+    IdentifierCache(@Nonnull final Function<String, T> factory, final int size) {
+        this.factory = factory;
+        if (size > 0) {
+            // Round up to a power of two so the slot can be found with a mask
+            final int slots = Integer.highestOneBit(Math.min(size, MAXIMUM_SIZE) - 1) << 1;
+            this.entries = (T[]) new AbstractType<?>[Math.max(slots, 1)];
+            this.mask = entries.length - 1;
+        } else {
+            this.entries = null;
+            this.mask = 0;
+        }
+    }
+
+    /**
+     * @param value
+     *            the value of the identifier
+     * @return an identifier with that value; the same instance as last time if it is still cached
+     */
+    @Nonnull
+    T get(@Nonnull final String value) {
+        if (entries == null) {
+            return factory.apply(value);
+        }
+        final int hash = value.hashCode();
+        final int index = (hash ^ (hash >>> 16)) & mask;
+        // Identifiers are immutable, so a racing reader will see either the old or the new identifier in full
+        final T cached = entries[index];
+        if (cached != null && cached.value().equals(value)) {
+            return cached;
+        }
+        final T identifier = factory.apply(value);
+        entries[index] = identifier;
+        return identifier;
+    }
+
+}
@@ -7,6 +7,7 @@ import javax.annotation.Nonnull;
 public final class InterestId extends AbstractType<String> {
 
     private static final long serialVersionUID = -8800572210349782359L;
+    private static final IdentifierCache<InterestId> CACHE = new IdentifierCache<>(InterestId::new);
 
     private InterestId(final String value) {
         super(value);
@@ -14,7 +15,7 @@ public final class InterestId extends AbstractType<String> {
 
     @Nonnull
     public static Optional<InterestId> from(final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new InterestId(value));
+        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(CACHE.get(value));
     }
 
     @Nonnull
@@ -24,7 +25,7 @@ public final class InterestId extends AbstractType<String> {
 
     @Nonnull
     public static InterestId from(@Nonnull final AbstractType<String> type) {
-        return new InterestId(type.value());
+        return CACHE.get(type.value());
     }
 
 }
@@ -8,6 +8,7 @@ import javax.annotation.Nullable;
 public final class PhoneNumber extends AbstractType<String> {
 
     private static final long serialVersionUID = -3276853895053218217L;
+    private static final IdentifierCache<PhoneNumber> CACHE = new IdentifierCache<>(PhoneNumber::new);
 
     private PhoneNumber(final String value) {
         super(value);
@@ -15,12 +16,12 @@ public final class PhoneNumber extends AbstractType<String> {
 
     @Nonnull
     public static Optional<PhoneNumber> from(@Nullable final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new PhoneNumber(value));
+        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(CACHE.get(value));
     }
 
     @Nonnull
     public static PhoneNumber from(@Nonnull final AbstractType<String> type) {
-        return new PhoneNumber(type.value());
+        return CACHE.get(type.value());
     }
 
 }
@@ -8,6 +8,7 @@ import javax.annotation.Nullable;
 public final class ProfileId extends AbstractType<String> {
 
     private static final long serialVersionUID = 8709200515112918238L;
+    private static final IdentifierCache<ProfileId> CACHE = new IdentifierCache<>(ProfileId::new);
 
     private ProfileId(final String value) {
         super(value);
@@ -15,12 +16,12 @@ public final class ProfileId extends AbstractType<String> {
 
     @Nonnull
     public static Optional<ProfileId> from(@Nullable final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new ProfileId(value));
+        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(CACHE.get(value));
     }
 
     @Nonnull
     public static ProfileId from(@Nonnull final AbstractType<String> type) {
-        return new ProfileId(type.value());
+        return CACHE.get(type.value());
     }
 
 }
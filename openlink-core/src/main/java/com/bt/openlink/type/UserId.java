@@ -8,6 +8,7 @@ import javax.annotation.Nullable;
 public final class UserId extends AbstractType<String> {
 
     private static final long serialVersionUID = -2773950297673325200L;
+    private static final IdentifierCache<UserId> CACHE = new IdentifierCache<>(UserId::new);
 
     private UserId(final String value) {
         super(value);
@@ -15,12 +16,12 @@ public final class UserId extends AbstractType<String> {
 
     @Nonnull
     public static Optional<UserId> from(@Nullable final String value) {
-        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(new UserId(value));
+        return value == null || value.isEmpty() ? Optional.empty() : Optional.of(CACHE.get(value));
     }
 
     @Nonnull
     public static UserId from(@Nonnull final AbstractType<String> type) {
-        return new UserId(type.value());
+        return CACHE.get(type.value());
     }
 
 }
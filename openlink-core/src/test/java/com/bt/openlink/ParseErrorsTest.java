@@ -0,0 +1,123 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class ParseErrorsTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @After
+    public void tearDown() {
+        ParseErrorMode.setDefault(ParseErrorMode.COLLECT);
+    }
+
+    @Test
+    public void willCollectErrorsByDefault() {
+
+        final ParseErrors parseErrors = ParseErrors.create();
+        ParseErrors.report(parseErrors, ParseError.Code.INVALID_INTEGER, "start", "get-call-history request", "start", "one");
+        parseErrors.add("Invalid stanza; missing 'id' attribute is mandatory");
+
+        assertThat(parseErrors.getMode(), is(ParseErrorMode.COLLECT));
+        assertThat(parseErrors, contains(
+                "Invalid get-call-history request; invalid start 'one'; please supply an integer",
+                "Invalid stanza; missing 'id' attribute is mandatory"));
+        assertThat(parseErrors.getErrors().get(0).getCode(), is(ParseError.Code.INVALID_INTEGER));
+        assertThat(parseErrors.getErrors().get(0).getPath(), is("start"));
+        assertThat(parseErrors.getErrors().get(1).getCode(), is(ParseError.Code.MESSAGE));
+        assertThat(parseErrors.getCount(), is(2));
+    }
+
+    @Test
+    public void willFormatAnErrorWhenItIsReported() {
+
+        final List<String> parseErrors = new ArrayList<>();
+        ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_ELEMENT, "foo", "foo");
+
+        assertThat(parseErrors, contains("Unrecognised element:foo"));
+    }
+
+    @Test
+    public void willReuseTheValueOfARepeatedArgument() {
+
+        final ParseError parseError = new ParseError(ParseError.Code.INVALID_VALUE, "timestamp", "get-call-history result", "timestamp", "yesterday");
+
+        assertThat(parseError.getMessage(), is("Invalid get-call-history result; invalid timestamp 'yesterday'; please supply a valid timestamp"));
+    }
+
+    @Test
+    public void willOnlyCountErrorsInCountOnlyMode() {
+
+        final ParseErrors parseErrors;
+        try (ScopedDefault.Scope ignored = ParseErrorMode.COUNT_ONLY.enter()) {
+            parseErrors = ParseErrors.create();
+        }
+        ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_ELEMENT, "foo", "foo");
+        ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_ELEMENT, "bar", "bar");
+        parseErrors.add("Invalid stanza; missing 'id' attribute is mandatory");
+
+        assertThat(parseErrors, is(empty()));
+        assertThat(parseErrors.getErrors(), is(empty()));
+        assertThat(parseErrors.getCount(), is(3));
+        assertThat(parseErrors.getCount(ParseError.Code.UNRECOGNISED_ELEMENT), is(2));
+        assertThat(parseErrors.getCount(ParseError.Code.MESSAGE), is(1));
+    }
+
+    @Test
+    public void willThrowOnTheFirstErrorInFailFastMode() {
+
+        ParseErrorMode.setDefault(ParseErrorMode.FAIL_FAST);
+        final ParseErrors parseErrors = ParseErrors.create();
+
+        expectedException.expect(ParseErrorException.class);
+        expectedException.expectMessage("Unrecognised tag: foo");
+
+        ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_TAG, "foo", "foo");
+    }
+
+    @Test
+    public void willIgnoreAnUnrecognisedModeProperty() {
+        final String property = ParseErrorMode.DEFAULT_PROPERTY + ".test";
+        System.setProperty(property, "fail-fast");
+        try {
+
+            assertThat(ScopedDefault.getProperty(property, ParseErrorMode.values(), ParseErrorMode.COLLECT), is(ParseErrorMode.COLLECT));
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test
+    public void willCopyAPlainListOfErrors() {
+
+        final List<String> errors = new ArrayList<>();
+        errors.add("Invalid stanza; missing 'id' attribute is mandatory");
+
+        final ParseErrors parseErrors = ParseErrors.copyOf(errors);
+        errors.clear();
+
+        assertThat(parseErrors, contains("Invalid stanza; missing 'id' attribute is mandatory"));
+        assertThat(ParseErrors.copyOf(parseErrors) == parseErrors, is(true));
+        assertThat(ParseErrors.copyOf(null), is(empty()));
+    }
+
+    @Test
+    public void willNotAddToTheEmptyErrors() {
+
+        expectedException.expect(UnsupportedOperationException.class);
+
+        ParseErrors.none().add("Invalid stanza; missing 'id' attribute is mandatory");
+    }
+
+}
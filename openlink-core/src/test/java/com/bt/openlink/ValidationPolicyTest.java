@@ -0,0 +1,85 @@
+package com.bt.openlink;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ValidationPolicyTest {
+
+    private static final String TEST_PROPERTY = ValidationPolicy.DEFAULT_PROPERTY + ".test";
+
+    @After
+    public void tearDown() {
+        ValidationPolicy.setDefault(ValidationPolicy.FULL);
+    }
+
+    @Test
+    public void willDefaultToFullValidation() {
+
+        assertThat(ValidationPolicy.current(), is(ValidationPolicy.FULL));
+        assertThat(ValidationPolicy.FULL.checksStructure(), is(true));
+        assertThat(ValidationPolicy.FULL.checksConsistency(), is(true));
+    }
+
+    @Test
+    public void willUseTheDefaultPolicyIfNoneHasBeenEntered() {
+
+        ValidationPolicy.setDefault(ValidationPolicy.STRUCTURAL);
+
+        assertThat(ValidationPolicy.current(), is(ValidationPolicy.STRUCTURAL));
+        assertThat(ValidationPolicy.STRUCTURAL.checksStructure(), is(true));
+        assertThat(ValidationPolicy.STRUCTURAL.checksConsistency(), is(false));
+    }
+
+    @Test
+    public void willRestoreThePreviousPolicyWhenAScopeIsClosed() {
+
+        try (ScopedDefault.Scope ignored = ValidationPolicy.STRUCTURAL.enter()) {
+            try (ScopedDefault.Scope alsoIgnored = ValidationPolicy.NONE.enter()) {
+                assertThat(ValidationPolicy.current(), is(ValidationPolicy.NONE));
+                assertThat(ValidationPolicy.NONE.checksStructure(), is(false));
+            }
+            assertThat(ValidationPolicy.current(), is(ValidationPolicy.STRUCTURAL));
+        }
+
+        assertThat(ValidationPolicy.current(), is(ValidationPolicy.FULL));
+    }
+
+    @Test
+    public void willReadThePolicyFromASystemPropertyIgnoringCase() {
+        System.setProperty(TEST_PROPERTY, " structural ");
+        try {
+
+            assertThat(ScopedDefault.getProperty(TEST_PROPERTY, ValidationPolicy.values(), ValidationPolicy.FULL), is(ValidationPolicy.STRUCTURAL));
+        } finally {
+            System.clearProperty(TEST_PROPERTY);
+        }
+    }
+
+    @Test
+    public void willIgnoreAnUnrecognisedSystemProperty() {
+        System.setProperty(TEST_PROPERTY, "FUL");
+        try {
+
+            assertThat(ScopedDefault.getProperty(TEST_PROPERTY, ValidationPolicy.values(), ValidationPolicy.FULL), is(ValidationPolicy.FULL));
+        } finally {
+            System.clearProperty(TEST_PROPERTY);
+        }
+    }
+
+    @Test
+    public void willOnlyApplyAnEnteredPolicyToTheCurrentThread() throws Exception {
+
+        final ValidationPolicy[] otherThreadPolicy = new ValidationPolicy[1];
+        try (ScopedDefault.Scope ignored = ValidationPolicy.NONE.enter()) {
+            final Thread thread = new Thread(() -> otherThreadPolicy[0] = ValidationPolicy.current());
+            thread.start();
+            thread.join();
+        }
+
+        assertThat(otherThreadPolicy[0], is(ValidationPolicy.FULL));
+    }
+
+}
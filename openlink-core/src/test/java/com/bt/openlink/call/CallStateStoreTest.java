@@ -0,0 +1,207 @@
+package com.bt.openlink.call;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.Changed;
+import com.bt.openlink.type.PhoneNumber;
+
+public class CallStateStoreTest {
+
+    private CallStateStore store;
+    private List<String> events;
+
+    @Before
+    public void setUp() {
+        store = new CallStateStore();
+        events = new ArrayList<>();
+        store.addListener(new CallStateListener() {
+            @Override
+            public void onCallAdded(final Call call) {
+                events.add("added " + call.getId().get());
+            }
+
+            @Override
+            public void onCallChanged(final Call previousCall, final Call call, final Set<Changed> changes) {
+                events.add("changed " + call.getId().get() + " " + changes);
+            }
+
+            @Override
+            public void onCallRemoved(final Call call) {
+                events.add("removed " + call.getId().get());
+            }
+        });
+    }
+
+    @Test
+    public void willAddANewCall() {
+
+        store.update(CoreFixtures.CALL_STATUS);
+
+        assertThat(events, contains("added " + CoreFixtures.CALL_ID));
+        assertThat(store.getCall(CoreFixtures.INTEREST_ID, CoreFixtures.CALL_ID), is(Optional.of(CoreFixtures.CALL_OUTGOING_CONFERENCED)));
+        assertThat(store.getCalls(CoreFixtures.INTEREST_ID), contains(CoreFixtures.CALL_OUTGOING_CONFERENCED));
+    }
+
+    @Test
+    public void willNotReportAnUnchangedCall() {
+
+        store.update(getCall(CoreFixtures.CALL_ID, CallState.CALL_ORIGINATED, "1000"));
+        store.update(getCall(CoreFixtures.CALL_ID, CallState.CALL_ORIGINATED, "1000"));
+
+        assertThat(events, contains("added " + CoreFixtures.CALL_ID));
+    }
+
+    @Test
+    public void willReportOnlyTheChangedAspects() {
+
+        store.update(getCall(CoreFixtures.CALL_ID, CallState.CALL_ORIGINATED, "1000"));
+        final Call updatedCall = getCall(CoreFixtures.CALL_ID, CallState.CALL_DELIVERED, "1001");
+        store.update(updatedCall);
+
+        assertThat(events, contains("added " + CoreFixtures.CALL_ID, "changed " + CoreFixtures.CALL_ID + " [STATE, CALLED]"));
+        assertThat(store.getCall(CoreFixtures.INTEREST_ID, CoreFixtures.CALL_ID), is(Optional.of(updatedCall)));
+    }
+
+    @Test
+    public void willRemoveAClearedCall() {
+
+        final CallId otherCallId = CallId.from("other-call").get();
+        store.update(getCall(CoreFixtures.CALL_ID, CallState.CALL_ORIGINATED, "1000"));
+        store.update(getCall(otherCallId, CallState.CALL_ORIGINATED, "1000"));
+        store.update(getCall(CoreFixtures.CALL_ID, CallState.CONNECTION_CLEARED, "1000"));
+
+        assertThat(events, contains("added " + CoreFixtures.CALL_ID, "added " + otherCallId, "removed " + CoreFixtures.CALL_ID));
+        assertThat(store.getCall(CoreFixtures.INTEREST_ID, CoreFixtures.CALL_ID), is(Optional.empty()));
+        assertThat(store.getCalls(CoreFixtures.INTEREST_ID).size(), is(1));
+    }
+
+    @Test
+    public void willIgnoreAClearedCallThatIsNotKnown() {
+
+        store.update(getCall(CoreFixtures.CALL_ID, CallState.CONNECTION_CLEARED, "1000"));
+
+        assertThat(events, is(empty()));
+        assertThat(store.getCalls(CoreFixtures.INTEREST_ID), is(empty()));
+    }
+
+    @Test
+    public void willUseTheChangedValueForChangesThatCannotBeCompared() {
+
+        store.update(getCall(CoreFixtures.CALL_ID, CallState.CALL_ORIGINATED, "1000"));
+        store.update(Call.Builder.start()
+                .setId(CoreFixtures.CALL_ID)
+                .setSite(CoreFixtures.SITE)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setState(CallState.CALL_ORIGINATED)
+                .setChanged(Changed.VOICE_MESSAGE)
+                .setDirection(CallDirection.OUTGOING)
+                .setCalledNumber(PhoneNumber.from("1000").get())
+                .setStartTime(CoreFixtures.START_TIME)
+                .setDuration(CoreFixtures.DURATION)
+                .build());
+
+        assertThat(events, contains("added " + CoreFixtures.CALL_ID, "changed " + CoreFixtures.CALL_ID + " [VOICE_MESSAGE]"));
+    }
+
+    @Test
+    public void willNotifyListenersWithoutHoldingTheLock() throws Exception {
+
+        final List<Call> callsSeenByListener = new ArrayList<>();
+        store.addListener(new CallStateListener() {
+            @Override
+            public void onCallAdded(final Call call) {
+                // Another thread can only read the store if the listener is not called whilst the store is locked
+                final CompletableFuture<List<Call>> calls = CompletableFuture.supplyAsync(() -> store.getCalls(CoreFixtures.INTEREST_ID));
+                try {
+                    callsSeenByListener.addAll(calls.get(5, TimeUnit.SECONDS));
+                } catch (final Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        final Call call = getCall(CoreFixtures.CALL_ID, CallState.CALL_ORIGINATED, "1000");
+        store.update(call);
+
+        assertThat(callsSeenByListener, contains(call));
+    }
+
+    @Test
+    public void willNotifyConcurrentUpdatesInTheOrderTheyWereApplied() throws Exception {
+
+        final AtomicReference<Call> lastCallSeen = new AtomicReference<>();
+        final AtomicInteger outOfOrderNotifications = new AtomicInteger();
+        store.addListener(new CallStateListener() {
+            @Override
+            public void onCallAdded(final Call call) {
+                lastCallSeen.set(call);
+            }
+
+            @Override
+            public void onCallChanged(final Call previousCall, final Call call, final Set<Changed> changes) {
+                if (!lastCallSeen.getAndSet(call).getCalledNumber().equals(previousCall.getCalledNumber())) {
+                    outOfOrderNotifications.incrementAndGet();
+                }
+            }
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> updates = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                final String calledNumber = "100" + thread;
+                updates.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        store.update(getCall(CoreFixtures.CALL_ID, CallState.CALL_ORIGINATED, calledNumber));
+                    }
+                }));
+            }
+            for (final Future<?> update : updates) {
+                update.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(outOfOrderNotifications.get(), is(0));
+        assertThat(store.getCall(CoreFixtures.INTEREST_ID, CoreFixtures.CALL_ID).get().getCalledNumber(), is(lastCallSeen.get().getCalledNumber()));
+    }
+
+    private static Call getCall(final CallId callId, final CallState state, final String calledNumber) {
+        return Call.Builder.start()
+                .setId(callId)
+                .setSite(CoreFixtures.SITE)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setState(state)
+                .setChanged(Changed.STATE)
+                .setDirection(CallDirection.OUTGOING)
+                .setCalledNumber(PhoneNumber.from(calledNumber).get())
+                .setStartTime(CoreFixtures.START_TIME)
+                .setDuration(CoreFixtures.DURATION)
+                .build();
+    }
+
+}
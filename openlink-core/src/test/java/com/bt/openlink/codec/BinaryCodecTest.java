@@ -0,0 +1,170 @@
+package com.bt.openlink.codec;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.unitils.reflectionassert.ReflectionAssert.assertReflectionEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetCallHistoryFixtures;
+import com.bt.openlink.GetInterestsFixtures;
+import com.bt.openlink.GetProfilesFixtures;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.CallStatus;
+import com.bt.openlink.type.HistoricalCall;
+import com.bt.openlink.type.Profile;
+
+public class BinaryCodecTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void willRoundTripACall() {
+
+        final Call call = BinaryCodec.decodeCall(BinaryCodec.encode(CoreFixtures.CALL_OUTGOING_CONFERENCED));
+
+        assertReflectionEquals(CoreFixtures.CALL_OUTGOING_CONFERENCED, call);
+    }
+
+    @Test
+    public void willRoundTripACallWithOnlyMandatoryFields() {
+        final Call expectedCall = Call.Builder.start()
+                .setId(CoreFixtures.CALL_ID)
+                .setSite(CoreFixtures.SITE)
+                .setState(CallState.CALL_ORIGINATED)
+                .setDirection(CallDirection.OUTGOING)
+                .setStartTime(CoreFixtures.START_TIME)
+                .setDuration(CoreFixtures.DURATION)
+                .build();
+
+        final Call call = BinaryCodec.decodeCall(BinaryCodec.encode(expectedCall));
+
+        assertReflectionEquals(expectedCall, call);
+    }
+
+    @Test
+    public void willRoundTripAnIncompleteCall() {
+        final Call expectedCall = Call.Builder.start()
+                .setId(CoreFixtures.CALL_ID)
+                .build(new ArrayList<>());
+
+        final Call call = BinaryCodec.decodeCall(BinaryCodec.encode(expectedCall));
+
+        assertReflectionEquals(expectedCall, call);
+    }
+
+    @Test
+    public void willRoundTripACallStatus() {
+
+        final CallStatus callStatus = BinaryCodec.decodeCallStatus(BinaryCodec.encode(CoreFixtures.CALL_STATUS));
+
+        assertReflectionEquals(CoreFixtures.CALL_STATUS, callStatus);
+    }
+
+    @Test
+    public void willRoundTripProfiles() {
+
+        for (final Profile expectedProfile : Arrays.asList(CoreFixtures.PROFILE, GetProfilesFixtures.PROFILE_2, CoreFixtures.KEYPAGE_PROFILE, CoreFixtures.KEYPAGE_PROFILE_NO_KEYPAGES)) {
+            assertReflectionEquals(expectedProfile, BinaryCodec.decodeProfile(BinaryCodec.encode(expectedProfile)));
+        }
+    }
+
+    @Test
+    public void willRoundTripInterests() {
+
+        assertReflectionEquals(CoreFixtures.INTEREST, BinaryCodec.decodeInterest(BinaryCodec.encode(CoreFixtures.INTEREST)));
+        assertReflectionEquals(GetInterestsFixtures.INTEREST_2, BinaryCodec.decodeInterest(BinaryCodec.encode(GetInterestsFixtures.INTEREST_2)));
+    }
+
+    @Test
+    public void willRoundTripAHistoricalCall() {
+        final HistoricalCall<String> expectedCall = GetCallHistoryFixtures.getHistoricalCall("test-tsc@example.com");
+
+        final HistoricalCall<String> call = BinaryCodec.decodeHistoricalCall(BinaryCodec.encode(expectedCall, String::toString), tsc -> tsc);
+
+        assertReflectionEquals(expectedCall, call);
+    }
+
+    @Test
+    public void willOnlyWriteARepeatedStringOnce() {
+        final CallStatus.Builder builder = CallStatus.Builder.start();
+        for (int i = 0; i < 10; i++) {
+            builder.addCall(Call.Builder.start()
+                    .setId(CallId.from("call-" + i).get())
+                    .setSite(CoreFixtures.SITE)
+                    .setState(CallState.CALL_ORIGINATED)
+                    .setDirection(CallDirection.OUTGOING)
+                    .setStartTime(CoreFixtures.START_TIME)
+                    .setDuration(CoreFixtures.DURATION)
+                    .setInterestId(CoreFixtures.INTEREST_ID)
+                    .build());
+        }
+        final CallStatus callStatus = builder.build();
+
+        final byte[] encoded = BinaryCodec.encode(callStatus);
+
+        final String encodedString = new String(encoded, StandardCharsets.ISO_8859_1);
+        assertThat(encodedString.indexOf(CoreFixtures.INTEREST_ID.value()), is(encodedString.lastIndexOf(CoreFixtures.INTEREST_ID.value())));
+        assertReflectionEquals(callStatus, BinaryCodec.decodeCallStatus(encoded));
+    }
+
+    @Test
+    public void willBeSmallerThanJavaSerialization() throws Exception {
+
+        assertThat(BinaryCodec.encode(CoreFixtures.CALL_STATUS).length, is(lessThan(javaSerialize(CoreFixtures.CALL_STATUS).length / 4)));
+    }
+
+    @Test
+    public void willNotDecodeTheWrongKindOfValue() {
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid encoding; expected kind");
+
+        BinaryCodec.decodeProfile(BinaryCodec.encode(CoreFixtures.CALL_OUTGOING_CONFERENCED));
+    }
+
+    @Test
+    public void willNotDecodeANewerVersion() {
+        final byte[] encoded = BinaryCodec.encode(CoreFixtures.PROFILE);
+        encoded[0] = BinaryCodec.VERSION + 1;
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid encoding; unsupported version " + (BinaryCodec.VERSION + 1));
+
+        BinaryCodec.decodeProfile(encoded);
+    }
+
+    @Test
+    public void willNotDecodeATruncatedValue() {
+        final byte[] encoded = BinaryCodec.encode(CoreFixtures.CALL_OUTGOING_CONFERENCED);
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid encoding; unexpected end of data");
+
+        BinaryCodec.decodeCall(Arrays.copyOf(encoded, encoded.length - 1));
+    }
+
+    private static byte[] javaSerialize(final Serializable value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.bt.openlink.codec;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.unitils.reflectionassert.ReflectionAssert.assertReflectionEquals;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.GetCallHistoryFixtures;
+import com.bt.openlink.GetProfilesFixtures;
+import com.bt.openlink.ManageVoiceMessageFixtures;
+import com.bt.openlink.internal.TimestampCodec;
+import com.bt.openlink.type.Call;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.CallStatus;
+import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.HistoricalCall;
+import com.bt.openlink.type.Profile;
+
+public class JsonCodecTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void willWriteACallInTheDocumentedSchema() {
+        final CallStatus callStatus = CallStatus.Builder.start()
+                .setCallStatusBusy(false)
+                .addCall(Call.Builder.start()
+                        .setId(CoreFixtures.CALL_ID)
+                        .setSite(CoreFixtures.SITE)
+                        .setState(CallState.CALL_ORIGINATED)
+                        .setDirection(CallDirection.OUTGOING)
+                        .setCallerName("Line \"1\"")
+                        .setStartTime(CoreFixtures.START_TIME)
+                        .setDuration(CoreFixtures.DURATION)
+                        .build())
+                .build();
+
+        final String json = JsonCodec.toJson(callStatus);
+
+        assertThat(json, is("{\"callStatusBusy\":false,\"calls\":[{\"id\":\"" + CoreFixtures.CALL_ID + "\"," +
+                "\"site\":{\"id\":" + CoreFixtures.SITE.getId().get() + ",\"default\":" + CoreFixtures.SITE.isDefault().get() + ",\"type\":\"" + CoreFixtures.SITE.getType().get().getLabel() + "\",\"name\":\"" + CoreFixtures.SITE.getName().get() + "\"}," +
+                "\"state\":\"CallOriginated\",\"direction\":\"Outgoing\",\"callerName\":\"Line \\\"1\\\"\"," +
+                "\"startTime\":\"" + TimestampCodec.formatISO8601(CoreFixtures.START_TIME) + "\",\"duration\":" + CoreFixtures.DURATION.toMillis() + "}]}"));
+    }
+
+    @Test
+    public void willRoundTripACallStatus() throws Exception {
+
+        final CallStatus callStatus = JsonCodec.readCallStatus(reader(JsonCodec.toJson(CoreFixtures.CALL_STATUS)));
+
+        assertReflectionEquals(CoreFixtures.CALL_STATUS, callStatus);
+    }
+
+    @Test
+    public void willRoundTripACall() throws Exception {
+        final StringWriter json = new StringWriter();
+
+        JsonCodec.write(new JsonWriter(json), CoreFixtures.CALL_OUTGOING_CONFERENCED);
+        final Call call = JsonCodec.readCall(reader(json.toString()));
+
+        assertReflectionEquals(CoreFixtures.CALL_OUTGOING_CONFERENCED, call);
+    }
+
+    @Test
+    public void willRoundTripDeviceStatuses() throws Exception {
+
+        for (final DeviceStatus expectedDeviceStatus : Arrays.asList(CoreFixtures.DEVICE_STATUS_LOGON, ManageVoiceMessageFixtures.DEVICE_STATUS_EDIT, ManageVoiceMessageFixtures.DEVICE_STATUS_RECORD,
+                ManageVoiceMessageFixtures.DEVICE_STATUS_PLAYBACK, ManageVoiceMessageFixtures.DEVICE_STATUS_QUERY)) {
+            final StringWriter json = new StringWriter();
+            JsonCodec.write(new JsonWriter(json), expectedDeviceStatus);
+
+            assertReflectionEquals(expectedDeviceStatus, JsonCodec.readDeviceStatus(reader(json.toString())));
+        }
+    }
+
+    @Test
+    public void willRoundTripProfiles() throws Exception {
+
+        for (final Profile expectedProfile : Arrays.asList(CoreFixtures.PROFILE, GetProfilesFixtures.PROFILE_2, CoreFixtures.KEYPAGE_PROFILE, CoreFixtures.KEYPAGE_PROFILE_NO_KEYPAGES)) {
+            final StringWriter json = new StringWriter();
+            JsonCodec.write(new JsonWriter(json), expectedProfile);
+
+            assertReflectionEquals(expectedProfile, JsonCodec.readProfile(reader(json.toString())));
+        }
+    }
+
+    @Test
+    public void willRoundTripAHistoricalCall() throws Exception {
+        final HistoricalCall<String> expectedCall = GetCallHistoryFixtures.getHistoricalCall("test-tsc@example.com");
+        final StringWriter json = new StringWriter();
+
+        JsonCodec.write(new JsonWriter(json), expectedCall, String::toString);
+        final HistoricalCall<String> call = JsonCodec.readHistoricalCall(reader(json.toString()), tsc -> tsc);
+
+        assertReflectionEquals(expectedCall, call);
+    }
+
+    @Test
+    public void willWriteToAByteBuffer() throws Exception {
+        final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        JsonCodec.write(new JsonWriter(buffer), CoreFixtures.CALL_STATUS);
+
+        buffer.flip();
+        assertThat(StandardCharsets.UTF_8.decode(buffer).toString(), is(JsonCodec.toJson(CoreFixtures.CALL_STATUS)));
+    }
+
+    @Test
+    public void willReadACallStatusWithinAnEnvelope() throws Exception {
+        final StringWriter json = new StringWriter();
+        final JsonWriter writer = new JsonWriter(json);
+        writer.beginObject().name("type").value("callstatus").name("payload");
+        JsonCodec.write(writer, CoreFixtures.CALL_STATUS);
+        writer.endObject();
+
+        final JsonReader reader = reader(json.toString());
+        reader.beginObject();
+        assertThat(reader.nextName(), is("type"));
+        assertThat(reader.nextString(), is("callstatus"));
+        assertThat(reader.nextName(), is("payload"));
+        final CallStatus callStatus = JsonCodec.readCallStatus(reader);
+        reader.endObject();
+
+        assertReflectionEquals(CoreFixtures.CALL_STATUS, callStatus);
+        assertThat(reader.peek(), is(JsonReader.Token.END_DOCUMENT));
+    }
+
+    @Test
+    public void willSkipPropertiesThatAreNotRecognised() throws Exception {
+
+        final CallStatus callStatus = JsonCodec.readCallStatus(reader("{\"callStatusBusy\":true,\"future\":{\"values\":[1,2.5e3,\"three\",null,false]},\"calls\":null}"));
+
+        assertThat(callStatus.isCallStatusBusy().get(), is(true));
+        assertThat(callStatus.getCalls().isEmpty(), is(true));
+    }
+
+    @Test
+    public void willNotReadACallFeatureWithoutALeadingKind() throws Exception {
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid JSON; the first property of a call feature must be its kind");
+
+        JsonCodec.readCall(reader("{\"features\":[{\"id\":\"hs_1\",\"kind\":\"handset\"}]}"));
+    }
+
+    private static JsonReader reader(final String json) {
+        return new JsonReader(new StringReader(json));
+    }
+}
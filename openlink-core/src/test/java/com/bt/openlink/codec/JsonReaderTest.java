@@ -0,0 +1,160 @@
+package com.bt.openlink.codec;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class JsonReaderTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void willReadEveryKindOfToken() throws Exception {
+        final JsonReader reader = reader(" { \"a\" : [ 1 , -20 , true , false , null , \"x\" ] , \"b\" : { } } ");
+
+        reader.beginObject();
+        assertThat(reader.nextName(), is("a"));
+        reader.beginArray();
+        assertThat(reader.nextLong(), is(1L));
+        assertThat(reader.nextLong(), is(-20L));
+        assertThat(reader.nextBoolean(), is(true));
+        assertThat(reader.nextBoolean(), is(false));
+        assertThat(reader.peek(), is(JsonReader.Token.NULL));
+        reader.nextNull();
+        assertThat(reader.nextString(), is("x"));
+        assertThat(reader.hasNext(), is(false));
+        reader.endArray();
+        assertThat(reader.nextName(), is("b"));
+        reader.beginObject();
+        reader.endObject();
+        reader.endObject();
+        assertThat(reader.peek(), is(JsonReader.Token.END_DOCUMENT));
+    }
+
+    @Test
+    public void willRoundTripStringsThatNeedEscaping() throws Exception {
+        final StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            longString.append("\"quote\" \\ \n\t\u0001 é€😀  ");
+        }
+        final StringWriter json = new StringWriter();
+        new JsonWriter(json).beginArray().value(longString.toString()).value("plain").endArray();
+
+        final JsonReader reader = reader(json.toString());
+        reader.beginArray();
+
+        assertThat(reader.nextString(), is(longString.toString()));
+        assertThat(reader.nextString(), is("plain"));
+    }
+
+    @Test
+    public void willReadTheExtremesOfALong() throws Exception {
+        final JsonReader reader = reader("[" + Long.MAX_VALUE + "," + Long.MIN_VALUE + "]");
+
+        reader.beginArray();
+
+        assertThat(reader.nextLong(), is(Long.MAX_VALUE));
+        assertThat(reader.nextLong(), is(Long.MIN_VALUE));
+    }
+
+    @Test
+    public void willNotReadANumberThatIsOutOfRange() throws Exception {
+        final JsonReader reader = reader("[9223372036854775808]");
+        reader.beginArray();
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid JSON; number out of range");
+
+        reader.nextLong();
+    }
+
+    @Test
+    public void willNotReadAMissingComma() throws Exception {
+        final JsonReader reader = reader("{\"a\":1 \"b\":2}");
+        reader.beginObject();
+        reader.nextName();
+        reader.nextLong();
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid JSON; expected ',' or '}' but found '\"' at offset 8");
+
+        reader.nextName();
+    }
+
+    @Test
+    public void willNotReadTheWrongKindOfToken() throws Exception {
+        final JsonReader reader = reader("{\"a\":\"1\"}");
+        reader.beginObject();
+        reader.nextName();
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid JSON; expected NUMBER but was STRING");
+
+        reader.nextLong();
+    }
+
+    @Test
+    public void willNotReadAnUnterminatedDocument() throws Exception {
+        final JsonReader reader = reader("{\"a\":\"value");
+        reader.beginObject();
+        reader.nextName();
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid JSON; unterminated string");
+
+        reader.nextString();
+    }
+
+    @Test
+    public void willSkipAValueAndEverythingWithinIt() throws Exception {
+        final JsonReader reader = reader("{\"a\":{\"b\":[1,\"x\",{\"c\":null},[]],\"d\":true},\"e\":2}");
+        reader.beginObject();
+        reader.nextName();
+
+        reader.skipValue();
+
+        assertThat(reader.nextName(), is("e"));
+        assertThat(reader.nextLong(), is(2L));
+        reader.endObject();
+        assertThat(reader.peek(), is(JsonReader.Token.END_DOCUMENT));
+    }
+
+    @Test
+    public void willSkipADeeplyNestedValue() throws Exception {
+        final StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 100_000; i++) {
+            json.append("{\"a\":[");
+        }
+        for (int i = 0; i < 100_000; i++) {
+            json.append("]}");
+        }
+        final JsonReader reader = reader(json.append(",1]").toString());
+        reader.beginArray();
+
+        reader.skipValue();
+
+        assertThat(reader.nextLong(), is(1L));
+        reader.endArray();
+    }
+
+    @Test
+    public void willNotSkipTheEndOfAnArray() throws Exception {
+        final JsonReader reader = reader("[]");
+        reader.beginArray();
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Invalid JSON; expected a value");
+
+        reader.skipValue();
+    }
+
+    private static JsonReader reader(final String json) {
+        return new JsonReader(new StringReader(json));
+    }
+}
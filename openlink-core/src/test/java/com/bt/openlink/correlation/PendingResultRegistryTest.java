@@ -0,0 +1,166 @@
+package com.bt.openlink.correlation;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class PendingResultRegistryTest {
+
+    private static final Duration TICK = Duration.ofMillis(10);
+    private static final Duration TIMEOUT = Duration.ofMillis(100);
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+    private AtomicLong nanoTime;
+    private PendingResultRegistry<String> registry;
+
+    @Before
+    public void setUp() {
+        nanoTime = new AtomicLong(1234567890L);
+        registry = new PendingResultRegistry<>(nanoTime::get, TICK, 4);
+    }
+
+    @Test
+    public void willCompleteAPendingRequest() throws Exception {
+
+        final CompletableFuture<String> future = registry.register("id-1", TIMEOUT);
+        final boolean completed = registry.complete("id-1", "result");
+
+        assertThat(completed, is(true));
+        assertThat(future.get(), is("result"));
+        assertThat(registry.size(), is(0));
+        assertThat(registry.getCompletedCount(), is(1L));
+    }
+
+    @Test
+    public void willIgnoreAResultForAnUnknownRequest() {
+
+        final boolean completed = registry.complete("unknown-id", "result");
+
+        assertThat(completed, is(false));
+        assertThat(registry.getLateResultCount(), is(0L));
+    }
+
+    @Test
+    public void willFailAPendingRequest() throws Exception {
+        final CompletableFuture<String> future = registry.register("id-1", TIMEOUT);
+
+        registry.completeExceptionally("id-1", new IllegalStateException("not connected"));
+
+        assertThat(getCause(future), is(instanceOf(IllegalStateException.class)));
+    }
+
+    @Test
+    public void willNotRegisterTheSameIdTwice() {
+        registry.register("id-1", TIMEOUT);
+
+        expectedException.expect(IllegalArgumentException.class);
+
+        registry.register("id-1", TIMEOUT);
+    }
+
+    @Test
+    public void willTimeOutARequestThatSpansSeveralRotations() throws Exception {
+        final CompletableFuture<String> future = registry.register("id-1", TIMEOUT);
+
+        advance(TIMEOUT.minus(TICK));
+        assertThat(future.isDone(), is(false));
+        advance(TICK);
+
+        assertThat(getCause(future), is(instanceOf(TimeoutException.class)));
+        assertThat(registry.getTimedOutCount(), is(1L));
+    }
+
+    @Test
+    public void willTimeOutARequestWhoseDeadlineTheWheelHasPassed() throws Exception {
+        advance(TICK);
+
+        final CompletableFuture<String> future = registry.register("id-1", Duration.ZERO);
+
+        assertThat(getCause(future), is(instanceOf(TimeoutException.class)));
+        assertThat(registry.size(), is(1));
+    }
+
+    @Test
+    public void willNotTimeOutACompletedRequest() {
+        registry.register("id-1", TIMEOUT);
+        registry.complete("id-1", "result");
+
+        advance(TIMEOUT.multipliedBy(3));
+
+        assertThat(registry.getTimedOutCount(), is(0L));
+        assertThat(registry.size(), is(0));
+    }
+
+    @Test
+    public void willCountALateResult() {
+        registry.register("id-1", TIMEOUT);
+        advance(TIMEOUT);
+
+        final boolean completed = registry.complete("id-1", "result");
+
+        assertThat(completed, is(false));
+        assertThat(registry.getLateResultCount(), is(1L));
+    }
+
+    @Test
+    public void willForgetATimedOutRequestAfterAFurtherTimeout() {
+        registry.register("id-1", TIMEOUT);
+        advance(TIMEOUT);
+        assertThat(registry.size(), is(1));
+
+        advance(TIMEOUT);
+        registry.complete("id-1", "result");
+
+        assertThat(registry.size(), is(0));
+        assertThat(registry.getLateResultCount(), is(0L));
+    }
+
+    @Test
+    public void willTimeOutOnlyTheRequestsThatAreDue() {
+        final List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(registry.register("id-" + i, TICK.multipliedBy(i + 1)));
+            if (i % 3 == 0) {
+                registry.complete("id-" + i, "result");
+            }
+        }
+
+        advance(TICK.multipliedBy(10));
+
+        for (int i = 0; i < 20; i++) {
+            assertThat("request " + i, futures.get(i).isCompletedExceptionally(), is(i < 10 && i % 3 != 0));
+        }
+        assertThat(registry.getTimedOutCount(), is(6L));
+    }
+
+    private void advance(final Duration duration) {
+        final long end = nanoTime.get() + duration.toNanos();
+        while (nanoTime.get() < end) {
+            nanoTime.addAndGet(Math.min(TICK.toNanos(), end - nanoTime.get()));
+            registry.expireTimeouts();
+        }
+    }
+
+    private static Throwable getCause(final CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+            return null;
+        } catch (final ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.bt.openlink.dispatch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class OrderedDispatcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+    private OrderedDispatcher<Event> dispatcher;
+
+    @After
+    public void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.close();
+            assertThat(dispatcher.awaitTermination(TIMEOUT), is(true));
+        }
+    }
+
+    @Test
+    public void willHandleTheEventsForEachKeyInOrder() throws Exception {
+        final Map<String, List<Integer>> handled = Collections.synchronizedMap(new HashMap<>());
+        dispatcher = new OrderedDispatcher<>(4, 16, Event::getKey,
+                event -> handled.computeIfAbsent(event.key, key -> Collections.synchronizedList(new ArrayList<>())).add(event.sequence));
+
+        for (int sequence = 0; sequence < 1000; sequence++) {
+            for (int key = 0; key < 10; key++) {
+                dispatcher.dispatch(new Event("interest-" + key, sequence));
+            }
+        }
+        dispatcher.close();
+        assertThat(dispatcher.awaitTermination(TIMEOUT), is(true));
+
+        assertThat(handled.size(), is(10));
+        for (final List<Integer> sequences : handled.values()) {
+            assertThat(sequences.size(), is(1000));
+            for (int sequence = 0; sequence < 1000; sequence++) {
+                assertThat(sequences.get(sequence), is(sequence));
+            }
+        }
+    }
+
+    @Test
+    public void willHandleEventsWithDifferentKeysInParallel() throws Exception {
+        // The keys 0 and 1 are on different lanes of two
+        final CountDownLatch secondEventHandled = new CountDownLatch(1);
+        final CountDownLatch firstEventHandled = new CountDownLatch(1);
+        dispatcher = new OrderedDispatcher<>(2, 16, Event::getSequence, event -> {
+            if (event.sequence == 0) {
+                await(secondEventHandled);
+                firstEventHandled.countDown();
+            } else {
+                secondEventHandled.countDown();
+            }
+        });
+
+        dispatcher.dispatch(new Event("interest", 0));
+        dispatcher.dispatch(new Event("interest", 1));
+
+        assertThat(firstEventHandled.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS), is(true));
+    }
+
+    @Test
+    public void willNotDispatchWhenTheQueueIsFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        dispatcher = new OrderedDispatcher<>(1, 2, Event::getKey, event -> {
+            started.countDown();
+            await(release);
+        });
+        dispatcher.dispatch(new Event("interest", 0));
+        assertThat(started.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS), is(true));
+        dispatcher.dispatch(new Event("interest", 1));
+        dispatcher.dispatch(new Event("interest", 2));
+
+        final boolean dispatched = dispatcher.tryDispatch(new Event("interest", 3), Duration.ZERO);
+
+        assertThat(dispatched, is(false));
+        assertThat(dispatcher.getQueuedCount(), is(2));
+        release.countDown();
+    }
+
+    @Test
+    public void willHandleTheQueuedEventsWhenClosed() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+        dispatcher = new OrderedDispatcher<>(1, 10, Event::getKey, event -> {
+            await(release);
+            handled.add(event.sequence);
+        });
+        for (int sequence = 0; sequence < 5; sequence++) {
+            dispatcher.dispatch(new Event("interest", sequence));
+        }
+
+        dispatcher.close();
+        release.countDown();
+
+        assertThat(dispatcher.awaitTermination(TIMEOUT), is(true));
+        assertThat(handled.size(), is(5));
+    }
+
+    @Test
+    public void willNotDispatchOnceClosed() throws Exception {
+        dispatcher = new OrderedDispatcher<>(1, 10, Event::getKey, event -> {
+        });
+        dispatcher.close();
+
+        expectedException.expect(IllegalStateException.class);
+
+        dispatcher.dispatch(new Event("interest", 0));
+    }
+
+    @Test
+    public void willCarryOnAfterTheHandlerFails() throws Exception {
+        final List<Throwable> uncaughtExceptions = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable);
+            thread.setUncaughtExceptionHandler((t, e) -> uncaughtExceptions.add(e));
+            return thread;
+        };
+        final Consumer<Event> handler = event -> {
+            if (event.sequence == 0) {
+                throw new IllegalStateException("Unable to handle the event");
+            }
+            handled.add(event.sequence);
+        };
+        dispatcher = new OrderedDispatcher<>(1, 10, Event::getKey, handler, threadFactory);
+
+        dispatcher.dispatch(new Event("interest", 0));
+        dispatcher.dispatch(new Event("interest", 1));
+        dispatcher.close();
+
+        assertThat(dispatcher.awaitTermination(TIMEOUT), is(true));
+        assertThat(uncaughtExceptions.size(), is(1));
+        assertThat(handled, is(Collections.singletonList(1)));
+    }
+
+    @Test
+    public void willCarryOnAfterTheHandlerInterruptsItself() throws Exception {
+        final CountDownLatch firstEventHandled = new CountDownLatch(1);
+        final List<Boolean> interrupted = Collections.synchronizedList(new ArrayList<>());
+        dispatcher = new OrderedDispatcher<>(1, 10, Event::getKey, event -> {
+            interrupted.add(Thread.currentThread().isInterrupted());
+            if (event.sequence == 0) {
+                Thread.currentThread().interrupt();
+                firstEventHandled.countDown();
+            }
+        });
+
+        dispatcher.dispatch(new Event("interest", 0));
+        assertThat(firstEventHandled.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS), is(true));
+        dispatcher.dispatch(new Event("interest", 1));
+        dispatcher.close();
+
+        assertThat(dispatcher.awaitTermination(TIMEOUT), is(true));
+        assertThat(interrupted, is(Arrays.asList(false, false)));
+    }
+
+    @Test
+    public void willNotEndALaneWhenItsThreadIsInterrupted() throws Exception {
+        final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable);
+            threads.add(thread);
+            return thread;
+        };
+        dispatcher = new OrderedDispatcher<>(1, 10, Event::getKey, event -> handled.add(event.sequence), threadFactory);
+
+        threads.get(0).interrupt();
+        dispatcher.dispatch(new Event("interest", 0));
+        dispatcher.close();
+
+        assertThat(dispatcher.awaitTermination(TIMEOUT), is(true));
+        assertThat(handled, is(Collections.singletonList(0)));
+    }
+
+    @Test
+    public void willNotDispatchToALaneEndedByAnError() throws Exception {
+        final CountDownLatch laneEnded = new CountDownLatch(1);
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable);
+            thread.setUncaughtExceptionHandler((t, e) -> laneEnded.countDown());
+            return thread;
+        };
+        dispatcher = new OrderedDispatcher<>(1, 1, Event::getKey, event -> {
+            throw new AssertionError("Unable to handle the event");
+        }, threadFactory);
+
+        dispatcher.dispatch(new Event("interest", 0));
+        assertThat(laneEnded.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS), is(true));
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("The lane for the event has ended after an error");
+
+        dispatcher.dispatch(new Event("interest", 1));
+    }
+
+    @Test
+    public void willHandleEventsWithoutAKey() throws Exception {
+        final List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+        dispatcher = new OrderedDispatcher<>(4, 10, Event::getKey, event -> handled.add(event.sequence));
+
+        dispatcher.dispatch(new Event(null, 0));
+        dispatcher.dispatch(new Event(null, 1));
+        dispatcher.close();
+
+        assertThat(dispatcher.awaitTermination(TIMEOUT), is(true));
+        assertThat(handled, is(Arrays.asList(0, 1)));
+    }
+
+    @Test
+    public void willOnlyOfferVirtualThreadsWhereTheRuntimeHasThem() {
+        boolean virtualThreadsSupported;
+        try {
+            Thread.class.getMethod("ofVirtual");
+            virtualThreadsSupported = true;
+        } catch (final NoSuchMethodException e) {
+            virtualThreadsSupported = false;
+        }
+
+        assertThat(OrderedDispatcher.virtualThreadFactory().isPresent(), is(virtualThreadsSupported));
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Event {
+
+        private final String key;
+        private final int sequence;
+
+        private Event(final String key, final int sequence) {
+            this.key = key;
+            this.sequence = sequence;
+        }
+
+        private String getKey() {
+            return key;
+        }
+
+        private Integer getSequence() {
+            return sequence;
+        }
+    }
+}
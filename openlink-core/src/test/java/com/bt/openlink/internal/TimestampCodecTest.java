@@ -0,0 +1,107 @@
+package com.bt.openlink.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class TimestampCodecTest {
+
+    private static final Instant INSTANT = Instant.parse("2011-12-13T14:15:16.178Z");
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+    private TimeZone defaultTimeZone;
+
+    @Before
+    public void setUp() {
+        defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("Europe/London"));
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    @Test
+    public void willFormatISO8601() {
+
+        assertThat(TimestampCodec.formatISO8601(INSTANT), is("2011-12-13T14:15:16.178Z"));
+        assertThat(TimestampCodec.formatISO8601(Instant.parse("2011-12-13T14:15:16Z")), is("2011-12-13T14:15:16.000Z"));
+        assertThat(TimestampCodec.formatISO8601(Instant.parse("1969-12-31T23:59:59.999999Z")), is("1969-12-31T23:59:59.999Z"));
+    }
+
+    @Test
+    public void willParseISO8601() {
+
+        assertThat(TimestampCodec.parseISO8601("2011-12-13T14:15:16.178Z"), is(INSTANT));
+        assertThat(TimestampCodec.parseISO8601("2011-12-13T14:15:16Z"), is(Instant.parse("2011-12-13T14:15:16Z")));
+        assertThat(TimestampCodec.parseISO8601("2012-02-29T00:00:00.123456789Z"), is(Instant.parse("2012-02-29T00:00:00.123456789Z")));
+    }
+
+    @Test
+    public void willNotParseAnInvalidISO8601Date() {
+
+        expectedException.expect(DateTimeParseException.class);
+
+        TimestampCodec.parseISO8601("2011-02-29T14:15:16.178Z");
+    }
+
+    @Test
+    public void willFormatAJavaUtilDate() {
+
+        assertThat(TimestampCodec.formatJavaUtilDate(INSTANT), is("Tue Dec 13 14:15:16 UTC 2011"));
+    }
+
+    @Test
+    public void willParseAJavaUtilDate() {
+
+        assertThat(TimestampCodec.parseJavaUtilDate("Tue Dec 13 14:15:16 UTC 2011"), is(Instant.parse("2011-12-13T14:15:16Z")));
+        assertThat(TimestampCodec.parseJavaUtilDate("Tue Dec 13 14:15:16 GMT 2011"), is(Instant.parse("2011-12-13T14:15:16Z")));
+    }
+
+    @Test
+    public void willNotParseAJavaUtilDateWithTheWrongDayOfTheWeek() {
+
+        expectedException.expect(DateTimeParseException.class);
+
+        TimestampCodec.parseJavaUtilDate("Wed Dec 13 14:15:16 UTC 2011");
+    }
+
+    @Test
+    public void willFormatASqlTimestampInTheDefaultTimeZone() {
+
+        final Instant summerTime = Instant.parse("2011-06-13T14:15:16.178Z");
+
+        assertThat(TimestampCodec.formatSqlTimestamp(INSTANT), is(Timestamp.from(INSTANT).toString()));
+        assertThat(TimestampCodec.formatSqlTimestamp(summerTime), is("2011-06-13 15:15:16.178"));
+        assertThat(TimestampCodec.formatSqlTimestamp(Instant.parse("2011-06-13T14:15:16Z")), is("2011-06-13 15:15:16.0"));
+        assertThat(TimestampCodec.formatSqlTimestamp(Instant.parse("2011-06-13T14:15:16.000000001Z")), is("2011-06-13 15:15:16.000000001"));
+    }
+
+    @Test
+    public void willNotUseACachedValueFromAnotherTimeZone() {
+
+        final String londonTime = TimestampCodec.formatSqlTimestamp(INSTANT);
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+
+        assertThat(londonTime, is("2011-12-13 14:15:16.178"));
+        assertThat(TimestampCodec.formatSqlTimestamp(INSTANT), is("2011-12-13 09:15:16.178"));
+    }
+
+    @Test
+    public void willParseASqlTimestampInTheDefaultTimeZone() {
+
+        assertThat(TimestampCodec.parseSqlTimestamp("2011-06-13 15:15:16.178"), is(Instant.parse("2011-06-13T14:15:16.178Z")));
+    }
+
+}
@@ -163,6 +163,19 @@ public class GetCallHistoryResultBuilderTest {
         assertThat(errors, contains("Invalid call history; missing or invalid total record count"));
     }
 
+    @Test
+    public void willCountStreamedCallsWhenValidating() {
+
+        final List<String> errors = new ArrayList<>();
+
+        builder.setFirstRecordNumber(0)
+                .setRecordCountInBatch(1)
+                .setTotalRecordCount(2)
+                .addStreamedCall()
+                .validate(errors);
 
+        assertThat(builder.getCalls(), is(empty()));
+        assertThat(errors, is(empty()));
+    }
 
 }
\ No newline at end of file
@@ -0,0 +1,259 @@
+package com.bt.openlink.reactive;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.bt.openlink.type.InterestId;
+
+public class StatusEventPublisherTest {
+
+    private static final InterestId INTEREST_A = InterestId.from("interest-a").get();
+    private static final InterestId INTEREST_B = InterestId.from("interest-b").get();
+
+    @Test
+    public void willDeliverOnlyTheEventsRequested() {
+        final StatusEventPublisher<Event> publisher = newPublisher(OverflowStrategy.BUFFER, 10);
+        final TestSubscriber subscriber = new TestSubscriber(2);
+        publisher.subscribe(subscriber);
+
+        publisher.publish(new Event(INTEREST_A, 1));
+        publisher.publish(new Event(INTEREST_A, 2));
+        publisher.publish(new Event(INTEREST_A, 3));
+
+        assertThat(subscriber.getSequences(), is(Arrays.asList(1, 2)));
+
+        subscriber.subscription.request(1);
+
+        assertThat(subscriber.getSequences(), is(Arrays.asList(1, 2, 3)));
+    }
+
+    @Test
+    public void willOnlyDeliverTheEventsForTheInterestsSubscribedTo() {
+        final StatusEventPublisher<Event> publisher = newPublisher(OverflowStrategy.BUFFER, 10);
+        final TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+        publisher.forInterests(Collections.singleton(INTEREST_B)).subscribe(subscriber);
+
+        publisher.publish(new Event(INTEREST_A, 1));
+        publisher.publish(new Event(INTEREST_B, 2));
+        publisher.publish(new Event(null, 3));
+
+        assertThat(subscriber.getSequences(), is(Collections.singletonList(2)));
+    }
+
+    @Test
+    public void willEndTheSubscriptionWhenTheBufferOverflows() {
+        final StatusEventPublisher<Event> publisher = newPublisher(OverflowStrategy.BUFFER, 2);
+        final TestSubscriber subscriber = new TestSubscriber(0);
+        publisher.subscribe(subscriber);
+
+        publisher.publish(new Event(INTEREST_A, 1));
+        publisher.publish(new Event(INTEREST_A, 2));
+        publisher.publish(new Event(INTEREST_A, 3));
+
+        assertThat(subscriber.error, is(instanceOf(EventBufferOverflowException.class)));
+        assertThat(publisher.getSubscriberCount(), is(0));
+        assertThat(publisher.getDroppedCount(), is(3L));
+    }
+
+    @Test
+    public void willDropTheOldestEvent() {
+        final StatusEventPublisher<Event> publisher = newPublisher(OverflowStrategy.DROP_OLDEST, 2);
+        final TestSubscriber subscriber = new TestSubscriber(0);
+        publisher.subscribe(subscriber);
+        publisher.publish(new Event(INTEREST_A, 1));
+        publisher.publish(new Event(INTEREST_A, 2));
+        publisher.publish(new Event(INTEREST_A, 3));
+
+        subscriber.subscription.request(10);
+
+        assertThat(subscriber.getSequences(), is(Arrays.asList(2, 3)));
+        assertThat(publisher.getDroppedCount(), is(1L));
+    }
+
+    @Test
+    public void willKeepTheLatestEventForEachInterest() {
+        final StatusEventPublisher<Event> publisher = newPublisher(OverflowStrategy.LATEST_PER_INTEREST, 1);
+        final TestSubscriber subscriber = new TestSubscriber(0);
+        publisher.subscribe(subscriber);
+        publisher.publish(new Event(INTEREST_A, 1));
+        publisher.publish(new Event(INTEREST_B, 2));
+        publisher.publish(new Event(INTEREST_A, 3));
+        publisher.publish(new Event(null, 4));
+        publisher.publish(new Event(null, 5));
+
+        subscriber.subscription.request(10);
+
+        assertThat(subscriber.getSequences(), is(Arrays.asList(3, 2, 5)));
+        assertThat(publisher.getDroppedCount(), is(2L));
+    }
+
+    @Test
+    public void willCompleteTheSubscribersWhenClosed() {
+        final StatusEventPublisher<Event> publisher = newPublisher(OverflowStrategy.BUFFER, 10);
+        final TestSubscriber subscriber = new TestSubscriber(0);
+        publisher.subscribe(subscriber);
+        publisher.publish(new Event(INTEREST_A, 1));
+
+        publisher.close();
+        assertThat(subscriber.completed, is(false));
+        subscriber.subscription.request(1);
+
+        assertThat(subscriber.getSequences(), is(Collections.singletonList(1)));
+        assertThat(subscriber.completed, is(true));
+        assertThat(publisher.getSubscriberCount(), is(0));
+    }
+
+    @Test
+    public void willCompleteASubscriberToAClosedPublisher() {
+        final StatusEventPublisher<Event> publisher = newPublisher(OverflowStrategy.BUFFER, 10);
+        publisher.close();
+        final TestSubscriber subscriber = new TestSubscriber(0);
+
+        publisher.subscribe(subscriber);
+
+        assertThat(subscriber.subscription, is(notNullValue()));
+        assertThat(subscriber.completed, is(true));
+    }
+
+    @Test
+    public void willRejectARequestForNoEvents() {
+        final StatusEventPublisher<Event> publisher = newPublisher(OverflowStrategy.BUFFER, 10);
+        final TestSubscriber subscriber = new TestSubscriber(0);
+        publisher.subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertThat(subscriber.error, is(instanceOf(IllegalArgumentException.class)));
+    }
+
+    @Test
+    public void willNotDeliverEventsOnceCancelled() {
+        final StatusEventPublisher<Event> publisher = newPublisher(OverflowStrategy.BUFFER, 10);
+        final TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+        publisher.subscribe(subscriber);
+        publisher.publish(new Event(INTEREST_A, 1));
+
+        subscriber.subscription.cancel();
+        publisher.publish(new Event(INTEREST_A, 2));
+
+        assertThat(subscriber.getSequences(), is(Collections.singletonList(1)));
+        assertThat(publisher.getSubscriberCount(), is(0));
+        assertThat(subscriber.error, is(nullValue()));
+    }
+
+    @Test
+    public void willDeliverEventsInOrderOnAnExecutor() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final StatusEventPublisher<Event> publisher = new StatusEventPublisher<>(executor, Event::getInterestId, OverflowStrategy.BUFFER, 100_000);
+            final List<TestSubscriber> subscribers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                final TestSubscriber subscriber = new TestSubscriber(1);
+                subscriber.requestOnNext = true;
+                publisher.subscribe(subscriber);
+                subscribers.add(subscriber);
+            }
+
+            for (int sequence = 0; sequence < 10_000; sequence++) {
+                publisher.publish(new Event(INTEREST_A, sequence));
+            }
+            publisher.close();
+
+            for (final TestSubscriber subscriber : subscribers) {
+                assertThat(subscriber.terminated.await(5, TimeUnit.SECONDS), is(true));
+                final List<Integer> sequences = subscriber.getSequences();
+                assertThat(sequences.size(), is(10_000));
+                for (int sequence = 0; sequence < 10_000; sequence++) {
+                    assertThat(sequences.get(sequence), is(sequence));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static StatusEventPublisher<Event> newPublisher(final OverflowStrategy overflowStrategy, final int bufferSize) {
+        return new StatusEventPublisher<>(Runnable::run, Event::getInterestId, overflowStrategy, bufferSize);
+    }
+
+    private static final class Event {
+
+        private final InterestId interestId;
+        private final int sequence;
+
+        private Event(final InterestId interestId, final int sequence) {
+            this.interestId = interestId;
+            this.sequence = sequence;
+        }
+
+        private Optional<InterestId> getInterestId() {
+            return Optional.ofNullable(interestId);
+        }
+    }
+
+    private static final class TestSubscriber implements Subscriber<Event> {
+
+        private final long initialRequest;
+        private final List<Integer> sequences = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private volatile boolean requestOnNext;
+        private volatile Subscription subscription;
+        private volatile Throwable error;
+        private volatile boolean completed;
+
+        private TestSubscriber(final long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(final Event event) {
+            sequences.add(event.sequence);
+            if (requestOnNext) {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+
+        private List<Integer> getSequences() {
+            synchronized (sequences) {
+                return new ArrayList<>(sequences);
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.bt.openlink.type;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,6 +17,8 @@ import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.ScopedDefault;
+import com.bt.openlink.ValidationPolicy;
 
 @SuppressWarnings("ConstantConditions")
 @RunWith(MockitoJUnitRunner.class)
@@ -81,4 +84,42 @@ public class CallStatusTest {
         assertThat(callStatus.getCalls(), contains(CoreFixtures.CALL_OUTGOING_CONFERENCED, CoreFixtures.CALL_OUTGOING_CONFERENCED));
         assertThat(errors, contains("Invalid callstatus; each call id must be unique - test-call-id appears more than once"));
     }
+
+    @Test
+    public void willReportEachDuplicateCallOnce() {
+        final List<String> errors = new ArrayList<>();
+
+        CallStatus.Builder.start()
+                .addCalls(Arrays.asList(CoreFixtures.CALL_OUTGOING_CONFERENCED, CoreFixtures.CALL_OUTGOING_CONFERENCED, CoreFixtures.CALL_OUTGOING_CONFERENCED))
+                .build(errors);
+
+        assertThat(errors, contains("Invalid callstatus; each call id must be unique - test-call-id appears more than once"));
+    }
+
+    @Test
+    public void willNotCheckForDuplicateCallsWithAStructuralValidationPolicy() {
+        final List<String> errors = new ArrayList<>();
+
+        try (ScopedDefault.Scope ignored = ValidationPolicy.STRUCTURAL.enter()) {
+            CallStatus.Builder.start()
+                    .addCalls(Arrays.asList(CoreFixtures.CALL_OUTGOING_CONFERENCED, CoreFixtures.CALL_OUTGOING_CONFERENCED))
+                    .build(errors);
+            CallStatus.Builder.start()
+                    .build(errors);
+        }
+
+        assertThat(errors, contains("Invalid callstatus; missing or invalid calls"));
+    }
+
+    @Test
+    public void willNotValidateWithoutAValidationPolicy() {
+        final List<String> errors = new ArrayList<>();
+
+        try (ScopedDefault.Scope ignored = ValidationPolicy.NONE.enter()) {
+            CallStatus.Builder.start()
+                    .build(errors);
+        }
+
+        assertThat(errors, is(empty()));
+    }
 }
@@ -0,0 +1,64 @@
+package com.bt.openlink.type;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+@SuppressWarnings("ConstantConditions")
+public class IdentifierCacheTest {
+
+    @Test
+    public void willReturnTheSameInstanceForTheSameValue() throws Exception {
+
+        final InterestId interestId = InterestId.from("test-interest-id").get();
+
+        assertThat(InterestId.from("test-interest-id").get(), is(sameInstance(interestId)));
+        assertThat(InterestId.from(PhoneNumber.from("test-interest-id").get()), is(sameInstance(interestId)));
+    }
+
+    @Test
+    public void willNotShareInstancesBetweenValues() throws Exception {
+
+        final CallId callId1 = CallId.from("test-call-id-1").get();
+        final CallId callId2 = CallId.from("test-call-id-2").get();
+
+        assertThat(callId1, is(not(callId2)));
+        assertThat(callId1.value(), is("test-call-id-1"));
+        assertThat(callId2.value(), is("test-call-id-2"));
+    }
+
+    @Test
+    public void willReplaceAnEntryThatCollides() throws Exception {
+
+        final IdentifierCache<TestId> cache = new IdentifierCache<>(TestId::new, 1);
+
+        final TestId id1 = cache.get("test-id-1");
+        final TestId id2 = cache.get("test-id-2");
+
+        assertThat(id2.value(), is("test-id-2"));
+        assertThat(cache.get("test-id-1"), is(not(sameInstance(id1))));
+    }
+
+    @Test
+    public void willNotCacheWhenDisabled() throws Exception {
+
+        final IdentifierCache<TestId> cache = new IdentifierCache<>(TestId::new, 0);
+
+        final TestId id = cache.get("test-id");
+
+        assertThat(cache.get("test-id"), is(not(sameInstance(id))));
+        assertThat(cache.get("test-id"), is(id));
+    }
+
+    private static final class TestId extends AbstractType<String> {
+        private static final long serialVersionUID = 1L;
+
+        private TestId(final String value) {
+            super(value);
+        }
+    }
+
+}
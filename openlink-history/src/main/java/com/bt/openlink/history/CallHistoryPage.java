@@ -0,0 +1,72 @@
+package com.bt.openlink.history;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import com.bt.openlink.iq.GetCallHistoryResultBuilder;
+import com.bt.openlink.type.HistoricalCall;
+
+/**
+ * A page of the calls matching a {@link CallHistoryQuery}, with the values needed for a get-call-history result.
+ *
+ * @param <J>
+ *            the type of the TSC of each call
+ */
+public final class CallHistoryPage<J extends Serializable> {
+
+    private final long totalRecordCount;
+    private final long firstRecordNumber;
+    @Nonnull private final List<HistoricalCall<J>> calls;
+
+    CallHistoryPage(final long totalRecordCount, final long firstRecordNumber, @Nonnull final List<HistoricalCall<J>> calls) {
+        this.totalRecordCount = totalRecordCount;
+        this.firstRecordNumber = firstRecordNumber;
+        this.calls = Collections.unmodifiableList(calls);
+    }
+
+    /**
+     * @return the number of calls matching the query, on every page
+     */
+    public long getTotalRecordCount() {
+        return totalRecordCount;
+    }
+
+    /**
+     * @return the number of the first call on this page, counting from zero
+     */
+    public long getFirstRecordNumber() {
+        return firstRecordNumber;
+    }
+
+    public long getRecordCountInBatch() {
+        return calls.size();
+    }
+
+    /**
+     * @return the calls on this page, newest first
+     */
+    @Nonnull
+    public List<HistoricalCall<J>> getCalls() {
+        return calls;
+    }
+
+    /**
+     * Sets the record counts of a get-call-history result, and adds the calls on this page to it.
+     *
+     * @param builder
+     *            the builder of the result, e.g. a Tinder {@code GetCallHistoryResult.Builder}
+     * @param <B>
+     *            the type of the builder
+     * @return the builder
+     */
+    @Nonnull
+    public <B extends GetCallHistoryResultBuilder<B, J, ?>> B addTo(@Nonnull final B builder) {
+        return builder.setTotalRecordCount(totalRecordCount)
+                .setFirstRecordNumber(firstRecordNumber)
+                .setRecordCountInBatch(calls.size())
+                .addCalls(calls);
+    }
+}
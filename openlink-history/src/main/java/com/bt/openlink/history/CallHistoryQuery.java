@@ -0,0 +1,280 @@
+package com.bt.openlink.history;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.iq.GetCallHistoryRequestBuilder;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.CallType;
+import com.bt.openlink.type.HistoricalCall;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.UserId;
+
+/**
+ * The calls to return from a {@link CallHistoryStore} or a {@link ColumnarCallHistory}, mirroring the criteria of a
+ * get-call-history request. Every criterion that is set must match; the matching calls are numbered from zero, newest
+ * first, and a page of them is returned.
+ */
+public final class CallHistoryQuery {
+
+    @Nullable private final UserId userId;
+    @Nullable private final InterestId interestId;
+    @Nullable private final PhoneNumber callerNumber;
+    @Nullable private final PhoneNumber calledNumber;
+    @Nullable private final CallType callType;
+    @Nullable private final Instant from;
+    @Nullable private final Instant upTo;
+    private final long start;
+    private final long count;
+
+    private CallHistoryQuery(@Nonnull final Builder builder) {
+        this.userId = builder.userId;
+        this.interestId = builder.interestId;
+        this.callerNumber = builder.callerNumber;
+        this.calledNumber = builder.calledNumber;
+        this.callType = builder.callType;
+        this.from = builder.from;
+        this.upTo = builder.upTo;
+        this.start = builder.start;
+        this.count = builder.count;
+    }
+
+    /**
+     * Creates a query for the criteria of a get-call-history request. A caller or called number that is empty is
+     * ignored; a request without a JID returns the calls of every user.
+     *
+     * @param request
+     *            a builder holding the criteria of the request
+     * @param zone
+     *            the time zone of the request's from and up-to dates
+     * @param userIdFunction
+     *            returns the user whose calls are returned for the JID of the request, or {@code null} if the JID is
+     *            not that of a user
+     * @param <J>
+     *            the type of JID
+     * @return the query
+     * @throws IllegalArgumentException
+     *             if the request has a JID that is not that of a user
+     * @throws IllegalStateException
+     *             if the request's start or count is negative, or its up-to date is before its from date
+     */
+    @Nonnull
+    public static <J> CallHistoryQuery from(@Nonnull final GetCallHistoryRequestBuilder<?, J, ?> request, @Nonnull final ZoneId zone, @Nonnull final Function<J, UserId> userIdFunction) {
+        final Builder builder = Builder.start();
+        final Optional<J> jid = request.getJID();
+        if (jid.isPresent()) {
+            // Fail closed; an unknown JID must not see the calls of every user
+            final UserId userId = userIdFunction.apply(jid.get());
+            if (userId == null) {
+                throw new IllegalArgumentException("The JID " + jid.get() + " is not that of a user");
+            }
+            builder.setUserId(userId);
+        }
+        request.getCaller().flatMap(PhoneNumber::from).ifPresent(builder::setCallerNumber);
+        request.getCalled().flatMap(PhoneNumber::from).ifPresent(builder::setCalledNumber);
+        request.getCallType().ifPresent(builder::setCallType);
+        request.getFromDate().ifPresent(fromDate -> builder.setFromDate(fromDate, zone));
+        request.getUpToDate().ifPresent(upToDate -> builder.setUpToDate(upToDate, zone));
+        request.getStart().ifPresent(builder::setStart);
+        request.getCount().ifPresent(builder::setCount);
+        return builder.build();
+    }
+
+    @Nonnull
+    public Optional<UserId> getUserId() {
+        return Optional.ofNullable(userId);
+    }
+
+    @Nonnull
+    public Optional<InterestId> getInterestId() {
+        return Optional.ofNullable(interestId);
+    }
+
+    @Nonnull
+    public Optional<PhoneNumber> getCallerNumber() {
+        return Optional.ofNullable(callerNumber);
+    }
+
+    @Nonnull
+    public Optional<PhoneNumber> getCalledNumber() {
+        return Optional.ofNullable(calledNumber);
+    }
+
+    @Nonnull
+    public Optional<CallType> getCallType() {
+        return Optional.ofNullable(callType);
+    }
+
+    /**
+     * @return the earliest start time of the calls to return, inclusive
+     */
+    @Nonnull
+    public Optional<Instant> getFrom() {
+        return Optional.ofNullable(from);
+    }
+
+    /**
+     * @return the latest start time of the calls to return, exclusive
+     */
+    @Nonnull
+    public Optional<Instant> getUpTo() {
+        return Optional.ofNullable(upTo);
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the type of a call, as matched against the call type of a query; {@code null} if it has no direction
+     */
+    @Nullable
+    static CallType getCallTypeOf(@Nonnull final HistoricalCall<?> call) {
+        if (call.getState().orElse(null) == CallState.CALL_MISSED) {
+            return CallType.MISSED;
+        }
+        final CallDirection direction = call.getDirection().orElse(null);
+        if (direction == CallDirection.INCOMING) {
+            return CallType.INBOUND;
+        } else if (direction == CallDirection.OUTGOING) {
+            return CallType.OUTBOUND;
+        } else {
+            return null;
+        }
+    }
+
+    public static final class Builder {
+
+        /**
+         * The number of calls returned if no count is set
+         */
+        public static final long DEFAULT_COUNT = 50;
+
+        @Nullable private UserId userId;
+        @Nullable private InterestId interestId;
+        @Nullable private PhoneNumber callerNumber;
+        @Nullable private PhoneNumber calledNumber;
+        @Nullable private CallType callType;
+        @Nullable private Instant from;
+        @Nullable private Instant upTo;
+        private long start;
+        private long count = DEFAULT_COUNT;
+
+        private Builder() {
+        }
+
+        @Nonnull
+        public static Builder start() {
+            return new Builder();
+        }
+
+        @Nonnull
+        public CallHistoryQuery build() {
+            if (start < 0) {
+                throw new IllegalStateException("The start must not be negative");
+            }
+            if (count < 0) {
+                throw new IllegalStateException("The count must not be negative");
+            }
+            if (from != null && upTo != null && upTo.isBefore(from)) {
+                throw new IllegalStateException("The up-to time must not be before the from time");
+            }
+            return new CallHistoryQuery(this);
+        }
+
+        @Nonnull
+        public Builder setUserId(@Nonnull final UserId userId) {
+            this.userId = userId;
+            return this;
+        }
+
+        @Nonnull
+        public Builder setInterestId(@Nonnull final InterestId interestId) {
+            this.interestId = interestId;
+            return this;
+        }
+
+        @Nonnull
+        public Builder setCallerNumber(@Nonnull final PhoneNumber callerNumber) {
+            this.callerNumber = callerNumber;
+            return this;
+        }
+
+        @Nonnull
+        public Builder setCalledNumber(@Nonnull final PhoneNumber calledNumber) {
+            this.calledNumber = calledNumber;
+            return this;
+        }
+
+        @Nonnull
+        public Builder setCallType(@Nonnull final CallType callType) {
+            this.callType = callType;
+            return this;
+        }
+
+        @Nonnull
+        public Builder setFrom(@Nonnull final Instant from) {
+            this.from = from;
+            return this;
+        }
+
+        @Nonnull
+        public Builder setUpTo(@Nonnull final Instant upTo) {
+            this.upTo = upTo;
+            return this;
+        }
+
+        /**
+         * Sets the from time to the start of a day, e.g. the from date of a get-call-history request.
+         *
+         * @param fromDate
+         *            the first day of the calls to return
+         * @param zone
+         *            the time zone of the date
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setFromDate(@Nonnull final LocalDate fromDate, @Nonnull final ZoneId zone) {
+            return setFrom(fromDate.atStartOfDay(zone).toInstant());
+        }
+
+        /**
+         * Sets the up-to time to the end of a day, e.g. the up-to date of a get-call-history request, so that calls
+         * during that day are returned.
+         *
+         * @param upToDate
+         *            the last day of the calls to return
+         * @param zone
+         *            the time zone of the date
+         * @return this builder
+         */
+        @Nonnull
+        public Builder setUpToDate(@Nonnull final LocalDate upToDate, @Nonnull final ZoneId zone) {
+            return setUpTo(upToDate.plusDays(1).atStartOfDay(zone).toInstant());
+        }
+
+        @Nonnull
+        public Builder setStart(final long start) {
+            this.start = start;
+            return this;
+        }
+
+        @Nonnull
+        public Builder setCount(final long count) {
+            this.count = count;
+            return this;
+        }
+    }
+}
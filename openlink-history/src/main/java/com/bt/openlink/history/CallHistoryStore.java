@@ -0,0 +1,568 @@
+package com.bt.openlink.history;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.codec.BinaryCodec;
+import com.bt.openlink.type.CallType;
+import com.bt.openlink.type.HistoricalCall;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.UserId;
+
+/**
+ * A local store of call history, able to answer get-call-history requests without a round trip to a database, and to
+ * keep recording history whilst the link to the PBX is down.
+ * <p>
+ * Calls are appended, encoded with the {@link BinaryCodec}, to a log of memory-mapped segment files in a directory.
+ * When a segment is full a new one is started. A call appended again - with the same interest and call id, e.g. once
+ * it has ended - supersedes the earlier record. In memory, the store keeps indexes of the calls by start time, and by
+ * user, interest, caller number and called number, each ordered by start time; the indexes are rebuilt from the log
+ * when the store is opened. A query reads from the log only the calls on the page it returns.
+ * <p>
+ * {@link #compact(Instant)} rewrites the full segments without the records that have been superseded or have passed
+ * their retention period.
+ * <p>
+ * A call is safe once appended if the process stops, but only once {@link #flush() flushed} if the machine does. A
+ * partly written record at the end of the log is discarded when the store is opened. The store is thread-safe, but a
+ * directory must only be opened by one store at a time.
+ *
+ * @param <J>
+ *            the type of the TSC of each call
+ */
+public final class CallHistoryStore<J extends Serializable> implements AutoCloseable {
+
+    /**
+     * The size of each segment file if none is given
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int MINIMUM_SEGMENT_SIZE = 4096;
+    private static final String SEGMENT_PREFIX = "history-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final Comparator<Entry> BY_START_TIME = Comparator.<Entry, Instant> comparing(entry -> entry.startTime).thenComparingLong(entry -> entry.sequence);
+
+    @Nonnull private final Path directory;
+    private final int segmentSize;
+    @Nonnull private final Function<? super J, String> tscEncoder;
+    @Nonnull private final Function<String, ? extends J> tscDecoder;
+    @Nonnull private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // The following are guarded by the lock
+    @Nonnull private final List<Segment> segments = new ArrayList<>();
+    @Nonnull private final NavigableMap<Long, Entry> entriesBySequence = new TreeMap<>();
+    @Nonnull private final Map<List<Object>, Entry> entriesByCall = new HashMap<>();
+    @Nonnull private final NavigableSet<Entry> byStartTime = new TreeSet<>(BY_START_TIME);
+    @Nonnull private final Map<UserId, NavigableSet<Entry>> byUserId = new HashMap<>();
+    @Nonnull private final Map<InterestId, NavigableSet<Entry>> byInterestId = new HashMap<>();
+    @Nonnull private final Map<PhoneNumber, NavigableSet<Entry>> byCallerNumber = new HashMap<>();
+    @Nonnull private final Map<PhoneNumber, NavigableSet<Entry>> byCalledNumber = new HashMap<>();
+    @Nullable private Segment activeSegment;
+    private long nextSequence;
+    private boolean closed;
+
+    private CallHistoryStore(@Nonnull final Path directory, final int segmentSize, @Nonnull final Function<? super J, String> tscEncoder, @Nonnull final Function<String, ? extends J> tscDecoder) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.tscEncoder = tscEncoder;
+        this.tscDecoder = tscDecoder;
+    }
+
+    /**
+     * Opens the store in a directory, creating the directory if need be.
+     *
+     * @param directory
+     *            the directory of the log
+     * @param segmentSize
+     *            the size of each new segment file, e.g. {@link #DEFAULT_SEGMENT_SIZE}
+     * @param tscEncoder
+     *            converts the TSC of a call to a string, e.g. {@code JID::toString}
+     * @param tscDecoder
+     *            converts the string written by the TSC encoder back to a TSC
+     * @param <J>
+     *            the type of the TSC of each call
+     * @return the store
+     * @throws IOException
+     *             if the log cannot be read or created
+     */
+    @Nonnull
+    public static <J extends Serializable> CallHistoryStore<J> open(@Nonnull final Path directory, final int segmentSize, @Nonnull final Function<? super J, String> tscEncoder, @Nonnull final Function<String, ? extends J> tscDecoder) throws IOException {
+        if (segmentSize < MINIMUM_SEGMENT_SIZE) {
+            throw new IllegalArgumentException("The segment size must be at least " + MINIMUM_SEGMENT_SIZE + " bytes");
+        }
+        Files.createDirectories(directory);
+        final CallHistoryStore<J> store = new CallHistoryStore<>(directory, segmentSize, tscEncoder, tscDecoder);
+        try {
+            store.load();
+        } catch (final IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+        return store;
+    }
+
+    private void load() throws IOException {
+        final List<Path> files = new ArrayList<>();
+        try (final DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*")) {
+            directoryStream.forEach(files::add);
+        }
+        // The sequence numbers in the file names are zero padded, so the names sort in sequence
+        Collections.sort(files);
+        for (final Path file : files) {
+            final String fileName = file.getFileName().toString();
+            if (fileName.endsWith(COMPACTING_SUFFIX)) {
+                // Left by a compaction that did not finish; the segment it was replacing is intact
+                Files.delete(file);
+            } else if (fileName.endsWith(SEGMENT_SUFFIX)) {
+                final Segment segment = Segment.open(file, (openedSegment, sequence, position, payload) -> index(new Entry(sequence, openedSegment, position, decode(payload))));
+                segments.add(segment);
+                nextSequence = Math.max(nextSequence, segment.getFirstSequence() + segment.getRecordCount());
+            }
+        }
+        if (!entriesBySequence.isEmpty()) {
+            nextSequence = Math.max(nextSequence, entriesBySequence.lastKey() + 1);
+        }
+        if (segments.isEmpty()) {
+            segments.add(Segment.create(getSegmentFile(nextSequence), nextSequence, segmentSize));
+        }
+        activeSegment = segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Appends a call to the store, superseding any earlier record of the same call.
+     *
+     * @param call
+     *            the call
+     * @return the sequence number of the record of the call
+     * @throws IOException
+     *             if a new segment is needed but cannot be created
+     * @throws IllegalArgumentException
+     *             if the encoded call is too large for a segment
+     */
+    public long append(@Nonnull final HistoricalCall<J> call) throws IOException {
+        final byte[] payload = BinaryCodec.encode(call, tscEncoder);
+        if (payload.length > segmentSize - Segment.HEADER_SIZE - Segment.RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("The encoded call is too large for a segment of " + segmentSize + " bytes");
+        }
+        lock.writeLock().lock();
+        try {
+            final Segment segment = getActiveSegment();
+            final Segment appendSegment = segment.hasRoomFor(payload.length) ? segment : rollOver(segment);
+            final long sequence = nextSequence++;
+            final int position = appendSegment.append(sequence, payload);
+            index(new Entry(sequence, appendSegment, position, call));
+            return sequence;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Nonnull
+    private Segment rollOver(@Nonnull final Segment fullSegment) throws IOException {
+        fullSegment.force();
+        final Segment segment = Segment.create(getSegmentFile(nextSequence), nextSequence, segmentSize);
+        segments.add(segment);
+        activeSegment = segment;
+        return segment;
+    }
+
+    @Nonnull
+    private Path getSegmentFile(final long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    @Nonnull
+    private Segment getActiveSegment() {
+        if (closed || activeSegment == null) {
+            throw new IllegalStateException("The call history store has been closed");
+        }
+        return activeSegment;
+    }
+
+    /**
+     * @param query
+     *            the calls to return
+     * @return the page of matching calls requested, newest first
+     */
+    @Nonnull
+    public CallHistoryPage<J> query(@Nonnull final CallHistoryQuery query) {
+        lock.readLock().lock();
+        try {
+            getActiveSegment();
+            final Criteria criteria = new Criteria(query);
+            final List<Entry> pageEntries = new ArrayList<>();
+            long matchCount = 0;
+            final long pageEnd = query.getCount() > Long.MAX_VALUE - query.getStart() ? Long.MAX_VALUE : query.getStart() + query.getCount();
+            for (final Entry entry : getCandidates(query).descendingSet()) {
+                if (criteria.matches(entry)) {
+                    if (matchCount >= query.getStart() && matchCount < pageEnd) {
+                        pageEntries.add(entry);
+                    }
+                    matchCount++;
+                }
+            }
+            final List<HistoricalCall<J>> calls = new ArrayList<>(pageEntries.size());
+            for (final Entry entry : pageEntries) {
+                calls.add(decode(entry.segment.read(entry.position)));
+            }
+            return new CallHistoryPage<>(matchCount, query.getStart(), calls);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the smallest index that holds every call matching the query, limited to the query's time range
+     */
+    @Nonnull
+    private NavigableSet<Entry> getCandidates(@Nonnull final CallHistoryQuery query) {
+        NavigableSet<Entry> candidates = byStartTime;
+        candidates = getSmaller(candidates, byUserId, query.getUserId().orElse(null));
+        candidates = getSmaller(candidates, byInterestId, query.getInterestId().orElse(null));
+        candidates = getSmaller(candidates, byCallerNumber, query.getCallerNumber().orElse(null));
+        candidates = getSmaller(candidates, byCalledNumber, query.getCalledNumber().orElse(null));
+        if (query.getFrom().isPresent()) {
+            candidates = candidates.tailSet(Entry.bound(query.getFrom().get()), true);
+        }
+        if (query.getUpTo().isPresent()) {
+            candidates = candidates.headSet(Entry.bound(query.getUpTo().get()), false);
+        }
+        return candidates;
+    }
+
+    @Nonnull
+    private static <K> NavigableSet<Entry> getSmaller(@Nonnull final NavigableSet<Entry> candidates, @Nonnull final Map<K, NavigableSet<Entry>> index, @Nullable final K key) {
+        if (key == null) {
+            return candidates;
+        }
+        final NavigableSet<Entry> entries = index.get(key);
+        if (entries == null) {
+            return Collections.emptyNavigableSet();
+        }
+        return entries.size() < candidates.size() ? entries : candidates;
+    }
+
+    /**
+     * Rewrites each full segment without the records that have been superseded or that are for calls that started
+     * before a given time, deleting any segment left empty. Queries and appends can continue whilst each segment is
+     * rewritten.
+     *
+     * @param retainFrom
+     *            the start time of the oldest calls to keep, or {@code null} to keep every call that has not been
+     *            superseded
+     * @return the number of records removed from the log
+     * @throws IOException
+     *             if a segment cannot be rewritten
+     */
+    public synchronized long compact(@Nullable final Instant retainFrom) throws IOException {
+        final List<Segment> fullSegments;
+        lock.readLock().lock();
+        try {
+            getActiveSegment();
+            fullSegments = new ArrayList<>(segments.subList(0, segments.size() - 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+        long removedCount = 0;
+        for (final Segment segment : fullSegments) {
+            removedCount += compact(segment, retainFrom);
+        }
+        return removedCount;
+    }
+
+    private long compact(@Nonnull final Segment segment, @Nullable final Instant retainFrom) throws IOException {
+        final List<Entry> retainedEntries = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (final Entry entry : entriesBySequence.tailMap(segment.getFirstSequence(), true).values()) {
+                if (entry.segment != segment) {
+                    break;
+                }
+                if (retainFrom == null || !entry.startTime.isBefore(retainFrom)) {
+                    retainedEntries.add(entry);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (retainedEntries.size() == segment.getRecordCount()) {
+            return 0;
+        }
+
+        // A full segment never changes, so can be copied without holding the lock
+        final Path compactingFile = segment.getFile().resolveSibling(segment.getFile().getFileName() + COMPACTING_SUFFIX);
+        if (!retainedEntries.isEmpty()) {
+            try (final Segment compactedSegment = Segment.create(compactingFile, segment.getFirstSequence(), segmentSize)) {
+                for (final Entry entry : retainedEntries) {
+                    compactedSegment.append(entry.sequence, segment.read(entry.position));
+                }
+                compactedSegment.force();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Drop the calls that are not retained; any retained call superseded since has already been dropped
+            final List<Entry> droppedEntries = new ArrayList<>();
+            for (final Entry entry : entriesBySequence.tailMap(segment.getFirstSequence(), true).values()) {
+                if (entry.segment != segment) {
+                    break;
+                }
+                if (retainFrom != null && entry.startTime.isBefore(retainFrom)) {
+                    droppedEntries.add(entry);
+                }
+            }
+            final int segmentIndex = segments.indexOf(segment);
+            if (retainedEntries.isEmpty()) {
+                segment.close();
+                segments.remove(segmentIndex);
+                segment.delete();
+            } else {
+                Files.move(compactingFile, segment.getFile(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                segment.close();
+                final Segment compactedSegment = Segment.open(segment.getFile(), (openedSegment, sequence, position, payload) -> {
+                    final Entry entry = entriesBySequence.get(sequence);
+                    if (entry != null) {
+                        entry.segment = openedSegment;
+                        entry.position = position;
+                    }
+                });
+                segments.set(segmentIndex, compactedSegment);
+            }
+            droppedEntries.forEach(this::unindex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return (long) segment.getRecordCount() - retainedEntries.size();
+    }
+
+    /**
+     * Writes the calls appended to the storage device, so that they are kept even if the machine stops.
+     */
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            getActiveSegment().force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of calls held, excluding superseded records
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entriesBySequence.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of segment files in the log
+     */
+    public int getSegmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes and closes the log.
+     *
+     * @throws IOException
+     *             if a segment file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (activeSegment != null) {
+                activeSegment.force();
+            }
+            IOException exception = null;
+            for (final Segment segment : segments) {
+                try {
+                    segment.close();
+                } catch (final IOException e) {
+                    exception = e;
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Nonnull
+    private HistoricalCall<J> decode(@Nonnull final byte[] payload) {
+        return BinaryCodec.decodeHistoricalCall(payload, tscDecoder);
+    }
+
+    private void index(@Nonnull final Entry entry) {
+        if (entry.callKey != null) {
+            final Entry supersededEntry = entriesByCall.get(entry.callKey);
+            if (supersededEntry != null) {
+                unindex(supersededEntry);
+            }
+            entriesByCall.put(entry.callKey, entry);
+        }
+        entriesBySequence.put(entry.sequence, entry);
+        byStartTime.add(entry);
+        addToIndex(byUserId, entry.userId, entry);
+        addToIndex(byInterestId, entry.interestId, entry);
+        addToIndex(byCallerNumber, entry.callerNumber, entry);
+        addToIndex(byCalledNumber, entry.calledNumber, entry);
+    }
+
+    private void unindex(@Nonnull final Entry entry) {
+        if (entry.callKey != null) {
+            entriesByCall.remove(entry.callKey, entry);
+        }
+        entriesBySequence.remove(entry.sequence);
+        byStartTime.remove(entry);
+        removeFromIndex(byUserId, entry.userId, entry);
+        removeFromIndex(byInterestId, entry.interestId, entry);
+        removeFromIndex(byCallerNumber, entry.callerNumber, entry);
+        removeFromIndex(byCalledNumber, entry.calledNumber, entry);
+    }
+
+    private static <K> void addToIndex(@Nonnull final Map<K, NavigableSet<Entry>> index, @Nullable final K key, @Nonnull final Entry entry) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new TreeSet<>(BY_START_TIME)).add(entry);
+        }
+    }
+
+    private static <K> void removeFromIndex(@Nonnull final Map<K, NavigableSet<Entry>> index, @Nullable final K key, @Nonnull final Entry entry) {
+        if (key == null) {
+            return;
+        }
+        final NavigableSet<Entry> entries = index.get(key);
+        if (entries != null && entries.remove(entry) && entries.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * The location of a record in the log, and the values of the call it holds that a query can match.
+     */
+    private static final class Entry {
+
+        // Sorts calls without a start time before any other
+        private static final Instant NO_START_TIME = Instant.MIN;
+
+        private final long sequence;
+        @Nonnull private Segment segment;
+        private int position;
+        @Nonnull private final Instant startTime;
+        @Nullable private final List<Object> callKey;
+        @Nullable private final UserId userId;
+        @Nullable private final InterestId interestId;
+        @Nullable private final PhoneNumber callerNumber;
+        @Nullable private final PhoneNumber calledNumber;
+        @Nullable private final CallType callType;
+
+        private Entry(final long sequence, @Nonnull final Segment segment, final int position, @Nonnull final HistoricalCall<?> call) {
+            this.sequence = sequence;
+            this.segment = segment;
+            this.position = position;
+            this.startTime = call.getStartTime().orElse(NO_START_TIME);
+            this.callKey = call.getId().isPresent() ? Arrays.asList(call.getInterestId().orElse(null), call.getId().get()) : null;
+            this.userId = call.getUserId().orElse(null);
+            this.interestId = call.getInterestId().orElse(null);
+            this.callerNumber = call.getCallerNumber().orElse(null);
+            this.calledNumber = call.getCalledNumber().orElse(null);
+            this.callType = CallHistoryQuery.getCallTypeOf(call);
+        }
+
+        private Entry(@Nonnull final Instant startTime) {
+            this.sequence = Long.MIN_VALUE;
+            this.startTime = startTime;
+            this.callKey = null;
+            this.userId = null;
+            this.interestId = null;
+            this.callerNumber = null;
+            this.calledNumber = null;
+            this.callType = null;
+        }
+
+        /**
+         * @return an entry that sorts before every call that started at the time given
+         */
+        @Nonnull
+        private static Entry bound(@Nonnull final Instant startTime) {
+            return new Entry(startTime);
+        }
+    }
+
+    /**
+     * The criteria of a query, unwrapped once rather than for every call examined.
+     */
+    private static final class Criteria {
+
+        private final boolean timeRestricted;
+        @Nullable private final UserId userId;
+        @Nullable private final InterestId interestId;
+        @Nullable private final PhoneNumber callerNumber;
+        @Nullable private final PhoneNumber calledNumber;
+        @Nullable private final CallType callType;
+
+        private Criteria(@Nonnull final CallHistoryQuery query) {
+            this.timeRestricted = query.getFrom().isPresent() || query.getUpTo().isPresent();
+            this.userId = query.getUserId().orElse(null);
+            this.interestId = query.getInterestId().orElse(null);
+            this.callerNumber = query.getCallerNumber().orElse(null);
+            this.calledNumber = query.getCalledNumber().orElse(null);
+            this.callType = query.getCallType().orElse(null);
+        }
+
+        private boolean matches(@Nonnull final Entry entry) {
+            if (timeRestricted && entry.startTime == Entry.NO_START_TIME) {
+                return false;
+            }
+            return matches(userId, entry.userId)
+                    && matches(interestId, entry.interestId)
+                    && matches(callerNumber, entry.callerNumber)
+                    && matches(calledNumber, entry.calledNumber)
+                    && matches(callType, entry.callType);
+        }
+
+        private static boolean matches(@Nullable final Object criterion, @Nullable final Object value) {
+            return criterion == null || Objects.equals(criterion, value);
+        }
+    }
+}
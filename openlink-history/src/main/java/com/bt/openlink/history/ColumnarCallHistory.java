@@ -0,0 +1,515 @@
+package com.bt.openlink.history;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.CallType;
+import com.bt.openlink.type.HistoricalCall;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.UserId;
+
+/**
+ * An in-memory store of call history for a server that answers get-call-history requests over many millions of calls.
+ * <p>
+ * Rather than an object per call, the calls are held in columns of primitive values, sorted by start time: the start
+ * time and duration in milliseconds, and the user, interest, numbers, names and TSC as codes from a dictionary of the
+ * distinct values of each, so that comparing a call against a query is comparing {@code int}s. A query finds the calls
+ * in its time range by binary search, then evaluates its other criteria a block of rows at a time, with a tight,
+ * branch-free loop over a column for each criterion; only the calls on the page returned are turned back into
+ * {@link HistoricalCall}s.
+ * <p>
+ * A call added again, with the same interest and call id, replaces the earlier one, even if its start time has been
+ * corrected, as in a {@link CallHistoryStore}. Start times and durations are only held to the millisecond. Dictionary entries are kept for the life of the store. The store is
+ * thread-safe; queries run concurrently with each other, but not with changes.
+ *
+ * @param <J>
+ *            the type of the TSC of each call
+ */
+public final class ColumnarCallHistory<J extends Serializable> {
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+    private static final int BLOCK_SIZE = 1024;
+    // Sorts calls without a start time before any other
+    private static final long NO_START_TIME = Long.MIN_VALUE;
+    private static final long NO_DURATION = Long.MIN_VALUE;
+    private static final byte NO_VALUE = 0;
+    private static final CallState[] CALL_STATES = CallState.values();
+    private static final CallDirection[] CALL_DIRECTIONS = CallDirection.values();
+
+    @Nonnull private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // The following are guarded by the lock
+    @Nonnull private final Dictionary<UserId> userIdDictionary = new Dictionary<>();
+    @Nonnull private final Dictionary<InterestId> interestIdDictionary = new Dictionary<>();
+    @Nonnull private final Dictionary<PhoneNumber> numberDictionary = new Dictionary<>();
+    @Nonnull private final Dictionary<String> nameDictionary = new Dictionary<>();
+    @Nonnull private final Dictionary<J> tscDictionary = new Dictionary<>();
+    // The start time of each call with an id, keyed by its interest code and call id
+    @Nonnull private final Map<List<Object>, Long> startTimesByCall = new HashMap<>();
+    @Nonnull private long[] startTimes;
+    @Nonnull private long[] durations;
+    @Nonnull private int[] userIds;
+    @Nonnull private int[] interestIds;
+    @Nonnull private int[] callerNumbers;
+    @Nonnull private int[] calledNumbers;
+    @Nonnull private int[] callerNames;
+    @Nonnull private int[] calledNames;
+    @Nonnull private int[] tscs;
+    // Each of the following holds the ordinal of the value plus one, or NO_VALUE
+    @Nonnull private byte[] states;
+    @Nonnull private byte[] directions;
+    @Nonnull private byte[] callTypes;
+    @Nonnull private CallId[] callIds;
+    private int size;
+
+    public ColumnarCallHistory() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity
+     *            the number of calls to allocate room for; the columns grow as needed
+     */
+    public ColumnarCallHistory(final int initialCapacity) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("The initial capacity must be positive");
+        }
+        startTimes = new long[initialCapacity];
+        durations = new long[initialCapacity];
+        userIds = new int[initialCapacity];
+        interestIds = new int[initialCapacity];
+        callerNumbers = new int[initialCapacity];
+        calledNumbers = new int[initialCapacity];
+        callerNames = new int[initialCapacity];
+        calledNames = new int[initialCapacity];
+        tscs = new int[initialCapacity];
+        states = new byte[initialCapacity];
+        directions = new byte[initialCapacity];
+        callTypes = new byte[initialCapacity];
+        callIds = new CallId[initialCapacity];
+    }
+
+    /**
+     * Adds a call, replacing any earlier record of the same call. Adding calls in order of start time is cheapest.
+     *
+     * @param call
+     *            the call
+     */
+    public void add(@Nonnull final HistoricalCall<J> call) {
+        final long startTime = call.getStartTime().map(ColumnarCallHistory::toMillis).orElse(NO_START_TIME);
+        lock.writeLock().lock();
+        try {
+            final int interestId = interestIdDictionary.encode(call.getInterestId().orElse(null));
+            final CallId callId = call.getId().orElse(null);
+            int row = -1;
+            if (callId != null) {
+                final Long previousStartTime = startTimesByCall.put(Arrays.asList(interestId, callId), startTime);
+                if (previousStartTime != null) {
+                    row = findRow(previousStartTime, interestId, callId);
+                    if (previousStartTime != startTime && row >= 0) {
+                        // The start time has changed, so the call moves to another row
+                        removeRow(row);
+                        row = -1;
+                    }
+                }
+            }
+            if (row < 0) {
+                row = upperBound(startTime);
+                insertRow(row);
+            }
+            startTimes[row] = startTime;
+            durations[row] = call.getDuration().map(ColumnarCallHistory::toMillis).orElse(NO_DURATION);
+            userIds[row] = userIdDictionary.encode(call.getUserId().orElse(null));
+            interestIds[row] = interestId;
+            callerNumbers[row] = numberDictionary.encode(call.getCallerNumber().orElse(null));
+            calledNumbers[row] = numberDictionary.encode(call.getCalledNumber().orElse(null));
+            callerNames[row] = nameDictionary.encode(call.getCallerName().orElse(null));
+            calledNames[row] = nameDictionary.encode(call.getCalledName().orElse(null));
+            tscs[row] = tscDictionary.encode(call.getTsc().orElse(null));
+            states[row] = encode(call.getState().orElse(null));
+            directions[row] = encode(call.getDirection().orElse(null));
+            callTypes[row] = encode(CallHistoryQuery.getCallTypeOf(call));
+            callIds[row] = callId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the row of the call with the same start time, interest and call id, or -1 if there is none
+     */
+    private int findRow(final long startTime, final int interestId, @Nonnull final CallId callId) {
+        final int end = upperBound(startTime);
+        for (int row = lowerBound(startTime); row < end; row++) {
+            if (interestIds[row] == interestId && callId.equals(callIds[row])) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private void insertRow(final int row) {
+        if (size == startTimes.length) {
+            grow();
+        }
+        moveRows(row, row + 1, size - row);
+        size++;
+    }
+
+    private void removeRow(final int row) {
+        moveRows(row + 1, row, size - row - 1);
+        size--;
+        callIds[size] = null;
+    }
+
+    private void grow() {
+        final int capacity = startTimes.length + (startTimes.length >> 1) + 1;
+        startTimes = Arrays.copyOf(startTimes, capacity);
+        durations = Arrays.copyOf(durations, capacity);
+        userIds = Arrays.copyOf(userIds, capacity);
+        interestIds = Arrays.copyOf(interestIds, capacity);
+        callerNumbers = Arrays.copyOf(callerNumbers, capacity);
+        calledNumbers = Arrays.copyOf(calledNumbers, capacity);
+        callerNames = Arrays.copyOf(callerNames, capacity);
+        calledNames = Arrays.copyOf(calledNames, capacity);
+        tscs = Arrays.copyOf(tscs, capacity);
+        states = Arrays.copyOf(states, capacity);
+        directions = Arrays.copyOf(directions, capacity);
+        callTypes = Arrays.copyOf(callTypes, capacity);
+        callIds = Arrays.copyOf(callIds, capacity);
+    }
+
+    private void moveRows(final int from, final int to, final int length) {
+        System.arraycopy(startTimes, from, startTimes, to, length);
+        System.arraycopy(durations, from, durations, to, length);
+        System.arraycopy(userIds, from, userIds, to, length);
+        System.arraycopy(interestIds, from, interestIds, to, length);
+        System.arraycopy(callerNumbers, from, callerNumbers, to, length);
+        System.arraycopy(calledNumbers, from, calledNumbers, to, length);
+        System.arraycopy(callerNames, from, callerNames, to, length);
+        System.arraycopy(calledNames, from, calledNames, to, length);
+        System.arraycopy(tscs, from, tscs, to, length);
+        System.arraycopy(states, from, states, to, length);
+        System.arraycopy(directions, from, directions, to, length);
+        System.arraycopy(callTypes, from, callTypes, to, length);
+        System.arraycopy(callIds, from, callIds, to, length);
+    }
+
+    /**
+     * Removes the calls that started before a given time, including any without a start time.
+     *
+     * @param retainFrom
+     *            the start time of the oldest calls to keep
+     * @return the number of calls removed
+     */
+    public int removeStartedBefore(@Nonnull final Instant retainFrom) {
+        lock.writeLock().lock();
+        try {
+            final int removedCount = lowerBound(toMillis(retainFrom));
+            for (int row = 0; row < removedCount; row++) {
+                if (callIds[row] != null) {
+                    startTimesByCall.remove(Arrays.asList(interestIds[row], callIds[row]));
+                }
+            }
+            moveRows(removedCount, 0, size - removedCount);
+            Arrays.fill(callIds, size - removedCount, size, null);
+            size -= removedCount;
+            return removedCount;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param query
+     *            the calls to return
+     * @return the page of matching calls requested, newest first
+     */
+    @Nonnull
+    public CallHistoryPage<J> query(@Nonnull final CallHistoryQuery query) {
+        lock.readLock().lock();
+        try {
+            final boolean timeRestricted = query.getFrom().isPresent() || query.getUpTo().isPresent();
+            final int first = timeRestricted ? lowerBound(query.getFrom().map(ColumnarCallHistory::toMillis).orElse(NO_START_TIME + 1)) : 0;
+            final int end = Math.max(first, query.getUpTo().map(upTo -> lowerBound(toMillis(upTo))).orElse(size));
+            final Criteria criteria = new Criteria(query);
+            if (criteria.matchesNothing) {
+                return new CallHistoryPage<>(0, query.getStart(), new ArrayList<>());
+            }
+            final long pageEnd = query.getCount() > Long.MAX_VALUE - query.getStart() ? Long.MAX_VALUE : query.getStart() + query.getCount();
+            final int[] pageRows = new int[(int) Math.max(0, Math.min(pageEnd, end - first) - query.getStart())];
+            final long matchCount;
+            if (criteria.isEmpty()) {
+                // Every call in the time range matches, so the page can be found without a scan
+                for (int i = 0; i < pageRows.length; i++) {
+                    pageRows[i] = end - 1 - (int) query.getStart() - i;
+                }
+                matchCount = (long) end - first;
+            } else {
+                matchCount = scan(criteria, first, end, query.getStart(), pageEnd, pageRows);
+            }
+            final List<HistoricalCall<J>> calls = new ArrayList<>(pageRows.length);
+            for (int i = 0; i < pageRows.length && i < matchCount - query.getStart(); i++) {
+                calls.add(decode(pageRows[i]));
+            }
+            return new CallHistoryPage<>(matchCount, query.getStart(), calls);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scans the rows from newest to oldest a block at a time, counting the calls that match and recording the rows of
+     * those numbered from the page start to the page end.
+     *
+     * @return the number of calls that match
+     */
+    private long scan(@Nonnull final Criteria criteria, final int first, final int end, final long pageStart, final long pageEnd, @Nonnull final int[] pageRows) {
+        final int[] selection = new int[Math.min(BLOCK_SIZE, end - first)];
+        long matchCount = 0;
+        int pageSize = 0;
+        for (int blockEnd = end; blockEnd > first; blockEnd -= BLOCK_SIZE) {
+            final int blockStart = Math.max(first, blockEnd - BLOCK_SIZE);
+            if (matchCount >= pageEnd || matchCount + blockEnd - blockStart <= pageStart) {
+                // No call in the block can be on the page, so it need only be counted
+                matchCount += criteria.count(blockStart, blockEnd, selection);
+                continue;
+            }
+            final int selected = criteria.select(blockStart, blockEnd, selection);
+            if (matchCount + selected > pageStart) {
+                // The selection is in ascending order, so the newest match is the last
+                for (int i = selected - 1; i >= 0; i--) {
+                    final long recordNumber = matchCount + selected - 1 - i;
+                    if (recordNumber >= pageStart && recordNumber < pageEnd) {
+                        pageRows[pageSize++] = selection[i];
+                    }
+                }
+            }
+            matchCount += selected;
+        }
+        return matchCount;
+    }
+
+    /**
+     * @return the number of calls held
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the first row that started at or after the time given
+     */
+    private int lowerBound(final long startTime) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (startTimes[middle] < startTime) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the first row that started after the time given
+     */
+    private int upperBound(final long startTime) {
+        return startTime == Long.MAX_VALUE ? size : lowerBound(startTime + 1);
+    }
+
+    @Nonnull
+    private HistoricalCall<J> decode(final int row) {
+        final HistoricalCall.Builder<J> builder = HistoricalCall.Builder.start();
+        Optional.ofNullable(callIds[row]).ifPresent(builder::setId);
+        Optional.ofNullable(userIdDictionary.decode(userIds[row])).ifPresent(builder::setUserId);
+        Optional.ofNullable(interestIdDictionary.decode(interestIds[row])).ifPresent(builder::setInterestId);
+        Optional.ofNullable(decode(CALL_STATES, states[row])).ifPresent(builder::setState);
+        Optional.ofNullable(decode(CALL_DIRECTIONS, directions[row])).ifPresent(builder::setDirection);
+        Optional.ofNullable(numberDictionary.decode(callerNumbers[row])).ifPresent(builder::setCallerNumber);
+        Optional.ofNullable(nameDictionary.decode(callerNames[row])).ifPresent(builder::setCallerName);
+        Optional.ofNullable(numberDictionary.decode(calledNumbers[row])).ifPresent(builder::setCalledNumber);
+        Optional.ofNullable(nameDictionary.decode(calledNames[row])).ifPresent(builder::setCalledName);
+        if (startTimes[row] != NO_START_TIME) {
+            builder.setStartTime(Instant.ofEpochMilli(startTimes[row]));
+        }
+        if (durations[row] != NO_DURATION) {
+            builder.setDuration(Duration.ofMillis(durations[row]));
+        }
+        Optional.ofNullable(tscDictionary.decode(tscs[row])).ifPresent(builder::setTsc);
+        return builder.build(new ArrayList<>());
+    }
+
+    private static byte encode(@Nullable final Enum<?> value) {
+        return value == null ? NO_VALUE : (byte) (value.ordinal() + 1);
+    }
+
+    @Nullable
+    private static <E extends Enum<E>> E decode(@Nonnull final E[] values, final byte code) {
+        return code == NO_VALUE ? null : values[code - 1];
+    }
+
+    private static long toMillis(@Nonnull final Instant instant) {
+        try {
+            return instant.toEpochMilli();
+        } catch (final ArithmeticException e) {
+            return instant.isBefore(Instant.EPOCH) ? NO_START_TIME + 1 : Long.MAX_VALUE;
+        }
+    }
+
+    private static long toMillis(@Nonnull final Duration duration) {
+        try {
+            return duration.toMillis();
+        } catch (final ArithmeticException e) {
+            return duration.isNegative() ? NO_DURATION + 1 : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * The criteria of a query other than its time range, as the columns to compare and the codes they must hold.
+     */
+    private final class Criteria {
+
+        @Nonnull private final int[][] columns = new int[4][];
+        @Nonnull private final int[] codes = new int[4];
+        private int columnCount;
+        private final byte callType;
+        private boolean matchesNothing;
+
+        private Criteria(@Nonnull final CallHistoryQuery query) {
+            query.getUserId().ifPresent(userId -> add(userIds, userIdDictionary.lookUp(userId)));
+            query.getCallerNumber().ifPresent(number -> add(callerNumbers, numberDictionary.lookUp(number)));
+            query.getCalledNumber().ifPresent(number -> add(calledNumbers, numberDictionary.lookUp(number)));
+            query.getInterestId().ifPresent(interestId -> add(interestIds, interestIdDictionary.lookUp(interestId)));
+            this.callType = encode(query.getCallType().orElse(null));
+        }
+
+        private void add(@Nonnull final int[] column, final int code) {
+            if (code == Dictionary.NONE) {
+                // No call has the value, so none can match
+                matchesNothing = true;
+            }
+            columns[columnCount] = column;
+            codes[columnCount] = code;
+            columnCount++;
+        }
+
+        private boolean isEmpty() {
+            return columnCount == 0 && callType == NO_VALUE;
+        }
+
+        /**
+         * Counts the rows of a block that match, which must not be empty.
+         *
+         * @return the number of rows that match
+         */
+        private int count(final int from, final int to, @Nonnull final int[] selection) {
+            if (columnCount == 0) {
+                return countEqual(callTypes, callType, from, to);
+            } else if (columnCount == 1 && callType == NO_VALUE) {
+                return countEqual(columns[0], codes[0], from, to);
+            } else {
+                return select(from, to, selection);
+            }
+        }
+
+        /**
+         * Selects the rows of a block that match, which must not be empty.
+         *
+         * @return the number of rows selected, which are at the start of the selection in ascending order
+         */
+        private int select(final int from, final int to, @Nonnull final int[] selection) {
+            if (columnCount == 0) {
+                return selectEqual(callTypes, callType, from, to, selection);
+            }
+            int selected = selectEqual(columns[0], codes[0], from, to, selection);
+            for (int criterion = 1; criterion < columnCount && selected > 0; criterion++) {
+                selected = refineEqual(columns[criterion], codes[criterion], selection, selected);
+            }
+            if (callType != NO_VALUE && selected > 0) {
+                selected = refineEqual(callTypes, callType, selection, selected);
+            }
+            return selected;
+        }
+    }
+
+    private static int countEqual(@Nonnull final int[] column, final int code, final int from, final int to) {
+        int count = 0;
+        for (int row = from; row < to; row++) {
+            count += column[row] == code ? 1 : 0;
+        }
+        return count;
+    }
+
+    private static int countEqual(@Nonnull final byte[] column, final byte code, final int from, final int to) {
+        int count = 0;
+        for (int row = from; row < to; row++) {
+            count += column[row] == code ? 1 : 0;
+        }
+        return count;
+    }
+
+    // Each of the following writes every candidate row to the selection, but only advances past it if it matches, so
+    // that the loop has no branch to mispredict
+
+    private static int selectEqual(@Nonnull final int[] column, final int code, final int from, final int to, @Nonnull final int[] selection) {
+        int selected = 0;
+        for (int row = from; row < to; row++) {
+            selection[selected] = row;
+            selected += column[row] == code ? 1 : 0;
+        }
+        return selected;
+    }
+
+    private static int selectEqual(@Nonnull final byte[] column, final byte code, final int from, final int to, @Nonnull final int[] selection) {
+        int selected = 0;
+        for (int row = from; row < to; row++) {
+            selection[selected] = row;
+            selected += column[row] == code ? 1 : 0;
+        }
+        return selected;
+    }
+
+    private static int refineEqual(@Nonnull final int[] column, final int code, @Nonnull final int[] selection, final int count) {
+        int selected = 0;
+        for (int i = 0; i < count; i++) {
+            final int row = selection[i];
+            selection[selected] = row;
+            selected += column[row] == code ? 1 : 0;
+        }
+        return selected;
+    }
+
+    private static int refineEqual(@Nonnull final byte[] column, final byte code, @Nonnull final int[] selection, final int count) {
+        int selected = 0;
+        for (int i = 0; i < count; i++) {
+            final int row = selection[i];
+            selection[selected] = row;
+            selected += column[row] == code ? 1 : 0;
+        }
+        return selected;
+    }
+}
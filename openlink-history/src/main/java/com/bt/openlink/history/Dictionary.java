@@ -0,0 +1,72 @@
+package com.bt.openlink.history;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Assigns each distinct value a small integer code, so that a column of values can be held and compared as an
+ * {@code int[]}. Codes are allocated from zero in the order values are first seen, and are never reused. Instances are
+ * not thread-safe.
+ *
+ * @param <V>
+ *            the type of the values
+ */
+final class Dictionary<V> {
+
+    /**
+     * The code of an absent value
+     */
+    static final int NONE = -1;
+
+    @Nonnull private final Map<V, Integer> codes = new HashMap<>();
+    @Nonnull private final List<V> values = new ArrayList<>();
+
+    /**
+     * @param value
+     *            the value, or {@code null}
+     * @return the code of the value, allocating one if it has not been seen before, or {@link #NONE} if it is
+     *         {@code null}
+     */
+    int encode(@Nullable final V value) {
+        if (value == null) {
+            return NONE;
+        }
+        final Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        final int newCode = values.size();
+        codes.put(value, newCode);
+        values.add(value);
+        return newCode;
+    }
+
+    /**
+     * @param value
+     *            the value
+     * @return the code of the value, or {@link #NONE} if it has not been seen
+     */
+    int lookUp(@Nonnull final V value) {
+        final Integer code = codes.get(value);
+        return code == null ? NONE : code;
+    }
+
+    /**
+     * @param code
+     *            a code returned by {@link #encode(Object)}
+     * @return the value, or {@code null} for {@link #NONE}
+     */
+    @Nullable
+    V decode(final int code) {
+        return code == NONE ? null : values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,233 @@
+package com.bt.openlink.history;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nonnull;
+
+/**
+ * One file of the call history log, mapped into memory. The file starts with a header, followed by records of the
+ * form:
+ *
+ * <pre>
+ * int    payload length (never zero)
+ * int    CRC-32 of the sequence number and payload
+ * long   sequence number
+ * byte[] payload
+ * </pre>
+ *
+ * The first record with a zero length, or whose checksum does not match - such as one only partly written when the
+ * process stopped - marks the end of the segment. Only the last segment of a log is appended to. Instances are not
+ * thread-safe.
+ */
+final class Segment implements AutoCloseable {
+
+    private static final int MAGIC = 0x4F4C4843;
+    private static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_HEADER_SIZE = 16;
+
+    @Nonnull private final Path file;
+    @Nonnull private final FileChannel channel;
+    @Nonnull private final MappedByteBuffer buffer;
+    private final long firstSequence;
+    private int writePosition;
+    private int recordCount;
+
+    private Segment(@Nonnull final Path file, @Nonnull final FileChannel channel, @Nonnull final MappedByteBuffer buffer, final long firstSequence) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.firstSequence = firstSequence;
+        this.writePosition = HEADER_SIZE;
+    }
+
+    /**
+     * Creates a new, empty segment.
+     *
+     * @param file
+     *            the file, which must not exist
+     * @param firstSequence
+     *            the sequence number of the first record that will be appended
+     * @param capacity
+     *            the size of the file
+     * @return the segment
+     * @throws IOException
+     *             if the file cannot be created
+     */
+    @Nonnull
+    static Segment create(@Nonnull final Path file, final long firstSequence, final int capacity) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putLong(8, firstSequence);
+            return new Segment(file, channel, buffer, firstSequence);
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing segment, positioned to append after its last complete record.
+     *
+     * @param file
+     *            the file
+     * @param visitor
+     *            receives each complete record in the segment, in order
+     * @return the segment
+     * @throws IOException
+     *             if the file cannot be read, or is not a segment
+     */
+    @Nonnull
+    static Segment open(@Nonnull final Path file, @Nonnull final RecordVisitor visitor) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("The file " + file + " is not a call history segment");
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("The file " + file + " is not a call history segment");
+            }
+            final int version = buffer.getInt(4);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("The call history segment " + file + " has an unsupported version " + version);
+            }
+            final Segment segment = new Segment(file, channel, buffer, buffer.getLong(8));
+            segment.recover(visitor);
+            return segment;
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void recover(@Nonnull final RecordVisitor visitor) {
+        final ByteBuffer reader = buffer.duplicate();
+        int position = HEADER_SIZE;
+        while (position <= buffer.capacity() - RECORD_HEADER_SIZE) {
+            final int length = reader.getInt(position);
+            if (length <= 0 || length > buffer.capacity() - position - RECORD_HEADER_SIZE) {
+                break;
+            }
+            final byte[] payload = new byte[length];
+            reader.position(position + RECORD_HEADER_SIZE);
+            reader.get(payload);
+            final long sequence = reader.getLong(position + 8);
+            if (reader.getInt(position + 4) != checksum(sequence, payload)) {
+                break;
+            }
+            visitor.visit(this, sequence, position, payload);
+            recordCount++;
+            position += RECORD_HEADER_SIZE + length;
+        }
+        writePosition = position;
+        // Anything beyond the last complete record is discarded, so must never be mistaken for a record
+        markEnd();
+    }
+
+    @Nonnull
+    Path getFile() {
+        return file;
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    boolean hasRoomFor(final int payloadLength) {
+        return payloadLength <= buffer.capacity() - writePosition - RECORD_HEADER_SIZE;
+    }
+
+    /**
+     * @return the number of records in the segment
+     */
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Appends a record, which there must be room for.
+     *
+     * @return the position of the record in the segment
+     */
+    int append(final long sequence, @Nonnull final byte[] payload) {
+        final int position = writePosition;
+        // Write the payload before the length, so that a record is only ever seen once complete
+        final ByteBuffer writer = buffer.duplicate();
+        writer.position(position + 4);
+        writer.putInt(checksum(sequence, payload));
+        writer.putLong(sequence);
+        writer.put(payload);
+        writePosition = writer.position();
+        recordCount++;
+        markEnd();
+        buffer.putInt(position, payload.length);
+        return position;
+    }
+
+    private void markEnd() {
+        if (writePosition <= buffer.capacity() - 4) {
+            buffer.putInt(writePosition, 0);
+        }
+    }
+
+    /**
+     * @param position
+     *            the position of the record, as returned when it was appended or visited
+     * @return the payload of the record
+     */
+    @Nonnull
+    byte[] read(final int position) {
+        final ByteBuffer reader = buffer.duplicate();
+        final byte[] payload = new byte[reader.getInt(position)];
+        reader.position(position + RECORD_HEADER_SIZE);
+        reader.get(payload);
+        return payload;
+    }
+
+    /**
+     * Writes any appended records to the storage device.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static int checksum(final long sequence, @Nonnull final byte[] payload) {
+        final CRC32 crc = new CRC32();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (sequence >>> shift));
+        }
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Deletes the file of a closed segment.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+
+        void visit(@Nonnull Segment segment, long sequence, int position, @Nonnull byte[] payload);
+
+    }
+}
@@ -0,0 +1,80 @@
+package com.bt.openlink.history;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.iq.GetCallHistoryRequestBuilder;
+import com.bt.openlink.type.CallType;
+
+public class CallHistoryQueryTest {
+
+    private static final ZoneId ZONE = ZoneOffset.ofHours(1);
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    private static class RequestBuilder extends GetCallHistoryRequestBuilder<RequestBuilder, String, CoreFixtures.typeEnum> {
+        private RequestBuilder() {
+            super(CoreFixtures.typeEnum.class);
+        }
+    }
+
+    @Test
+    public void willCreateAQueryFromARequest() {
+        final RequestBuilder request = new RequestBuilder()
+                .setJID("user@example.com")
+                .setCaller(CoreFixtures.CALLER_NUMBER.value())
+                .setCalled(CoreFixtures.CALLED_NUMBER.value())
+                .setCallType(CallType.MISSED)
+                .setFromDate(LocalDate.of(2017, 6, 1))
+                .setUpToDate(LocalDate.of(2017, 6, 30))
+                .setStart(10L)
+                .setCount(20L);
+
+        final CallHistoryQuery query = CallHistoryQuery.from(request, ZONE, jid -> CoreFixtures.USER_ID);
+
+        assertThat(query.getUserId(), is(Optional.of(CoreFixtures.USER_ID)));
+        assertThat(query.getInterestId(), is(Optional.empty()));
+        assertThat(query.getCallerNumber(), is(Optional.of(CoreFixtures.CALLER_NUMBER)));
+        assertThat(query.getCalledNumber(), is(Optional.of(CoreFixtures.CALLED_NUMBER)));
+        assertThat(query.getCallType(), is(Optional.of(CallType.MISSED)));
+        assertThat(query.getFrom(), is(Optional.of(LocalDate.of(2017, 6, 1).atStartOfDay(ZONE).toInstant())));
+        assertThat(query.getUpTo(), is(Optional.of(LocalDate.of(2017, 7, 1).atStartOfDay(ZONE).toInstant())));
+        assertThat(query.getStart(), is(10L));
+        assertThat(query.getCount(), is(20L));
+    }
+
+    @Test
+    public void willNotCreateAQueryForAnUnknownJid() {
+
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("The JID unknown@example.com is not that of a user");
+
+        CallHistoryQuery.from(new RequestBuilder().setJID("unknown@example.com"), ZONE, jid -> null);
+    }
+
+    @Test
+    public void willCreateAnUnrestrictedQueryFromAnEmptyRequest() {
+
+        final CallHistoryQuery query = CallHistoryQuery.from(new RequestBuilder().setCaller(""), ZONE, jid -> CoreFixtures.USER_ID);
+
+        assertThat(query.getUserId(), is(Optional.empty()));
+        assertThat(query.getCallerNumber(), is(Optional.empty()));
+        assertThat(query.getCalledNumber(), is(Optional.empty()));
+        assertThat(query.getCallType(), is(Optional.empty()));
+        assertThat(query.getFrom(), is(Optional.empty()));
+        assertThat(query.getUpTo(), is(Optional.empty()));
+        assertThat(query.getStart(), is(0L));
+        assertThat(query.getCount(), is(CallHistoryQuery.Builder.DEFAULT_COUNT));
+    }
+
+}
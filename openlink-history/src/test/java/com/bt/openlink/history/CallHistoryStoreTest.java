@@ -0,0 +1,250 @@
+package com.bt.openlink.history;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.CallType;
+import com.bt.openlink.type.HistoricalCall;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.UserId;
+
+public class CallHistoryStoreTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final UserId OTHER_USER_ID = UserId.from("other-user-id").get();
+    private static final InterestId OTHER_INTEREST_ID = InterestId.from("other-interest-id").get();
+    private static final PhoneNumber OTHER_NUMBER = PhoneNumber.from("other-number").get();
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private Path directory;
+    private CallHistoryStore<String> store;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = temporaryFolder.getRoot().toPath().resolve("history");
+        store = openStore();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Test
+    public void willReturnAPageOfCallsNewestFirst() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            store.append(getCall(i).build());
+        }
+
+        final CallHistoryPage<String> page = store.query(CallHistoryQuery.Builder.start().setStart(2).setCount(3).build());
+
+        assertThat(page.getTotalRecordCount(), is(10L));
+        assertThat(page.getFirstRecordNumber(), is(2L));
+        assertThat(page.getRecordCountInBatch(), is(3L));
+        assertThat(getCallIds(page), is(Arrays.asList("call-7", "call-6", "call-5")));
+    }
+
+    @Test
+    public void willReturnTheRemainingCallsWhenTheCountIsUnbounded() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            store.append(getCall(i).build());
+        }
+
+        final CallHistoryPage<String> page = store.query(CallHistoryQuery.Builder.start().setStart(2).setCount(Long.MAX_VALUE).build());
+
+        assertThat(page.getTotalRecordCount(), is(5L));
+        assertThat(getCallIds(page), is(Arrays.asList("call-2", "call-1", "call-0")));
+    }
+
+    @Test
+    public void willOnlyReturnTheMatchingCalls() throws Exception {
+        store.append(getCall(0).build());
+        store.append(getCall(1).setUserId(OTHER_USER_ID).build());
+        store.append(getCall(2).setInterestId(OTHER_INTEREST_ID).build());
+        store.append(getCall(3).setCallerNumber(OTHER_NUMBER).build());
+        store.append(getCall(4).setCalledNumber(OTHER_NUMBER).build());
+        store.append(getCall(5).setDirection(CallDirection.OUTGOING).build());
+        store.append(getCall(6).setState(CallState.CALL_MISSED).build());
+
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setUserId(OTHER_USER_ID)), is(Arrays.asList("call-1")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setInterestId(OTHER_INTEREST_ID)), is(Arrays.asList("call-2")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setCallerNumber(OTHER_NUMBER)), is(Arrays.asList("call-3")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setCalledNumber(OTHER_NUMBER)), is(Arrays.asList("call-4")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setCallType(CallType.OUTBOUND)), is(Arrays.asList("call-5")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setCallType(CallType.MISSED)), is(Arrays.asList("call-6")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setUserId(CoreFixtures.USER_ID).setCallType(CallType.INBOUND)), is(Arrays.asList("call-4", "call-3", "call-2", "call-0")));
+    }
+
+    @Test
+    public void willOnlyReturnTheCallsThatStartedInTheTimeRange() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            store.append(getCall(i).build());
+        }
+
+        final CallHistoryQuery query = CallHistoryQuery.Builder.start()
+                .setFrom(getStartTime(3))
+                .setUpTo(getStartTime(6))
+                .build();
+
+        assertThat(getCallIds(store.query(query)), is(Arrays.asList("call-5", "call-4", "call-3")));
+    }
+
+    @Test
+    public void willReplaceAnEarlierRecordOfTheSameCall() throws Exception {
+        store.append(getCall(0).setState(CallState.CALL_DELIVERED).build());
+        store.append(getCall(1).build());
+        store.append(getCall(0).setState(CallState.CONNECTION_CLEARED).build());
+
+        final CallHistoryPage<String> page = store.query(CallHistoryQuery.Builder.start().build());
+
+        assertThat(store.size(), is(2));
+        assertThat(getCallIds(page), is(Arrays.asList("call-1", "call-0")));
+        assertThat(page.getCalls().get(1).getState().get(), is(CallState.CONNECTION_CLEARED));
+    }
+
+    @Test
+    public void willRollOverToANewSegment() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            store.append(getCall(i).build());
+        }
+
+        final CallHistoryPage<String> page = store.query(CallHistoryQuery.Builder.start().setCount(100).build());
+
+        assertThat(store.getSegmentCount() > 1, is(true));
+        assertThat(page.getRecordCountInBatch(), is(100L));
+        assertThat(page.getCalls().get(99).getId().get().value(), is("call-0"));
+    }
+
+    @Test
+    public void willRebuildTheIndexesWhenReopened() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            store.append(getCall(i).setUserId(i % 2 == 0 ? CoreFixtures.USER_ID : OTHER_USER_ID).build());
+        }
+        store.close();
+
+        store = openStore();
+        store.append(getCall(100).setUserId(OTHER_USER_ID).build());
+
+        final CallHistoryPage<String> page = store.query(CallHistoryQuery.Builder.start().setUserId(OTHER_USER_ID).setCount(2).build());
+        assertThat(page.getTotalRecordCount(), is(51L));
+        assertThat(getCallIds(page), is(Arrays.asList("call-100", "call-99")));
+    }
+
+    @Test
+    public void willCompactTheSegments() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            store.append(getCall(i).setState(CallState.CALL_DELIVERED).build());
+        }
+        for (int i = 50; i < 100; i++) {
+            store.append(getCall(i).setState(CallState.CONNECTION_CLEARED).build());
+        }
+        final int segmentCount = store.getSegmentCount();
+
+        final long removedCount = store.compact(getStartTime(25));
+
+        assertThat(removedCount > 50, is(true));
+        assertThat(store.getSegmentCount() < segmentCount, is(true));
+        assertThat(store.size(), is(75));
+        final CallHistoryPage<String> page = store.query(CallHistoryQuery.Builder.start().setCount(100).build());
+        assertThat(page.getTotalRecordCount(), is(75L));
+        assertThat(page.getCalls().get(0).getState().get(), is(CallState.CONNECTION_CLEARED));
+        assertThat(page.getCalls().get(74).getId().get().value(), is("call-25"));
+
+        store.close();
+        store = openStore();
+
+        assertThat(store.size(), is(75));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setFrom(getStartTime(49)).setUpTo(getStartTime(51))), is(Arrays.asList("call-50", "call-49")));
+    }
+
+    @Test
+    public void willDiscardAPartlyWrittenRecord() throws Exception {
+        store.append(getCall(0).build());
+        store.append(getCall(1).build());
+        store.close();
+        corruptLastRecord();
+
+        store = openStore();
+        store.append(getCall(2).build());
+
+        assertThat(getCallIds(CallHistoryQuery.Builder.start()), is(Arrays.asList("call-2", "call-0")));
+    }
+
+    private CallHistoryStore<String> openStore() throws IOException {
+        return CallHistoryStore.open(directory, SEGMENT_SIZE, Function.identity(), Function.identity());
+    }
+
+    private void corruptLastRecord() throws IOException {
+        final Path segmentFile;
+        try (Stream<Path> files = Files.list(directory)) {
+            segmentFile = files.sorted().reduce((first, second) -> second).get();
+        }
+        try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int position = Segment.HEADER_SIZE;
+            int lastPosition = position;
+            while (buffer.getInt(position) != 0) {
+                lastPosition = position;
+                position += Segment.RECORD_HEADER_SIZE + buffer.getInt(position);
+            }
+            final int lastByte = position - 1;
+            buffer.put(lastByte, (byte) (buffer.get(lastByte) ^ 0xFF));
+            assertThat(lastPosition > Segment.HEADER_SIZE, is(true));
+        }
+    }
+
+    private List<String> getCallIds(final CallHistoryQuery.Builder builder) {
+        return getCallIds(store.query(builder.build()));
+    }
+
+    private static List<String> getCallIds(final CallHistoryPage<String> page) {
+        return page.getCalls().stream()
+                .map(call -> call.getId().get().value())
+                .collect(Collectors.toList());
+    }
+
+    private static Instant getStartTime(final int i) {
+        return CoreFixtures.START_TIME.plus(Duration.ofMinutes(i));
+    }
+
+    private static HistoricalCall.Builder<String> getCall(final int i) {
+        return HistoricalCall.Builder.<String> start()
+                .setId(CallId.from("call-" + i).get())
+                .setUserId(CoreFixtures.USER_ID)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setState(CallState.CONNECTION_CLEARED)
+                .setDirection(CallDirection.INCOMING)
+                .setCallerNumber(CoreFixtures.CALLER_NUMBER)
+                .setCallerName(CoreFixtures.CALLER_NAME)
+                .setCalledNumber(CoreFixtures.CALLED_NUMBER)
+                .setCalledName(CoreFixtures.CALLED_NAME)
+                .setStartTime(getStartTime(i))
+                .setDuration(Duration.ofSeconds(60))
+                .setTsc("tsc@example.com");
+    }
+}
@@ -0,0 +1,228 @@
+package com.bt.openlink.history;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.iq.GetCallHistoryResultBuilder;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.CallType;
+import com.bt.openlink.type.HistoricalCall;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.PhoneNumber;
+import com.bt.openlink.type.UserId;
+
+public class ColumnarCallHistoryTest {
+
+    private static final UserId OTHER_USER_ID = UserId.from("other-user-id").get();
+    private static final InterestId OTHER_INTEREST_ID = InterestId.from("other-interest-id").get();
+    private static final PhoneNumber OTHER_NUMBER = PhoneNumber.from("other-number").get();
+
+    private static class ResultBuilder extends GetCallHistoryResultBuilder<ResultBuilder, String, CoreFixtures.typeEnum> {
+        private ResultBuilder() {
+            super(CoreFixtures.typeEnum.class);
+        }
+    }
+
+    private ColumnarCallHistory<String> history;
+
+    @Before
+    public void setUp() {
+        history = new ColumnarCallHistory<>(4);
+    }
+
+    @Test
+    public void willReturnAPageOfCallsNewestFirst() {
+        for (int i = 0; i < 10; i++) {
+            history.add(getCall(i).build());
+        }
+
+        final CallHistoryPage<String> page = history.query(CallHistoryQuery.Builder.start().setStart(2).setCount(3).build());
+
+        assertThat(page.getTotalRecordCount(), is(10L));
+        assertThat(page.getFirstRecordNumber(), is(2L));
+        assertThat(page.getRecordCountInBatch(), is(3L));
+        assertThat(getCallIds(page), is(Arrays.asList("call-7", "call-6", "call-5")));
+    }
+
+    @Test
+    public void willReturnEveryFieldOfTheCall() {
+        final HistoricalCall<String> call = getCall(0).build();
+        history.add(call);
+
+        final HistoricalCall<String> returnedCall = history.query(CallHistoryQuery.Builder.start().build()).getCalls().get(0);
+
+        assertThat(returnedCall.getId(), is(call.getId()));
+        assertThat(returnedCall.getUserId(), is(call.getUserId()));
+        assertThat(returnedCall.getInterestId(), is(call.getInterestId()));
+        assertThat(returnedCall.getState(), is(call.getState()));
+        assertThat(returnedCall.getDirection(), is(call.getDirection()));
+        assertThat(returnedCall.getCallerNumber(), is(call.getCallerNumber()));
+        assertThat(returnedCall.getCallerName(), is(call.getCallerName()));
+        assertThat(returnedCall.getCalledNumber(), is(call.getCalledNumber()));
+        assertThat(returnedCall.getCalledName(), is(call.getCalledName()));
+        assertThat(returnedCall.getStartTime(), is(call.getStartTime()));
+        assertThat(returnedCall.getDuration(), is(call.getDuration()));
+        assertThat(returnedCall.getTsc(), is(call.getTsc()));
+    }
+
+    @Test
+    public void willOnlyReturnTheMatchingCalls() {
+        history.add(getCall(0).build());
+        history.add(getCall(1).setUserId(OTHER_USER_ID).build());
+        history.add(getCall(2).setInterestId(OTHER_INTEREST_ID).build());
+        history.add(getCall(3).setCallerNumber(OTHER_NUMBER).build());
+        history.add(getCall(4).setCalledNumber(OTHER_NUMBER).build());
+        history.add(getCall(5).setDirection(CallDirection.OUTGOING).build());
+        history.add(getCall(6).setState(CallState.CALL_MISSED).build());
+
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setUserId(OTHER_USER_ID)), is(Arrays.asList("call-1")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setInterestId(OTHER_INTEREST_ID)), is(Arrays.asList("call-2")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setCallerNumber(OTHER_NUMBER)), is(Arrays.asList("call-3")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setCalledNumber(OTHER_NUMBER)), is(Arrays.asList("call-4")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setCallType(CallType.OUTBOUND)), is(Arrays.asList("call-5")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setCallType(CallType.MISSED)), is(Arrays.asList("call-6")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setUserId(CoreFixtures.USER_ID).setCallType(CallType.INBOUND)), is(Arrays.asList("call-4", "call-3", "call-2", "call-0")));
+        assertThat(getCallIds(CallHistoryQuery.Builder.start().setUserId(UserId.from("unknown-user-id").get())), is(Collections.<String> emptyList()));
+    }
+
+    @Test
+    public void willCountTheMatchingCallsAcrossManyBlocks() {
+        for (int i = 0; i < 5000; i++) {
+            history.add(getCall(i).setUserId(i % 3 == 0 ? OTHER_USER_ID : CoreFixtures.USER_ID).build());
+        }
+
+        final CallHistoryPage<String> page = history.query(CallHistoryQuery.Builder.start().setUserId(OTHER_USER_ID).setStart(400).setCount(2).build());
+
+        assertThat(page.getTotalRecordCount(), is(1667L));
+        assertThat(getCallIds(page), is(Arrays.asList("call-3798", "call-3795")));
+    }
+
+    @Test
+    public void willOnlyReturnTheCallsThatStartedInTheTimeRange() {
+        for (int i = 9; i >= 0; i--) {
+            history.add(getCall(i).build());
+        }
+
+        final CallHistoryQuery query = CallHistoryQuery.Builder.start()
+                .setFrom(getStartTime(3))
+                .setUpTo(getStartTime(6))
+                .build();
+
+        assertThat(getCallIds(history.query(query)), is(Arrays.asList("call-5", "call-4", "call-3")));
+    }
+
+    @Test
+    public void willIncludeTheWholeOfTheUpToDate() {
+        history.add(getCall(0).setStartTime(Instant.parse("2017-10-08T23:59:59Z")).build());
+        history.add(getCall(1).setStartTime(Instant.parse("2017-10-09T00:00:00Z")).build());
+        history.add(getCall(2).setStartTime(Instant.parse("2017-10-10T23:59:59Z")).build());
+        history.add(getCall(3).setStartTime(Instant.parse("2017-10-11T00:00:00Z")).build());
+
+        final CallHistoryQuery query = CallHistoryQuery.Builder.start()
+                .setFromDate(LocalDate.of(2017, 10, 9), ZoneOffset.UTC)
+                .setUpToDate(LocalDate.of(2017, 10, 10), ZoneOffset.UTC)
+                .build();
+
+        assertThat(getCallIds(history.query(query)), is(Arrays.asList("call-2", "call-1")));
+    }
+
+    @Test
+    public void willReplaceAnEarlierRecordOfTheSameCall() {
+        history.add(getCall(0).setState(CallState.CALL_DELIVERED).build());
+        history.add(getCall(1).build());
+        history.add(getCall(0).setState(CallState.CONNECTION_CLEARED).build());
+
+        final CallHistoryPage<String> page = history.query(CallHistoryQuery.Builder.start().build());
+
+        assertThat(history.size(), is(2));
+        assertThat(getCallIds(page), is(Arrays.asList("call-1", "call-0")));
+        assertThat(page.getCalls().get(1).getState().get(), is(CallState.CONNECTION_CLEARED));
+    }
+
+    @Test
+    public void willReplaceAnEarlierRecordOfTheSameCallWithADifferentStartTime() {
+        history.add(getCall(0).build());
+        history.add(getCall(1).build());
+        history.add(getCall(0).setStartTime(getStartTime(2)).build());
+
+        final CallHistoryPage<String> page = history.query(CallHistoryQuery.Builder.start().build());
+
+        assertThat(history.size(), is(2));
+        assertThat(getCallIds(page), is(Arrays.asList("call-0", "call-1")));
+        assertThat(page.getCalls().get(0).getStartTime().get(), is(getStartTime(2)));
+    }
+
+    @Test
+    public void willRemoveTheCallsThatStartedBeforeATime() {
+        for (int i = 0; i < 10; i++) {
+            history.add(getCall(i).build());
+        }
+
+        final int removedCount = history.removeStartedBefore(getStartTime(4));
+
+        assertThat(removedCount, is(4));
+        assertThat(history.size(), is(6));
+        assertThat(history.query(CallHistoryQuery.Builder.start().build()).getCalls().get(5).getId().get().value(), is("call-4"));
+    }
+
+    @Test
+    public void willAddThePageToAGetCallHistoryResult() {
+        for (int i = 0; i < 10; i++) {
+            history.add(getCall(i).build());
+        }
+        final CallHistoryPage<String> page = history.query(CallHistoryQuery.Builder.start().setStart(8).setCount(5).build());
+
+        final ResultBuilder builder = page.addTo(new ResultBuilder());
+
+        assertThat(builder.getTotalRecordCount(), is(Optional.of(10L)));
+        assertThat(builder.getFirstRecordNumber(), is(Optional.of(8L)));
+        assertThat(builder.getRecordCountInBatch(), is(Optional.of(2L)));
+        assertThat(builder.getCalls(), is(page.getCalls()));
+    }
+
+    private List<String> getCallIds(final CallHistoryQuery.Builder builder) {
+        return getCallIds(history.query(builder.build()));
+    }
+
+    private static List<String> getCallIds(final CallHistoryPage<String> page) {
+        return page.getCalls().stream()
+                .map(call -> call.getId().get().value())
+                .collect(Collectors.toList());
+    }
+
+    private static Instant getStartTime(final int i) {
+        return CoreFixtures.START_TIME.plus(Duration.ofMinutes(i));
+    }
+
+    private static HistoricalCall.Builder<String> getCall(final int i) {
+        return HistoricalCall.Builder.<String> start()
+                .setId(CallId.from("call-" + i).get())
+                .setUserId(CoreFixtures.USER_ID)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setState(CallState.CONNECTION_CLEARED)
+                .setDirection(CallDirection.INCOMING)
+                .setCallerNumber(CoreFixtures.CALLER_NUMBER)
+                .setCallerName(CoreFixtures.CALLER_NAME)
+                .setCalledNumber(CoreFixtures.CALLED_NUMBER)
+                .setCalledName(CoreFixtures.CALLED_NAME)
+                .setStartTime(getStartTime(i))
+                .setDuration(Duration.ofSeconds(60))
+                .setTsc("tsc@example.com");
+    }
+}
@@ -0,0 +1,250 @@
+package com.bt.openlink.smack.client;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.SmackException;
+import org.jivesoftware.smack.XMPPConnection;
+import org.jxmpp.jid.Jid;
+
+import com.bt.openlink.smack.iq.GetCallHistoryRequest;
+import com.bt.openlink.smack.iq.GetCallHistoryResult;
+import com.bt.openlink.type.HistoricalCall;
+
+/**
+ * Retrieves a complete call history by issuing a series of get-call-history requests, each for the next page of
+ * records. Once the first page has been received, and so the total number of records is known, up to
+ * {@code pagesInFlight} further pages are requested concurrently whilst earlier pages are consumed.
+ * <p>
+ * The records are followed by the first record number of each page received, not by the pages requested, so a page
+ * that holds fewer records than requested - because the server limits the count, or the history changed - is
+ * followed by a request for the records it left out.
+ */
+public class CallHistoryPager {
+
+    /**
+     * The number of records requested per page if the template request does not specify a count
+     */
+    public static final long DEFAULT_PAGE_SIZE = 50;
+
+    @Nonnull private final XMPPConnection connection;
+    private final int pagesInFlight;
+
+    /**
+     * @param connection
+     *            the connection to send the requests on
+     * @param pagesInFlight
+     *            the maximum number of pages that can be requested but not yet consumed
+     */
+    public CallHistoryPager(@Nonnull final XMPPConnection connection, final int pagesInFlight) {
+        if (pagesInFlight < 1) {
+            throw new IllegalArgumentException("At least one page must be allowed in flight");
+        }
+        this.connection = connection;
+        this.pagesInFlight = pagesInFlight;
+    }
+
+    /**
+     * Returns the call history matching a request. The request is used as a template for each page; its start (default
+     * zero) is the first record returned and its count (default {@link #DEFAULT_PAGE_SIZE}) is the size of each page.
+     * No requests are sent until the stream is consumed. The stream ends once the total number of records given in the
+     * first page has been returned, or a page returns no further records. If a page cannot be retrieved, or starts
+     * after the next record expected, the stream throws an {@link IllegalStateException}.
+     *
+     * @param request
+     *            the template request
+     * @return a lazy stream of all the matching calls
+     */
+    @Nonnull
+    public Stream<HistoricalCall<Jid>> getCallHistory(@Nonnull final GetCallHistoryRequest request) {
+        final CallHistoryIterator iterator = new CallHistoryIterator(request);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    @Nonnull
+    private static GetCallHistoryRequest getPageRequest(@Nonnull final GetCallHistoryRequest template, final long start, final long count) {
+        final GetCallHistoryRequest.Builder builder = GetCallHistoryRequest.Builder.start()
+                .setStart(start)
+                .setCount(count);
+        if (template.getTo() != null) {
+            builder.setTo(template.getTo());
+        }
+        if (template.getFrom() != null) {
+            builder.setFrom(template.getFrom());
+        }
+        template.getJID().ifPresent(builder::setJID);
+        template.getCaller().ifPresent(builder::setCaller);
+        template.getCalled().ifPresent(builder::setCalled);
+        template.getCallType().ifPresent(builder::setCallType);
+        template.getFromDate().ifPresent(builder::setFromDate);
+        template.getUpToDate().ifPresent(builder::setUpToDate);
+        return builder.build();
+    }
+
+    private class CallHistoryIterator implements Iterator<HistoricalCall<Jid>> {
+
+        @Nonnull private final GetCallHistoryRequest template;
+        private final long pageSize;
+        @Nonnull private final Deque<Page> pages = new ArrayDeque<>();
+        @Nonnull private Iterator<HistoricalCall<Jid>> currentPage = Collections.emptyIterator();
+        private long nextStart;
+        private long nextRecord;
+        @Nullable private Long totalRecordCount;
+        private boolean firstPageRequested;
+        private boolean lastPageReceived;
+
+        private CallHistoryIterator(@Nonnull final GetCallHistoryRequest template) {
+            this.template = template;
+            this.pageSize = template.getCount().filter(count -> count > 0).orElse(DEFAULT_PAGE_SIZE);
+            this.nextStart = template.getStart().orElse(0L);
+            this.nextRecord = nextStart;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!currentPage.hasNext()) {
+                requestPages();
+                final Page page = pages.poll();
+                if (page == null) {
+                    return false;
+                }
+                // Keep the pipeline full whilst waiting for, and then consuming, this page
+                requestPages();
+                final GetCallHistoryResult result = await(page.result);
+                if (totalRecordCount == null) {
+                    totalRecordCount = result.getTotalRecordCount().orElse(0L);
+                }
+                final List<HistoricalCall<Jid>> calls = result.getCalls();
+                final long firstRecordNumber = result.getFirstRecordNumber().orElse(page.start);
+                if (!calls.isEmpty() && firstRecordNumber > nextRecord) {
+                    close();
+                    throw new IllegalStateException("Unable to retrieve the call history; record " + nextRecord + " was requested but the page started at record " + firstRecordNumber);
+                }
+                // Skip any records already returned by an earlier page
+                final int skipCount = (int) Math.min(calls.size(), nextRecord - firstRecordNumber);
+                if (skipCount == calls.size()) {
+                    // Don't rely on the total to terminate; a server that has fewer records than it claimed ends here
+                    lastPageReceived = true;
+                    cancelPages();
+                    continue;
+                }
+                nextRecord = firstRecordNumber + calls.size();
+                final long requestedEnd = page.start + page.count;
+                if (nextRecord >= totalRecordCount) {
+                    lastPageReceived = true;
+                    cancelPages();
+                } else if (nextRecord < requestedEnd) {
+                    // The page was short, so request the records it left out before those of the later pages
+                    pages.addFirst(sendRequest(nextRecord, requestedEnd - nextRecord));
+                }
+                requestPages();
+                currentPage = calls.subList(skipCount, calls.size()).iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public HistoricalCall<Jid> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentPage.next();
+        }
+
+        private void requestPages() {
+            if (lastPageReceived) {
+                return;
+            }
+            if (totalRecordCount == null) {
+                // Only the first page can be requested until the total number of records is known
+                if (!firstPageRequested) {
+                    firstPageRequested = true;
+                    requestNextPage();
+                }
+                return;
+            }
+            while (pages.size() < pagesInFlight && nextStart < totalRecordCount) {
+                requestNextPage();
+            }
+        }
+
+        private void requestNextPage() {
+            pages.add(sendRequest(nextStart, pageSize));
+            nextStart += pageSize;
+        }
+
+        @Nonnull
+        private Page sendRequest(final long start, final long count) {
+            final CompletableFuture<GetCallHistoryResult> future = new CompletableFuture<>();
+            final GetCallHistoryRequest request = getPageRequest(template, start, count);
+            try {
+                connection.sendIqWithResponseCallback(request, response -> {
+                    if (response instanceof GetCallHistoryResult) {
+                        future.complete((GetCallHistoryResult) response);
+                    } else {
+                        future.completeExceptionally(new IllegalStateException("Unexpected response to get-call-history request: " + response));
+                    }
+                }, future::completeExceptionally, connection.getReplyTimeout());
+            } catch (final SmackException.NotConnectedException e) {
+                future.completeExceptionally(e);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+            }
+            return new Page(start, count, future);
+        }
+
+        @Nonnull
+        private GetCallHistoryResult await(@Nonnull final CompletableFuture<GetCallHistoryResult> page) {
+            try {
+                return page.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted whilst waiting for the call history", e);
+            } catch (final ExecutionException e) {
+                close();
+                throw new IllegalStateException("Unable to retrieve the call history", e.getCause());
+            }
+        }
+
+        private void cancelPages() {
+            pages.forEach(page -> page.result.cancel(false));
+            pages.clear();
+        }
+
+        private void close() {
+            lastPageReceived = true;
+            cancelPages();
+            currentPage = Collections.emptyIterator();
+        }
+    }
+
+    private static final class Page {
+
+        private final long start;
+        private final long count;
+        @Nonnull private final CompletableFuture<GetCallHistoryResult> result;
+
+        private Page(final long start, final long count, @Nonnull final CompletableFuture<GetCallHistoryResult> result) {
+            this.start = start;
+            this.count = count;
+            this.result = result;
+        }
+    }
+
+}
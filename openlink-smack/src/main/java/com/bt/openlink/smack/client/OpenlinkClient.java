@@ -0,0 +1,331 @@
+package com.bt.openlink.smack.client;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.SmackException;
+import org.jivesoftware.smack.StanzaListener;
+import org.jivesoftware.smack.XMPPConnection;
+import org.jivesoftware.smack.XMPPException;
+import org.jivesoftware.smack.filter.IQReplyFilter;
+import org.jivesoftware.smack.filter.IQTypeFilter;
+import org.jivesoftware.smack.filter.OrFilter;
+import org.jivesoftware.smack.filter.StanzaFilter;
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.packet.Stanza;
+
+import com.bt.openlink.correlation.PendingResultRegistry;
+import com.bt.openlink.smack.iq.GetCallHistoryRequest;
+import com.bt.openlink.smack.iq.GetCallHistoryResult;
+import com.bt.openlink.smack.iq.GetFeaturesRequest;
+import com.bt.openlink.smack.iq.GetFeaturesResult;
+import com.bt.openlink.smack.iq.GetInterestRequest;
+import com.bt.openlink.smack.iq.GetInterestResult;
+import com.bt.openlink.smack.iq.GetInterestsRequest;
+import com.bt.openlink.smack.iq.GetInterestsResult;
+import com.bt.openlink.smack.iq.GetProfileRequest;
+import com.bt.openlink.smack.iq.GetProfileResult;
+import com.bt.openlink.smack.iq.GetProfilesRequest;
+import com.bt.openlink.smack.iq.GetProfilesResult;
+import com.bt.openlink.smack.iq.MakeCallRequest;
+import com.bt.openlink.smack.iq.MakeCallResult;
+import com.bt.openlink.smack.iq.ManageVoiceMessageRequest;
+import com.bt.openlink.smack.iq.ManageVoiceMessageResult;
+import com.bt.openlink.smack.iq.QueryFeaturesRequest;
+import com.bt.openlink.smack.iq.QueryFeaturesResult;
+import com.bt.openlink.smack.iq.RequestActionRequest;
+import com.bt.openlink.smack.iq.RequestActionResult;
+import com.bt.openlink.smack.iq.SetFeaturesRequest;
+import com.bt.openlink.smack.iq.SetFeaturesResult;
+
+/**
+ * Sends Openlink requests without blocking, returning a future for the result of each. At most
+ * {@code maximumRequestsInFlight} requests await their result at any one time; any further requests are queued, in the
+ * order they were made, and sent as earlier requests complete.
+ * <p>
+ * A future is completed exceptionally if the request cannot be sent, the response is an error, no response is
+ * received within the connection's reply timeout, or the response is not of the expected type. A request whose future
+ * is cancelled whilst it is queued is not sent. Futures are completed on the connection's threads, so dependent
+ * actions that may block should use the {@code async} methods of {@link CompletableFuture}.
+ * <p>
+ * By default each request is sent with {@link XMPPConnection#sendIqWithResponseCallback}, which schedules a timer for
+ * every request. A client with many requests in flight can instead correlate the results itself, with a
+ * {@link PendingResultRegistry}; a request then times out with a {@link java.util.concurrent.TimeoutException}. Such a
+ * client listens for results on the connection until it is closed. As with the default, a result is only accepted from
+ * the entity the request was sent to, as decided by an {@link IQReplyFilter}; any other result with the same stanza id
+ * is ignored.
+ */
+public class OpenlinkClient implements AutoCloseable {
+
+    @Nonnull private final XMPPConnection connection;
+    private final int maximumRequestsInFlight;
+    @Nullable private final PendingResultRegistry<IQ> registry;
+    @Nullable private final StanzaListener resultListener;
+    @Nonnull private final ConcurrentMap<String, StanzaFilter> replyFiltersById = new ConcurrentHashMap<>();
+    @Nonnull private final Queue<PendingRequest<?>> queuedRequests = new ConcurrentLinkedQueue<>();
+    @Nonnull private final AtomicInteger requestsInFlight = new AtomicInteger();
+    @Nonnull private final AtomicInteger pendingDrains = new AtomicInteger();
+
+    /**
+     * @param connection
+     *            the connection to send the requests on
+     * @param maximumRequestsInFlight
+     *            the maximum number of requests that can be awaiting their result
+     */
+    public OpenlinkClient(@Nonnull final XMPPConnection connection, final int maximumRequestsInFlight) {
+        this(connection, maximumRequestsInFlight, null);
+    }
+
+    /**
+     * @param connection
+     *            the connection to send the requests on
+     * @param maximumRequestsInFlight
+     *            the maximum number of requests that can be awaiting their result
+     * @param registry
+     *            the registry to correlate the results of the requests, or {@code null} to leave it to the connection
+     */
+    public OpenlinkClient(@Nonnull final XMPPConnection connection, final int maximumRequestsInFlight, @Nullable final PendingResultRegistry<IQ> registry) {
+        if (maximumRequestsInFlight < 1) {
+            throw new IllegalArgumentException("At least one request must be allowed in flight");
+        }
+        this.connection = connection;
+        this.maximumRequestsInFlight = maximumRequestsInFlight;
+        this.registry = registry;
+        if (registry == null) {
+            this.resultListener = null;
+        } else {
+            this.resultListener = stanza -> {
+                final StanzaFilter replyFilter = replyFiltersById.get(stanza.getStanzaId());
+                // A result for a request that is no longer pending is still passed on, so the registry can count it
+                if (replyFilter == null || replyFilter.accept(stanza)) {
+                    registry.complete(stanza.getStanzaId(), (IQ) stanza);
+                }
+            };
+            connection.addSyncStanzaListener(resultListener, new OrFilter(IQTypeFilter.RESULT, IQTypeFilter.ERROR));
+        }
+    }
+
+    @Nonnull
+    public CompletableFuture<MakeCallResult> makeCall(@Nonnull final MakeCallRequest request) {
+        return send(request, MakeCallResult.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<RequestActionResult> requestAction(@Nonnull final RequestActionRequest request) {
+        return send(request, RequestActionResult.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<GetProfilesResult> getProfiles(@Nonnull final GetProfilesRequest request) {
+        return send(request, GetProfilesResult.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<GetProfileResult> getProfile(@Nonnull final GetProfileRequest request) {
+        return send(request, GetProfileResult.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<GetInterestsResult> getInterests(@Nonnull final GetInterestsRequest request) {
+        return send(request, GetInterestsResult.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<GetInterestResult> getInterest(@Nonnull final GetInterestRequest request) {
+        return send(request, GetInterestResult.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<GetFeaturesResult> getFeatures(@Nonnull final GetFeaturesRequest request) {
+        return send(request, GetFeaturesResult.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<QueryFeaturesResult> queryFeatures(@Nonnull final QueryFeaturesRequest request) {
+        return send(request, QueryFeaturesResult.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<SetFeaturesResult> setFeatures(@Nonnull final SetFeaturesRequest request) {
+        return send(request, SetFeaturesResult.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<GetCallHistoryResult> getCallHistory(@Nonnull final GetCallHistoryRequest request) {
+        return send(request, GetCallHistoryResult.class);
+    }
+
+    @Nonnull
+    public CompletableFuture<ManageVoiceMessageResult> manageVoiceMessage(@Nonnull final ManageVoiceMessageRequest request) {
+        return send(request, ManageVoiceMessageResult.class);
+    }
+
+    /**
+     * @param request
+     *            the request to send
+     * @param resultClass
+     *            the type of result expected
+     * @param <R>
+     *            the type of result expected
+     * @return the result of the request
+     */
+    @Nonnull
+    public <R extends IQ> CompletableFuture<R> send(@Nonnull final IQ request, @Nonnull final Class<R> resultClass) {
+        final PendingRequest<R> pendingRequest = new PendingRequest<>(request, resultClass);
+        queuedRequests.add(pendingRequest);
+        sendQueuedRequests();
+        return pendingRequest.future;
+    }
+
+    /**
+     * @return the number of requests sent that are awaiting their result
+     */
+    public int getRequestsInFlight() {
+        return requestsInFlight.get();
+    }
+
+    /**
+     * @return the number of requests waiting to be sent
+     */
+    public int getRequestsQueued() {
+        return queuedRequests.size();
+    }
+
+    /**
+     * Stops listening for results on the connection, if they are correlated by a registry.
+     */
+    @Override
+    public void close() {
+        if (resultListener != null) {
+            connection.removeSyncStanzaListener(resultListener);
+        }
+    }
+
+    /**
+     * Sends as many queued requests as are allowed. Only one thread sends at a time; a thread that finds another
+     * already sending leaves it to check again, so a response received whilst sending does not recurse.
+     */
+    private void sendQueuedRequests() {
+        if (pendingDrains.getAndIncrement() != 0) {
+            return;
+        }
+        int drains = 1;
+        do {
+            while (requestsInFlight.get() < maximumRequestsInFlight) {
+                final PendingRequest<?> pendingRequest = queuedRequests.poll();
+                if (pendingRequest == null) {
+                    break;
+                }
+                if (!pendingRequest.future.isDone()) {
+                    requestsInFlight.incrementAndGet();
+                    pendingRequest.send();
+                }
+            }
+            drains = pendingDrains.addAndGet(-drains);
+        } while (drains != 0);
+    }
+
+    private void requestCompleted() {
+        requestsInFlight.decrementAndGet();
+        sendQueuedRequests();
+    }
+
+    private final class PendingRequest<R extends IQ> {
+
+        @Nonnull private final IQ request;
+        @Nonnull private final Class<R> resultClass;
+        @Nonnull private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        private PendingRequest(@Nonnull final IQ request, @Nonnull final Class<R> resultClass) {
+            this.request = request;
+            this.resultClass = resultClass;
+        }
+
+        private void send() {
+            if (registry == null) {
+                sendWithResponseCallback();
+            } else {
+                sendWithRegistry(registry);
+            }
+        }
+
+        private void sendWithResponseCallback() {
+            try {
+                connection.sendIqWithResponseCallback(request, this::processResponse, this::processException, connection.getReplyTimeout());
+            } catch (final SmackException.NotConnectedException e) {
+                processException(e);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                processException(e);
+            }
+        }
+
+        private void sendWithRegistry(@Nonnull final PendingResultRegistry<IQ> registry) {
+            final String stanzaId = request.getStanzaId();
+            final StanzaFilter replyFilter;
+            final CompletableFuture<IQ> response;
+            try {
+                replyFilter = new IQReplyFilter(request, connection);
+                if (replyFiltersById.putIfAbsent(stanzaId, replyFilter) != null) {
+                    throw new IllegalArgumentException("A request with the stanza id '" + stanzaId + "' is already registered");
+                }
+                try {
+                    response = registry.register(stanzaId, Duration.ofMillis(connection.getReplyTimeout()));
+                } catch (final IllegalArgumentException e) {
+                    replyFiltersById.remove(stanzaId, replyFilter);
+                    throw e;
+                }
+            } catch (final IllegalArgumentException e) {
+                // Another request with the same id is awaiting its result, or the connection has no user to reply to
+                processException(e);
+                return;
+            }
+            response.whenComplete((result, throwable) -> {
+                replyFiltersById.remove(stanzaId, replyFilter);
+                processResult(result, throwable);
+            });
+            try {
+                connection.sendStanza(request);
+            } catch (final SmackException.NotConnectedException e) {
+                registry.completeExceptionally(stanzaId, e);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                registry.completeExceptionally(stanzaId, e);
+            }
+        }
+
+        private void processResult(@Nullable final IQ response, @Nullable final Throwable throwable) {
+            if (throwable == null) {
+                processResponse(response);
+            } else {
+                processException(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+            }
+        }
+
+        private void processResponse(@Nonnull final Stanza response) {
+            requestCompleted();
+            if (response instanceof IQ && ((IQ) response).getType() == IQ.Type.error) {
+                future.completeExceptionally(new XMPPException.XMPPErrorException(response, response.getError()));
+            } else if (resultClass.isInstance(response)) {
+                future.complete(resultClass.cast(response));
+            } else {
+                future.completeExceptionally(new IllegalStateException("Unexpected response to " + request.getChildElementName() + " request: " + response));
+            }
+        }
+
+        private void processException(@Nonnull final Throwable exception) {
+            requestCompleted();
+            future.completeExceptionally(exception);
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.bt.openlink.smack.client;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.SmackException;
+import org.jivesoftware.smack.XMPPConnection;
+import org.jivesoftware.smack.packet.IQ;
+import org.jxmpp.jid.Jid;
+
+import com.bt.openlink.smack.iq.GetCallHistoryRequest;
+import com.bt.openlink.smack.iq.GetFeaturesRequest;
+import com.bt.openlink.smack.iq.GetInterestRequest;
+import com.bt.openlink.smack.iq.GetInterestsRequest;
+import com.bt.openlink.smack.iq.GetProfileRequest;
+import com.bt.openlink.smack.iq.GetProfilesRequest;
+import com.bt.openlink.smack.iq.QueryFeaturesRequest;
+
+/**
+ * Sends requests on behalf of many callers, so that a query that is identical to one already awaiting its result is
+ * not sent again; instead the caller receives the result of the request already sent. Two requests are identical if
+ * they are of the same type, have the same sender and recipient, and have the same child element, i.e. the same node
+ * and parameters.
+ * <p>
+ * Openlink requests are all of type 'set', so only those known not to change anything are coalesced - get-profiles,
+ * get-profile, get-interests, get-interest, get-features, query-features and get-call-history. Any other request is
+ * always sent.
+ * <p>
+ * The callers of coalesced requests receive the same result stanza, whose id is that of the request that was sent.
+ * Cancelling the future returned to one caller does not affect any other.
+ */
+public class OpenlinkRequestCoalescer {
+
+    private static final Set<Class<? extends IQ>> QUERY_CLASSES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            GetProfilesRequest.class,
+            GetProfileRequest.class,
+            GetInterestsRequest.class,
+            GetInterestRequest.class,
+            GetFeaturesRequest.class,
+            QueryFeaturesRequest.class,
+            GetCallHistoryRequest.class)));
+
+    @Nonnull private final XMPPConnection connection;
+    @Nonnull private final ConcurrentMap<Key, CompletableFuture<IQ>> requestsInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param connection
+     *            the connection to send the requests on
+     */
+    public OpenlinkRequestCoalescer(@Nonnull final XMPPConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * @param request
+     *            the request to send
+     * @param resultClass
+     *            the type of result expected
+     * @param <R>
+     *            the type of result expected
+     * @return the result of the request, or of an identical request already awaiting its result
+     */
+    @Nonnull
+    public <R extends IQ> CompletableFuture<R> send(@Nonnull final IQ request, @Nonnull final Class<R> resultClass) {
+        final CompletableFuture<IQ> response;
+        if (QUERY_CLASSES.contains(request.getClass())) {
+            final Key key = new Key(request);
+            final CompletableFuture<IQ> newResponse = new CompletableFuture<>();
+            final CompletableFuture<IQ> existingResponse = requestsInFlight.putIfAbsent(key, newResponse);
+            if (existingResponse == null) {
+                newResponse.whenComplete((result, throwable) -> requestsInFlight.remove(key, newResponse));
+                sendRequest(request, newResponse);
+                response = newResponse;
+            } else {
+                response = existingResponse;
+            }
+        } else {
+            response = new CompletableFuture<>();
+            sendRequest(request, response);
+        }
+        // A separate future for each caller, so that none can complete or cancel the response for the others
+        return response.thenApply(result -> {
+            if (resultClass.isInstance(result)) {
+                return resultClass.cast(result);
+            }
+            throw new IllegalStateException("Unexpected response to " + request.getChildElementName() + " request: " + result);
+        });
+    }
+
+    /**
+     * @return the number of coalescable requests awaiting their result
+     */
+    public int getRequestsInFlight() {
+        return requestsInFlight.size();
+    }
+
+    private void sendRequest(@Nonnull final IQ request, @Nonnull final CompletableFuture<IQ> response) {
+        try {
+            connection.sendIqWithResponseCallback(request, stanza -> response.complete((IQ) stanza), response::completeExceptionally, connection.getReplyTimeout());
+        } catch (final SmackException.NotConnectedException e) {
+            response.completeExceptionally(e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.completeExceptionally(e);
+        }
+    }
+
+    private static final class Key {
+
+        @Nonnull private final Class<? extends IQ> requestClass;
+        @Nullable private final Jid to;
+        @Nullable private final Jid from;
+        @Nonnull private final String childElementXml;
+
+        private Key(@Nonnull final IQ request) {
+            this.requestClass = request.getClass();
+            this.to = request.getTo();
+            this.from = request.getFrom();
+            this.childElementXml = request.getChildElementXML().toString();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return requestClass == key.requestClass
+                    && Objects.equals(to, key.to)
+                    && Objects.equals(from, key.from)
+                    && childElementXml.equals(key.childElementXml);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(requestClass, to, from, childElementXml);
+        }
+    }
+
+}
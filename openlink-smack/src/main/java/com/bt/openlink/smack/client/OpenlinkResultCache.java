@@ -0,0 +1,387 @@
+package com.bt.openlink.smack.client;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.SmackException;
+import org.jivesoftware.smack.StanzaListener;
+import org.jivesoftware.smack.XMPPConnection;
+import org.jivesoftware.smack.filter.StanzaExtensionFilter;
+import org.jivesoftware.smack.filter.StanzaTypeFilter;
+import org.jivesoftware.smack.packet.ExtensionElement;
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.packet.Stanza;
+import org.jxmpp.jid.Jid;
+
+import com.bt.openlink.smack.iq.GetFeaturesRequest;
+import com.bt.openlink.smack.iq.GetFeaturesResult;
+import com.bt.openlink.smack.iq.GetInterestRequest;
+import com.bt.openlink.smack.iq.GetInterestResult;
+import com.bt.openlink.smack.iq.GetInterestsRequest;
+import com.bt.openlink.smack.iq.GetInterestsResult;
+import com.bt.openlink.smack.iq.GetProfileRequest;
+import com.bt.openlink.smack.iq.GetProfileResult;
+import com.bt.openlink.smack.iq.GetProfilesRequest;
+import com.bt.openlink.smack.iq.GetProfilesResult;
+import com.bt.openlink.smack.iq.SetFeaturesRequest;
+import com.bt.openlink.smack.message.DeviceStatusEvent;
+import com.bt.openlink.smack.message.OpenlinkPubSubEvent;
+import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.InterestId;
+import com.bt.openlink.type.Profile;
+import com.bt.openlink.type.ProfileId;
+
+/**
+ * Sends get-profiles, get-profile, get-interests, get-interest and get-features requests, remembering each result so
+ * that an identical request - one to the same server for the same JID, profile or interest - is answered without
+ * contacting the server. A result is forgotten once its time to live has passed, or when the cache is full and it is
+ * the least recently used.
+ * <p>
+ * Whilst the cache is open it also forgets the results for a profile whenever a device status event for that profile
+ * is received, or a set-features request for that profile is sent, on the connection. The profiles forgotten are those
+ * identified by the request or, for get-profiles, those in the result; a get-interest result identifies no profile, so
+ * is only forgotten once its time to live has passed. An event or request that identifies no profile forgets every
+ * result.
+ * <p>
+ * Only successful results are remembered. A result is not remembered if one of its profiles, or every result, was
+ * forgotten after its request was sent, as it may have been generated before the change.
+ * <p>
+ * Each caller is given its own copy of a remembered result, so changing one does not change the result remembered.
+ */
+public class OpenlinkResultCache implements AutoCloseable {
+
+    @Nonnull private final XMPPConnection connection;
+    @Nonnull private final Duration timeToLive;
+    @Nonnull private final Clock clock;
+    @Nonnull private final Map<Key, Entry> entries;
+    @Nonnull private final StanzaListener eventListener = this::processEvent;
+    @Nonnull private final StanzaListener setFeaturesListener = this::processSetFeaturesRequest;
+    @Nonnull private final Map<ProfileId, Long> profileInvalidatedAt = new HashMap<>();
+    private long invalidationCount;
+    private long allInvalidatedAt;
+    private int requestsInFlight;
+
+    /**
+     * Creates a cache and starts listening for changes on the connection.
+     *
+     * @param connection
+     *            the connection to send the requests on
+     * @param timeToLive
+     *            how long a result is remembered for
+     * @param maximumSize
+     *            the maximum number of results remembered
+     */
+    public OpenlinkResultCache(@Nonnull final XMPPConnection connection, @Nonnull final Duration timeToLive, final int maximumSize) {
+        this(connection, timeToLive, maximumSize, Clock.systemUTC());
+    }
+
+    OpenlinkResultCache(@Nonnull final XMPPConnection connection, @Nonnull final Duration timeToLive, final int maximumSize, @Nonnull final Clock clock) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("The time to live must be positive");
+        }
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("At least one result must be cached");
+        }
+        this.connection = connection;
+        this.timeToLive = timeToLive;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                return size() > maximumSize;
+            }
+        };
+        connection.addSyncStanzaListener(eventListener, new StanzaExtensionFilter(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE));
+        connection.addPacketSendingListener(setFeaturesListener, new StanzaTypeFilter(SetFeaturesRequest.class));
+    }
+
+    /**
+     * @param request
+     *            the request to send
+     * @return the result of the request, completed immediately if it is cached
+     */
+    @Nonnull
+    public CompletableFuture<GetProfilesResult> getProfiles(@Nonnull final GetProfilesRequest request) {
+        final Key key = new Key(GetProfilesRequest.class, request.getTo(), request.getJID().orElse(null), null, null);
+        return get(key, request, GetProfilesResult.class, GetProfilesResult::copy, OpenlinkResultCache::getProfileIds);
+    }
+
+    /**
+     * @param request
+     *            the request to send
+     * @return the result of the request, completed immediately if it is cached
+     */
+    @Nonnull
+    public CompletableFuture<GetProfileResult> getProfile(@Nonnull final GetProfileRequest request) {
+        final ProfileId profileId = request.getProfileId().orElse(null);
+        final Key key = new Key(GetProfileRequest.class, request.getTo(), null, profileId, null);
+        return get(key, request, GetProfileResult.class, GetProfileResult::copy, result -> toSet(profileId));
+    }
+
+    /**
+     * @param request
+     *            the request to send
+     * @return the result of the request, completed immediately if it is cached
+     */
+    @Nonnull
+    public CompletableFuture<GetInterestsResult> getInterests(@Nonnull final GetInterestsRequest request) {
+        final ProfileId profileId = request.getProfileId().orElse(null);
+        final Key key = new Key(GetInterestsRequest.class, request.getTo(), null, profileId, null);
+        return get(key, request, GetInterestsResult.class, GetInterestsResult::copy, result -> toSet(profileId));
+    }
+
+    /**
+     * @param request
+     *            the request to send
+     * @return the result of the request, completed immediately if it is cached
+     */
+    @Nonnull
+    public CompletableFuture<GetInterestResult> getInterest(@Nonnull final GetInterestRequest request) {
+        final Key key = new Key(GetInterestRequest.class, request.getTo(), null, null, request.getInterestId().orElse(null));
+        return get(key, request, GetInterestResult.class, GetInterestResult::copy, result -> Collections.emptySet());
+    }
+
+    /**
+     * @param request
+     *            the request to send
+     * @return the result of the request, completed immediately if it is cached
+     */
+    @Nonnull
+    public CompletableFuture<GetFeaturesResult> getFeatures(@Nonnull final GetFeaturesRequest request) {
+        final ProfileId profileId = request.getProfileId().orElse(null);
+        final Key key = new Key(GetFeaturesRequest.class, request.getTo(), null, profileId, null);
+        return get(key, request, GetFeaturesResult.class, GetFeaturesResult::copy, result -> toSet(profileId));
+    }
+
+    /**
+     * Forgets every result for a profile.
+     *
+     * @param profileId
+     *            the profile that has changed
+     */
+    public void invalidate(@Nonnull final ProfileId profileId) {
+        synchronized (entries) {
+            invalidationCount++;
+            if (requestsInFlight > 0) {
+                profileInvalidatedAt.put(profileId, invalidationCount);
+            }
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().profileIds.contains(profileId)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets every result.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidationCount++;
+            allInvalidatedAt = invalidationCount;
+            profileInvalidatedAt.clear();
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the number of results remembered, including any whose time to live has passed but are yet to be removed
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Stops listening for changes on the connection. Results are still returned from the cache until their time to
+     * live has passed.
+     */
+    @Override
+    public void close() {
+        connection.removeSyncStanzaListener(eventListener);
+        connection.removePacketSendingListener(setFeaturesListener);
+    }
+
+    @Nonnull
+    private <R extends IQ> CompletableFuture<R> get(@Nonnull final Key key, @Nonnull final IQ request, @Nonnull final Class<R> resultClass, @Nonnull final UnaryOperator<R> copy, @Nonnull final Function<R, Set<ProfileId>> profileIds) {
+        final long requestInvalidationCount;
+        synchronized (entries) {
+            final Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt.isAfter(clock.instant())) {
+                    return CompletableFuture.completedFuture(copy.apply(resultClass.cast(entry.result)));
+                }
+                entries.remove(key);
+            }
+            requestInvalidationCount = invalidationCount;
+            requestsInFlight++;
+        }
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            connection.sendIqWithResponseCallback(request, response -> {
+                if (resultClass.isInstance(response)) {
+                    final R result = resultClass.cast(response);
+                    put(key, copy.apply(result), profileIds.apply(result), requestInvalidationCount);
+                    future.complete(result);
+                } else {
+                    requestCompleted();
+                    future.completeExceptionally(new IllegalStateException("Unexpected response to " + request.getChildElementName() + " request: " + response));
+                }
+            }, e -> {
+                requestCompleted();
+                future.completeExceptionally(e);
+            }, connection.getReplyTimeout());
+        } catch (final SmackException.NotConnectedException e) {
+            requestCompleted();
+            future.completeExceptionally(e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            requestCompleted();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private void put(@Nonnull final Key key, @Nonnull final IQ result, @Nonnull final Set<ProfileId> profileIds, final long requestInvalidationCount) {
+        synchronized (entries) {
+            if (!isInvalidatedSince(profileIds, requestInvalidationCount)) {
+                entries.put(key, new Entry(result, profileIds, clock.instant().plus(timeToLive)));
+            }
+            requestCompleted();
+        }
+    }
+
+    private boolean isInvalidatedSince(@Nonnull final Set<ProfileId> profileIds, final long requestInvalidationCount) {
+        if (allInvalidatedAt > requestInvalidationCount) {
+            return true;
+        }
+        for (final ProfileId profileId : profileIds) {
+            final Long invalidatedAt = profileInvalidatedAt.get(profileId);
+            if (invalidatedAt != null && invalidatedAt > requestInvalidationCount) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void requestCompleted() {
+        synchronized (entries) {
+            // Invalidations only matter to the requests in flight when they happened
+            if (--requestsInFlight == 0) {
+                profileInvalidatedAt.clear();
+            }
+        }
+    }
+
+    private void processEvent(@Nonnull final Stanza stanza) {
+        final ExtensionElement event = stanza.getExtension(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE);
+        if (event instanceof DeviceStatusEvent) {
+            ((DeviceStatusEvent) event).getDeviceStatus().ifPresent(this::invalidate);
+        }
+    }
+
+    private void invalidate(@Nonnull final DeviceStatus deviceStatus) {
+        final Optional<ProfileId> profileId = deviceStatus.getProfileId();
+        if (profileId.isPresent()) {
+            invalidate(profileId.get());
+        } else {
+            invalidateAll();
+        }
+    }
+
+    private void processSetFeaturesRequest(@Nonnull final Stanza stanza) {
+        final Optional<ProfileId> profileId = ((SetFeaturesRequest) stanza).getProfileId();
+        if (profileId.isPresent()) {
+            invalidate(profileId.get());
+        } else {
+            invalidateAll();
+        }
+    }
+
+    @Nonnull
+    private static Set<ProfileId> getProfileIds(@Nonnull final GetProfilesResult result) {
+        final Set<ProfileId> profileIds = new HashSet<>();
+        for (final Profile profile : result.getProfiles()) {
+            profile.getId().ifPresent(profileIds::add);
+        }
+        return profileIds;
+    }
+
+    @Nonnull
+    private static Set<ProfileId> toSet(@Nullable final ProfileId profileId) {
+        return profileId == null ? Collections.emptySet() : Collections.singleton(profileId);
+    }
+
+    private static final class Key {
+
+        @Nonnull private final Class<? extends IQ> requestClass;
+        @Nullable private final Jid to;
+        @Nullable private final Jid jid;
+        @Nullable private final ProfileId profileId;
+        @Nullable private final InterestId interestId;
+
+        private Key(@Nonnull final Class<? extends IQ> requestClass, @Nullable final Jid to, @Nullable final Jid jid, @Nullable final ProfileId profileId, @Nullable final InterestId interestId) {
+            this.requestClass = requestClass;
+            this.to = to;
+            this.jid = jid;
+            this.profileId = profileId;
+            this.interestId = interestId;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return requestClass == key.requestClass
+                    && Objects.equals(to, key.to)
+                    && Objects.equals(jid, key.jid)
+                    && Objects.equals(profileId, key.profileId)
+                    && Objects.equals(interestId, key.interestId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(requestClass, to, jid, profileId, interestId);
+        }
+    }
+
+    private static final class Entry {
+
+        @Nonnull private final IQ result;
+        @Nonnull private final Set<ProfileId> profileIds;
+        @Nonnull private final Instant expiresAt;
+
+        private Entry(@Nonnull final IQ result, @Nonnull final Set<ProfileId> profileIds, @Nonnull final Instant expiresAt) {
+            this.result = result;
+            this.profileIds = profileIds;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -1,26 +1,18 @@
 package com.bt.openlink.smack.internal;
 
 import java.io.IOException;
-import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.TimeZone;
-import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import org.jivesoftware.smack.packet.IQ;
-import org.jivesoftware.smack.packet.IQ.IQChildElementXmlStringBuilder;
 import org.jivesoftware.smack.util.ParserUtils;
 import org.jivesoftware.smack.util.XmlStringBuilder;
 import org.jxmpp.jid.Jid;
@@ -30,6 +22,9 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
+import com.bt.openlink.internal.TimestampCodec;
 import com.bt.openlink.iq.IQBuilder;
 import com.bt.openlink.type.Call;
 import com.bt.openlink.type.CallDirection;
@@ -73,8 +68,6 @@ import com.bt.openlink.type.VoiceRecorderInfo;
 
 public final class SmackPacketUtil {
 
-    public static final DateTimeFormatter ISO_8601_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-    private static final DateTimeFormatter JAVA_UTIL_DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy");
     private static final String ATTRIBUTE_NUMBER = "number";
     private static final String ATTRIBUTE_DESTINATION = "destination";
     private static final String ATTRIBUTE_DIRECTION = "direction";
@@ -193,7 +186,7 @@ public final class SmackPacketUtil {
         }
     }
 
-    public static void addDeviceStatus(@Nonnull final IQChildElementXmlStringBuilder xml, @Nonnull final DeviceStatus deviceStatus) {
+    public static void addDeviceStatus(@Nonnull final XmlStringBuilder xml, @Nonnull final DeviceStatus deviceStatus) {
         final XmlStringBuilder deviceStatusElement = xml.halfOpenElement(ELEMENT_DEVICESTATUS)
                 .attribute(ATTRIBUTE_XMLNS, OpenlinkXmppNamespace.OPENLINK_DEVICE_STATUS.uri());
         xml.rightAngleBracket();
@@ -238,7 +231,7 @@ public final class SmackPacketUtil {
         voiceMessage.getExtension().ifPresent(extension -> voiceMessageElement.element(ELEMENT_EXTENSION, extension.value()));
         voiceMessage.getMessageLength().ifPresent(msgLength -> voiceMessageElement.element(ELEMENT_MESSAGE_LENGTH, formatVoiceMessageLength(msgLength)));
 
-        voiceMessage.getCreationDate().ifPresent(creationDate -> voiceMessageElement.element(ELEMENT_CREATION_DATE, Timestamp.from(creationDate).toString()));
+        voiceMessage.getCreationDate().ifPresent(creationDate -> voiceMessageElement.element(ELEMENT_CREATION_DATE, TimestampCodec.formatSqlTimestamp(creationDate)));
 
         voiceMessageElement.closeElement(ELEMENT_VOICE_MESSAGE);
     }
@@ -247,207 +240,372 @@ public final class SmackPacketUtil {
         return Float.toString(duration.toMillis() / 1000f);
     }
 
-    public static void addCallStatus(@Nonnull final IQChildElementXmlStringBuilder xml, @Nonnull final CallStatus callStatus) {
+    /**
+     * Adds a callstatus element. This is called for every call status event, so it avoids the capturing lambdas and
+     * streams used elsewhere; each optional value is unwrapped once and null-checked instead.
+     */
+    public static void addCallStatus(@Nonnull final XmlStringBuilder xml, @Nonnull final CallStatus callStatus) {
         xml.halfOpenElement(ELEMENT_CALLSTATUS)
                 .attribute(ATTRIBUTE_XMLNS, "http://xmpp.org/protocol/openlink:01:00:00#call-status");
-        callStatus.isCallStatusBusy().ifPresent(callStatusBusy -> xml.attribute("busy", String.valueOf(callStatusBusy)));
-        callStatus.getCallForward().ifPresent(callForward -> xml.attribute("fwd", callForward.value()));
+        final Boolean callStatusBusy = callStatus.isCallStatusBusy().orElse(null);
+        if (callStatusBusy != null) {
+            xml.attribute("busy", String.valueOf(callStatusBusy));
+        }
+        final PhoneNumber callForward = callStatus.getCallForward().orElse(null);
+        if (callForward != null) {
+            xml.attribute("fwd", callForward.value());
+        }
         xml.rightAngleBracket();
-        for (final Call call : callStatus.getCalls()) {
-            xml.openElement("call");
-            xml.halfOpenElement(ATTRIBUTE_ID);
-            call.getTelephonyCallId().ifPresent(telephonyCallId -> xml.attribute("telephony", telephonyCallId.value()));
-            xml.rightAngleBracket();
-            call.getId().ifPresent(id -> xml.escape(id.value()));
-            xml.closeElement(ATTRIBUTE_ID);
-            call.getConferenceId().ifPresent(conferenceId -> xml.element("conference", conferenceId.value()));
-            call.getSite().ifPresent(site -> addSiteXML(xml, site));
-            call.getProfileId().ifPresent(profileId -> {
-                final XmlStringBuilder profileElement = xml.halfOpenElement(ELEMENT_PROFILE);
-                call.getDeviceId().ifPresent(deviceId -> profileElement.attribute(ATTRIBUTE_DEVICENUM, deviceId.value()));
-                xml.rightAngleBracket();
-                profileElement.escape(profileId.value());
-                xml.closeElement(ELEMENT_PROFILE);
-            });
-            call.getUserId().ifPresent(userId -> xml.element("user", userId.value()));
-            call.getInterestId().ifPresent(interestId -> xml.element("interest", interestId.value()));
-            call.getChanged().ifPresent(changed -> xml.element("changed", changed.getId()));
-            call.getState().ifPresent(changed -> xml.element("state", changed.getLabel()));
-            call.getDirection().ifPresent(changed -> xml.element(ATTRIBUTE_DIRECTION, changed.getLabel()));
-            addCallerDetails(xml, call);
-            addCalledDetails(xml, call);
-            addOriginatorReferences(xml, call.getOriginatorReferences());
-            call.getStartTime().ifPresent(startTime -> xml.element(ATTRIBUTE_START_TIME, (ISO_8601_FORMATTER.format(startTime.atZone(ZoneOffset.UTC)))));
-            call.getDuration().ifPresent(duration -> xml.element(ATTRIBUTE_DURATION, String.valueOf(duration.toMillis())));
-            addActions(xml, call);
-            addFeatures(xml, call);
-            addParticipants(xml, call);
-            xml.closeElement("call");
+        final List<Call> calls = callStatus.getCalls();
+        for (int i = 0; i < calls.size(); i++) {
+            addCall(xml, calls.get(i));
         }
         xml.closeElement(ELEMENT_CALLSTATUS);
     }
 
-    private static void addParticipants(@Nonnull final IQChildElementXmlStringBuilder xml, @Nonnull final Call call) {
+    private static void addCall(@Nonnull final XmlStringBuilder xml, @Nonnull final Call call) {
+        xml.openElement("call");
+        xml.halfOpenElement(ATTRIBUTE_ID);
+        final TelephonyCallId telephonyCallId = call.getTelephonyCallId().orElse(null);
+        if (telephonyCallId != null) {
+            xml.attribute("telephony", telephonyCallId.value());
+        }
+        xml.rightAngleBracket();
+        final CallId callId = call.getId().orElse(null);
+        if (callId != null) {
+            xml.escape(callId.value());
+        }
+        xml.closeElement(ATTRIBUTE_ID);
+        final ConferenceId conferenceId = call.getConferenceId().orElse(null);
+        if (conferenceId != null) {
+            xml.element("conference", conferenceId.value());
+        }
+        final Site site = call.getSite().orElse(null);
+        if (site != null) {
+            addSiteXML(xml, site);
+        }
+        final ProfileId profileId = call.getProfileId().orElse(null);
+        if (profileId != null) {
+            xml.halfOpenElement(ELEMENT_PROFILE);
+            final DeviceId deviceId = call.getDeviceId().orElse(null);
+            if (deviceId != null) {
+                xml.attribute(ATTRIBUTE_DEVICENUM, deviceId.value());
+            }
+            xml.rightAngleBracket();
+            xml.escape(profileId.value());
+            xml.closeElement(ELEMENT_PROFILE);
+        }
+        final UserId userId = call.getUserId().orElse(null);
+        if (userId != null) {
+            xml.element("user", userId.value());
+        }
+        final InterestId interestId = call.getInterestId().orElse(null);
+        if (interestId != null) {
+            xml.element("interest", interestId.value());
+        }
+        final Changed changed = call.getChanged().orElse(null);
+        if (changed != null) {
+            xml.element("changed", changed.getId());
+        }
+        final CallState state = call.getState().orElse(null);
+        if (state != null) {
+            xml.element("state", state.getLabel());
+        }
+        final CallDirection direction = call.getDirection().orElse(null);
+        if (direction != null) {
+            xml.element(ATTRIBUTE_DIRECTION, direction.getLabel());
+        }
+        addCallerDetails(xml, call);
+        addCalledDetails(xml, call);
+        addOriginatorReferences(xml, call.getOriginatorReferences());
+        final Instant startTime = call.getStartTime().orElse(null);
+        if (startTime != null) {
+            xml.element(ATTRIBUTE_START_TIME, TimestampCodec.formatISO8601(startTime));
+        }
+        final Duration duration = call.getDuration().orElse(null);
+        if (duration != null) {
+            xml.element(ATTRIBUTE_DURATION, String.valueOf(duration.toMillis()));
+        }
+        addActions(xml, call);
+        addFeatures(xml, call);
+        addParticipants(xml, call);
+        xml.closeElement("call");
+    }
+
+    private static void addParticipants(@Nonnull final XmlStringBuilder xml, @Nonnull final Call call) {
         final List<Participant> participants = call.getParticipants();
         if (!participants.isEmpty()) {
             xml.openElement(ELEMENT_PARTICIPANTS);
-            participants.forEach(participant -> {
-                xml.halfOpenElement(ELEMENT_PARTICIPANT);
-                participant.getJID().ifPresent(jid -> xml.attribute("jid", jid));
-                participant.getNumber().ifPresent(number -> xml.attribute(ATTRIBUTE_NUMBER, number.value()));
-                participant.getDestinationNumber().ifPresent(destination -> xml.attribute(ATTRIBUTE_DESTINATION, destination.value()));
-                xml.optAttribute("e164Number", joinList(participant.getE164Numbers()));
-                participant.getType().ifPresent(type -> xml.attribute("type", type.getId()));
-                participant.getParticipantCategory().ifPresent(category -> xml.attribute("category", category.getId()));
-                participant.getDirection().ifPresent(direction -> xml.attribute(ATTRIBUTE_DIRECTION, direction.getLabel()));
-                participant.getStartTime().ifPresent(startTime -> {
-                    final ZonedDateTime startTimeInUTC = startTime.atZone(TimeZone.getTimeZone("UTC").toZoneId());
-                    xml.attribute(ATTRIBUTE_START_TIME, ISO_8601_FORMATTER.format(startTimeInUTC));
-                    xml.attribute(ATTRIBUTE_TIMESTAMP, JAVA_UTIL_DATE_FORMATTER.format(startTimeInUTC));
-                });
-                participant.getDuration().ifPresent(duration -> xml.attribute(ATTRIBUTE_DURATION, String.valueOf(duration.toMillis())));
-                xml.rightAngleBracket();
-                xml.closeElement(ELEMENT_PARTICIPANT);
-            });
+            for (int i = 0; i < participants.size(); i++) {
+                addParticipant(xml, participants.get(i));
+            }
             xml.closeElement(ELEMENT_PARTICIPANTS);
         }
     }
 
-    private static void addCalledDetails(@Nonnull final IQChildElementXmlStringBuilder xml, @Nonnull final Call call) {
+    private static void addParticipant(@Nonnull final XmlStringBuilder xml, @Nonnull final Participant participant) {
+        xml.halfOpenElement(ELEMENT_PARTICIPANT);
+        final String jid = participant.getJID().orElse(null);
+        if (jid != null) {
+            xml.attribute("jid", jid);
+        }
+        final PhoneNumber number = participant.getNumber().orElse(null);
+        if (number != null) {
+            xml.attribute(ATTRIBUTE_NUMBER, number.value());
+        }
+        final PhoneNumber destination = participant.getDestinationNumber().orElse(null);
+        if (destination != null) {
+            xml.attribute(ATTRIBUTE_DESTINATION, destination.value());
+        }
+        xml.optAttribute("e164Number", joinList(participant.getE164Numbers()));
+        final ParticipantType type = participant.getType().orElse(null);
+        if (type != null) {
+            xml.attribute("type", type.getId());
+        }
+        final ParticipantCategory category = participant.getParticipantCategory().orElse(null);
+        if (category != null) {
+            xml.attribute("category", category.getId());
+        }
+        final CallDirection direction = participant.getDirection().orElse(null);
+        if (direction != null) {
+            xml.attribute(ATTRIBUTE_DIRECTION, direction.getLabel());
+        }
+        final Instant startTime = participant.getStartTime().orElse(null);
+        if (startTime != null) {
+            xml.attribute(ATTRIBUTE_START_TIME, TimestampCodec.formatISO8601(startTime));
+            xml.attribute(ATTRIBUTE_TIMESTAMP, TimestampCodec.formatJavaUtilDate(startTime));
+        }
+        final Duration duration = participant.getDuration().orElse(null);
+        if (duration != null) {
+            xml.attribute(ATTRIBUTE_DURATION, String.valueOf(duration.toMillis()));
+        }
+        xml.rightAngleBracket();
+        xml.closeElement(ELEMENT_PARTICIPANT);
+    }
+
+    private static void addCalledDetails(@Nonnull final XmlStringBuilder xml, @Nonnull final Call call) {
         xml.openElement(ELEMENT_CALLED);
         xml.halfOpenElement(ELEMENT_NUMBER);
-        call.getCalledDestination().ifPresent(destination -> xml.attribute(ATTRIBUTE_DESTINATION, destination.value()));
+        final PhoneNumber destination = call.getCalledDestination().orElse(null);
+        if (destination != null) {
+            xml.attribute(ATTRIBUTE_DESTINATION, destination.value());
+        }
         xml.optAttribute("e164", joinList(call.getCalledE164Numbers()));
         xml.rightAngleBracket();
-        call.getCalledNumber().ifPresent(calledNumber -> xml.escape(calledNumber.value()));
+        final PhoneNumber calledNumber = call.getCalledNumber().orElse(null);
+        if (calledNumber != null) {
+            xml.escape(calledNumber.value());
+        }
         xml.closeElement(ELEMENT_NUMBER);
-        call.getCalledName().ifPresent(callerName -> xml.element(ELEMENT_NAME, callerName));
+        final String calledName = call.getCalledName().orElse(null);
+        if (calledName != null) {
+            xml.element(ELEMENT_NAME, calledName);
+        }
         xml.closeElement(ELEMENT_CALLED);
     }
 
     @Nullable
     private static String joinList(@Nonnull final List<?> numbers) {
-        if (numbers.isEmpty()) {
+        final int size = numbers.size();
+        if (size == 0) {
             return null;
+        } else if (size == 1) {
+            return numbers.get(0).toString();
         } else {
-            return numbers.stream().map(Object::toString).collect(Collectors.joining(","));
+            final StringBuilder joined = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    joined.append(',');
+                }
+                joined.append(numbers.get(i));
+            }
+            return joined.toString();
         }
     }
 
-    private static void addCallerDetails(@Nonnull final IQChildElementXmlStringBuilder xml, @Nonnull final Call call) {
+    private static void addCallerDetails(@Nonnull final XmlStringBuilder xml, @Nonnull final Call call) {
         xml.openElement(ELEMENT_CALLER);
         xml.halfOpenElement(ELEMENT_NUMBER);
         xml.optAttribute("e164", joinList(call.getCallerE164Numbers()));
         xml.rightAngleBracket();
-        call.getCallerNumber().ifPresent(callerNumber -> xml.escape(callerNumber.value()));
+        final PhoneNumber callerNumber = call.getCallerNumber().orElse(null);
+        if (callerNumber != null) {
+            xml.escape(callerNumber.value());
+        }
         xml.closeElement(ELEMENT_NUMBER);
-        call.getCallerName().ifPresent(callerName -> xml.element(ELEMENT_NAME, callerName));
+        final String callerName = call.getCallerName().orElse(null);
+        if (callerName != null) {
+            xml.element(ELEMENT_NAME, callerName);
+        }
         xml.closeElement(ELEMENT_CALLER);
     }
 
-    public static void addOriginatorReferences(@Nonnull final IQChildElementXmlStringBuilder xml, @Nonnull final List<OriginatorReference> originatorReferences) {
+    public static void addOriginatorReferences(@Nonnull final XmlStringBuilder xml, @Nonnull final List<OriginatorReference> originatorReferences) {
         if (!originatorReferences.isEmpty()) {
             xml.openElement(ELEMENT_ORIGINATOR_REF);
-            originatorReferences.forEach(originatorReference -> {
+            for (int i = 0; i < originatorReferences.size(); i++) {
+                final OriginatorReference originatorReference = originatorReferences.get(i);
                 xml.halfOpenElement(ELEMENT_PROPERTY).attribute(ATTRIBUTE_ID, originatorReference.getKey()).rightAngleBracket();
                 xml.element("value", originatorReference.getValue());
                 xml.closeElement(ELEMENT_PROPERTY);
-            });
+            }
             xml.closeElement(ELEMENT_ORIGINATOR_REF);
         }
     }
 
-    private static void addActions(@Nonnull final IQChildElementXmlStringBuilder xml, @Nonnull final Call call) {
-        final Collection<RequestAction> actions = call.getActions();
+    private static void addActions(@Nonnull final XmlStringBuilder xml, @Nonnull final Call call) {
+        final List<RequestAction> actions = call.getActions();
         xml.openElement(ELEMENT_ACTIONS);
-        if (!actions.isEmpty()) {
-            actions.forEach(action -> {
-                xml.halfOpenElement(action.getId()).rightAngleBracket();
-                xml.closeElement(action.getId());
-            });
+        for (int i = 0; i < actions.size(); i++) {
+            final String actionId = actions.get(i).getId();
+            xml.halfOpenElement(actionId).rightAngleBracket();
+            xml.closeElement(actionId);
         }
         xml.closeElement(ELEMENT_ACTIONS);
     }
 
-    public static void addSiteXML(@Nonnull final IQChildElementXmlStringBuilder xml, @Nonnull final Site site) {
+    public static void addSiteXML(@Nonnull final XmlStringBuilder xml, @Nonnull final Site site) {
         xml.halfOpenElement("site");
-        site.getId().ifPresent(id -> xml.attribute(ATTRIBUTE_ID, String.valueOf(id)));
-        site.isDefault().ifPresent(isDefault -> xml.attribute(OpenlinkXmppNamespace.TAG_DEFAULT, String.valueOf(isDefault)));
-        site.getType().ifPresent(type -> xml.attribute("type", type.getLabel()));
+        final Long id = site.getId().orElse(null);
+        if (id != null) {
+            xml.attribute(ATTRIBUTE_ID, String.valueOf(id));
+        }
+        final Boolean isDefault = site.isDefault().orElse(null);
+        if (isDefault != null) {
+            xml.attribute(OpenlinkXmppNamespace.TAG_DEFAULT, String.valueOf(isDefault));
+        }
+        final Site.Type type = site.getType().orElse(null);
+        if (type != null) {
+            xml.attribute("type", type.getLabel());
+        }
         xml.rightAngleBracket();
-        site.getName().ifPresent(xml::escape);
+        final String name = site.getName().orElse(null);
+        if (name != null) {
+            xml.escape(name);
+        }
         xml.closeElement("site");
     }
 
-    private static void addFeatures(@Nonnull final IQChildElementXmlStringBuilder xml, @Nonnull final Call call) {
+    private static void addFeatures(@Nonnull final XmlStringBuilder xml, @Nonnull final Call call) {
         final List<CallFeature> features = call.getFeatures();
         if (!features.isEmpty()) {
             xml.openElement(ELEMENT_FEATURES);
-            features.forEach(feature -> {
-                xml.halfOpenElement("feature");
-                feature.getId().ifPresent(id -> xml.attribute(ATTRIBUTE_ID, id.value()));
-                feature.getType().ifPresent(type -> xml.attribute("type", type.getId()));
-                if (feature instanceof CallFeatureBoolean) {
-                    feature.getLabel().ifPresent(label -> xml.attribute(ATTRIBUTE_LABEL, label));
-                    xml.rightAngleBracket();
-                    final CallFeatureBoolean callFeatureBoolean = (CallFeatureBoolean) feature;
-                    callFeatureBoolean.isEnabled().ifPresent(enabled -> xml.escape(String.valueOf(enabled)));
-                } else if (feature instanceof CallFeatureTextValue) {
-                    feature.getLabel().ifPresent(label -> xml.attribute(ATTRIBUTE_LABEL, label));
-                    xml.rightAngleBracket();
-                    final CallFeatureTextValue callFeatureText = (CallFeatureTextValue) feature;
-                    callFeatureText.getValue().ifPresent(xml::escape);
-                } else if (feature instanceof CallFeatureDeviceKey) {
-                    feature.getLabel().ifPresent(label -> xml.attribute(ATTRIBUTE_LABEL, label));
-                    xml.rightAngleBracket();
-                    final CallFeatureDeviceKey callFeatureDeviceKey = (CallFeatureDeviceKey) feature;
-                    xml.halfOpenElement(ELEMENT_DEVICEKEYS);
-                    xml.attribute(ATTRIBUTE_XMLNS, OpenlinkXmppNamespace.OPENLINK_DEVICE_KEY.uri());
-                    xml.rightAngleBracket();
-                    callFeatureDeviceKey.getDeviceKeys().forEach(deviceKey -> xml.element("key", deviceKey.value()));
-                    xml.closeElement(ELEMENT_DEVICEKEYS);
-                } else if (feature instanceof CallFeatureSpeakerChannel) {
-                    xml.rightAngleBracket();
-                    final CallFeatureSpeakerChannel callFeatureSpeakerChannel = (CallFeatureSpeakerChannel) feature;
-                    xml.halfOpenElement(ELEMENT_SPEAKERCHANNEL);
-                    xml.attribute(ATTRIBUTE_XMLNS, OpenlinkXmppNamespace.OPENLINK_SPEAKER_CHANNEL.uri());
-                    xml.rightAngleBracket();
-                    callFeatureSpeakerChannel.getChannel().ifPresent(channel -> xml.element(ELEMENT_CHANNEL, String.valueOf(channel)));
-                    callFeatureSpeakerChannel.isMicrophoneActive().ifPresent(microphone -> xml.element(ELEMENT_MICROPHONE, String.valueOf(microphone)));
-                    callFeatureSpeakerChannel.isMuteRequested().ifPresent(muteRequested -> xml.element(ELEMENT_MUTE, String.valueOf(muteRequested)));
-                    xml.closeElement(ELEMENT_SPEAKERCHANNEL);
-                } else if (feature instanceof CallFeatureVoiceRecorder) {
-                    xml.rightAngleBracket();
-                    final CallFeatureVoiceRecorder callFeatureVoiceRecorder = (CallFeatureVoiceRecorder) feature;
-                    xml.halfOpenElement(ELEMENT_VOICERECORDER);
-                    xml.attribute(ATTRIBUTE_XMLNS, OpenlinkXmppNamespace.OPENLINK_VOICE_RECORDER.uri());
-                    xml.rightAngleBracket();
-
-                    callFeatureVoiceRecorder.getVoiceRecorderInfo()
-                            .ifPresent(voiceRecorderInfo -> {
-                                voiceRecorderInfo.getRecorderNumber().ifPresent(recorderNumber -> xml.element(ELEMENT_RECORDER_NUMBER, recorderNumber.value()));
-                                voiceRecorderInfo.getRecorderPort().ifPresent(recorderPort -> xml.element(ELEMENT_RECORDER_PORT, recorderPort.value()));
-                                voiceRecorderInfo.getRecorderChannel().ifPresent(recorderChannel -> xml.element(ELEMENT_RECORDER_CHANNEL, recorderChannel.value()));
-                                voiceRecorderInfo.getRecorderType().ifPresent(recorderType -> xml.element(ELEMENT_RECORDER_TYPE, recorderType.value()));
-                            });
-
-                    xml.closeElement(ELEMENT_VOICERECORDER);
-                } else if (feature instanceof CallFeatureHandset) {
-                    feature.getLabel().ifPresent(label -> xml.attribute(ATTRIBUTE_LABEL, label));
-                    final CallFeatureHandset callFeatureHandset = (CallFeatureHandset) feature;
-                    callFeatureHandset.isMicrophoneEnabled().ifPresent(microphone -> xml.attribute("microphone", microphone));
-                    xml.rightAngleBracket();
-                    callFeatureHandset.isEnabled().ifPresent(enabled -> xml.escape(String.valueOf(enabled)));
-                } else {
-                    feature.getLabel().ifPresent(label -> xml.attribute(ATTRIBUTE_LABEL, label));
-                    xml.rightAngleBracket();
-                }
-                xml.closeElement("feature");
-            });
+            for (int i = 0; i < features.size(); i++) {
+                addFeature(xml, features.get(i));
+            }
             xml.closeElement(ELEMENT_FEATURES);
         }
     }
 
+    private static void addFeature(@Nonnull final XmlStringBuilder xml, @Nonnull final CallFeature feature) {
+        xml.halfOpenElement("feature");
+        final FeatureId id = feature.getId().orElse(null);
+        if (id != null) {
+            xml.attribute(ATTRIBUTE_ID, id.value());
+        }
+        final FeatureType type = feature.getType().orElse(null);
+        if (type != null) {
+            xml.attribute("type", type.getId());
+        }
+        if (feature instanceof CallFeatureBoolean) {
+            addFeatureLabel(xml, feature);
+            xml.rightAngleBracket();
+            final Boolean enabled = ((CallFeatureBoolean) feature).isEnabled().orElse(null);
+            if (enabled != null) {
+                xml.escape(String.valueOf(enabled));
+            }
+        } else if (feature instanceof CallFeatureTextValue) {
+            addFeatureLabel(xml, feature);
+            xml.rightAngleBracket();
+            final String value = ((CallFeatureTextValue) feature).getValue().orElse(null);
+            if (value != null) {
+                xml.escape(value);
+            }
+        } else if (feature instanceof CallFeatureDeviceKey) {
+            addFeatureLabel(xml, feature);
+            xml.rightAngleBracket();
+            final List<DeviceKey> deviceKeys = ((CallFeatureDeviceKey) feature).getDeviceKeys();
+            xml.halfOpenElement(ELEMENT_DEVICEKEYS);
+            xml.attribute(ATTRIBUTE_XMLNS, OpenlinkXmppNamespace.OPENLINK_DEVICE_KEY.uri());
+            xml.rightAngleBracket();
+            for (int i = 0; i < deviceKeys.size(); i++) {
+                xml.element("key", deviceKeys.get(i).value());
+            }
+            xml.closeElement(ELEMENT_DEVICEKEYS);
+        } else if (feature instanceof CallFeatureSpeakerChannel) {
+            xml.rightAngleBracket();
+            final CallFeatureSpeakerChannel callFeatureSpeakerChannel = (CallFeatureSpeakerChannel) feature;
+            xml.halfOpenElement(ELEMENT_SPEAKERCHANNEL);
+            xml.attribute(ATTRIBUTE_XMLNS, OpenlinkXmppNamespace.OPENLINK_SPEAKER_CHANNEL.uri());
+            xml.rightAngleBracket();
+            final Long channel = callFeatureSpeakerChannel.getChannel().orElse(null);
+            if (channel != null) {
+                xml.element(ELEMENT_CHANNEL, String.valueOf(channel));
+            }
+            final Boolean microphone = callFeatureSpeakerChannel.isMicrophoneActive().orElse(null);
+            if (microphone != null) {
+                xml.element(ELEMENT_MICROPHONE, String.valueOf(microphone));
+            }
+            final Boolean muteRequested = callFeatureSpeakerChannel.isMuteRequested().orElse(null);
+            if (muteRequested != null) {
+                xml.element(ELEMENT_MUTE, String.valueOf(muteRequested));
+            }
+            xml.closeElement(ELEMENT_SPEAKERCHANNEL);
+        } else if (feature instanceof CallFeatureVoiceRecorder) {
+            xml.rightAngleBracket();
+            xml.halfOpenElement(ELEMENT_VOICERECORDER);
+            xml.attribute(ATTRIBUTE_XMLNS, OpenlinkXmppNamespace.OPENLINK_VOICE_RECORDER.uri());
+            xml.rightAngleBracket();
+            final VoiceRecorderInfo voiceRecorderInfo = ((CallFeatureVoiceRecorder) feature).getVoiceRecorderInfo().orElse(null);
+            if (voiceRecorderInfo != null) {
+                addVoiceRecorderInfo(xml, voiceRecorderInfo);
+            }
+            xml.closeElement(ELEMENT_VOICERECORDER);
+        } else if (feature instanceof CallFeatureHandset) {
+            addFeatureLabel(xml, feature);
+            final CallFeatureHandset callFeatureHandset = (CallFeatureHandset) feature;
+            final Boolean microphone = callFeatureHandset.isMicrophoneEnabled().orElse(null);
+            if (microphone != null) {
+                xml.attribute("microphone", microphone.booleanValue());
+            }
+            xml.rightAngleBracket();
+            final Boolean enabled = callFeatureHandset.isEnabled().orElse(null);
+            if (enabled != null) {
+                xml.escape(String.valueOf(enabled));
+            }
+        } else {
+            addFeatureLabel(xml, feature);
+            xml.rightAngleBracket();
+        }
+        xml.closeElement("feature");
+    }
+
+    private static void addFeatureLabel(@Nonnull final XmlStringBuilder xml, @Nonnull final CallFeature feature) {
+        final String label = feature.getLabel().orElse(null);
+        if (label != null) {
+            xml.attribute(ATTRIBUTE_LABEL, label);
+        }
+    }
+
+    private static void addVoiceRecorderInfo(@Nonnull final XmlStringBuilder xml, @Nonnull final VoiceRecorderInfo voiceRecorderInfo) {
+        final RecorderNumber recorderNumber = voiceRecorderInfo.getRecorderNumber().orElse(null);
+        if (recorderNumber != null) {
+            xml.element(ELEMENT_RECORDER_NUMBER, recorderNumber.value());
+        }
+        final RecorderPort recorderPort = voiceRecorderInfo.getRecorderPort().orElse(null);
+        if (recorderPort != null) {
+            xml.element(ELEMENT_RECORDER_PORT, recorderPort.value());
+        }
+        final RecorderChannel recorderChannel = voiceRecorderInfo.getRecorderChannel().orElse(null);
+        if (recorderChannel != null) {
+            xml.element(ELEMENT_RECORDER_CHANNEL, recorderChannel.value());
+        }
+        final RecorderType recorderType = voiceRecorderInfo.getRecorderType().orElse(null);
+        if (recorderType != null) {
+            xml.element(ELEMENT_RECORDER_TYPE, recorderType.value());
+        }
+    }
+
     public static Optional<DeviceStatus> getDeviceStatus(
             @Nonnull final XmlPullParser parser,
             @Nonnull final List<String> errors) throws IOException, XmlPullParserException {
@@ -466,7 +624,10 @@ public final class SmackPacketUtil {
         while (parser.getDepth() > inDepth) {
             switch (parser.getName()) {
             case ELEMENT_PROFILE:
-                getElementTextString(parser).flatMap(ProfileId::from).ifPresent(deviceStatusBuilder::setProfileId);
+                // Device status events carry these attributes on the profile element
+                getBooleanAttribute(parser, ATTRIBUTE_ONLINE, ATTRIBUTE_ONLINE, errors).ifPresent(deviceStatusBuilder::setOnline);
+                getStringAttribute(parser, ATTRIBUTE_DEVICENUM).flatMap(DeviceId::from).ifPresent(deviceStatusBuilder::setDeviceId);
+                getElementTextString(parser).map(String::trim).flatMap(ProfileId::from).ifPresent(deviceStatusBuilder::setProfileId);
                 break;
             case ELEMENT_FEATURES:
                 addDeviceStatusFeaturesToBuilder(parser, deviceStatusBuilder, errors);
@@ -475,7 +636,7 @@ public final class SmackPacketUtil {
                 //ignore
                 break;
             default:
-                errors.add("Unrecognised tag: " + parser.getName());
+                ParseErrors.report(errors, ParseError.Code.UNRECOGNISED_TAG, parser.getName(), parser.getName());
                 break;
             }
 
@@ -504,7 +665,7 @@ public final class SmackPacketUtil {
                 if (ELEMENT_VOICE_MESSAGE.equals(parser.getName())) {
                     addVoiceMessagesToBuilder(parser, voiceMessageFeatureBuilder, errors);
                 } else {
-                    errors.add("Unrecognised tag: " + parser.getName());
+                    ParseErrors.report(errors, ParseError.Code.UNRECOGNISED_TAG, parser.getName(), parser.getName());
                 }
 
                 deviceStatusBuilder.addFeature(voiceMessageFeatureBuilder.build(errors));
@@ -555,7 +716,7 @@ public final class SmackPacketUtil {
                     getElementTextString(parser)
                             .flatMap(msgLength -> {
                                 try {
-                                    return Optional.of(Timestamp.valueOf(msgLength).toInstant());
+                                    return Optional.of(TimestampCodec.parseSqlTimestamp(msgLength));
                                 } catch (Exception e) {
                                     return Optional.empty();
                                 }
@@ -569,7 +730,7 @@ public final class SmackPacketUtil {
 
                     break;
                 default:
-                    errors.add("Unrecognised tag: " + parser.getName());
+                    ParseErrors.report(errors, ParseError.Code.UNRECOGNISED_TAG, parser.getName(), parser.getName());
                     break;
                 }
                 ParserUtils.forwardToEndTagOfDepth(parser, callDepth + 1);
@@ -653,7 +814,7 @@ public final class SmackPacketUtil {
                     getParticipants(callBuilder, parser, description, errors);
                     break;
                 default:
-                    errors.add("Unrecognised tag: " + parser.getName());
+                    ParseErrors.report(errors, ParseError.Code.UNRECOGNISED_TAG, parser.getName(), parser.getName());
                     break;
                 }
                 ParserUtils.forwardToEndTagOfDepth(parser, callDepth + 1);
@@ -833,9 +994,9 @@ public final class SmackPacketUtil {
             final List<String> parseErrors) {
         final Optional<String> stringValue = SmackPacketUtil.getStringAttribute(parser, attributeName);
         try {
-            return stringValue.map(string -> Instant.from(JAVA_UTIL_DATE_FORMATTER.parse(string)));
+            return stringValue.map(TimestampCodec::parseJavaUtilDate);
         } catch (final DateTimeParseException ignored) {
-            parseErrors.add(String.format("Invalid %s; invalid %s '%s'; format should be 'dow mon dd hh:mm:ss zzz yyyy'", description, attributeName, stringValue));
+            ParseErrors.report(parseErrors, ParseError.Code.INVALID_JAVA_UTIL_DATE, attributeName, description, attributeName, stringValue);
             return Optional.empty();
         }
     }
@@ -848,9 +1009,9 @@ public final class SmackPacketUtil {
 
         final Optional<String> stringValue = SmackPacketUtil.getStringAttribute(parser, attributeName);
         try {
-            return stringValue.map(Instant::parse);
+            return stringValue.map(TimestampCodec::parseISO8601);
         } catch (final DateTimeParseException ignored) {
-            parseErrors.add(String.format("Invalid %s; invalid %s '%s'; format should be compliant with XEP-0082", description, attributeName, stringValue));
+            ParseErrors.report(parseErrors, ParseError.Code.INVALID_ISO_8601_TIMESTAMP, attributeName, description, attributeName, stringValue);
             return Optional.empty();
         }
     }
@@ -1026,7 +1187,7 @@ public final class SmackPacketUtil {
                     getElementTextString(parser).flatMap(RecorderType::from).ifPresent(voiceRecorderInfoBuilder::setRecorderType);
                     break;
                 default:
-                    parseErrors.add("Unrecognised element:" + parser.getName());
+                    ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_ELEMENT, parser.getName(), parser.getName());
                     break;
             }
             ParserUtils.forwardToEndTagOfDepth(parser, enclosedTagDepth);
@@ -1062,7 +1223,7 @@ public final class SmackPacketUtil {
                     getElementTextBoolean(ELEMENT_MUTE, parser, description, parseErrors).ifPresent(speakerChannelBuilder::setMuteRequested);
                     break;
                 default:
-                    parseErrors.add("Unrecognised element:" + parser.getName());
+                    ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_ELEMENT, parser.getName(), parser.getName());
                     break;
             }
             ParserUtils.forwardToEndTagOfDepth(parser, enclosedTagDepth);
@@ -1092,7 +1253,7 @@ public final class SmackPacketUtil {
         } else if ("false".equals(booleanText)) {
             return Optional.of(Boolean.FALSE);
         } else {
-            parseErrors.add(String.format("Invalid %s; invalid %s '%s'; please supply an integer", description, childElementName, booleanText));
+            ParseErrors.report(parseErrors, ParseError.Code.INVALID_INTEGER, childElementName, description, childElementName, booleanText);
             return Optional.empty();
         }
     }
@@ -1107,9 +1268,9 @@ public final class SmackPacketUtil {
         if (parser.getName().equals(childElementName)) {
             final String childElementText = parser.nextText();
             try {
-                return Optional.of(Instant.parse(childElementText));
+                return Optional.of(TimestampCodec.parseISO8601(childElementText));
             } catch (final DateTimeParseException ignored) {
-                parseErrors.add(String.format("Invalid %s; invalid %s '%s'; format should be compliant with XEP-0082", description, childElementName, childElementText));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_ISO_8601_TIMESTAMP, childElementName, description, childElementName, childElementText);
             }
         }
         return Optional.empty();
@@ -1126,7 +1287,7 @@ public final class SmackPacketUtil {
         try {
             return Optional.of(Long.parseLong(childElementText));
         } catch (final NumberFormatException ignored) {
-            parseErrors.add(String.format("Invalid %s; invalid %s '%s'; please supply an integer", stanzaDescription, childElementName, childElementText));
+            ParseErrors.report(parseErrors, ParseError.Code.INVALID_INTEGER, childElementName, stanzaDescription, childElementName, childElementText);
         }
         return Optional.empty();
     }
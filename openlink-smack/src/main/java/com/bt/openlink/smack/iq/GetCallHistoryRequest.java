@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +17,8 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetCallHistoryRequestBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.CallType;
@@ -52,7 +53,7 @@ public class GetCallHistoryRequest extends OpenlinkIQ {
     public static GetCallHistoryRequest from(@Nonnull final XmlPullParser parser) throws IOException, XmlPullParserException {
 
         final Builder builder = Builder.start();
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
 
         moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_IN);
         final int inDepth = parser.getDepth();
@@ -93,32 +94,32 @@ public class GetCallHistoryRequest extends OpenlinkIQ {
             try {
                 elementText.map(fromdate -> LocalDate.parse(fromdate, DATE_FORMATTER)).ifPresent(builder::setFromDate);
             } catch (final DateTimeParseException ignored) {
-                parseErrors.add(String.format("Invalid %s; invalid fromdate '%s'; date format is '%s'", STANZA_DESCRIPTION, elementText.get(), DATE_PATTERN));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_DATE, "fromdate", STANZA_DESCRIPTION, "fromdate", elementText.get(), DATE_PATTERN);
             }
             break;
         case "uptodate":
             try {
                 elementText.map(todate -> LocalDate.parse(todate, DATE_FORMATTER)).ifPresent(builder::setUpToDate);
             } catch (final DateTimeParseException ignored) {
-                parseErrors.add(String.format("Invalid %s; invalid uptodate '%s'; date format is '%s'", STANZA_DESCRIPTION, elementText.get(), DATE_PATTERN));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_DATE, "uptodate", STANZA_DESCRIPTION, "uptodate", elementText.get(), DATE_PATTERN);
             }
             break;
         case "start":
             try {
                 elementText.map(Long::valueOf).ifPresent(builder::setStart);
             } catch (final NumberFormatException ignored) {
-                parseErrors.add(String.format("Invalid %s; invalid start '%s'; please supply an integer", STANZA_DESCRIPTION, elementText.get()));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_INTEGER, "start", STANZA_DESCRIPTION, "start", elementText.get());
             }
             break;
         case "count":
             try {
                 elementText.map(Long::valueOf).ifPresent(builder::setCount);
             } catch (final NumberFormatException ignored) {
-                parseErrors.add(String.format("Invalid %s; invalid count '%s'; please supply an integer", STANZA_DESCRIPTION, elementText.get()));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_INTEGER, "count", STANZA_DESCRIPTION, "count", elementText.get());
             }
             break;
         default:
-            parseErrors.add("Unrecognised element:" + parser.getName());
+            ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_ELEMENT, parser.getName(), parser.getName());
             break;
         }
     }
@@ -1,10 +1,7 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.sql.Timestamp;
 import java.time.Duration;
-import java.time.Instant;
-import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
@@ -20,6 +17,10 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
+import com.bt.openlink.internal.TimestampCodec;
+import com.bt.openlink.iq.CallHistoryListener;
 import com.bt.openlink.iq.GetCallHistoryResultBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.CallDirection;
@@ -47,11 +48,31 @@ public class GetCallHistoryResult extends OpenlinkIQ {
         this.calls = new ArrayList<>(builder.getCalls());
     }
 
-    @SuppressWarnings("unchecked")
     @Nonnull
     public static GetCallHistoryResult from(@Nonnull final XmlPullParser parser) throws IOException, XmlPullParserException {
+        return from(parser, null);
+    }
+
+    /**
+     * Parses a get-call-history result, optionally passing each call to a listener as soon as it has been parsed
+     * instead of retaining it. In this streaming mode the calls are not available from the result that is returned,
+     * but the record counts and parse errors are.
+     *
+     * @param parser
+     *            the parser, positioned at the start of the command element
+     * @param listener
+     *            the listener to receive the calls, or {@code null} to retain the calls in the result
+     * @return the parsed result
+     * @throws IOException
+     *             if the stanza could not be read
+     * @throws XmlPullParserException
+     *             if the stanza could not be parsed
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    public static GetCallHistoryResult from(@Nonnull final XmlPullParser parser, @Nullable final CallHistoryListener<Jid> listener) throws IOException, XmlPullParserException {
         final Builder builder = Builder.start();
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
 
         moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_IN);
         final int inDepth = parser.getDepth();
@@ -62,6 +83,9 @@ public class GetCallHistoryResult extends OpenlinkIQ {
             SmackPacketUtil.getLongAttribute(parser, "total").ifPresent(builder::setTotalRecordCount);
             SmackPacketUtil.getLongAttribute(parser, "start").ifPresent(builder::setFirstRecordNumber);
             SmackPacketUtil.getLongAttribute(parser, "count").ifPresent(builder::setRecordCountInBatch);
+            if (listener != null) {
+                listener.onCallHistory(builder.getTotalRecordCount().orElse(null), builder.getFirstRecordNumber().orElse(null), builder.getRecordCountInBatch().orElse(null));
+            }
             parser.nextTag();
             while (parser.getDepth() > callHistoryDepth) {
                 while (parser.getEventType() == XmlPullParser.START_TAG && "call".equals(parser.getName())) {
@@ -71,7 +95,13 @@ public class GetCallHistoryResult extends OpenlinkIQ {
                     while (parser.getDepth() > callDepth) {
                         parseHistoricalCall(parser, parseErrors, callDepth, callBuilder);
                     }
-                    builder.addCall(callBuilder.build(parseErrors));
+                    final HistoricalCall<Jid> call = callBuilder.build(parseErrors);
+                    if (listener == null) {
+                        builder.addCall(call);
+                    } else {
+                        listener.onHistoricalCall(call);
+                        builder.addStreamedCall();
+                    }
                 }
                 parser.nextTag();
             }
@@ -115,30 +145,30 @@ public class GetCallHistoryResult extends OpenlinkIQ {
             try {
                 elementText.map(Long::parseLong).map(Duration::ofMillis).ifPresent(callBuilder::setDuration);
             } catch (final NumberFormatException ignored) {
-                parseErrors.add(String.format("Invalid %s; invalid duration '%s'; please supply an integer", STANZA_DESCRIPTION, elementText.get()));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_INTEGER, "duration", STANZA_DESCRIPTION, "duration", elementText.get());
             }
             break;
         case "timestamp":
             if (callBuilder.isStartTimeNull()) {
                 try {
-                    elementText.map(Timestamp::valueOf).map(Timestamp::toInstant).ifPresent(callBuilder::setStartTime);
+                    elementText.map(TimestampCodec::parseSqlTimestamp).ifPresent(callBuilder::setStartTime);
                 } catch (final IllegalArgumentException ignored) {
-                    parseErrors.add(String.format("Invalid %s; invalid timestamp '%s'; please supply a valid timestamp", STANZA_DESCRIPTION, elementText.get()));
+                    ParseErrors.report(parseErrors, ParseError.Code.INVALID_VALUE, "timestamp", STANZA_DESCRIPTION, "timestamp", elementText.get());
                 }
             }
             break;
         case "starttime":
             try {
-                elementText.map(Instant::parse).ifPresent(callBuilder::setStartTime);
+                elementText.map(TimestampCodec::parseISO8601).ifPresent(callBuilder::setStartTime);
             } catch(final DateTimeParseException ignored) {
-                parseErrors.add(String.format("Invalid %s; invalid starttime '%s'; please supply a valid starttime", STANZA_DESCRIPTION, elementText.get()));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_VALUE, "starttime", STANZA_DESCRIPTION, "starttime", elementText.get());
             }             
             break;
         case "tsc":
             elementText.flatMap(SmackPacketUtil::getSmackJid).ifPresent(callBuilder::setTsc);
             break;
         default:
-            parseErrors.add("Unrecognised element:" + parser.getName());
+            ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_ELEMENT, parser.getName(), parser.getName());
             break;
         }
         ParserUtils.forwardToEndTagOfDepth(parser, callDepth + 1);
@@ -172,8 +202,8 @@ public class GetCallHistoryResult extends OpenlinkIQ {
             xml.optElement("callername", call.getCallerName().orElse(null));
             xml.optElement("called", call.getCalledNumber().map(PhoneNumber::value).orElse(null));
             xml.optElement("calledname", call.getCalledName().orElse(null));
-            xml.optElement("timestamp", call.getStartTime().map(Timestamp::from).map(Timestamp::toString).orElse(null));
-            xml.optElement("starttime", call.getStartTime().map(startTime -> SmackPacketUtil.ISO_8601_FORMATTER.format(startTime.atZone(ZoneOffset.UTC))).orElse(null));
+            xml.optElement("timestamp", call.getStartTime().map(TimestampCodec::formatSqlTimestamp).orElse(null));
+            xml.optElement("starttime", call.getStartTime().map(TimestampCodec::formatISO8601).orElse(null));
             xml.optElement("duration", call.getDuration().map(Duration::toMillis).map(String::valueOf).orElse(null));
             xml.optElement("tsc", call.getTsc().map(Jid::toString).orElse(null));
             xml.closeElement("call");
@@ -1,7 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +15,8 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetFeaturesResultBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.Feature;
@@ -34,6 +35,20 @@ public class GetFeaturesResult extends OpenlinkIQ {
         this.features = Collections.unmodifiableList(builder.getFeatures());
     }
 
+    private GetFeaturesResult(@Nonnull final GetFeaturesResult result) {
+        super(result);
+        this.profileId = result.profileId;
+        this.features = result.features;
+    }
+
+    /**
+     * @return a copy of this result, so that changing the addressing or id of one does not change the other
+     */
+    @Nonnull
+    public GetFeaturesResult copy() {
+        return new GetFeaturesResult(this);
+    }
+
     @Nonnull
     public Optional<ProfileId> getProfileId() {
         return Optional.ofNullable(profileId);
@@ -49,7 +64,7 @@ public class GetFeaturesResult extends OpenlinkIQ {
 
         moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_OUT, OpenlinkXmppNamespace.TAG_PROFILE);
         final Builder builder = Builder.start();
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         if (!parser.getName().equals(OpenlinkXmppNamespace.TAG_PROFILE)) {
             parseErrors.add(" Invalid get-features result; missing 'features' element is mandatory");
         } else {
@@ -75,7 +90,7 @@ public class GetFeaturesResult extends OpenlinkIQ {
                         if (type.isPresent()) {
                             featureBuilder.setType(type.get());
                         } else {
-                            parseErrors.add(String.format("Invalid %s; invalid feature type - '%s'", DESCRIPTION, featureType));
+                            ParseErrors.report(parseErrors, ParseError.Code.INVALID_FEATURE_TYPE, "type", DESCRIPTION, featureType);
                         }
                     });
                     final Optional<String> label = SmackPacketUtil.getStringAttribute(parser,
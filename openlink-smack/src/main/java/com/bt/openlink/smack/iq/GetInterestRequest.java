@@ -1,7 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +13,7 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetInterestRequestBuilder;
 import com.bt.openlink.type.InterestId;
 
@@ -45,7 +45,7 @@ public class GetInterestRequest extends OpenlinkIQ{
         final Optional<InterestId> interestIdOptional = InterestId.from(interestIdString);
         final Builder builder = Builder.start();
         interestIdOptional.ifPresent(builder::setInterestId);
-        return builder.build(new ArrayList<>());
+        return builder.build(ParseErrors.create());
     }
     
 
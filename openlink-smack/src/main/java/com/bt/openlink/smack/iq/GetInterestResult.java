@@ -1,7 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +13,7 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetInterestResultBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.Interest;
@@ -30,6 +30,19 @@ public class GetInterestResult extends OpenlinkIQ {
         this.interest = builder.getInterest().orElse(null);
     }
 
+    private GetInterestResult(@Nonnull final GetInterestResult result) {
+        super(result);
+        this.interest = result.interest;
+    }
+
+    /**
+     * @return a copy of this result, so that changing the addressing or id of one does not change the other
+     */
+    @Nonnull
+    public GetInterestResult copy() {
+        return new GetInterestResult(this);
+    }
+
     @Nonnull
     public Optional<Interest> getInterest() {
         return Optional.ofNullable(interest);
@@ -42,7 +55,7 @@ public class GetInterestResult extends OpenlinkIQ {
 
         final Builder builder = Builder.start();
 
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         if (parser.getName().equals(OpenlinkXmppNamespace.TAG_INTEREST)) {
             final Interest.Builder interestBuilder = Interest.Builder.start();
             final Optional<InterestId> interestId = InterestId.from(parser.getAttributeValue("", "id"));
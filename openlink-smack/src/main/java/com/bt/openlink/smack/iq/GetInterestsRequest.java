@@ -1,7 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +13,7 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetInterestsRequestBuilder;
 import com.bt.openlink.type.ProfileId;
 
@@ -45,7 +45,7 @@ public class GetInterestsRequest extends OpenlinkIQ {
         final Optional<ProfileId> profileIdOptional = ProfileId.from(profileIdString);
         final Builder builder = Builder.start();
         profileIdOptional.ifPresent(builder::setProfileId);
-        return builder.build(new ArrayList<>());
+        return builder.build(ParseErrors.create());
     }
     
 
@@ -1,7 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +15,7 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetInterestsResultBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.Interest;
@@ -32,6 +32,19 @@ public class GetInterestsResult extends OpenlinkIQ {
         this.interests = Collections.unmodifiableList(builder.getInterests());
     }
 
+    private GetInterestsResult(@Nonnull final GetInterestsResult result) {
+        super(result);
+        this.interests = result.interests;
+    }
+
+    /**
+     * @return a copy of this result, so that changing the addressing or id of one does not change the other
+     */
+    @Nonnull
+    public GetInterestsResult copy() {
+        return new GetInterestsResult(this);
+    }
+
     @SuppressWarnings("WeakerAccess")
     @Nonnull
     public List<Interest> getInterests() {
@@ -45,7 +58,7 @@ public class GetInterestsResult extends OpenlinkIQ {
 
         final Builder builder = Builder.start();
 
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
 
         while (OpenlinkXmppNamespace.TAG_INTEREST.equals(parser.getName())) {
 
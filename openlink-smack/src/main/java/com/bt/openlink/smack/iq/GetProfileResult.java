@@ -19,6 +19,7 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetProfileResultBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.DeviceId;
@@ -48,6 +49,19 @@ public class GetProfileResult extends OpenlinkIQ {
         this.profile = builder.getProfile().orElse(null);
     }
 
+    private GetProfileResult(@Nonnull final GetProfileResult result) {
+        super(result);
+        this.profile = result.profile;
+    }
+
+    /**
+     * @return a copy of this result, so that changing the addressing or id of one does not change the other
+     */
+    @Nonnull
+    public GetProfileResult copy() {
+        return new GetProfileResult(this);
+    }
+
     @Nonnull
     public Optional<Profile> getProfile() {
         return Optional.ofNullable(profile);
@@ -59,7 +73,7 @@ public class GetProfileResult extends OpenlinkIQ {
         moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_OUT, OpenlinkXmppNamespace.TAG_PROFILE);
 
         final Builder builder = Builder.start();
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         if (parser.getName().equals(OpenlinkXmppNamespace.TAG_PROFILE)) {
             final Profile.Builder profileBuilder = Profile.Builder.start();
             final String namespace = URLDecoder.decode(parser.getNamespace(), StandardCharsets.UTF_8.name());
@@ -1,7 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +15,8 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetProfilesResultBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.DeviceId;
@@ -36,7 +37,7 @@ public class GetProfilesResult extends OpenlinkIQ {
 
         final Builder builder = Builder.start();
 
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         if (parser.getEventType() != XmlPullParser.START_TAG) {
             parseErrors.add("Invalid get-profiles result; no profiles present");
         }
@@ -68,7 +69,7 @@ public class GetProfilesResult extends OpenlinkIQ {
                     addActionsToBuilder(parser, profileBuilder);
                     break;
                 default:
-                    parseErrors.add("Unrecognised tag: " + parser.getName());
+                    ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_TAG, parser.getName(), parser.getName());
                     break;
                 }
                 ParserUtils.forwardToEndTagOfDepth(parser, profileDepth + 1);
@@ -106,6 +107,19 @@ public class GetProfilesResult extends OpenlinkIQ {
         this.profiles = Collections.unmodifiableList(builder.getProfiles());
     }
 
+    private GetProfilesResult(@Nonnull final GetProfilesResult result) {
+        super(result);
+        this.profiles = result.profiles;
+    }
+
+    /**
+     * @return a copy of this result, so that changing the addressing or id of one does not change the other
+     */
+    @Nonnull
+    public GetProfilesResult copy() {
+        return new GetProfilesResult(this);
+    }
+
     @Override
     protected IQChildElementXmlStringBuilder getIQChildElementBuilder(IQChildElementXmlStringBuilder xml) {
         xml.attribute("status", "completed")
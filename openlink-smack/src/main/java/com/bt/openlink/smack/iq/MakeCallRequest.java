@@ -1,7 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +15,8 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.MakeCallRequestBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.FeatureId;
@@ -78,7 +79,7 @@ public class MakeCallRequest extends OpenlinkIQ {
 
         moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_IN);
 
-        final ArrayList<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Builder builder = Builder.start();
         final int inDepth = parser.getDepth();
         parser.nextTag();
@@ -103,7 +104,7 @@ public class MakeCallRequest extends OpenlinkIQ {
                 SmackPacketUtil.getOriginatorRefs(parser).forEach(builder::addOriginatorReference);
                 break;
             default:
-                parseErrors.add("Unrecognised element:" + parser.getName());
+                ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_ELEMENT, parser.getName(), parser.getName());
                 break;
             }
             ParserUtils.forwardToEndTagOfDepth(parser, inDepth + 1);
@@ -113,7 +114,7 @@ public class MakeCallRequest extends OpenlinkIQ {
         return builder.build(parseErrors);
     }
 
-    private static void getFeatures(final XmlPullParser parser, final ArrayList<String> parseErrors, final Builder builder) throws XmlPullParserException, IOException {
+    private static void getFeatures(final XmlPullParser parser, final List<String> parseErrors, final Builder builder) throws XmlPullParserException, IOException {
         parser.nextTag();
         final int featureDepth = parser.getDepth();
         while (parser.getName().equals(OpenlinkXmppNamespace.TAG_FEATURE)) {
@@ -131,7 +132,7 @@ public class MakeCallRequest extends OpenlinkIQ {
                         SmackPacketUtil.getElementTextString(parser).ifPresent(featureBuilder::setValue2);
                         break;
                     default:
-                        parseErrors.add("Unrecognised feature element:" + parser.getName());
+                        ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_FEATURE_ELEMENT, parser.getName(), parser.getName());
                         break;
                 }
                 ParserUtils.forwardToEndTagOfDepth(parser, featureDepth + 1);
@@ -1,7 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +15,8 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.ManageVoiceMessageRequestBuilder;
 import com.bt.openlink.type.FeatureId;
 import com.bt.openlink.type.ManageVoiceMessageAction;
@@ -73,7 +74,7 @@ public class ManageVoiceMessageRequest extends OpenlinkIQ {
 
         moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_IN);
 
-        final ArrayList<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final ManageVoiceMessageRequest.Builder builder = ManageVoiceMessageRequest.Builder.start();
         final int inDepth = parser.getDepth();
         parser.nextTag();
@@ -93,7 +94,7 @@ public class ManageVoiceMessageRequest extends OpenlinkIQ {
                     getFeatures(parser, parseErrors, builder);
                     break;
                 default:
-                    parseErrors.add("Unrecognised element:" + parser.getName());
+                    ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_ELEMENT, parser.getName(), parser.getName());
                     break;
 
             }
@@ -106,7 +107,7 @@ public class ManageVoiceMessageRequest extends OpenlinkIQ {
     }
 
     private static void getFeatures(final XmlPullParser parser,
-                                    final ArrayList<String> parseErrors,
+                                    final List<String> parseErrors,
                                     final ManageVoiceMessageRequest.Builder builder) throws XmlPullParserException, IOException {
         parser.nextTag();
         final int featureDepth = parser.getDepth();
@@ -116,7 +117,7 @@ public class ManageVoiceMessageRequest extends OpenlinkIQ {
                 if (parser.getName().equals("id")) {
                     FeatureId.from(parser.nextText()).ifPresent(builder::addFeature);
                 } else {
-                    parseErrors.add("Unrecognised feature element:" + parser.getName());
+                    ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_FEATURE_ELEMENT, parser.getName(), parser.getName());
                 }
                 ParserUtils.forwardToEndTagOfDepth(parser, featureDepth + 1);
                 parser.nextTag();
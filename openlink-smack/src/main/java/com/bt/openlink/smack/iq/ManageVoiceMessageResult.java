@@ -1,7 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +14,8 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.ManageVoiceMessageResultBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.DeviceStatus;
@@ -38,7 +39,7 @@ public class ManageVoiceMessageResult extends OpenlinkIQ {
     static IQ from(XmlPullParser parser) throws IOException, XmlPullParserException {
         moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_IN);
 
-        final ArrayList<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
 
         final ManageVoiceMessageResult.Builder builder = ManageVoiceMessageResult.Builder.start();
         final int inDepth = parser.getDepth();
@@ -50,7 +51,7 @@ public class ManageVoiceMessageResult extends OpenlinkIQ {
 
                     break;
                 default:
-                    parseErrors.add("Unrecognised element:" + parser.getName());
+                    ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_ELEMENT, parser.getName(), parser.getName());
                     break;
             }
 
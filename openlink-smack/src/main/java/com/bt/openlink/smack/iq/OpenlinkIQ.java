@@ -1,8 +1,6 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import javax.annotation.Nonnull;
@@ -13,6 +11,8 @@ import org.jxmpp.jid.Jid;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.IQBuilder;
 
 abstract class OpenlinkIQ extends IQ {
@@ -36,7 +36,7 @@ abstract class OpenlinkIQ extends IQ {
 		}
     }
 
-    @Nonnull private List<String> parseErrors;
+    @Nonnull private ParseErrors parseErrors;
 
     OpenlinkIQ(@Nonnull String command, @Nonnull String uri, final @Nonnull IQBuilder<?, Jid, IQ.Type> builder, @Nullable List<String> parseErrors) {
         super(command, uri);
@@ -44,12 +44,12 @@ abstract class OpenlinkIQ extends IQ {
         builder.getFrom().ifPresent(this::setFrom);
         builder.getId().ifPresent(this::setStanzaId);
         builder.getIqType().ifPresent(this::setType);
-        if (parseErrors == null) {
-            this.parseErrors = Collections.emptyList();
-        } else {
-            this.parseErrors = new ArrayList<>(parseErrors);
-            builder.validate(parseErrors);
-        }
+        this.parseErrors = ParseErrors.copyOf(parseErrors);
+    }
+
+    OpenlinkIQ(@Nonnull final OpenlinkIQ iq) {
+        super(iq);
+        this.parseErrors = iq.parseErrors;
     }
 
     @Nonnull
@@ -57,4 +57,20 @@ abstract class OpenlinkIQ extends IQ {
         return parseErrors;
     }
 
+    /**
+     * @return the errors found whilst parsing the stanza, unformatted; empty if the stanza was built in code or was
+     *         parsed without collecting its errors
+     */
+    @Nonnull
+    public List<ParseError> getParseErrorDetails() {
+        return parseErrors.getErrors();
+    }
+
+    /**
+     * @return the number of errors found whilst parsing the stanza, including any that were not collected
+     */
+    public int getParseErrorCount() {
+        return parseErrors.getCount();
+    }
+
 }
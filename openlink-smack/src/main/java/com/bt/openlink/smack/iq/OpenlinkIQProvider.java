@@ -1,8 +1,8 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -15,6 +15,8 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ScopedDefault;
+import com.bt.openlink.ValidationPolicy;
 
 public class OpenlinkIQProvider extends IQProvider<IQ> {
 
@@ -22,64 +24,97 @@ public class OpenlinkIQProvider extends IQProvider<IQ> {
         IQ from(final XmlPullParser parser) throws IOException, XmlPullParserException;
     }
 
-    private static class IQMatcher {
+    private static class CommandFactories {
 
-        @Nonnull private final OpenlinkXmppNamespace namespace;
-        @Nonnull private final String attribute;
-        @Nonnull private final String value;
-        @Nonnull private final StanzaFactory stanzaFactory;
+        @Nonnull private final StanzaFactory requestFactory;
+        @Nonnull private final StanzaFactory resultFactory;
 
-        private IQMatcher(@Nonnull final OpenlinkXmppNamespace namespace, @Nonnull final String attribute, @Nonnull final String value, @Nonnull final StanzaFactory stanzaFactory) {
-            this.namespace = namespace;
-            this.attribute = attribute;
-            this.value = value;
-            this.stanzaFactory = stanzaFactory;
-        }
-
-        private boolean matches(@Nullable final String namespace, @Nullable final String value) {
-            return this.value.equals(value) && this.namespace.uri().equals(namespace);
+        private CommandFactories(@Nonnull final StanzaFactory requestFactory, @Nonnull final StanzaFactory resultFactory) {
+            this.requestFactory = requestFactory;
+            this.resultFactory = resultFactory;
         }
     }
 
+    private static final String ATTRIBUTE_NODE = "node";
     private static final String ATTRIBUTE_ACTION = "action";
     private static final String ATTRIBUTE_STATUS = "status";
     private static final String ACTION_EXECUTE = "execute";
     private static final String ACTION_COMPLETED = "completed";
-    private static final List<IQMatcher> STANZA_TYPE_MATCHER_LIST = Arrays.asList(
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetProfilesRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetProfilesResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILE, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetProfileRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILE, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetProfileResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetInterestsRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetInterestsResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTEREST, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetInterestRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTEREST, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetInterestResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetFeaturesRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetFeaturesResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetCallHistoryRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetCallHistoryResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_QUERY_FEATURES, ATTRIBUTE_ACTION, ACTION_EXECUTE, QueryFeaturesRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_QUERY_FEATURES, ATTRIBUTE_STATUS, ACTION_COMPLETED, QueryFeaturesResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_SET_FEATURES, ATTRIBUTE_ACTION, ACTION_EXECUTE, SetFeaturesRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_SET_FEATURES, ATTRIBUTE_STATUS, ACTION_COMPLETED, SetFeaturesResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_MANAGE_VOICE_MESSAGE, ATTRIBUTE_ACTION, ACTION_EXECUTE, ManageVoiceMessageRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_MANAGE_VOICE_MESSAGE, ATTRIBUTE_STATUS, ACTION_COMPLETED, ManageVoiceMessageResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_MAKE_CALL, ATTRIBUTE_ACTION, ACTION_EXECUTE, MakeCallRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_MAKE_CALL, ATTRIBUTE_STATUS, ACTION_COMPLETED, MakeCallResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION, ATTRIBUTE_ACTION, ACTION_EXECUTE, RequestActionRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION, ATTRIBUTE_STATUS, ACTION_COMPLETED, RequestActionResult::from)
-            );
+    private static final Map<String, CommandFactories> COMMAND_FACTORIES_BY_NODE = new HashMap<>();
+    static {
+        register(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, GetProfilesRequest::from, GetProfilesResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_GET_PROFILE, GetProfileRequest::from, GetProfileResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, GetInterestsRequest::from, GetInterestsResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_GET_INTEREST, GetInterestRequest::from, GetInterestResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, GetFeaturesRequest::from, GetFeaturesResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY, GetCallHistoryRequest::from, GetCallHistoryResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_QUERY_FEATURES, QueryFeaturesRequest::from, QueryFeaturesResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_SET_FEATURES, SetFeaturesRequest::from, SetFeaturesResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_MANAGE_VOICE_MESSAGE, ManageVoiceMessageRequest::from, ManageVoiceMessageResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_MAKE_CALL, MakeCallRequest::from, MakeCallResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION, RequestActionRequest::from, RequestActionResult::from);
+    }
+
+    /**
+     * Registers the factories for a new command node. The request factory is used for {@code action="execute"} stanzas
+     * and the result factory for {@code status="completed"} stanzas.
+     *
+     * @param namespace
+     *            the node of the command
+     * @param requestFactory
+     *            the factory used to parse the request
+     * @param resultFactory
+     *            the factory used to parse the result
+     */
+    private static void register(@Nonnull final OpenlinkXmppNamespace namespace, @Nonnull final StanzaFactory requestFactory, @Nonnull final StanzaFactory resultFactory) {
+        COMMAND_FACTORIES_BY_NODE.put(namespace.uri(), new CommandFactories(requestFactory, resultFactory));
+    }
+
+    @Nullable private final ValidationPolicy validationPolicy;
+
+    /**
+     * Creates a provider that validates stanzas according to the default {@link ValidationPolicy}.
+     */
+    public OpenlinkIQProvider() {
+        this.validationPolicy = null;
+    }
+
+    /**
+     * @param validationPolicy
+     *            how much of each stanza to validate
+     */
+    public OpenlinkIQProvider(@Nonnull final ValidationPolicy validationPolicy) {
+        this.validationPolicy = validationPolicy;
+    }
 
     @Override
     public IQ parse(XmlPullParser xmlPullParser, int initialDepth) throws Exception {
-        final String node = xmlPullParser.getAttributeValue("", "node");
-        for (final IQMatcher iqMatcher : STANZA_TYPE_MATCHER_LIST) {
-            final String value = xmlPullParser.getAttributeValue("", iqMatcher.attribute);
-            if (iqMatcher.matches(node, value)) {
-                return iqMatcher.stanzaFactory.from(xmlPullParser);
+        final StanzaFactory stanzaFactory = getStanzaFactory(xmlPullParser);
+        if (stanzaFactory != null) {
+            if (validationPolicy == null) {
+                return stanzaFactory.from(xmlPullParser);
+            }
+            try (ScopedDefault.Scope ignored = validationPolicy.enter()) {
+                return stanzaFactory.from(xmlPullParser);
             }
         }
 
         return new UnparsedIQ("command", OpenlinkXmppNamespace.XMPP_COMMANDS.uri(), PacketParserUtils.parseElement(xmlPullParser));
     }
+
+    @Nullable
+    private static StanzaFactory getStanzaFactory(@Nonnull final XmlPullParser xmlPullParser) {
+        final String node = xmlPullParser.getAttributeValue("", ATTRIBUTE_NODE);
+        final CommandFactories commandFactories = node == null ? null : COMMAND_FACTORIES_BY_NODE.get(node);
+        if (commandFactories == null) {
+            return null;
+        }
+        if (ACTION_EXECUTE.equals(xmlPullParser.getAttributeValue("", ATTRIBUTE_ACTION))) {
+            return commandFactories.requestFactory;
+        }
+        if (ACTION_COMPLETED.equals(xmlPullParser.getAttributeValue("", ATTRIBUTE_STATUS))) {
+            return commandFactories.resultFactory;
+        }
+        return null;
+    }
 }
@@ -1,13 +1,13 @@
 package com.bt.openlink.smack.iq;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.QueryFeaturesRequestBuilder;
 import org.jivesoftware.smack.packet.IQ;
 import org.jxmpp.jid.Jid;
@@ -44,7 +44,7 @@ public class QueryFeaturesRequest extends OpenlinkIQ {
 	        final Optional<ProfileId> profileIdOptional = ProfileId.from(profileIdString);
 	        final Builder builder = Builder.start();
 	        profileIdOptional.ifPresent(builder::setProfileId);
-	        return builder.build(new ArrayList<>());
+	        return builder.build(ParseErrors.create());
 	    }
 
 
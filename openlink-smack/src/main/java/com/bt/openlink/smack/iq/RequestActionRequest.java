@@ -1,6 +1,7 @@
 package com.bt.openlink.smack.iq;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.RequestActionRequestBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.CallId;
@@ -18,7 +19,6 @@ import org.xmlpull.v1.XmlPullParserException;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,7 +46,7 @@ public class RequestActionRequest extends OpenlinkIQ {
     @Nonnull
     static IQ from(XmlPullParser parser) throws IOException, XmlPullParserException {
         final RequestActionRequest.Builder builder = RequestActionRequest.Builder.start();
-        final ArrayList<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
 
         moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_IN);
 
@@ -1,6 +1,8 @@
 package com.bt.openlink.smack.iq;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.SetFeaturesRequestBuilder;
 import com.bt.openlink.smack.internal.SmackPacketUtil;
 import com.bt.openlink.type.FeatureId;
@@ -14,7 +16,6 @@ import org.xmlpull.v1.XmlPullParserException;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -87,7 +88,7 @@ public class SetFeaturesRequest extends OpenlinkIQ {
 
         moveToStartOfTag(parser, OpenlinkXmppNamespace.TAG_IODATA, OpenlinkXmppNamespace.TAG_IN);
 
-        final ArrayList<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final SetFeaturesRequest.Builder builder = SetFeaturesRequest.Builder.start();
         final int inDepth = parser.getDepth();
         parser.nextTag();
@@ -110,7 +111,7 @@ public class SetFeaturesRequest extends OpenlinkIQ {
                 SmackPacketUtil.getElementTextString(parser).ifPresent(builder::setValue1);
                 break;
             default:
-                parseErrors.add("Unrecognised element:" + parser.getName());
+                ParseErrors.report(parseErrors, ParseError.Code.UNRECOGNISED_ELEMENT, parser.getName(), parser.getName());
                 break;
 
             }
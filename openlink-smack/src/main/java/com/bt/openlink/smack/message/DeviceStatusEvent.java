@@ -0,0 +1,88 @@
+package com.bt.openlink.smack.message;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.util.XmlStringBuilder;
+import org.jxmpp.jid.Jid;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import com.bt.openlink.ParseErrors;
+import com.bt.openlink.message.DeviceStatusMessageBuilder;
+import com.bt.openlink.smack.internal.SmackPacketUtil;
+import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.ItemId;
+import com.bt.openlink.type.PubSubNodeId;
+
+public class DeviceStatusEvent extends OpenlinkPubSubEvent {
+
+    @Nullable private final DeviceStatus deviceStatus;
+
+    private DeviceStatusEvent(@Nonnull final Builder builder, @Nullable final List<String> parseErrors) {
+        super(builder, parseErrors);
+        this.deviceStatus = builder.getDeviceStatus().orElse(null);
+    }
+
+    @Nonnull
+    public Optional<DeviceStatus> getDeviceStatus() {
+        return Optional.ofNullable(deviceStatus);
+    }
+
+    @Override
+    protected void addItemPayload(@Nonnull final XmlStringBuilder xml) {
+        if (deviceStatus != null) {
+            SmackPacketUtil.addDeviceStatus(xml, deviceStatus);
+        }
+    }
+
+    /**
+     * @param parser
+     *            a parser positioned at the start of the {@code devicestatus} element
+     * @param pubSubNodeId
+     *            the node of the enclosing {@code items} element, if any
+     * @param itemId
+     *            the id of the enclosing {@code item} element, if any
+     * @return the parsed event
+     */
+    @Nonnull
+    static DeviceStatusEvent from(@Nonnull final XmlPullParser parser, @Nullable final PubSubNodeId pubSubNodeId, @Nullable final ItemId itemId) throws IOException, XmlPullParserException {
+        final List<String> parseErrors = ParseErrors.create();
+        final Builder builder = Builder.start();
+        if (pubSubNodeId != null) {
+            builder.setPubSubNodeId(pubSubNodeId);
+        }
+        if (itemId != null) {
+            builder.setItemId(itemId);
+        }
+        SmackPacketUtil.getDeviceStatus(parser, parseErrors).ifPresent(builder::setDeviceStatus);
+        return builder.build(parseErrors);
+    }
+
+    public static final class Builder extends DeviceStatusMessageBuilder<Builder, Jid> {
+
+        private Builder() {
+        }
+
+        @Nonnull
+        public static Builder start() {
+            return new Builder();
+        }
+
+        @Nonnull
+        public DeviceStatusEvent build() {
+            super.validate(false);
+            return new DeviceStatusEvent(this, null);
+        }
+
+        @Nonnull
+        DeviceStatusEvent build(@Nonnull final List<String> parseErrors) {
+            super.validate(parseErrors, false);
+            return new DeviceStatusEvent(this, parseErrors);
+        }
+    }
+}
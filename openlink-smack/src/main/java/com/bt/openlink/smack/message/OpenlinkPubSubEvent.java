@@ -0,0 +1,108 @@
+package com.bt.openlink.smack.message;
+
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.packet.ExtensionElement;
+import org.jivesoftware.smack.util.XmlStringBuilder;
+import org.jxmpp.jid.Jid;
+
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
+import com.bt.openlink.message.PubSubMessageBuilder;
+import com.bt.openlink.type.ItemId;
+import com.bt.openlink.type.PubSubNodeId;
+
+/**
+ * The {@code <event xmlns='http://jabber.org/protocol/pubsub#event'>} element of a message that carries a single
+ * Openlink item. Events are parsed by the {@link OpenlinkPubSubEventProvider}.
+ * <p>
+ * Events are built on the core pub-sub message builders, so are validated in the same way as the Tinder messages. The
+ * stanza addresses, id and delay belong to the enclosing message rather than the event, so any set on the builder are
+ * neither validated nor included in the event.
+ */
+public abstract class OpenlinkPubSubEvent implements ExtensionElement {
+
+    public static final String ELEMENT_NAME = "event";
+    public static final String NAMESPACE = OpenlinkXmppNamespace.XMPP_PUBSUB_EVENT.uri();
+    private static final String ELEMENT_ITEMS = "items";
+    private static final String ELEMENT_ITEM = "item";
+
+    @Nullable private final PubSubNodeId pubSubNodeId;
+    @Nullable private final ItemId itemId;
+    @Nonnull private final ParseErrors parseErrors;
+
+    OpenlinkPubSubEvent(@Nonnull final PubSubMessageBuilder<?, Jid> builder, @Nullable final List<String> parseErrors) {
+        this.pubSubNodeId = builder.getPubSubNodeId().orElse(null);
+        this.itemId = builder.getItemId().orElse(null);
+        this.parseErrors = ParseErrors.copyOf(parseErrors);
+    }
+
+    @Nonnull
+    public List<String> getParseErrors() {
+        return parseErrors;
+    }
+
+    /**
+     * @return the errors found whilst parsing the stanza, unformatted; empty if the stanza was built in code or was
+     *         parsed without collecting its errors
+     */
+    @Nonnull
+    public List<ParseError> getParseErrorDetails() {
+        return parseErrors.getErrors();
+    }
+
+    /**
+     * @return the number of errors found whilst parsing the stanza, including any that were not collected
+     */
+    public int getParseErrorCount() {
+        return parseErrors.getCount();
+    }
+
+    @Nonnull
+    public Optional<PubSubNodeId> getPubSubNodeId() {
+        return Optional.ofNullable(pubSubNodeId);
+    }
+
+    @Nonnull
+    public Optional<ItemId> getItemId() {
+        return Optional.ofNullable(itemId);
+    }
+
+    @Override
+    public String getElementName() {
+        return ELEMENT_NAME;
+    }
+
+    @Override
+    public String getNamespace() {
+        return NAMESPACE;
+    }
+
+    @Override
+    public XmlStringBuilder toXML() {
+        final XmlStringBuilder xml = new XmlStringBuilder(this).rightAngleBracket();
+        xml.halfOpenElement(ELEMENT_ITEMS);
+        if (pubSubNodeId != null) {
+            xml.attribute("node", pubSubNodeId.value());
+        }
+        xml.rightAngleBracket();
+        xml.halfOpenElement(ELEMENT_ITEM);
+        if (itemId != null) {
+            xml.attribute("id", itemId.value());
+        }
+        xml.rightAngleBracket();
+        addItemPayload(xml);
+        xml.closeElement(ELEMENT_ITEM);
+        xml.closeElement(ELEMENT_ITEMS);
+        xml.closeElement(this);
+        return xml;
+    }
+
+    protected abstract void addItemPayload(@Nonnull final XmlStringBuilder xml);
+
+}
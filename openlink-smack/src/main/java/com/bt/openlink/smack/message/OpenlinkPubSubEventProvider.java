@@ -0,0 +1,138 @@
+package com.bt.openlink.smack.message;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.jivesoftware.smack.packet.ExtensionElement;
+import org.jivesoftware.smack.packet.StandardExtensionElement;
+import org.jivesoftware.smack.parsing.StandardExtensionElementProvider;
+import org.jivesoftware.smack.provider.ExtensionElementProvider;
+import org.jivesoftware.smack.util.ParserUtils;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ScopedDefault;
+import com.bt.openlink.ValidationPolicy;
+import com.bt.openlink.type.ItemId;
+import com.bt.openlink.type.PubSubNodeId;
+
+/**
+ * Parses the pub-sub event elements of messages. Events whose item contains a {@code callstatus} or
+ * {@code devicestatus} element are decoded directly from the stream in to a {@link CallStatusEvent} or
+ * {@link DeviceStatusEvent}; any other event is returned as a {@link StandardExtensionElement}.
+ */
+public class OpenlinkPubSubEventProvider extends ExtensionElementProvider<ExtensionElement> {
+
+    private interface EventFactory {
+        OpenlinkPubSubEvent from(final XmlPullParser parser, final PubSubNodeId pubSubNodeId, final ItemId itemId) throws IOException, XmlPullParserException;
+    }
+
+    private static final String ELEMENT_ITEMS = "items";
+    private static final String ELEMENT_ITEM = "item";
+    private static final String ATTRIBUTE_NODE = "node";
+    private static final String ATTRIBUTE_ID = "id";
+    private static final Map<String, EventFactory> EVENT_FACTORIES_BY_NAMESPACE = new HashMap<>();
+    static {
+        EVENT_FACTORIES_BY_NAMESPACE.put(OpenlinkXmppNamespace.OPENLINK_CALL_STATUS.uri(), CallStatusEvent::from);
+        EVENT_FACTORIES_BY_NAMESPACE.put(OpenlinkXmppNamespace.OPENLINK_DEVICE_STATUS.uri(), DeviceStatusEvent::from);
+    }
+
+    @Nullable private final ValidationPolicy validationPolicy;
+
+    /**
+     * Creates a provider that validates events according to the default {@link ValidationPolicy}.
+     */
+    public OpenlinkPubSubEventProvider() {
+        this.validationPolicy = null;
+    }
+
+    /**
+     * @param validationPolicy
+     *            how much of each event to validate
+     */
+    public OpenlinkPubSubEventProvider(@Nonnull final ValidationPolicy validationPolicy) {
+        this.validationPolicy = validationPolicy;
+    }
+
+    @Override
+    public ExtensionElement parse(final XmlPullParser parser, final int initialDepth) throws Exception {
+        final StandardExtensionElement.Builder eventBuilder = StandardExtensionElement.builder(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE);
+        parser.nextTag();
+        if (isStartTag(parser, ELEMENT_ITEMS)) {
+            final String node = parser.getAttributeValue("", ATTRIBUTE_NODE);
+            final StandardExtensionElement.Builder itemsBuilder = getBuilder(ELEMENT_ITEMS, ATTRIBUTE_NODE, node);
+            parser.nextTag();
+            if (isStartTag(parser, ELEMENT_ITEM)) {
+                final String itemId = parser.getAttributeValue("", ATTRIBUTE_ID);
+                final StandardExtensionElement.Builder itemBuilder = getBuilder(ELEMENT_ITEM, ATTRIBUTE_ID, itemId);
+                parser.nextTag();
+                final EventFactory eventFactory = getEventFactory(parser);
+                if (eventFactory != null) {
+                    final OpenlinkPubSubEvent event = parseEvent(eventFactory, parser, PubSubNodeId.from(node).orElse(null), ItemId.from(itemId).orElse(null));
+                    ParserUtils.forwardToEndTagOfDepth(parser, initialDepth);
+                    return event;
+                }
+                // Not an Openlink item, so keep everything that has been read so far
+                addRemainingChildren(parser, itemBuilder);
+                itemsBuilder.addElement(itemBuilder.build());
+                parser.nextTag();
+            }
+            addRemainingChildren(parser, itemsBuilder);
+            eventBuilder.addElement(itemsBuilder.build());
+            parser.nextTag();
+        }
+        addRemainingChildren(parser, eventBuilder);
+        return eventBuilder.build();
+    }
+
+    @Nonnull
+    private OpenlinkPubSubEvent parseEvent(
+            @Nonnull final EventFactory eventFactory,
+            @Nonnull final XmlPullParser parser,
+            @Nullable final PubSubNodeId pubSubNodeId,
+            @Nullable final ItemId itemId) throws IOException, XmlPullParserException {
+        if (validationPolicy == null) {
+            return eventFactory.from(parser, pubSubNodeId, itemId);
+        }
+        try (ScopedDefault.Scope ignored = validationPolicy.enter()) {
+            return eventFactory.from(parser, pubSubNodeId, itemId);
+        }
+    }
+
+    private static boolean isStartTag(@Nonnull final XmlPullParser parser, @Nonnull final String elementName) throws XmlPullParserException {
+        return parser.getEventType() == XmlPullParser.START_TAG && elementName.equals(parser.getName());
+    }
+
+    @Nullable
+    private static EventFactory getEventFactory(@Nonnull final XmlPullParser parser) throws XmlPullParserException {
+        if (parser.getEventType() != XmlPullParser.START_TAG) {
+            return null;
+        }
+        return EVENT_FACTORIES_BY_NAMESPACE.get(parser.getNamespace());
+    }
+
+    @Nonnull
+    private static StandardExtensionElement.Builder getBuilder(@Nonnull final String elementName, @Nonnull final String attributeName, @Nullable final String attributeValue) {
+        final StandardExtensionElement.Builder builder = StandardExtensionElement.builder(elementName, OpenlinkPubSubEvent.NAMESPACE);
+        if (attributeValue != null) {
+            builder.addAttribute(attributeName, attributeValue);
+        }
+        return builder;
+    }
+
+    /**
+     * Adds each of the remaining child elements of the current element, leaving the parser at the end tag of the
+     * current element.
+     */
+    private static void addRemainingChildren(@Nonnull final XmlPullParser parser, @Nonnull final StandardExtensionElement.Builder builder) throws Exception {
+        while (parser.getEventType() == XmlPullParser.START_TAG) {
+            builder.addElement(StandardExtensionElementProvider.INSTANCE.parse(parser));
+            parser.nextTag();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.bt.openlink.smack.client;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jivesoftware.smack.ExceptionCallback;
+import org.jivesoftware.smack.StanzaListener;
+import org.jivesoftware.smack.XMPPConnection;
+import org.jivesoftware.smack.packet.IQ;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.jxmpp.jid.Jid;
+import org.jxmpp.jid.impl.JidCreate;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.smack.Fixtures;
+import com.bt.openlink.smack.iq.GetCallHistoryRequest;
+import com.bt.openlink.smack.iq.GetCallHistoryResult;
+import com.bt.openlink.type.CallDirection;
+import com.bt.openlink.type.CallId;
+import com.bt.openlink.type.CallState;
+import com.bt.openlink.type.HistoricalCall;
+
+public class CallHistoryPagerTest {
+
+    private static final long TOTAL_RECORD_COUNT = 7;
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+    private XMPPConnection connection;
+    private List<GetCallHistoryRequest> requests;
+    private GetCallHistoryRequest template;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = mock(XMPPConnection.class);
+        requests = new ArrayList<>();
+        doAnswer(invocation -> {
+            final GetCallHistoryRequest request = invocation.getArgument(0);
+            requests.add(request);
+            final StanzaListener callback = invocation.getArgument(1);
+            callback.processStanza(getResult(request));
+            return null;
+        }).when(connection).sendIqWithResponseCallback(any(IQ.class), any(StanzaListener.class), any(ExceptionCallback.class), anyLong());
+        template = GetCallHistoryRequest.Builder.start()
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setJID(Fixtures.USER_BARE_JID)
+                .setCount(3L)
+                .build();
+    }
+
+    @Test
+    public void willRetrieveEveryPage() {
+
+        final List<String> callIds = new CallHistoryPager(connection, 2).getCallHistory(template)
+                .map(call -> call.getId().map(CallId::value).orElse(null))
+                .collect(Collectors.toList());
+
+        assertThat(callIds, contains("call-0", "call-1", "call-2", "call-3", "call-4", "call-5", "call-6"));
+        assertThat(requests.stream().map(request -> request.getStart().orElse(null)).collect(Collectors.toList()), contains(0L, 3L, 6L));
+        assertThat(requests.get(2).getJID(), is(template.getJID()));
+        assertThat(requests.get(2).getTo(), is(Fixtures.TO_JID));
+    }
+
+    @Test
+    public void willStartAtTheRequestedRecord() {
+
+        final GetCallHistoryRequest request = GetCallHistoryRequest.Builder.start()
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setStart(5L)
+                .build();
+
+        final List<String> callIds = new CallHistoryPager(connection, 2).getCallHistory(request)
+                .map(call -> call.getId().map(CallId::value).orElse(null))
+                .collect(Collectors.toList());
+
+        assertThat(callIds, contains("call-5", "call-6"));
+        assertThat(requests.get(0).getCount(), is(Optional.of(CallHistoryPager.DEFAULT_PAGE_SIZE)));
+    }
+
+    @Test
+    public void willNotSendARequestUntilTheStreamIsConsumed() throws Exception {
+
+        final Stream<HistoricalCall<Jid>> calls = new CallHistoryPager(connection, 2).getCallHistory(template);
+
+        verify(connection, never()).sendIqWithResponseCallback(any(IQ.class), any(StanzaListener.class), any(ExceptionCallback.class), anyLong());
+        calls.close();
+    }
+
+    @Test
+    public void willOnlyRequestTheNecessaryPages() {
+
+        final long count = new CallHistoryPager(connection, 1).getCallHistory(template).limit(2).count();
+
+        assertThat(count, is(2L));
+        // The second page is requested ahead of the first being consumed, but no further
+        assertThat(requests.stream().map(request -> request.getStart().orElse(null)).collect(Collectors.toList()), contains(0L, 3L));
+    }
+
+    @Test
+    public void willStopAtAnEmptyPageWithoutWaitingForOutstandingPages() throws Exception {
+
+        doAnswer(invocation -> {
+            final GetCallHistoryRequest request = invocation.getArgument(0);
+            requests.add(request);
+            final StanzaListener callback = invocation.getArgument(1);
+            final long start = request.getStart().orElse(0L);
+            if (start == 0) {
+                callback.processStanza(getResult(request));
+            } else if (start == 3) {
+                // The server has fewer records than it claimed in the first page
+                callback.processStanza(GetCallHistoryResult.Builder.createResultBuilder(request)
+                        .setTotalRecordCount(TOTAL_RECORD_COUNT)
+                        .setFirstRecordNumber(start)
+                        .setRecordCountInBatch(0L)
+                        .build());
+            }
+            // Later pages are never answered
+            return null;
+        }).when(connection).sendIqWithResponseCallback(any(IQ.class), any(StanzaListener.class), any(ExceptionCallback.class), anyLong());
+
+        final long count = new CallHistoryPager(connection, 2).getCallHistory(template).count();
+
+        assertThat(count, is(3L));
+        assertThat(requests.stream().map(request -> request.getStart().orElse(null)).collect(Collectors.toList()), contains(0L, 3L, 6L));
+    }
+
+    @Test
+    public void willRequestTheRecordsLeftOutOfAShortPage() throws Exception {
+
+        doAnswer(invocation -> {
+            final GetCallHistoryRequest request = invocation.getArgument(0);
+            requests.add(request);
+            final StanzaListener callback = invocation.getArgument(1);
+            // The server returns at most two records per page
+            callback.processStanza(getResult(request, 2));
+            return null;
+        }).when(connection).sendIqWithResponseCallback(any(IQ.class), any(StanzaListener.class), any(ExceptionCallback.class), anyLong());
+
+        final List<String> callIds = new CallHistoryPager(connection, 2).getCallHistory(template)
+                .map(call -> call.getId().map(CallId::value).orElse(null))
+                .collect(Collectors.toList());
+
+        assertThat(callIds, contains("call-0", "call-1", "call-2", "call-3", "call-4", "call-5", "call-6"));
+        assertThat(requests.stream().map(request -> request.getStart().orElse(null)).collect(Collectors.toList()), contains(0L, 2L, 3L, 6L, 5L));
+        assertThat(requests.get(1).getCount(), is(Optional.of(1L)));
+    }
+
+    @Test
+    public void willFailIfAPageStartsAfterTheNextRecord() throws Exception {
+
+        doAnswer(invocation -> {
+            final GetCallHistoryRequest request = invocation.getArgument(0);
+            final StanzaListener callback = invocation.getArgument(1);
+            final GetCallHistoryResult result = getResult(request);
+            callback.processStanza(GetCallHistoryResult.Builder.createResultBuilder(request)
+                    .setTotalRecordCount(TOTAL_RECORD_COUNT)
+                    .setFirstRecordNumber(request.getStart().orElse(0L) + 1)
+                    .setRecordCountInBatch(1L)
+                    .addCall(result.getCalls().get(1))
+                    .build());
+            return null;
+        }).when(connection).sendIqWithResponseCallback(any(IQ.class), any(StanzaListener.class), any(ExceptionCallback.class), anyLong());
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("record 0 was requested but the page started at record 1");
+
+        new CallHistoryPager(connection, 2).getCallHistory(template).count();
+    }
+
+    @Test
+    public void willFailIfAPageCannotBeRetrieved() throws Exception {
+
+        doAnswer(invocation -> {
+            final ExceptionCallback exceptionCallback = invocation.getArgument(2);
+            exceptionCallback.processException(new IllegalArgumentException("no response"));
+            return null;
+        }).when(connection).sendIqWithResponseCallback(any(IQ.class), any(StanzaListener.class), any(ExceptionCallback.class), anyLong());
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("Unable to retrieve the call history");
+
+        new CallHistoryPager(connection, 2).getCallHistory(template).count();
+    }
+
+    private static GetCallHistoryResult getResult(final GetCallHistoryRequest request) throws Exception {
+        return getResult(request, Long.MAX_VALUE);
+    }
+
+    private static GetCallHistoryResult getResult(final GetCallHistoryRequest request, final long maximumCount) throws Exception {
+        final long start = request.getStart().orElse(0L);
+        final long end = Math.min(TOTAL_RECORD_COUNT, start + Math.min(maximumCount, request.getCount().orElse(0L)));
+        final GetCallHistoryResult.Builder builder = GetCallHistoryResult.Builder.createResultBuilder(request)
+                .setTotalRecordCount(TOTAL_RECORD_COUNT)
+                .setFirstRecordNumber(start)
+                .setRecordCountInBatch(Math.max(0, end - start));
+        for (long i = start; i < end; i++) {
+            builder.addCall(HistoricalCall.Builder.<Jid> start()
+                    .setId(CallId.from("call-" + i).get())
+                    .setUserId(CoreFixtures.USER_ID)
+                    .setInterestId(CoreFixtures.INTEREST_ID)
+                    .setState(CallState.CALL_ESTABLISHED)
+                    .setDirection(CallDirection.OUTGOING)
+                    .setCallerNumber(CoreFixtures.CALLER_NUMBER)
+                    .setCallerName(CoreFixtures.CALLER_NAME)
+                    .setCalledNumber(CoreFixtures.CALLED_NUMBER)
+                    .setCalledName(CoreFixtures.CALLED_NAME)
+                    .setStartTime(CoreFixtures.START_TIME)
+                    .setDuration(CoreFixtures.DURATION)
+                    .setTsc(JidCreate.from(CoreFixtures.TSC))
+                    .build());
+        }
+        return builder.build();
+    }
+
+}
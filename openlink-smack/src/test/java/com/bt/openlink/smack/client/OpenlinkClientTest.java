@@ -0,0 +1,264 @@
+package com.bt.openlink.smack.client;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.jivesoftware.smack.ExceptionCallback;
+import org.jivesoftware.smack.SmackException;
+import org.jivesoftware.smack.StanzaListener;
+import org.jivesoftware.smack.XMPPConnection;
+import org.jivesoftware.smack.XMPPException;
+import org.jivesoftware.smack.filter.StanzaFilter;
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.packet.Stanza;
+import org.jivesoftware.smack.packet.XMPPError;
+import org.junit.Before;
+import org.junit.Test;
+import org.jxmpp.jid.impl.JidCreate;
+import org.mockito.ArgumentCaptor;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.correlation.PendingResultRegistry;
+import com.bt.openlink.smack.Fixtures;
+import com.bt.openlink.smack.iq.GetProfileRequest;
+import com.bt.openlink.smack.iq.GetProfileResult;
+import com.bt.openlink.smack.iq.MakeCallRequest;
+import com.bt.openlink.smack.iq.MakeCallResult;
+
+public class OpenlinkClientTest {
+
+    private XMPPConnection connection;
+    private List<IQ> requests;
+    private List<StanzaListener> responseCallbacks;
+    private List<ExceptionCallback> exceptionCallbacks;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = mock(XMPPConnection.class);
+        when(connection.getUser()).thenReturn(JidCreate.entityFullFrom(CoreFixtures.FROM_JID_STRING));
+        requests = new ArrayList<>();
+        responseCallbacks = new ArrayList<>();
+        exceptionCallbacks = new ArrayList<>();
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            responseCallbacks.add(invocation.getArgument(1));
+            exceptionCallbacks.add(invocation.getArgument(2));
+            return null;
+        }).when(connection).sendIqWithResponseCallback(any(IQ.class), any(StanzaListener.class), any(ExceptionCallback.class), anyLong());
+    }
+
+    @Test
+    public void willCompleteTheFutureWithTheResult() throws Exception {
+        final OpenlinkClient client = new OpenlinkClient(connection, 1);
+
+        final CompletableFuture<MakeCallResult> future = client.makeCall(getMakeCallRequest());
+        final MakeCallResult result = getMakeCallResult(requests.get(0));
+        responseCallbacks.get(0).processStanza(result);
+
+        assertThat(future.get(), is(sameInstance(result)));
+        assertThat(client.getRequestsInFlight(), is(0));
+    }
+
+    @Test
+    public void willLimitTheRequestsInFlight() throws Exception {
+        final OpenlinkClient client = new OpenlinkClient(connection, 2);
+
+        client.makeCall(getMakeCallRequest());
+        client.makeCall(getMakeCallRequest());
+        final CompletableFuture<MakeCallResult> future = client.makeCall(getMakeCallRequest());
+
+        assertThat(requests.size(), is(2));
+        assertThat(client.getRequestsInFlight(), is(2));
+        assertThat(client.getRequestsQueued(), is(1));
+
+        responseCallbacks.get(1).processStanza(getMakeCallResult(requests.get(1)));
+
+        assertThat(requests.size(), is(3));
+        assertThat(client.getRequestsInFlight(), is(2));
+        assertThat(client.getRequestsQueued(), is(0));
+        assertThat(future.isDone(), is(false));
+    }
+
+    @Test
+    public void willNotSendARequestCancelledWhilstQueued() throws Exception {
+        final OpenlinkClient client = new OpenlinkClient(connection, 1);
+
+        client.makeCall(getMakeCallRequest());
+        client.makeCall(getMakeCallRequest()).cancel(false);
+        responseCallbacks.get(0).processStanza(getMakeCallResult(requests.get(0)));
+
+        assertThat(requests.size(), is(1));
+        assertThat(client.getRequestsInFlight(), is(0));
+        assertThat(client.getRequestsQueued(), is(0));
+    }
+
+    @Test
+    public void willSendTheNextRequestWhenARequestFails() throws Exception {
+        final OpenlinkClient client = new OpenlinkClient(connection, 1);
+
+        final CompletableFuture<MakeCallResult> future = client.makeCall(getMakeCallRequest());
+        client.makeCall(getMakeCallRequest());
+        exceptionCallbacks.get(0).processException(new IllegalArgumentException("no response"));
+
+        assertThat(getCause(future), is(instanceOf(IllegalArgumentException.class)));
+        assertThat(requests.size(), is(2));
+    }
+
+    @Test
+    public void willFailIfTheResponseIsUnexpected() throws Exception {
+        final OpenlinkClient client = new OpenlinkClient(connection, 1);
+
+        final CompletableFuture<MakeCallResult> future = client.makeCall(getMakeCallRequest());
+        responseCallbacks.get(0).processStanza(GetProfileResult.Builder.createResultBuilder(requests.get(0)).setProfile(CoreFixtures.PROFILE).build());
+
+        assertThat(getCause(future), is(instanceOf(IllegalStateException.class)));
+        assertThat(client.getRequestsInFlight(), is(0));
+    }
+
+    @Test
+    public void willFailIfNotConnected() throws Exception {
+        doThrow(new SmackException.NotConnectedException()).when(connection).sendIqWithResponseCallback(any(IQ.class), any(StanzaListener.class), any(ExceptionCallback.class), anyLong());
+        final OpenlinkClient client = new OpenlinkClient(connection, 1);
+
+        final CompletableFuture<GetProfileResult> future1 = client.getProfile(getProfileRequest());
+        final CompletableFuture<GetProfileResult> future2 = client.getProfile(getProfileRequest());
+
+        assertThat(getCause(future1), is(instanceOf(SmackException.NotConnectedException.class)));
+        assertThat(getCause(future2), is(instanceOf(SmackException.NotConnectedException.class)));
+        assertThat(client.getRequestsInFlight(), is(0));
+    }
+
+    @Test
+    public void willNotRecurseWhenResponsesAreImmediate() throws Exception {
+        doAnswer(invocation -> {
+            final IQ request = invocation.getArgument(0);
+            final StanzaListener callback = invocation.getArgument(1);
+            callback.processStanza(getMakeCallResult(request));
+            return null;
+        }).when(connection).sendIqWithResponseCallback(any(IQ.class), any(StanzaListener.class), any(ExceptionCallback.class), anyLong());
+        final OpenlinkClient client = new OpenlinkClient(connection, 1);
+        final List<CompletableFuture<MakeCallResult>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 10000; i++) {
+            futures.add(client.makeCall(getMakeCallRequest()));
+        }
+
+        assertThat(futures.stream().allMatch(CompletableFuture::isDone), is(true));
+        assertThat(client.getRequestsInFlight(), is(0));
+    }
+
+    @Test
+    public void willCorrelateResultsWithARegistry() throws Exception {
+        final List<Stanza> sentStanzas = new ArrayList<>();
+        doAnswer(invocation -> sentStanzas.add(invocation.getArgument(0))).when(connection).sendStanza(any(Stanza.class));
+        final PendingResultRegistry<IQ> registry = new PendingResultRegistry<>(mock(ScheduledExecutorService.class), Duration.ofMillis(100), 64);
+        final OpenlinkClient client = new OpenlinkClient(connection, 1, registry);
+        final ArgumentCaptor<StanzaListener> resultListener = ArgumentCaptor.forClass(StanzaListener.class);
+        verify(connection).addSyncStanzaListener(resultListener.capture(), any(StanzaFilter.class));
+
+        final CompletableFuture<MakeCallResult> future1 = client.makeCall(getMakeCallRequest());
+        final CompletableFuture<MakeCallResult> future2 = client.makeCall(getMakeCallRequest());
+        final MakeCallResult result = getMakeCallResult((IQ) sentStanzas.get(0));
+        resultListener.getValue().processStanza(result);
+        resultListener.getValue().processStanza(IQ.createErrorResponse((IQ) sentStanzas.get(1), XMPPError.Condition.item_not_found));
+
+        assertThat(future1.get(), is(sameInstance(result)));
+        assertThat(getCause(future2), is(instanceOf(XMPPException.XMPPErrorException.class)));
+        assertThat(requests.size(), is(0));
+        assertThat(registry.getCompletedCount(), is(2L));
+        assertThat(client.getRequestsInFlight(), is(0));
+
+        client.close();
+        verify(connection).removeSyncStanzaListener(resultListener.getValue());
+    }
+
+    @Test
+    public void willIgnoreAResultFromAnotherEntityWithARegistry() throws Exception {
+        final List<Stanza> sentStanzas = new ArrayList<>();
+        doAnswer(invocation -> sentStanzas.add(invocation.getArgument(0))).when(connection).sendStanza(any(Stanza.class));
+        final PendingResultRegistry<IQ> registry = new PendingResultRegistry<>(mock(ScheduledExecutorService.class), Duration.ofMillis(100), 64);
+        final OpenlinkClient client = new OpenlinkClient(connection, 1, registry);
+        final ArgumentCaptor<StanzaListener> resultListener = ArgumentCaptor.forClass(StanzaListener.class);
+        verify(connection).addSyncStanzaListener(resultListener.capture(), any(StanzaFilter.class));
+
+        final CompletableFuture<MakeCallResult> future = client.makeCall(getMakeCallRequest());
+        final MakeCallResult spoofedResult = getMakeCallResult((IQ) sentStanzas.get(0));
+        spoofedResult.setFrom(Fixtures.USER_FULL_JID);
+        resultListener.getValue().processStanza(spoofedResult);
+
+        assertThat(future.isDone(), is(false));
+        assertThat(registry.size(), is(1));
+
+        final MakeCallResult result = getMakeCallResult((IQ) sentStanzas.get(0));
+        resultListener.getValue().processStanza(result);
+
+        assertThat(future.get(), is(sameInstance(result)));
+        assertThat(registry.getCompletedCount(), is(1L));
+    }
+
+    @Test
+    public void willFailIfNotConnectedWithARegistry() throws Exception {
+        doThrow(new SmackException.NotConnectedException()).when(connection).sendStanza(any(Stanza.class));
+        final PendingResultRegistry<IQ> registry = new PendingResultRegistry<>(mock(ScheduledExecutorService.class), Duration.ofMillis(100), 64);
+        final OpenlinkClient client = new OpenlinkClient(connection, 1, registry);
+
+        final CompletableFuture<MakeCallResult> future = client.makeCall(getMakeCallRequest());
+
+        assertThat(getCause(future), is(instanceOf(SmackException.NotConnectedException.class)));
+        assertThat(registry.size(), is(0));
+        assertThat(client.getRequestsInFlight(), is(0));
+    }
+
+    private static Throwable getCause(final CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+            return null;
+        } catch (final ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+    private static MakeCallRequest getMakeCallRequest() {
+        return MakeCallRequest.Builder.start()
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setJID(Fixtures.USER_FULL_JID)
+                .setInterestId(CoreFixtures.INTEREST_ID)
+                .setDestination(CoreFixtures.CALLED_DESTINATION)
+                .build();
+    }
+
+    private static MakeCallResult getMakeCallResult(final IQ request) {
+        return MakeCallResult.Builder.start()
+                .setId(request.getStanzaId())
+                .setTo(request.getFrom())
+                .setFrom(request.getTo())
+                .setCallStatus(CoreFixtures.CALL_STATUS)
+                .build();
+    }
+
+    private static GetProfileRequest getProfileRequest() {
+        return GetProfileRequest.Builder.start()
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .build();
+    }
+
+}
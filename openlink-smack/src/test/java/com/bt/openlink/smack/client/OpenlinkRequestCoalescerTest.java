@@ -0,0 +1,160 @@
+package com.bt.openlink.smack.client;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.jivesoftware.smack.ExceptionCallback;
+import org.jivesoftware.smack.StanzaListener;
+import org.jivesoftware.smack.XMPPConnection;
+import org.jivesoftware.smack.packet.IQ;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.smack.Fixtures;
+import com.bt.openlink.smack.iq.GetProfileRequest;
+import com.bt.openlink.smack.iq.GetProfileResult;
+import com.bt.openlink.smack.iq.SetFeaturesRequest;
+import com.bt.openlink.smack.iq.SetFeaturesResult;
+import com.bt.openlink.type.FeatureId;
+import com.bt.openlink.type.ProfileId;
+
+@SuppressWarnings("ConstantConditions")
+public class OpenlinkRequestCoalescerTest {
+
+    private List<IQ> requests;
+    private List<StanzaListener> responseCallbacks;
+    private List<ExceptionCallback> exceptionCallbacks;
+    private OpenlinkRequestCoalescer coalescer;
+
+    @Before
+    public void setUp() throws Exception {
+        final XMPPConnection connection = mock(XMPPConnection.class);
+        requests = new ArrayList<>();
+        responseCallbacks = new ArrayList<>();
+        exceptionCallbacks = new ArrayList<>();
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            responseCallbacks.add(invocation.getArgument(1));
+            exceptionCallbacks.add(invocation.getArgument(2));
+            return null;
+        }).when(connection).sendIqWithResponseCallback(any(IQ.class), any(StanzaListener.class), any(ExceptionCallback.class), anyLong());
+        coalescer = new OpenlinkRequestCoalescer(connection);
+    }
+
+    @Test
+    public void willSendAnIdenticalRequestOnce() throws Exception {
+
+        final CompletableFuture<GetProfileResult> future1 = coalescer.send(getProfileRequest(CoreFixtures.PROFILE_ID), GetProfileResult.class);
+        final CompletableFuture<GetProfileResult> future2 = coalescer.send(getProfileRequest(CoreFixtures.PROFILE_ID), GetProfileResult.class);
+        final GetProfileResult result = getProfileResult(requests.get(0));
+        responseCallbacks.get(0).processStanza(result);
+
+        assertThat(requests.size(), is(1));
+        assertThat(future1.get(), is(sameInstance(result)));
+        assertThat(future2.get(), is(sameInstance(result)));
+        assertThat(coalescer.getRequestsInFlight(), is(0));
+    }
+
+    @Test
+    public void willSendDifferentRequestsSeparately() {
+
+        coalescer.send(getProfileRequest(CoreFixtures.PROFILE_ID), GetProfileResult.class);
+        coalescer.send(getProfileRequest(ProfileId.from("other-profile-id").get()), GetProfileResult.class);
+
+        assertThat(requests.size(), is(2));
+        assertThat(coalescer.getRequestsInFlight(), is(2));
+    }
+
+    @Test
+    public void willSendARequestAgainOnceItHasCompleted() throws Exception {
+
+        coalescer.send(getProfileRequest(CoreFixtures.PROFILE_ID), GetProfileResult.class);
+        responseCallbacks.get(0).processStanza(getProfileResult(requests.get(0)));
+        coalescer.send(getProfileRequest(CoreFixtures.PROFILE_ID), GetProfileResult.class);
+
+        assertThat(requests.size(), is(2));
+    }
+
+    @Test
+    public void willShareAFailure() throws Exception {
+
+        final CompletableFuture<GetProfileResult> future1 = coalescer.send(getProfileRequest(CoreFixtures.PROFILE_ID), GetProfileResult.class);
+        final CompletableFuture<GetProfileResult> future2 = coalescer.send(getProfileRequest(CoreFixtures.PROFILE_ID), GetProfileResult.class);
+        exceptionCallbacks.get(0).processException(new IllegalArgumentException("no response"));
+
+        assertThat(getCause(future1), is(instanceOf(IllegalArgumentException.class)));
+        assertThat(getCause(future2), is(instanceOf(IllegalArgumentException.class)));
+        assertThat(coalescer.getRequestsInFlight(), is(0));
+    }
+
+    @Test
+    public void willNotCancelTheRequestOfOtherCallers() throws Exception {
+
+        final CompletableFuture<GetProfileResult> future1 = coalescer.send(getProfileRequest(CoreFixtures.PROFILE_ID), GetProfileResult.class);
+        final CompletableFuture<GetProfileResult> future2 = coalescer.send(getProfileRequest(CoreFixtures.PROFILE_ID), GetProfileResult.class);
+        future1.cancel(false);
+        final GetProfileResult result = getProfileResult(requests.get(0));
+        responseCallbacks.get(0).processStanza(result);
+
+        assertThat(future2.get(), is(sameInstance(result)));
+    }
+
+    @Test
+    public void willAlwaysSendARequestThatIsNotAQuery() throws Exception {
+
+        coalescer.send(getSetFeaturesRequest(), SetFeaturesResult.class);
+        coalescer.send(getSetFeaturesRequest(), SetFeaturesResult.class);
+
+        assertThat(requests.size(), is(2));
+        assertThat(coalescer.getRequestsInFlight(), is(0));
+    }
+
+    private static Throwable getCause(final CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get();
+            return null;
+        } catch (final ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+    private static GetProfileRequest getProfileRequest(final ProfileId profileId) {
+        return GetProfileRequest.Builder.start()
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setProfileId(profileId)
+                .build();
+    }
+
+    private static GetProfileResult getProfileResult(final IQ request) {
+        return GetProfileResult.Builder.start()
+                .setId(request.getStanzaId())
+                .setTo(request.getFrom())
+                .setFrom(request.getTo())
+                .setProfile(CoreFixtures.PROFILE)
+                .build();
+    }
+
+    private static SetFeaturesRequest getSetFeaturesRequest() {
+        return SetFeaturesRequest.Builder.start()
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .setFeatureId(FeatureId.from("hs_1").get())
+                .setValue1("true")
+                .build();
+    }
+
+}
@@ -0,0 +1,285 @@
+package com.bt.openlink.smack.client;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.jivesoftware.smack.ExceptionCallback;
+import org.jivesoftware.smack.StanzaListener;
+import org.jivesoftware.smack.XMPPConnection;
+import org.jivesoftware.smack.filter.StanzaFilter;
+import org.jivesoftware.smack.packet.IQ;
+import org.jivesoftware.smack.packet.Message;
+import org.jivesoftware.smack.packet.XMPPError;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.smack.Fixtures;
+import com.bt.openlink.smack.iq.GetFeaturesRequest;
+import com.bt.openlink.smack.iq.GetFeaturesResult;
+import com.bt.openlink.smack.iq.GetProfilesRequest;
+import com.bt.openlink.smack.iq.GetProfilesResult;
+import com.bt.openlink.smack.iq.SetFeaturesRequest;
+import com.bt.openlink.smack.message.DeviceStatusEvent;
+import com.bt.openlink.type.DeviceStatus;
+import com.bt.openlink.type.FeatureId;
+import com.bt.openlink.type.ProfileId;
+
+@SuppressWarnings("ConstantConditions")
+public class OpenlinkResultCacheTest {
+
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+    private static final ProfileId OTHER_PROFILE_ID = ProfileId.from("other-profile-id").get();
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+    private XMPPConnection connection;
+    private Clock clock;
+    private List<IQ> requests;
+    private List<StanzaListener> responseCallbacks;
+    private OpenlinkResultCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        connection = mock(XMPPConnection.class);
+        clock = mock(Clock.class);
+        when(clock.instant()).thenReturn(CoreFixtures.START_TIME);
+        requests = new ArrayList<>();
+        responseCallbacks = new ArrayList<>();
+        doAnswer(invocation -> {
+            requests.add(invocation.getArgument(0));
+            responseCallbacks.add(invocation.getArgument(1));
+            return null;
+        }).when(connection).sendIqWithResponseCallback(any(IQ.class), any(StanzaListener.class), any(ExceptionCallback.class), anyLong());
+        cache = new OpenlinkResultCache(connection, TIME_TO_LIVE, 2, clock);
+    }
+
+    @Test
+    public void willCacheAResult() throws Exception {
+
+        final GetFeaturesResult result = getFeatures(CoreFixtures.PROFILE_ID);
+        final CompletableFuture<GetFeaturesResult> cachedResult = cache.getFeatures(getFeaturesRequest(CoreFixtures.PROFILE_ID));
+
+        assertThat(cachedResult.isDone(), is(true));
+        assertThat(cachedResult.get(), is(not(sameInstance(result))));
+        assertThat(cachedResult.get().getStanzaId(), is(result.getStanzaId()));
+        assertThat(cachedResult.get().getProfileId(), is(result.getProfileId()));
+        assertThat(requests.size(), is(1));
+    }
+
+    @Test
+    public void willGiveEachCallerItsOwnCopyOfAResult() throws Exception {
+
+        final GetFeaturesResult result = getFeatures(CoreFixtures.PROFILE_ID);
+        final GetFeaturesResult cachedResult = cache.getFeatures(getFeaturesRequest(CoreFixtures.PROFILE_ID)).get();
+        result.setStanzaId("changed-by-the-requester");
+        cachedResult.setStanzaId("changed-by-a-caller");
+        final GetFeaturesResult otherCachedResult = cache.getFeatures(getFeaturesRequest(CoreFixtures.PROFILE_ID)).get();
+
+        assertThat(otherCachedResult, is(not(sameInstance(cachedResult))));
+        assertThat(otherCachedResult.getStanzaId(), is(requests.get(0).getStanzaId()));
+        assertThat(otherCachedResult.getFeatures(), is(result.getFeatures()));
+    }
+
+    @Test
+    public void willNotShareAResultBetweenProfiles() throws Exception {
+
+        final GetFeaturesResult result = getFeatures(CoreFixtures.PROFILE_ID);
+        final GetFeaturesResult otherResult = getFeatures(OTHER_PROFILE_ID);
+
+        assertThat(otherResult, is(not(sameInstance(result))));
+        assertThat(requests.size(), is(2));
+    }
+
+    @Test
+    public void willExpireAResult() throws Exception {
+
+        getFeatures(CoreFixtures.PROFILE_ID);
+        when(clock.instant()).thenReturn(CoreFixtures.START_TIME.plus(TIME_TO_LIVE));
+        final CompletableFuture<GetFeaturesResult> result = cache.getFeatures(getFeaturesRequest(CoreFixtures.PROFILE_ID));
+
+        assertThat(result.isDone(), is(false));
+        assertThat(requests.size(), is(2));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void willEvictTheLeastRecentlyUsedResult() throws Exception {
+
+        getFeatures(CoreFixtures.PROFILE_ID);
+        getProfiles();
+        cache.getFeatures(getFeaturesRequest(CoreFixtures.PROFILE_ID));
+        getFeatures(OTHER_PROFILE_ID);
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.getFeatures(getFeaturesRequest(CoreFixtures.PROFILE_ID)).isDone(), is(true));
+        assertThat(cache.getProfiles(getProfilesRequest()).isDone(), is(false));
+    }
+
+    @Test
+    public void willInvalidateAProfileWhenItsDeviceStatusIsReceived() throws Exception {
+        final ArgumentCaptor<StanzaListener> listener = ArgumentCaptor.forClass(StanzaListener.class);
+        verify(connection).addSyncStanzaListener(listener.capture(), any(StanzaFilter.class));
+        getFeatures(CoreFixtures.PROFILE_ID);
+        getFeatures(OTHER_PROFILE_ID);
+
+        listener.getValue().processStanza(getDeviceStatusMessage(CoreFixtures.DEVICE_STATUS_LOGON));
+
+        assertThat(cache.getFeatures(getFeaturesRequest(CoreFixtures.PROFILE_ID)).isDone(), is(false));
+        assertThat(cache.getFeatures(getFeaturesRequest(OTHER_PROFILE_ID)).isDone(), is(true));
+    }
+
+    @Test
+    public void willInvalidateTheProfilesContainingAProfile() throws Exception {
+        final ArgumentCaptor<StanzaListener> listener = ArgumentCaptor.forClass(StanzaListener.class);
+        verify(connection).addSyncStanzaListener(listener.capture(), any(StanzaFilter.class));
+        getProfiles();
+
+        listener.getValue().processStanza(getDeviceStatusMessage(DeviceStatus.Builder.start()
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .build()));
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void willInvalidateAProfileWhenItsFeaturesAreSet() throws Exception {
+        final ArgumentCaptor<StanzaListener> listener = ArgumentCaptor.forClass(StanzaListener.class);
+        verify(connection).addPacketSendingListener(listener.capture(), any(StanzaFilter.class));
+        getFeatures(CoreFixtures.PROFILE_ID);
+
+        listener.getValue().processStanza(SetFeaturesRequest.Builder.start()
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setProfileId(CoreFixtures.PROFILE_ID)
+                .setFeatureId(FeatureId.from("hs_1").get())
+                .setValue1("true")
+                .build());
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void willNotCacheAResultRequestedBeforeAnInvalidation() throws Exception {
+
+        final CompletableFuture<GetFeaturesResult> future = cache.getFeatures(getFeaturesRequest(CoreFixtures.PROFILE_ID));
+        cache.invalidate(CoreFixtures.PROFILE_ID);
+        responseCallbacks.get(0).processStanza(getFeaturesResult((GetFeaturesRequest) requests.get(0)));
+
+        assertThat(future.isDone(), is(true));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void willCacheAResultRequestedBeforeAnInvalidationOfAnotherProfile() throws Exception {
+
+        final CompletableFuture<GetFeaturesResult> future = cache.getFeatures(getFeaturesRequest(CoreFixtures.PROFILE_ID));
+        cache.invalidate(OTHER_PROFILE_ID);
+        responseCallbacks.get(0).processStanza(getFeaturesResult((GetFeaturesRequest) requests.get(0)));
+
+        assertThat(future.isDone(), is(true));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void willNotCacheAResultRequestedBeforeEveryResultIsInvalidated() throws Exception {
+
+        final CompletableFuture<GetFeaturesResult> future = cache.getFeatures(getFeaturesRequest(CoreFixtures.PROFILE_ID));
+        cache.invalidateAll();
+        responseCallbacks.get(0).processStanza(getFeaturesResult((GetFeaturesRequest) requests.get(0)));
+
+        assertThat(future.isDone(), is(true));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void willNotCacheAnError() throws Exception {
+
+        final CompletableFuture<GetFeaturesResult> future = cache.getFeatures(getFeaturesRequest(CoreFixtures.PROFILE_ID));
+        responseCallbacks.get(0).processStanza(IQ.createErrorResponse(requests.get(0), XMPPError.Condition.item_not_found));
+
+        assertThat(cache.size(), is(0));
+        expectedException.expect(ExecutionException.class);
+        future.get();
+    }
+
+    @Test
+    public void willStopListeningWhenClosed() {
+
+        cache.close();
+
+        verify(connection).removeSyncStanzaListener(any(StanzaListener.class));
+        verify(connection).removePacketSendingListener(any(StanzaListener.class));
+    }
+
+    private GetFeaturesResult getFeatures(final ProfileId profileId) throws Exception {
+        final CompletableFuture<GetFeaturesResult> future = cache.getFeatures(getFeaturesRequest(profileId));
+        final GetFeaturesRequest request = (GetFeaturesRequest) requests.get(requests.size() - 1);
+        responseCallbacks.get(responseCallbacks.size() - 1).processStanza(getFeaturesResult(request));
+        return future.get();
+    }
+
+    private void getProfiles() throws Exception {
+        final CompletableFuture<GetProfilesResult> future = cache.getProfiles(getProfilesRequest());
+        final IQ request = requests.get(requests.size() - 1);
+        responseCallbacks.get(responseCallbacks.size() - 1).processStanza(GetProfilesResult.Builder.start()
+                .setId(request.getStanzaId())
+                .setTo(request.getFrom())
+                .setFrom(request.getTo())
+                .addProfile(CoreFixtures.PROFILE)
+                .build());
+        future.get();
+    }
+
+    private static Message getDeviceStatusMessage(final DeviceStatus deviceStatus) {
+        final Message message = new Message(Fixtures.TO_JID);
+        message.addExtension(DeviceStatusEvent.Builder.start()
+                .setPubSubNodeId(CoreFixtures.INTEREST_ID)
+                .setDeviceStatus(deviceStatus)
+                .build());
+        return message;
+    }
+
+    private static GetFeaturesRequest getFeaturesRequest(final ProfileId profileId) {
+        return GetFeaturesRequest.Builder.start()
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setProfileId(profileId)
+                .build();
+    }
+
+    private static GetFeaturesResult getFeaturesResult(final GetFeaturesRequest request) {
+        return GetFeaturesResult.Builder.start()
+                .setId(request.getStanzaId())
+                .setTo(request.getFrom())
+                .setFrom(request.getTo())
+                .setProfileId(request.getProfileId().get())
+                .build();
+    }
+
+    private static GetProfilesRequest getProfilesRequest() {
+        return GetProfilesRequest.Builder.start()
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setJID(Fixtures.USER_BARE_JID)
+                .build();
+    }
+
+}
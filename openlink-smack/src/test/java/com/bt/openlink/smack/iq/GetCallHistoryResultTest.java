@@ -1,6 +1,7 @@
 package com.bt.openlink.smack.iq;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
 import static org.junit.Assert.assertThat;
@@ -9,7 +10,9 @@ import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.TimeZone;
 
@@ -21,11 +24,14 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.jxmpp.jid.Jid;
 import org.jxmpp.jid.impl.JidCreate;
+import org.xmlpull.v1.XmlPullParser;
 
 import com.bt.openlink.CoreFixtures;
 import com.bt.openlink.GetCallHistoryFixtures;
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.iq.CallHistoryListener;
 import com.bt.openlink.smack.Fixtures;
 import com.bt.openlink.type.HistoricalCall;
 
@@ -150,4 +156,31 @@ public class GetCallHistoryResultTest {
         assertThat(result.getType(), is(IQ.Type.result));
     }
 
+    @Test
+    public void willStreamTheCallsToAListener() throws Exception {
+
+        final List<Long> header = new ArrayList<>();
+        final List<HistoricalCall<Jid>> calls = new ArrayList<>();
+        final XmlPullParser parser = PacketParserUtils.getParserFor(GetCallHistoryFixtures.CALL_HISTORY_RESULT);
+        parser.nextTag(); // the command element, where the provider leaves the parser
+
+        final GetCallHistoryResult result = GetCallHistoryResult.from(parser, new CallHistoryListener<Jid>() {
+            @Override
+            public void onCallHistory(final Long totalRecordCount, final Long firstRecordNumber, final Long recordCountInBatch) {
+                header.addAll(Arrays.asList(totalRecordCount, firstRecordNumber, recordCountInBatch));
+            }
+
+            @Override
+            public void onHistoricalCall(final HistoricalCall<Jid> call) {
+                calls.add(call);
+            }
+        });
+
+        assertThat(header, contains(2L, 0L, 1L));
+        assertReflectionEquals(Collections.singletonList(GetCallHistoryFixtures.getHistoricalCall(JidCreate.from(CoreFixtures.TSC))), calls);
+        assertThat(result.getCalls(), is(empty()));
+        assertThat(result.getRecordCountInBatch(), is(Optional.of(1L)));
+        assertThat(result.getParseErrors(), is(empty()));
+    }
+
 }
\ No newline at end of file
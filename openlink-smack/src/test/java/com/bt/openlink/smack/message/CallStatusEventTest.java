@@ -0,0 +1,157 @@
+package com.bt.openlink.smack.message;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.unitils.reflectionassert.ReflectionAssert.assertReflectionEquals;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import java.util.ArrayList;
+
+import org.jivesoftware.smack.packet.ExtensionElement;
+import org.jivesoftware.smack.packet.Message;
+import org.jivesoftware.smack.packet.StandardExtensionElement;
+import org.jivesoftware.smack.provider.ProviderManager;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.PubSubMessageFixtures;
+import com.bt.openlink.ValidationPolicy;
+
+@SuppressWarnings("OptionalGetWithoutIsPresent")
+public class CallStatusEventTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @BeforeClass
+    public static void setUpClass() {
+        ProviderManager.addExtensionProvider(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE, new OpenlinkPubSubEventProvider());
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        ProviderManager.removeExtensionProvider(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE);
+    }
+
+    static String getEventElement(final String message) {
+        return message.substring(message.indexOf("<event"), message.indexOf("</event>") + "</event>".length());
+    }
+
+    @Test
+    public void canCreateAnEvent() {
+
+        final CallStatusEvent event = CallStatusEvent.Builder.start()
+                .setPubSubNodeId(CoreFixtures.CALL_OUTGOING_CONFERENCED.getInterestId().get())
+                .setItemId(PubSubMessageFixtures.ITEM_ID)
+                .setCallStatus(CoreFixtures.CALL_STATUS)
+                .build();
+
+        assertThat(event.getPubSubNodeId().get(), is(PubSubMessageFixtures.NODE_ID));
+        assertThat(event.getItemId().get(), is(PubSubMessageFixtures.ITEM_ID));
+        assertThat(event.getCallStatus().get(), is(CoreFixtures.CALL_STATUS));
+    }
+
+    @Test
+    public void cannotCreateAnEventWithoutANode() {
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("The stanza 'pubSubNodeId' has not been set");
+
+        CallStatusEvent.Builder.start()
+                .setCallStatus(CoreFixtures.CALL_STATUS)
+                .build();
+    }
+
+    @Test
+    public void willGenerateAnEventElement() {
+
+        final CallStatusEvent event = CallStatusEvent.Builder.start()
+                .setPubSubNodeId(CoreFixtures.CALL_OUTGOING_CONFERENCED.getInterestId().get())
+                .setItemId(PubSubMessageFixtures.ITEM_ID)
+                .setCallStatus(CoreFixtures.CALL_STATUS)
+                .build();
+
+        assertThat(event.toXML().toString(), isIdenticalTo(getEventElement(PubSubMessageFixtures.CALL_STATUS_MESSAGE)).ignoreWhitespace());
+    }
+
+    @Test
+    public void willCreateAnEventWithoutMandatoryFields() {
+
+        final CallStatusEvent event = CallStatusEvent.Builder.start()
+                .build(new ArrayList<>());
+
+        assertThat(event.toXML().toString(), isIdenticalTo(getEventElement(PubSubMessageFixtures.PUBSUB_MESSAGE_WITH_NO_FIELDS)).ignoreWhitespace());
+        assertThat(event.getParseErrors(), contains(
+                "Invalid callstatus message stanza; the 'pubSubNodeId' has not been set",
+                "Invalid callstatus message stanza; missing or invalid calls"));
+    }
+
+    @Test
+    public void willParseACallStatusEvent() throws Exception {
+
+        final Message message = PacketParserUtils.parseStanza(PubSubMessageFixtures.CALL_STATUS_MESSAGE);
+
+        final ExtensionElement extension = message.getExtension(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE);
+        assertThat(extension, is(instanceOf(CallStatusEvent.class)));
+        final CallStatusEvent event = (CallStatusEvent) extension;
+        assertThat(event.getPubSubNodeId().get(), is(PubSubMessageFixtures.NODE_ID));
+        assertThat(event.getItemId().get(), is(PubSubMessageFixtures.ITEM_ID));
+        assertReflectionEquals(CoreFixtures.CALL_STATUS, event.getCallStatus().get());
+        assertThat(event.getParseErrors().size(), is(0));
+    }
+
+    @Test
+    public void willParseTheRestOfTheMessageAfterTheEvent() throws Exception {
+
+        final Message message = PacketParserUtils.parseStanza(PubSubMessageFixtures.CALL_STATUS_MESSAGE_DELAYED);
+
+        assertThat(message.getExtension(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE), is(instanceOf(CallStatusEvent.class)));
+        assertThat(message.getExtension("delay", "urn:xmpp:delay").getElementName(), is("delay"));
+    }
+
+    @Test
+    public void willReportCallsOnTheWrongInterest() throws Exception {
+
+        final Message message = PacketParserUtils.parseStanza(PubSubMessageFixtures.CALL_STATUS_MESSAGE.replace(
+                "node='" + PubSubMessageFixtures.NODE_ID + "'", "node='another-node'"));
+
+        final CallStatusEvent event = message.getExtension(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE);
+        assertThat(event.getParseErrors(), contains(
+                "Invalid callstatus message stanza; the call with id " + CoreFixtures.CALL_ID + " is on interest " + CoreFixtures.INTEREST_ID + " which differs from the pub-sub node id another-node"));
+    }
+
+    @Test
+    public void willNotReportCallsOnTheWrongInterestWithAStructuralValidationPolicy() throws Exception {
+
+        ProviderManager.addExtensionProvider(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE, new OpenlinkPubSubEventProvider(ValidationPolicy.STRUCTURAL));
+        try {
+            final Message message = PacketParserUtils.parseStanza(PubSubMessageFixtures.CALL_STATUS_MESSAGE.replace(
+                    "node='" + PubSubMessageFixtures.NODE_ID + "'", "node='another-node'"));
+
+            final CallStatusEvent event = message.getExtension(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE);
+            assertThat(event.getParseErrors(), is(empty()));
+        } finally {
+            ProviderManager.addExtensionProvider(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE, new OpenlinkPubSubEventProvider());
+        }
+    }
+
+    @Test
+    public void willReturnAStandardElementForOtherEvents() throws Exception {
+
+        final Message message = PacketParserUtils.parseStanza(PubSubMessageFixtures.ARBITRARY_PUBSUB_MESSAGE);
+
+        final ExtensionElement extension = message.getExtension(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE);
+        assertThat(extension, is(instanceOf(StandardExtensionElement.class)));
+        final StandardExtensionElement items = ((StandardExtensionElement) extension).getFirstElement("items");
+        assertThat(items.getAttributeValue("node"), is("sip:6004@uta.bt.com-DirectDial-1sales1@btsm2"));
+        assertThat(items.getFirstElement("item").getAttributeValue("id"), is("sip:6004@uta.bt.com-DirectDial-1sales1@btsm2"));
+    }
+
+}
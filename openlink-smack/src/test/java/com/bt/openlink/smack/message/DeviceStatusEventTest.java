@@ -0,0 +1,70 @@
+package com.bt.openlink.smack.message;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.unitils.reflectionassert.ReflectionAssert.assertReflectionEquals;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import org.jivesoftware.smack.packet.Message;
+import org.jivesoftware.smack.provider.ProviderManager;
+import org.jivesoftware.smack.util.PacketParserUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.PubSubMessageFixtures;
+
+@SuppressWarnings("OptionalGetWithoutIsPresent")
+public class DeviceStatusEventTest {
+
+    @Rule public final ExpectedException expectedException = ExpectedException.none();
+
+    @BeforeClass
+    public static void setUpClass() {
+        ProviderManager.addExtensionProvider(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE, new OpenlinkPubSubEventProvider());
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        ProviderManager.removeExtensionProvider(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE);
+    }
+
+    @Test
+    public void willGenerateAnEventElement() {
+
+        final DeviceStatusEvent event = DeviceStatusEvent.Builder.start()
+                .setPubSubNodeId(CoreFixtures.CALL_OUTGOING_CONFERENCED.getInterestId().get())
+                .setItemId(PubSubMessageFixtures.ITEM_ID)
+                .setDeviceStatus(CoreFixtures.DEVICE_STATUS_LOGON)
+                .build();
+
+        assertThat(event.toXML().toString(), isIdenticalTo(CallStatusEventTest.getEventElement(PubSubMessageFixtures.DEVICE_STATUS_MESSAGE)).ignoreWhitespace());
+    }
+
+    @Test
+    public void cannotCreateAnEventWithoutADeviceStatus() {
+
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage("The stanza 'deviceStatus' has not been set");
+
+        DeviceStatusEvent.Builder.start()
+                .setPubSubNodeId(PubSubMessageFixtures.NODE_ID)
+                .build();
+    }
+
+    @Test
+    public void willParseADeviceStatusEvent() throws Exception {
+
+        final Message message = PacketParserUtils.parseStanza(PubSubMessageFixtures.DEVICE_STATUS_MESSAGE);
+
+        final DeviceStatusEvent event = message.getExtension(OpenlinkPubSubEvent.ELEMENT_NAME, OpenlinkPubSubEvent.NAMESPACE);
+        assertThat(event.getPubSubNodeId().get(), is(PubSubMessageFixtures.NODE_ID));
+        assertThat(event.getItemId().get(), is(PubSubMessageFixtures.ITEM_ID));
+        assertReflectionEquals(CoreFixtures.DEVICE_STATUS_LOGON, event.getDeviceStatus().get());
+        assertThat(event.getParseErrors().size(), is(0));
+    }
+
+}
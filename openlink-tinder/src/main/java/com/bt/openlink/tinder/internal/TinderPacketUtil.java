@@ -1,11 +1,8 @@
 package com.bt.openlink.tinder.internal;
 
-import java.sql.Timestamp;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
@@ -15,7 +12,6 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.TimeZone;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -27,7 +23,11 @@ import org.xmpp.packet.JID;
 import org.xmpp.packet.Message;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
+import com.bt.openlink.internal.TimestampCodec;
 import com.bt.openlink.message.PubSubMessageBuilder;
+import com.bt.openlink.tinder.message.OpenlinkPubSubMessage;
 import com.bt.openlink.type.Call;
 import com.bt.openlink.type.CallDirection;
 import com.bt.openlink.type.CallFeature;
@@ -75,8 +75,6 @@ import com.bt.openlink.type.VoiceRecorderInfo;
  */
 public final class TinderPacketUtil {
 
-    public static final DateTimeFormatter ISO_8601_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-    private static final DateTimeFormatter JAVA_UTIL_DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy");
     private static final String ATTRIBUTE_DIRECTION = "direction";
     private static final String ATTRIBUTE_DESTINATION = "destination";
     private static final String ATTRIBUTE_NUMBER = "number";
@@ -180,7 +178,7 @@ public final class TinderPacketUtil {
             try {
                 return Optional.of(LocalDate.parse(dateText, dateTimeFormatter));
             } catch (final DateTimeParseException e) {
-                parseErrors.add(String.format("Invalid %s; invalid %s '%s'; date format is '%s'", stanzaDescription, childElementName, dateText, dateFormat));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_DATE, childElementName, stanzaDescription, childElementName, dateText, dateFormat);
             }
         }
         return Optional.empty();
@@ -195,9 +193,9 @@ public final class TinderPacketUtil {
         final String childElementText = getNullableChildElementString(parentElement, childElementName);
         if (childElementText != null) {
             try {
-                return Optional.of(Instant.parse(childElementText));
+                return Optional.of(TimestampCodec.parseISO8601(childElementText));
             } catch (final DateTimeParseException ignored) {
-                parseErrors.add(String.format("Invalid %s; invalid %s '%s'; format should be compliant with XEP-0082", stanzaDescription, childElementName, childElementText));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_ISO_8601_TIMESTAMP, childElementName, stanzaDescription, childElementName, childElementText);
             }
         }
         return Optional.empty();
@@ -214,7 +212,7 @@ public final class TinderPacketUtil {
             try {
                 return Optional.of(Long.parseLong(childElementText));
             } catch (final NumberFormatException ignored) {
-                parseErrors.add(String.format("Invalid %s; invalid %s '%s'; please supply an integer", stanzaDescription, childElementName, childElementText));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_INTEGER, childElementName, stanzaDescription, childElementName, childElementText);
             }
         }
         return Optional.empty();
@@ -265,7 +263,7 @@ public final class TinderPacketUtil {
             attributeValue = valueString == null || valueString.isEmpty() ? null : valueString;
         }
         if (attributeValue == null && isRequired) {
-            parseErrors.add(String.format("Invalid %s; missing '%s' attribute is mandatory", stanzaDescription, attributeName));
+            ParseErrors.report(parseErrors, ParseError.Code.MISSING_ATTRIBUTE, attributeName, stanzaDescription, attributeName);
         }
         return attributeValue;
     }
@@ -276,7 +274,7 @@ public final class TinderPacketUtil {
         try {
             return stringValue.map(Long::valueOf);
         } catch (final NumberFormatException e) {
-            parseErrors.add(String.format("Invalid %s; Unable to parse number attribute %s: '%s'", description, attributeName, stringValue));
+            ParseErrors.report(parseErrors, ParseError.Code.INVALID_NUMBER_ATTRIBUTE, attributeName, description, attributeName, stringValue);
             return Optional.empty();
         }
     }
@@ -287,7 +285,7 @@ public final class TinderPacketUtil {
         try {
             return stringValue.map(Integer::valueOf);
         } catch (final NumberFormatException e) {
-            parseErrors.add(String.format("Invalid %s; Unable to parse number attribute %s: '%s'", description, attributeName, stringValue));
+            ParseErrors.report(parseErrors, ParseError.Code.INVALID_NUMBER_ATTRIBUTE, attributeName, description, attributeName, stringValue);
             return Optional.empty();
         }
     }
@@ -295,9 +293,9 @@ public final class TinderPacketUtil {
     private static Optional<Instant> getISO8601Attribute(final Element parentElement, final String attributeName, final String description, final List<String> parseErrors) {
         final Optional<String> stringValue = getStringAttribute(parentElement, attributeName, false, description, parseErrors);
         try {
-            return stringValue.map(Instant::parse);
+            return stringValue.map(TimestampCodec::parseISO8601);
         } catch (final DateTimeParseException ignored) {
-            parseErrors.add(String.format("Invalid %s; invalid %s '%s'; format should be compliant with XEP-0082", description, attributeName, stringValue));
+            ParseErrors.report(parseErrors, ParseError.Code.INVALID_ISO_8601_TIMESTAMP, attributeName, description, attributeName, stringValue);
             return Optional.empty();
         }
     }
@@ -305,9 +303,9 @@ public final class TinderPacketUtil {
     private static Optional<Instant> getJavaUtilDateAttribute(final Element parentElement, final String attributeName, final String description, final List<String> parseErrors) {
         final Optional<String> stringValue = getStringAttribute(parentElement, attributeName, false, description, parseErrors);
         try {
-            return stringValue.map(string -> Instant.from(JAVA_UTIL_DATE_FORMATTER.parse(string)));
+            return stringValue.map(TimestampCodec::parseJavaUtilDate);
         } catch (final DateTimeParseException ignored) {
-            parseErrors.add(String.format("Invalid %s; invalid %s '%s'; format should be 'dow mon dd hh:mm:ss zzz yyyy'", description, attributeName, stringValue));
+            ParseErrors.report(parseErrors, ParseError.Code.INVALID_JAVA_UTIL_DATE, attributeName, description, attributeName, stringValue);
             return Optional.empty();
         }
     }
@@ -382,7 +380,7 @@ public final class TinderPacketUtil {
             addOriginatorReferences(callElement, call.getOriginatorReferences());
             final Element calledNameElement = calledElement.addElement("name");
             call.getCalledName().ifPresent(calledNameElement::setText);
-            call.getStartTime().ifPresent(startTime -> callElement.addElement(ATTRIBUTE_START_TIME).setText(ISO_8601_FORMATTER.format(startTime.atZone(ZoneOffset.UTC))));
+            call.getStartTime().ifPresent(startTime -> callElement.addElement(ATTRIBUTE_START_TIME).setText(TimestampCodec.formatISO8601(startTime)));
             call.getDuration().ifPresent(duration -> callElement.addElement(ATTRIBUTE_DURATION).setText(String.valueOf(duration.toMillis())));
             addActions(call, callElement);
             addFeatures(call, callElement);
@@ -427,7 +425,7 @@ public final class TinderPacketUtil {
                     voiceMessage.getAction().map(ManageVoiceMessageAction::getId).ifPresent(action -> TinderPacketUtil.addElementWithTextIfNotNull(voiceMessageElement, "action", action));
                     voiceMessage.getExtension().ifPresent(exten -> TinderPacketUtil.addElementWithTextIfNotNull(voiceMessageElement, "exten", exten));
                     voiceMessage.getMessageLength().map(duration -> duration.toMillis() / 1000f).ifPresent(msglen -> TinderPacketUtil.addElementWithTextIfNotNull(voiceMessageElement, "msglen", msglen));
-                    voiceMessage.getCreationDate().map(Timestamp::from).ifPresent(creationdate -> TinderPacketUtil.addElementWithTextIfNotNull(voiceMessageElement, "creationdate", creationdate));
+                    voiceMessage.getCreationDate().map(TimestampCodec::formatSqlTimestamp).ifPresent(creationdate -> TinderPacketUtil.addElementWithTextIfNotNull(voiceMessageElement, "creationdate", creationdate));
                 });
             });
         }
@@ -508,11 +506,10 @@ public final class TinderPacketUtil {
                 participant.getParticipantCategory().ifPresent(category -> participantElement.addAttribute("category", category.getId()));
                 participant.getDirection().ifPresent(direction -> participantElement.addAttribute(ATTRIBUTE_DIRECTION, direction.getLabel()));
                 participant.getStartTime().ifPresent(startTime -> {
-                    final ZonedDateTime startTimeInUTC = startTime.atZone(TimeZone.getTimeZone("UTC").toZoneId());
-                    participantElement.addAttribute(ATTRIBUTE_START_TIME, ISO_8601_FORMATTER.format(startTimeInUTC));
+                    participantElement.addAttribute(ATTRIBUTE_START_TIME, TimestampCodec.formatISO8601(startTime));
                     // Include the legacy timestamp attribute too
-                        participantElement.addAttribute(ATTRIBUTE_TIMESTAMP, JAVA_UTIL_DATE_FORMATTER.format(startTimeInUTC));
-                    });
+                    participantElement.addAttribute(ATTRIBUTE_TIMESTAMP, TimestampCodec.formatJavaUtilDate(startTime));
+                });
                 participant.getDuration().ifPresent(duration -> participantElement.addAttribute(ATTRIBUTE_DURATION, String.valueOf(duration.toMillis())));
             });
         }
@@ -658,17 +655,16 @@ public final class TinderPacketUtil {
                                 .ifPresent(messageBuilder::setMessageLength);
                     } catch (final NumberFormatException ignored) {
                         //noinspection OptionalGetWithoutIsPresent - seems to be a bug in IntelliJ
-                        parseErrors.add(String.format("Invalid %s; invalid msglen '%s'; please supply an integer", stanzaDescription, optionalMsgLen.get()));
+                        ParseErrors.report(parseErrors, ParseError.Code.INVALID_INTEGER, "msglen", stanzaDescription, "msglen", optionalMsgLen.get());
                     }
                     final Optional<String> optionalCreationDate = TinderPacketUtil.getOptionalChildElementString(voiceMessageElement, "creationdate");
                     try {
                         optionalCreationDate
-                                .map(Timestamp::valueOf)
-                                .map(Timestamp::toInstant)
+                                .map(TimestampCodec::parseSqlTimestamp)
                                 .ifPresent(messageBuilder::setCreationDate);
                     } catch( final DateTimeParseException ignored) {
                         //noinspection OptionalGetWithoutIsPresent - seems to be a bug in IntelliJ
-                        parseErrors.add(String.format("Invalid %s; invalid creationdate '%s'; please supply an integer", stanzaDescription, optionalCreationDate.get()));
+                        ParseErrors.report(parseErrors, ParseError.Code.INVALID_INTEGER, "creationdate", stanzaDescription, "creationdate", optionalCreationDate.get());
                     }
                     TinderPacketUtil.getOptionalChildElementString(voiceMessageElement, "exten").flatMap(PhoneNumber::from).ifPresent(messageBuilder::setExtension);
                     featureBuilder.setVoiceMessage(messageBuilder.build(parseErrors));
@@ -808,7 +804,7 @@ public final class TinderPacketUtil {
             return Optional.of(Boolean.FALSE);
         }
         if (value != null) {
-            parseErrors.add(String.format("Invalid %s: %s is neither true or false", description, value));
+            ParseErrors.report(parseErrors, ParseError.Code.INVALID_BOOLEAN, null, description, value);
         }
         return Optional.empty();
     }
@@ -852,24 +848,24 @@ public final class TinderPacketUtil {
                 if (action.isPresent()) {
                     callBuilder.addAction(action.get());
                 } else {
-                    parseErrors.add(String.format("Invalid %s: %s is not a valid action", description, actionString));
+                    ParseErrors.report(parseErrors, ParseError.Code.INVALID_ACTION, null, description, actionString);
                 }
             }
         }
     }
 
     @Nonnull
-    public static Element addPubSubMetaData(@Nonnull final Element messageElement, @Nonnull final PubSubMessageBuilder<?, ?> builder) {
+    public static Element addPubSubMetaData(@Nonnull final Element messageElement, @Nonnull final OpenlinkPubSubMessage message) {
         final Element eventElement = messageElement.addElement("event", OpenlinkXmppNamespace.XMPP_PUBSUB_EVENT.uri());
         final Element itemsElement = eventElement.addElement("items");
-        builder.getPubSubNodeId().ifPresent(nodeId -> itemsElement.addAttribute("node", nodeId.value()));
+        message.getPubSubNodeId().ifPresent(nodeId -> itemsElement.addAttribute("node", nodeId.value()));
         final Element itemElement = itemsElement.addElement("item");
-        builder.getItemId().ifPresent(id -> itemElement.addAttribute("id", id.value()));
+        message.getItemId().ifPresent(id -> itemElement.addAttribute("id", id.value()));
         return itemElement;
     }
 
-    public static void addDelay(@Nonnull final Element messageElement, @Nonnull final PubSubMessageBuilder<?, ?> builder) {
-        builder.getDelay().ifPresent(stamp -> messageElement.addElement("delay", "urn:xmpp:delay").addAttribute("stamp", stamp.toString()));
+    public static void addDelay(@Nonnull final Element messageElement, @Nonnull final OpenlinkPubSubMessage message) {
+        message.getDelay().ifPresent(stamp -> messageElement.addElement("delay", "urn:xmpp:delay").addAttribute("stamp", stamp.toString()));
     }
 
     @Nullable
@@ -890,9 +886,9 @@ public final class TinderPacketUtil {
         if (stampOptional.isPresent()) {
             final String stamp = stampOptional.get();
             try {
-                builder.setDelay(Instant.parse(stamp));
+                builder.setDelay(TimestampCodec.parseISO8601(stamp));
             } catch (final DateTimeParseException e) {
-                parseErrors.add(String.format("Invalid %s; invalid timestamp '%s'; format should be compliant with XEP-0082", description, stamp));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_ISO_8601_TIMESTAMP, "timestamp", description, "timestamp", stamp);
             }
         }
         return itemElement;
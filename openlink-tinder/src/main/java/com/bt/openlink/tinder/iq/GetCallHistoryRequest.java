@@ -2,7 +2,6 @@ package com.bt.openlink.tinder.iq;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +13,8 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetCallHistoryRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.CallType;
@@ -32,8 +33,8 @@ public class GetCallHistoryRequest extends OpenlinkIQ {
     @Nullable private final Long start;
     @Nullable private final Long count;
 
-    private GetCallHistoryRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private GetCallHistoryRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.jid = builder.getJID().orElse(null);
         this.caller = builder.getCaller().orElse(null);
         this.called = builder.getCalled().orElse(null);
@@ -42,6 +43,10 @@ public class GetCallHistoryRequest extends OpenlinkIQ {
         this.upToDate = builder.getUpToDate().orElse(null);
         this.start = builder.getStart().orElse(null);
         this.count = builder.getCount().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element inElement = TinderPacketUtil.addCommandIOInputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "jid", jid);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "caller", caller);
@@ -56,7 +61,7 @@ public class GetCallHistoryRequest extends OpenlinkIQ {
     @Nonnull
     public static GetCallHistoryRequest from(@Nonnull IQ iq) {
         final Builder builder = Builder.start(iq);
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element inElement = TinderPacketUtil.getIOInElement(iq);
         TinderPacketUtil.getJID(TinderPacketUtil.getNullableChildElementString(inElement, "jid")).ifPresent(builder::setJID);
         TinderPacketUtil.getOptionalChildElementString(inElement, "caller").ifPresent(builder::setCaller);
@@ -67,7 +72,7 @@ public class GetCallHistoryRequest extends OpenlinkIQ {
             if (callType.isPresent()) {
                 builder.setCallType(callType.get());
             } else {
-                parseErrors.add(String.format("Invalid %s; invalid calltype - '%s' should be 'in', 'out' or 'missed'", STANZA_DESCRIPTION, string));
+                ParseErrors.report(parseErrors, ParseError.Code.INVALID_CALL_TYPE, "calltype", STANZA_DESCRIPTION, string);
             }
         });
         TinderPacketUtil.getChildElementLocalDate(inElement,"fromdate", DATE_FORMATTER, STANZA_DESCRIPTION, DATE_PATTERN, parseErrors)
@@ -76,9 +81,7 @@ public class GetCallHistoryRequest extends OpenlinkIQ {
                 .ifPresent(builder::setUpToDate);
         TinderPacketUtil.getChildElementLong(inElement,"start", STANZA_DESCRIPTION, parseErrors).ifPresent(builder::setStart);
         TinderPacketUtil.getChildElementLong(inElement,"count", STANZA_DESCRIPTION, parseErrors).ifPresent(builder::setCount);
-        final GetCallHistoryRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     @Nonnull
@@ -142,13 +145,13 @@ public class GetCallHistoryRequest extends OpenlinkIQ {
         @Nonnull
         public GetCallHistoryRequest build() {
             super.validate();
-            return new GetCallHistoryRequest(this, null);
+            return new GetCallHistoryRequest(this, null, null);
         }
 
         @Nonnull
-        private GetCallHistoryRequest build(@Nonnull final List<String> errors) {
+        private GetCallHistoryRequest build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors, true);
-            return new GetCallHistoryRequest(this, errors);
+            return new GetCallHistoryRequest(this, errors, originalElement);
         }
 
     }
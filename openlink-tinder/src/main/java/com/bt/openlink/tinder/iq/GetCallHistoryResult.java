@@ -1,9 +1,6 @@
 package com.bt.openlink.tinder.iq;
 
-import java.sql.Timestamp;
 import java.time.Duration;
-import java.time.Instant;
-import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +14,10 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
+import com.bt.openlink.internal.TimestampCodec;
+import com.bt.openlink.iq.CallHistoryListener;
 import com.bt.openlink.iq.GetCallHistoryResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.CallDirection;
@@ -35,12 +36,16 @@ public class GetCallHistoryResult extends OpenlinkIQ {
     @Nullable private final Long recordCountInBatch;
     @Nonnull private List<HistoricalCall<JID>> calls;
 
-    private GetCallHistoryResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private GetCallHistoryResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.totalRecordCount = builder.getTotalRecordCount().orElse(null);
         this.firstRecordNumber = builder.getFirstRecordNumber().orElse(null);
         this.recordCountInBatch = builder.getRecordCountInBatch().orElse(null);
         this.calls = new ArrayList<>(builder.getCalls());
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element outElement = TinderPacketUtil.addCommandIOOutputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY);
         final Element callHistoryElement = outElement.addElement("callhistory", OpenlinkXmppNamespace.OPENLINK_CALL_HISTORY.uri());
         getTotalRecordCount().ifPresent(total -> callHistoryElement.addAttribute("total", String.valueOf(total)));
@@ -57,24 +62,42 @@ public class GetCallHistoryResult extends OpenlinkIQ {
             call.getCallerName().ifPresent(callerName -> TinderPacketUtil.addElementWithTextIfNotNull(callElement, "callername", callerName));
             call.getCalledNumber().ifPresent(called -> TinderPacketUtil.addElementWithTextIfNotNull(callElement, "called", called));
             call.getCalledName().ifPresent(calledName -> TinderPacketUtil.addElementWithTextIfNotNull(callElement, "calledname", calledName));
-            call.getStartTime().map(Timestamp::from).ifPresent(timestamp -> TinderPacketUtil.addElementWithTextIfNotNull(callElement, "timestamp", timestamp));
-            call.getStartTime().map(startTime -> TinderPacketUtil.ISO_8601_FORMATTER.format(startTime.atZone(ZoneOffset.UTC)))
-                    .ifPresent(startTime -> TinderPacketUtil.addElementWithTextIfNotNull(callElement, "starttime", startTime));
+            call.getStartTime().map(TimestampCodec::formatSqlTimestamp).ifPresent(timestamp -> TinderPacketUtil.addElementWithTextIfNotNull(callElement, "timestamp", timestamp));
+            call.getStartTime().map(TimestampCodec::formatISO8601).ifPresent(startTime -> TinderPacketUtil.addElementWithTextIfNotNull(callElement, "starttime", startTime));
             call.getDuration().ifPresent(duration -> TinderPacketUtil.addElementWithTextIfNotNull(callElement, "duration", duration.toMillis()));
             call.getTsc().ifPresent(tsc -> TinderPacketUtil.addElementWithTextIfNotNull(callElement, "tsc", tsc));
         });
     }
 
-    @SuppressWarnings("unchecked")
     @Nonnull
     public static GetCallHistoryResult from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        return from(iq, null);
+    }
+
+    /**
+     * Parses a get-call-history result, optionally passing each call to a listener as soon as it has been parsed
+     * instead of retaining it. In this streaming mode the calls are not available from the result that is returned,
+     * but the record counts and parse errors are.
+     *
+     * @param iq
+     *            the IQ to parse
+     * @param listener
+     *            the listener to receive the calls, or {@code null} to retain the calls in the result
+     * @return the parsed result
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    public static GetCallHistoryResult from(@Nonnull IQ iq, @Nullable final CallHistoryListener<JID> listener) {
+        final List<String> parseErrors = ParseErrors.create();
         final GetCallHistoryResult.Builder builder = GetCallHistoryResult.Builder.start(iq);
         final Element outElement = TinderPacketUtil.getIOOutElement(iq);
         final Element callHistoryElement = TinderPacketUtil.getChildElement(outElement, "callhistory");
         TinderPacketUtil.getIntegerAttribute(callHistoryElement, "total", STANZA_DESCRIPTION, parseErrors).ifPresent(builder::setTotalRecordCount);
         TinderPacketUtil.getIntegerAttribute(callHistoryElement, "start", STANZA_DESCRIPTION, parseErrors).ifPresent(builder::setFirstRecordNumber);
         TinderPacketUtil.getIntegerAttribute(callHistoryElement, "count", STANZA_DESCRIPTION, parseErrors).ifPresent(builder::setRecordCountInBatch);
+        if (listener != null) {
+            listener.onCallHistory(builder.getTotalRecordCount().orElse(null), builder.getFirstRecordNumber().orElse(null), builder.getRecordCountInBatch().orElse(null));
+        }
         if (callHistoryElement != null) {
             final List<Element> calls = callHistoryElement.elements("call");
             calls.forEach(callElement -> {
@@ -93,25 +116,30 @@ public class GetCallHistoryResult extends OpenlinkIQ {
                     final Optional<String> optionalTimestamp = TinderPacketUtil.getOptionalChildElementString(callElement, "timestamp");
                     try {
                         optionalTimestamp
-                                .map(Timestamp::valueOf)
-                                .map(Timestamp::toInstant)
+                                .map(TimestampCodec::parseSqlTimestamp)
                                 .ifPresent(historicalCallBuilder::setStartTime);
                     } catch (final IllegalArgumentException ignored) {
-                        parseErrors.add(String.format("Invalid %s; invalid timestamp '%s'; please supply a valid timestamp", STANZA_DESCRIPTION, optionalTimestamp.get()));
+                        ParseErrors.report(parseErrors, ParseError.Code.INVALID_VALUE, "timestamp", STANZA_DESCRIPTION, "timestamp", optionalTimestamp.get());
                     }
                 }
                 final Optional<String> optionalStartTime = TinderPacketUtil.getOptionalChildElementString(callElement, "starttime");
                 try {
-                    optionalStartTime.map(Instant::parse).ifPresent(historicalCallBuilder::setStartTime);
+                    optionalStartTime.map(TimestampCodec::parseISO8601).ifPresent(historicalCallBuilder::setStartTime);
                 } catch (final DateTimeParseException ignored) {
-                    parseErrors.add(String.format("Invalid %s; invalid starttime '%s'; please supply a valid starttime", STANZA_DESCRIPTION, optionalStartTime.get()));
+                    ParseErrors.report(parseErrors, ParseError.Code.INVALID_VALUE, "starttime", STANZA_DESCRIPTION, "starttime", optionalStartTime.get());
                 }
                 TinderPacketUtil.getJID(TinderPacketUtil.getNullableChildElementString(callElement, "tsc")).ifPresent(historicalCallBuilder::setTsc);
-                builder.addCall(historicalCallBuilder.build(parseErrors));
+                final HistoricalCall<JID> call = historicalCallBuilder.build(parseErrors);
+                if (listener == null) {
+                    builder.addCall(call);
+                } else {
+                    listener.onHistoricalCall(call);
+                    builder.addStreamedCall();
+                }
             });
         }
 
-        return builder.build(parseErrors);
+        return builder.build(parseErrors, iq.getElement());
     }
 
     @SuppressWarnings("WeakerAccess")
@@ -181,13 +209,13 @@ public class GetCallHistoryResult extends OpenlinkIQ {
         @Nonnull
         public GetCallHistoryResult build() {
             super.validate();
-            return new GetCallHistoryResult(this, null);
+            return new GetCallHistoryResult(this, null, null);
         }
 
         @Nonnull
-        private GetCallHistoryResult build(@Nonnull final List<String> errors) {
+        private GetCallHistoryResult build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors, true);
-            return new GetCallHistoryResult(this, errors);
+            return new GetCallHistoryResult(this, errors, originalElement);
         }
     }
 
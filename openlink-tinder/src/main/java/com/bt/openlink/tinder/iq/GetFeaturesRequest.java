@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetFeaturesRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.ProfileId;
@@ -19,9 +19,13 @@ import com.bt.openlink.type.ProfileId;
 public class GetFeaturesRequest extends OpenlinkIQ {
     @Nullable private final ProfileId profileId;
 
-    private GetFeaturesRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private GetFeaturesRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.profileId = builder.getProfileId().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element inElement = TinderPacketUtil.addCommandIOInputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_FEATURES);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "profile", profileId);
     }
@@ -33,13 +37,11 @@ public class GetFeaturesRequest extends OpenlinkIQ {
 
     @Nonnull
     public static GetFeaturesRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element inElement = TinderPacketUtil.getIOInElement(iq);
         final Builder builder = Builder.start(iq);
         ProfileId.from(TinderPacketUtil.getNullableChildElementString(inElement, "profile")).ifPresent(builder::setProfileId);
-        final GetFeaturesRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends GetFeaturesRequestBuilder<Builder, JID, IQ.Type> {
@@ -63,13 +65,13 @@ public class GetFeaturesRequest extends OpenlinkIQ {
         @Nonnull
         public GetFeaturesRequest build() {
             super.validate();
-            return new GetFeaturesRequest(this, null);
+            return new GetFeaturesRequest(this, null, null);
         }
 
         @Nonnull
-        private GetFeaturesRequest build(@Nonnull final List<String> errors) {
+        private GetFeaturesRequest build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors, true);
-            return new GetFeaturesRequest(this, errors);
+            return new GetFeaturesRequest(this, errors, originalElement);
         }
     }
 
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +12,8 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetFeaturesResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.Feature;
@@ -25,10 +26,14 @@ public class GetFeaturesResult extends OpenlinkIQ {
     @Nullable private final ProfileId profileId;
     @Nonnull private final List<Feature> features;
 
-    private GetFeaturesResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private GetFeaturesResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.profileId = builder.getProfileId().orElse(null);
         this.features = Collections.unmodifiableList(builder.getFeatures());
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element outElement = TinderPacketUtil.addCommandIOOutputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_FEATURES);
         final Element profileElement = outElement.addElement("profile");
         getProfileId().ifPresent(id -> profileElement.addAttribute("id", id.value()));
@@ -55,7 +60,7 @@ public class GetFeaturesResult extends OpenlinkIQ {
     @SuppressWarnings("unchecked")
     @Nonnull
     public static GetFeaturesResult from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final GetFeaturesResult.Builder builder = GetFeaturesResult.Builder.start(iq);
         final Element outElement = TinderPacketUtil.getIOOutElement(iq);
         final Element profileElement = TinderPacketUtil.getChildElement(outElement, "profile");
@@ -74,7 +79,7 @@ public class GetFeaturesResult extends OpenlinkIQ {
                     if (type.isPresent()) {
                         featureBuilder.setType(type.get());
                     } else {
-                        parseErrors.add(String.format("Invalid %s; invalid feature type - '%s'", DESCRIPTION, featureType));
+                        ParseErrors.report(parseErrors, ParseError.Code.INVALID_FEATURE_TYPE, "type", DESCRIPTION, featureType);
                     }
                 });
                 TinderPacketUtil.getStringAttribute(featureElement, "label", true, DESCRIPTION, parseErrors).ifPresent(featureBuilder::setLabel);
@@ -82,9 +87,7 @@ public class GetFeaturesResult extends OpenlinkIQ {
             }
         }
 
-        final GetFeaturesResult request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends GetFeaturesResultBuilder<Builder, JID, Type> {
@@ -133,13 +136,13 @@ public class GetFeaturesResult extends OpenlinkIQ {
         @Nonnull
         public GetFeaturesResult build() {
             validate();
-            return new GetFeaturesResult(this, null);
+            return new GetFeaturesResult(this, null, null);
         }
 
         @Nonnull
-        private GetFeaturesResult build(@Nonnull final List<String> parseErrors) {
+        private GetFeaturesResult build(@Nonnull final List<String> parseErrors, @Nonnull final Element originalElement) {
             validate(parseErrors);
-            return new GetFeaturesResult(this, parseErrors);
+            return new GetFeaturesResult(this, parseErrors, originalElement);
         }
     }
 }
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetInterestRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.InterestId;
@@ -19,9 +19,13 @@ import com.bt.openlink.type.InterestId;
 public class GetInterestRequest extends OpenlinkIQ {
     @Nullable private final InterestId interestId;
 
-    private GetInterestRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private GetInterestRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.interestId = builder.getInterestId().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element inElement = TinderPacketUtil.addCommandIOInputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_INTEREST);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "interest", interestId);
     }
@@ -33,13 +37,11 @@ public class GetInterestRequest extends OpenlinkIQ {
 
     @Nonnull
     public static GetInterestRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element inElement = TinderPacketUtil.getIOInElement(iq);
         final Builder builder = Builder.start(iq);
         InterestId.from(TinderPacketUtil.getNullableChildElementString(inElement, "interest")).ifPresent(builder::setInterestId);
-        final GetInterestRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends GetInterestRequestBuilder<Builder, JID, Type> {
@@ -63,13 +65,13 @@ public class GetInterestRequest extends OpenlinkIQ {
         @Nonnull
         public GetInterestRequest build() {
             validate();
-            return new GetInterestRequest(this, null);
+            return new GetInterestRequest(this, null, null);
         }
 
         @Nonnull
-        private GetInterestRequest build(@Nonnull final List<String> parseErrors) {
+        private GetInterestRequest build(@Nonnull final List<String> parseErrors, @Nonnull final Element originalElement) {
             validate(parseErrors);
-            return new GetInterestRequest(this, parseErrors);
+            return new GetInterestRequest(this, parseErrors, originalElement);
         }
     }
 }
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetInterestResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.Interest;
@@ -24,9 +24,13 @@ public class GetInterestResult extends OpenlinkIQ {
 
     @Nullable private final Interest interest;
 
-    private GetInterestResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private GetInterestResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.interest = builder.getInterest().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element outElement = TinderPacketUtil.addCommandIOOutputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_INTEREST);
         final Element interestsElement = outElement.addElement("interests", OpenlinkXmppNamespace.OPENLINK_INTERESTS.uri());
         final Element interestElement = interestsElement.addElement("interest");
@@ -49,7 +53,7 @@ public class GetInterestResult extends OpenlinkIQ {
 
     @Nonnull
     public static GetInterestResult from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Builder builder = Builder.start(iq);
         final Element outElement = TinderPacketUtil.getIOOutElement(iq);
         final Element interestElement = TinderPacketUtil.getChildElement(outElement, "interests", "interest");
@@ -65,9 +69,7 @@ public class GetInterestResult extends OpenlinkIQ {
             TinderPacketUtil.getCallStatus(interestElement, DESCRIPTION, parseErrors).ifPresent(interestBuilder::setCallStatus);
             builder.setInterest(interestBuilder.build(parseErrors));
         }
-        final GetInterestResult request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends GetInterestResultBuilder<Builder, JID, Type> {
@@ -112,13 +114,13 @@ public class GetInterestResult extends OpenlinkIQ {
         @Nonnull
         public GetInterestResult build() {
             validate();
-            return new GetInterestResult(this, null);
+            return new GetInterestResult(this, null, null);
         }
 
         @Nonnull
-        private GetInterestResult build(@Nonnull final List<String> parseErrors) {
+        private GetInterestResult build(@Nonnull final List<String> parseErrors, @Nonnull final Element originalElement) {
             validate(parseErrors);
-            return new GetInterestResult(this, parseErrors);
+            return new GetInterestResult(this, parseErrors, originalElement);
         }
     }
 
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetInterestsRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.ProfileId;
@@ -19,9 +19,13 @@ import com.bt.openlink.type.ProfileId;
 public class GetInterestsRequest extends OpenlinkIQ {
     @Nullable private final ProfileId profileId;
 
-    private GetInterestsRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private GetInterestsRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.profileId = builder.getProfileId().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element inElement = TinderPacketUtil.addCommandIOInputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "profile", profileId);
 
@@ -34,13 +38,11 @@ public class GetInterestsRequest extends OpenlinkIQ {
 
     @Nonnull
     public static GetInterestsRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element inElement = TinderPacketUtil.getIOInElement(iq);
         final Builder builder = Builder.start(iq);
         ProfileId.from(TinderPacketUtil.getNullableChildElementString(inElement, "profile")).ifPresent(builder::setProfileId);
-        final GetInterestsRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends GetInterestsRequestBuilder<Builder, JID, Type> {
@@ -64,13 +66,13 @@ public class GetInterestsRequest extends OpenlinkIQ {
         @Nonnull
         public GetInterestsRequest build() {
             validate();
-            return new GetInterestsRequest(this, null);
+            return new GetInterestsRequest(this, null, null);
         }
 
         @Nonnull
-        private GetInterestsRequest build(@Nonnull final List<String> parseErrors) {
+        private GetInterestsRequest build(@Nonnull final List<String> parseErrors, @Nonnull final Element originalElement) {
             validate(parseErrors);
-            return new GetInterestsRequest(this, parseErrors);
+            return new GetInterestsRequest(this, parseErrors, originalElement);
         }
     }
 
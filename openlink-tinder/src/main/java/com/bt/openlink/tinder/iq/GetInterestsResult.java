@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetInterestsResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.Interest;
@@ -24,9 +24,13 @@ public class GetInterestsResult extends OpenlinkIQ {
 
     @Nonnull private final List<Interest> interests;
 
-    private GetInterestsResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private GetInterestsResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.interests = Collections.unmodifiableList(builder.getInterests());
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element outElement = TinderPacketUtil.addCommandIOOutputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS);
         final Element interestsElement = outElement.addElement("interests", OpenlinkXmppNamespace.OPENLINK_INTERESTS.uri());
         for (final Interest interest : interests) {
@@ -51,7 +55,7 @@ public class GetInterestsResult extends OpenlinkIQ {
     @SuppressWarnings("unchecked")
     @Nonnull
     public static GetInterestsResult from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Builder builder = Builder.start(iq);
         final Element outElement = TinderPacketUtil.getIOOutElement(iq);
         final Element interestsElement = TinderPacketUtil.getChildElement(outElement, "interests");
@@ -71,9 +75,7 @@ public class GetInterestsResult extends OpenlinkIQ {
             }
         }
 
-        final GetInterestsResult request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends GetInterestsResultBuilder<Builder, JID, Type> {
@@ -118,13 +120,13 @@ public class GetInterestsResult extends OpenlinkIQ {
         @Nonnull
         public GetInterestsResult build() {
             validate();
-            return new GetInterestsResult(this, null);
+            return new GetInterestsResult(this, null, null);
         }
 
         @Nonnull
-        private GetInterestsResult build(@Nonnull final List<String> parseErrors) {
+        private GetInterestsResult build(@Nonnull final List<String> parseErrors, @Nonnull final Element originalElement) {
             validate(parseErrors);
-            return new GetInterestsResult(this, parseErrors);
+            return new GetInterestsResult(this, parseErrors, originalElement);
         }
     }
 
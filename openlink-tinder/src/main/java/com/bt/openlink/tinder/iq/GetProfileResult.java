@@ -4,7 +4,6 @@ import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -17,6 +16,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetProfileResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.DeviceId;
@@ -41,9 +41,13 @@ public class GetProfileResult extends OpenlinkIQ {
 
     @Nullable private final Profile profile;
 
-    private GetProfileResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private GetProfileResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.profile = builder.getProfile().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element outElement = TinderPacketUtil.addCommandIOOutputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_PROFILE);
         String encodedDeviceType;
         try {
@@ -86,7 +90,7 @@ public class GetProfileResult extends OpenlinkIQ {
     @SuppressWarnings("unchecked")
     @Nonnull
     public static GetProfileResult from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Builder builder = Builder.start(iq);
         final Element outElement = TinderPacketUtil.getIOOutElement(iq);
         final Element profileElement = TinderPacketUtil.getChildElement(outElement, "profile");
@@ -134,9 +138,7 @@ public class GetProfileResult extends OpenlinkIQ {
             }
             builder.setProfile((profileBuilder.build(parseErrors)));
         }
-        final GetProfileResult result = builder.build(parseErrors);
-        result.setID(iq.getID());
-        return result;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends GetProfileResultBuilder<Builder, JID, Type> {
@@ -181,13 +183,13 @@ public class GetProfileResult extends OpenlinkIQ {
         @Nonnull
         public GetProfileResult build() {
             validate();
-            return new GetProfileResult(this, null);
+            return new GetProfileResult(this, null, null);
         }
 
         @Nonnull
-        private GetProfileResult build(@Nonnull final List<String> parseErrors) {
+        private GetProfileResult build(@Nonnull final List<String> parseErrors, @Nonnull final Element originalElement) {
             validate(parseErrors);
-            return new GetProfileResult(this, parseErrors);
+            return new GetProfileResult(this, parseErrors, originalElement);
         }
     }
 
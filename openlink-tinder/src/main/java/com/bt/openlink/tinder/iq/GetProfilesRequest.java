@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,15 +11,20 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetProfilesRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 
 public class GetProfilesRequest extends OpenlinkIQ {
     @Nullable private final JID jid;
 
-    private GetProfilesRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private GetProfilesRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.jid = builder.getJID().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element inElement = TinderPacketUtil.addCommandIOInputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_PROFILES);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "jid", jid);
     }
@@ -32,13 +36,11 @@ public class GetProfilesRequest extends OpenlinkIQ {
 
     @Nonnull
     public static GetProfilesRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element inElement = TinderPacketUtil.getIOInElement(iq);
         final Builder builder = Builder.start(iq);
         TinderPacketUtil.getJID(TinderPacketUtil.getNullableChildElementString(inElement, "jid")).ifPresent(builder::setJID);
-        final GetProfilesRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends GetProfilesRequestBuilder<Builder, JID, IQ.Type> {
@@ -62,13 +64,13 @@ public class GetProfilesRequest extends OpenlinkIQ {
         @Nonnull
         public GetProfilesRequest build() {
             super.validate();
-            return new GetProfilesRequest(this, null);
+            return new GetProfilesRequest(this, null, null);
         }
 
         @Nonnull
-        private GetProfilesRequest build(@Nonnull final List<String> errors) {
+        private GetProfilesRequest build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors);
-            return new GetProfilesRequest(this, errors);
+            return new GetProfilesRequest(this, errors, originalElement);
         }
 
     }
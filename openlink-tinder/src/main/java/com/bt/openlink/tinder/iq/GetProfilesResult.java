@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -13,6 +12,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.GetProfilesResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.DeviceId;
@@ -27,9 +27,13 @@ public class GetProfilesResult extends OpenlinkIQ {
     private static final String ATTRIBUTE_LABEL = "label";
     @Nonnull private final List<Profile> profiles;
 
-    private GetProfilesResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private GetProfilesResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.profiles = Collections.unmodifiableList(builder.getProfiles());
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element outElement = TinderPacketUtil.addCommandIOOutputElement(this, OpenlinkXmppNamespace.OPENLINK_GET_PROFILES);
         final Element profilesElement = outElement.addElement(OpenlinkXmppNamespace.TAG_PROFILES, OpenlinkXmppNamespace.OPENLINK_PROFILES.uri());
         getProfiles().forEach(profile -> {
@@ -58,7 +62,7 @@ public class GetProfilesResult extends OpenlinkIQ {
     public static GetProfilesResult from(@Nonnull IQ iq) {
         final Builder builder = Builder.start(iq);
         final Element profilesElement = TinderPacketUtil.getChildElement(TinderPacketUtil.getIOOutElement(iq), OpenlinkXmppNamespace.TAG_PROFILES);
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final AtomicBoolean profileFound = new AtomicBoolean(false);
         if (profilesElement != null) {
             final List<Element> profileElements = profilesElement.elements(OpenlinkXmppNamespace.TAG_PROFILE);
@@ -85,9 +89,7 @@ public class GetProfilesResult extends OpenlinkIQ {
         if (!profileFound.get()) {
             parseErrors.add("Invalid get-profiles result; no profiles present");
         }
-        final GetProfilesResult result = builder.build(parseErrors);
-        result.setID(iq.getID());
-        return result;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     @SuppressWarnings("WeakerAccess")
@@ -139,13 +141,13 @@ public class GetProfilesResult extends OpenlinkIQ {
         @Nonnull
         public GetProfilesResult build() {
             super.validate();
-            return new GetProfilesResult(this, null);
+            return new GetProfilesResult(this, null, null);
         }
 
         @Nonnull
-        private GetProfilesResult build(@Nonnull final List<String> errors) {
+        private GetProfilesResult build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors, true);
-            return new GetProfilesResult(this, errors);
+            return new GetProfilesResult(this, errors, originalElement);
         }
     }
 }
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +12,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.MakeCallRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.FeatureId;
@@ -30,14 +30,18 @@ public class MakeCallRequest extends OpenlinkIQ {
     @Nonnull private final List<MakeCallFeature> features;
     @Nonnull private final List<OriginatorReference> originatorReferences;
 
-    private MakeCallRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private MakeCallRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.jid = builder.getJID().orElse(null);
         this.profileId = builder.getProfileId().orElse(null);
         this.interestId = builder.getInterestId().orElse(null);
         this.destination = builder.getDestination().orElse(null);
         this.features = Collections.unmodifiableList(builder.getFeatures());
         this.originatorReferences = Collections.unmodifiableList(builder.getOriginatorReferences());
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element inElement = TinderPacketUtil.addCommandIOInputElement(this, OpenlinkXmppNamespace.OPENLINK_MAKE_CALL);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "jid", jid);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "profile", profileId);
@@ -87,7 +91,7 @@ public class MakeCallRequest extends OpenlinkIQ {
 
     @Nonnull
     public static MakeCallRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element inElement = TinderPacketUtil.getIOInElement(iq);
         final Builder builder = Builder.start(iq);
         TinderPacketUtil.getJID(TinderPacketUtil.getNullableChildElementString(inElement, "jid")).ifPresent(builder::setJID);
@@ -96,9 +100,7 @@ public class MakeCallRequest extends OpenlinkIQ {
         PhoneNumber.from(TinderPacketUtil.getNullableChildElementString(inElement, "destination")).ifPresent(builder::setDestination);
         TinderPacketUtil.getOriginatorReferences(inElement).forEach(builder::addOriginatorReference);
         getFeatures(builder, inElement);
-        final MakeCallRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     @SuppressWarnings("unchecked")
@@ -137,13 +139,13 @@ public class MakeCallRequest extends OpenlinkIQ {
         @Nonnull
         public MakeCallRequest build() {
             super.validate();
-            return new MakeCallRequest(this, null);
+            return new MakeCallRequest(this, null, null);
         }
 
         @Nonnull
-        private MakeCallRequest build(@Nonnull final List<String> errors) {
+        private MakeCallRequest build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors);
-            return new MakeCallRequest(this, errors);
+            return new MakeCallRequest(this, errors, originalElement);
         }
 
     }
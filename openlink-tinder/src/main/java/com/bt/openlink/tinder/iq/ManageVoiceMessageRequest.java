@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +12,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.ManageVoiceMessageRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.FeatureId;
@@ -25,12 +25,16 @@ public class ManageVoiceMessageRequest extends OpenlinkIQ {
     @Nullable private String label;
     @Nonnull private final List<FeatureId> features;
 
-    private ManageVoiceMessageRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private ManageVoiceMessageRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.profileId = builder.getProfileId().orElse(null);
         this.label = builder.getLabel().orElse(null);
         this.action = builder.getAction().orElse(null);
         this.features = Collections.unmodifiableList(builder.getFeatures());
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element inElement = TinderPacketUtil.addCommandIOInputElement(this, OpenlinkXmppNamespace.OPENLINK_MANAGE_VOICE_MESSAGE);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "profile", profileId);
         getAction().map(ManageVoiceMessageAction::getId).ifPresent(action -> TinderPacketUtil.addElementWithTextIfNotNull(inElement, "action", action));
@@ -63,7 +67,7 @@ public class ManageVoiceMessageRequest extends OpenlinkIQ {
 
     @Nonnull
     public static ManageVoiceMessageRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element inElement = TinderPacketUtil.getIOInElement(iq);
         final Builder builder = Builder.start(iq);
         ProfileId.from(TinderPacketUtil.getNullableChildElementString(inElement, "profile")).ifPresent(builder::setProfileId);
@@ -75,9 +79,7 @@ public class ManageVoiceMessageRequest extends OpenlinkIQ {
                 TinderPacketUtil.getOptionalChildElementString((Element) featureElement, "id").flatMap(FeatureId::from).ifPresent(builder::addFeature);
             }
         }
-        final ManageVoiceMessageRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends ManageVoiceMessageRequestBuilder<Builder, JID, Type> {
@@ -101,13 +103,13 @@ public class ManageVoiceMessageRequest extends OpenlinkIQ {
         @Nonnull
         public ManageVoiceMessageRequest build() {
             super.validate();
-            return new ManageVoiceMessageRequest(this, null);
+            return new ManageVoiceMessageRequest(this, null, null);
         }
 
         @Nonnull
-        private ManageVoiceMessageRequest build(@Nonnull final List<String> errors) {
+        private ManageVoiceMessageRequest build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors, false);
-            return new ManageVoiceMessageRequest(this, errors);
+            return new ManageVoiceMessageRequest(this, errors, originalElement);
         }
 
     }
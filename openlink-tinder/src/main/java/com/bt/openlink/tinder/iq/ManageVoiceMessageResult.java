@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.ManageVoiceMessageResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.DeviceStatus;
@@ -19,9 +19,13 @@ import com.bt.openlink.type.DeviceStatus;
 public class ManageVoiceMessageResult extends OpenlinkIQ {
     @Nullable private final DeviceStatus deviceStatus;
 
-    private ManageVoiceMessageResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private ManageVoiceMessageResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         deviceStatus = builder.getDeviceStatus().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element outElement = TinderPacketUtil.addCommandIOOutputElement(this, OpenlinkXmppNamespace.OPENLINK_MANAGE_VOICE_MESSAGE);
         getDeviceStatus().ifPresent(status->TinderPacketUtil.addDeviceStatus(outElement, status));
     }
@@ -34,14 +38,12 @@ public class ManageVoiceMessageResult extends OpenlinkIQ {
 
     @Nonnull
     public static ManageVoiceMessageResult from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element outElement = TinderPacketUtil.getIOOutElement(iq);
         final Element deviceStatusElement = TinderPacketUtil.getChildElement(outElement, "devicestatus");
         final Builder builder = Builder.start(iq);
         TinderPacketUtil.getDeviceStatus(deviceStatusElement, "manage-voice-message result", parseErrors).ifPresent(builder::setDeviceStatus);
-        final ManageVoiceMessageResult result = builder.build(parseErrors);
-        result.setID(iq.getID());
-        return result;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends ManageVoiceMessageResultBuilder<Builder, JID, Type> {
@@ -87,13 +89,19 @@ public class ManageVoiceMessageResult extends OpenlinkIQ {
         @Nonnull
         public ManageVoiceMessageResult build() {
             super.validate();
-            return new ManageVoiceMessageResult(this, null);
+            return new ManageVoiceMessageResult(this, null, null);
         }
 
         @Nonnull
         public ManageVoiceMessageResult build(@Nonnull final List<String> errors) {
             super.validate(errors, true);
-            return new ManageVoiceMessageResult(this, errors);
+            return new ManageVoiceMessageResult(this, errors, null);
+        }
+
+        @Nonnull
+        private ManageVoiceMessageResult build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
+            super.validate(errors, true);
+            return new ManageVoiceMessageResult(this, errors, originalElement);
         }
 
     }
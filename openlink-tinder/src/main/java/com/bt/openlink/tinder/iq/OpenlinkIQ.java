@@ -1,32 +1,47 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.dom4j.Element;
 import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
+import org.xmpp.packet.PacketError;
+import org.xmpp.packet.PacketExtension;
 
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.IQBuilder;
 
+/**
+ * The base class of the Openlink IQs. An IQ built from a builder generates its own XML, but only when the element is
+ * first needed, e.g. by {@link #getElement()} or {@link #toXML()}; until then the typed fields are the only copy of the
+ * content, so an IQ that is built but never sent costs no DOM. An IQ parsed from a received stanza wraps the element of
+ * that stanza instead, so that it is not re-encoded; the parsed IQ and the stanza it was parsed from share the same
+ * element until the parsed IQ is first changed, e.g. by {@link #setTo(JID)} or {@link #setChildElement(Element)}, when
+ * it takes its own copy. The stanza must not be changed once it has been parsed, and the element returned by
+ * {@link #getElement()} is still the shared element until then, so must not be changed either.
+ */
 abstract class OpenlinkIQ extends IQ {
 
-    @Nonnull private List<String> parseErrors;
+    @Nonnull private ParseErrors parseErrors;
+    private volatile boolean childElementsPending;
+    private volatile boolean elementShared;
 
-    OpenlinkIQ(@Nonnull final IQBuilder<?, JID, IQ.Type> builder, @Nullable final List<String> parseErrors) {
-        builder.getTo().ifPresent(this::setTo);
-        builder.getFrom().ifPresent(this::setFrom);
-        builder.getId().ifPresent(this::setID);
-        builder.getIqType().ifPresent(this::setType);
-        if (parseErrors == null) {
-            this.parseErrors = Collections.emptyList();
+    OpenlinkIQ(@Nonnull final IQBuilder<?, JID, IQ.Type> builder, @Nullable final List<String> parseErrors, @Nullable final Element originalElement) {
+        if (originalElement == null) {
+            builder.getTo().ifPresent(this::setTo);
+            builder.getFrom().ifPresent(this::setFrom);
+            builder.getId().ifPresent(this::setID);
+            builder.getIqType().ifPresent(this::setType);
+            childElementsPending = true;
         } else {
-            this.parseErrors = new ArrayList<>(parseErrors);
-            builder.validate(parseErrors);
+            this.element = originalElement;
+            elementShared = true;
         }
+        this.parseErrors = ParseErrors.copyOf(parseErrors);
     }
 
     @Nonnull
@@ -34,4 +49,168 @@ abstract class OpenlinkIQ extends IQ {
         return parseErrors;
     }
 
+    /**
+     * @return the errors found whilst parsing the stanza, unformatted; empty if the stanza was built in code or was
+     *         parsed without collecting its errors
+     */
+    @Nonnull
+    public List<ParseError> getParseErrorDetails() {
+        return parseErrors.getErrors();
+    }
+
+    /**
+     * @return the number of errors found whilst parsing the stanza, including any that were not collected
+     */
+    public int getParseErrorCount() {
+        return parseErrors.getCount();
+    }
+
+    /**
+     * Adds the Openlink child elements of an IQ that was built from a builder. This is called at most once, the first
+     * time the element of the IQ is needed.
+     */
+    protected abstract void addChildElements();
+
+    private void materialize() {
+        if (childElementsPending) {
+            synchronized (this) {
+                if (childElementsPending) {
+                    childElementsPending = false;
+                    addChildElements();
+                }
+            }
+        }
+    }
+
+    private void copySharedElement() {
+        if (elementShared) {
+            synchronized (this) {
+                if (elementShared) {
+                    element = element.createCopy();
+                    elementShared = false;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void setTo(final JID to) {
+        copySharedElement();
+        super.setTo(to);
+    }
+
+    @Override
+    public void setTo(final String to) {
+        copySharedElement();
+        super.setTo(to);
+    }
+
+    @Override
+    public void setFrom(final JID from) {
+        copySharedElement();
+        super.setFrom(from);
+    }
+
+    @Override
+    public void setFrom(final String from) {
+        copySharedElement();
+        super.setFrom(from);
+    }
+
+    @Override
+    public void setID(final String id) {
+        copySharedElement();
+        super.setID(id);
+    }
+
+    @Override
+    public void setType(final IQ.Type type) {
+        copySharedElement();
+        super.setType(type);
+    }
+
+    @Override
+    public Element getElement() {
+        materialize();
+        return super.getElement();
+    }
+
+    @Override
+    public String toXML() {
+        materialize();
+        return super.toXML();
+    }
+
+    @Override
+    public String toString() {
+        materialize();
+        return super.toString();
+    }
+
+    @Override
+    public IQ createCopy() {
+        materialize();
+        return super.createCopy();
+    }
+
+    @Override
+    public Element getChildElement() {
+        materialize();
+        return super.getChildElement();
+    }
+
+    @Override
+    public Element setChildElement(final String name, final String namespace) {
+        materialize();
+        copySharedElement();
+        return super.setChildElement(name, namespace);
+    }
+
+    @Override
+    public void setChildElement(final Element childElement) {
+        materialize();
+        copySharedElement();
+        super.setChildElement(childElement);
+    }
+
+    @Override
+    public PacketExtension getExtension(final String name, final String namespace) {
+        materialize();
+        return super.getExtension(name, namespace);
+    }
+
+    @Override
+    public void addExtension(final PacketExtension extension) {
+        materialize();
+        copySharedElement();
+        super.addExtension(extension);
+    }
+
+    @Override
+    public boolean deleteExtension(final String name, final String namespace) {
+        materialize();
+        copySharedElement();
+        return super.deleteExtension(name, namespace);
+    }
+
+    @Override
+    public PacketError getError() {
+        materialize();
+        return super.getError();
+    }
+
+    @Override
+    public void setError(final PacketError error) {
+        materialize();
+        copySharedElement();
+        super.setError(error);
+    }
+
+    @Override
+    public void setError(final PacketError.Condition condition) {
+        materialize();
+        copySharedElement();
+        super.setError(condition);
+    }
+
 }
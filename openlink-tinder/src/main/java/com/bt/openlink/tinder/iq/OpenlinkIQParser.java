@@ -1,9 +1,10 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.dom4j.Element;
 import org.xmpp.packet.IQ;
@@ -11,7 +12,8 @@ import org.xmpp.packet.Packet;
 import org.xmpp.packet.PacketError;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
-import com.bt.openlink.tinder.internal.TinderPacketUtil;
+import com.bt.openlink.ScopedDefault;
+import com.bt.openlink.ValidationPolicy;
 
 public final class OpenlinkIQParser {
 
@@ -22,53 +24,40 @@ public final class OpenlinkIQParser {
         IQ from(final IQ iq);
     }
 
-    private static class IQMatcher {
+    private static class CommandFactories {
 
-        private final String namespace;
-        private final String attribute;
-        private final String value;
-        private final StanzaFactory stanzaFactory;
+        @Nonnull private final StanzaFactory requestFactory;
+        @Nonnull private final StanzaFactory resultFactory;
 
-        private IQMatcher(final OpenlinkXmppNamespace namespace, final String attribute, final String value, final StanzaFactory stanzaFactory) {
-            this.namespace = namespace.uri();
-            this.attribute = attribute;
-            this.value = value;
-            this.stanzaFactory = stanzaFactory;
-        }
-
-        private boolean matches(final Element commandElement) {
-            return namespace.equals(TinderPacketUtil.getNullableStringAttribute(commandElement, "node"))
-                    && value.equals(TinderPacketUtil.getNullableStringAttribute(commandElement, attribute));
+        private CommandFactories(@Nonnull final StanzaFactory requestFactory, @Nonnull final StanzaFactory resultFactory) {
+            this.requestFactory = requestFactory;
+            this.resultFactory = resultFactory;
         }
     }
 
+    private static final String ATTRIBUTE_NODE = "node";
     private static final String ATTRIBUTE_ACTION = "action";
     private static final String ATTRIBUTE_STATUS = "status";
     private static final String ACTION_EXECUTE = "execute";
     private static final String ACTION_COMPLETED = "completed";
-    private static final List<IQMatcher> STANZA_TYPE_MATCHER_LIST = Arrays.asList(
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetProfilesRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetProfilesResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILE, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetProfileRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_PROFILE, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetProfileResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetInterestsRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetInterestsResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTEREST, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetInterestRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_INTEREST, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetInterestResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetFeaturesRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetFeaturesResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY, ATTRIBUTE_ACTION, ACTION_EXECUTE, GetCallHistoryRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY, ATTRIBUTE_STATUS, ACTION_COMPLETED, GetCallHistoryResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_QUERY_FEATURES, ATTRIBUTE_ACTION, ACTION_EXECUTE, QueryFeaturesRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_QUERY_FEATURES, ATTRIBUTE_STATUS, ACTION_COMPLETED, QueryFeaturesResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_SET_FEATURES, ATTRIBUTE_ACTION, ACTION_EXECUTE, SetFeaturesRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_SET_FEATURES, ATTRIBUTE_STATUS, ACTION_COMPLETED, SetFeaturesResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_MANAGE_VOICE_MESSAGE, ATTRIBUTE_ACTION, ACTION_EXECUTE, ManageVoiceMessageRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_MANAGE_VOICE_MESSAGE, ATTRIBUTE_STATUS, ACTION_COMPLETED, ManageVoiceMessageResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_MAKE_CALL, ATTRIBUTE_ACTION, ACTION_EXECUTE, MakeCallRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_MAKE_CALL, ATTRIBUTE_STATUS, ACTION_COMPLETED, MakeCallResult::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION, ATTRIBUTE_ACTION, ACTION_EXECUTE, RequestActionRequest::from),
-            new IQMatcher(OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION, ATTRIBUTE_STATUS, ACTION_COMPLETED, RequestActionResult::from));
+    private static final Map<String, CommandFactories> COMMAND_FACTORIES_BY_NODE = new HashMap<>();
+    static {
+        register(OpenlinkXmppNamespace.OPENLINK_GET_PROFILES, GetProfilesRequest::from, GetProfilesResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_GET_PROFILE, GetProfileRequest::from, GetProfileResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_GET_INTERESTS, GetInterestsRequest::from, GetInterestsResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_GET_INTEREST, GetInterestRequest::from, GetInterestResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_GET_FEATURES, GetFeaturesRequest::from, GetFeaturesResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_GET_CALL_HISTORY, GetCallHistoryRequest::from, GetCallHistoryResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_QUERY_FEATURES, QueryFeaturesRequest::from, QueryFeaturesResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_SET_FEATURES, SetFeaturesRequest::from, SetFeaturesResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_MANAGE_VOICE_MESSAGE, ManageVoiceMessageRequest::from, ManageVoiceMessageResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_MAKE_CALL, MakeCallRequest::from, MakeCallResult::from);
+        register(OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION, RequestActionRequest::from, RequestActionResult::from);
+    }
+
+    private static void register(@Nonnull final OpenlinkXmppNamespace namespace, @Nonnull final StanzaFactory requestFactory, @Nonnull final StanzaFactory resultFactory) {
+        COMMAND_FACTORIES_BY_NODE.put(namespace.uri(), new CommandFactories(requestFactory, resultFactory));
+    }
 
     @SuppressWarnings("unchecked")
     @Nonnull
@@ -85,19 +74,52 @@ public final class OpenlinkIQParser {
         }
     }
 
+    /**
+     * Parses an IQ, validating it according to the given policy instead of the default policy.
+     *
+     * @param iq
+     *            the IQ to parse
+     * @param validationPolicy
+     *            how much of the IQ to validate
+     * @param <P>
+     *            the type of the parsed IQ
+     * @return the parsed IQ, or the original IQ if it is not an Openlink IQ
+     */
+    @Nonnull
+    public static <P extends Packet> P parse(@Nonnull final IQ iq, @Nonnull final ValidationPolicy validationPolicy) {
+        try (ScopedDefault.Scope ignored = validationPolicy.enter()) {
+            return parse(iq);
+        }
+    }
+
     private static IQ parseCommand(@Nonnull final IQ iq) {
-        final Element commandElement = iq.getChildElement();
-        for (final IQMatcher iqMatcher : STANZA_TYPE_MATCHER_LIST) {
-            if (iqMatcher.matches(commandElement)) {
-                final IQ parsedIQ = iqMatcher.stanzaFactory.from(iq);
-                final PacketError packetError = iq.getError();
-                if (packetError != null) {
-                    parsedIQ.setError(new PacketError(packetError.getElement().createCopy()));
-                }
-                return parsedIQ;
-            }
+        final StanzaFactory stanzaFactory = getStanzaFactory(iq.getChildElement());
+        if (stanzaFactory == null) {
+            return iq;
+        }
+        final IQ parsedIQ = stanzaFactory.from(iq);
+        final PacketError packetError = iq.getError();
+        // A parsed IQ that wraps the original element already has the error
+        if (packetError != null && parsedIQ.getElement() != iq.getElement()) {
+            parsedIQ.setError(new PacketError(packetError.getElement().createCopy()));
+        }
+        return parsedIQ;
+    }
+
+    @Nullable
+    private static StanzaFactory getStanzaFactory(@Nonnull final Element commandElement) {
+        final String node = commandElement.attributeValue(ATTRIBUTE_NODE);
+        final CommandFactories commandFactories = node == null ? null : COMMAND_FACTORIES_BY_NODE.get(node);
+        if (commandFactories == null) {
+            return null;
+        }
+        if (ACTION_EXECUTE.equals(commandElement.attributeValue(ATTRIBUTE_ACTION))) {
+            return commandFactories.requestFactory;
+        }
+        if (ACTION_COMPLETED.equals(commandElement.attributeValue(ATTRIBUTE_STATUS))) {
+            return commandFactories.resultFactory;
         }
-        return iq;
+        return null;
     }
 
     private static IQ parsePubSub(@Nonnull final IQ iq) {
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.PubSubPublishRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.CallStatus;
@@ -25,11 +25,15 @@ public class PubSubPublishRequest extends OpenlinkIQ {
     @Nullable private final CallStatus callStatus;
     @Nullable private final DeviceStatus deviceStatus;
 
-    private PubSubPublishRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private PubSubPublishRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.pubSubNodeId = builder.getPubSubNodeId().orElse(null);
         this.callStatus = builder.getCallStatus().orElse(null);
         this.deviceStatus = builder.getDeviceStatus().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element pubSubElement = this.getElement().addElement("pubsub", OpenlinkXmppNamespace.XMPP_PUBSUB.uri());
         final Element publishElement = pubSubElement.addElement("publish");
         getPubSubNodeId().ifPresent(nodeId -> publishElement.addAttribute("node", nodeId.value()));
@@ -56,7 +60,7 @@ public class PubSubPublishRequest extends OpenlinkIQ {
     @SuppressWarnings("unchecked")
     @Nonnull
     public static PubSubPublishRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Builder builder = Builder.start(iq);
         final Element publishElement = TinderPacketUtil.getChildElement(iq.getElement(), "pubsub", "publish");
         PubSubNodeId.from(TinderPacketUtil.getNullableStringAttribute(publishElement, "node")).ifPresent(builder::setPubSubNodeId);
@@ -64,9 +68,7 @@ public class PubSubPublishRequest extends OpenlinkIQ {
         TinderPacketUtil.getCallStatus(itemElement, STANZA_DESCRIPTION, parseErrors).ifPresent(builder::setCallStatus);
         final Element deviceStatusElement = TinderPacketUtil.getChildElement(itemElement, "devicestatus");
         TinderPacketUtil.getDeviceStatus(deviceStatusElement, STANZA_DESCRIPTION, parseErrors).ifPresent(builder::setDeviceStatus);
-        final PubSubPublishRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends PubSubPublishRequestBuilder<Builder, JID, Type> {
@@ -90,13 +92,13 @@ public class PubSubPublishRequest extends OpenlinkIQ {
         @Nonnull
         public PubSubPublishRequest build() {
             super.validate();
-            return new PubSubPublishRequest(this, null);
+            return new PubSubPublishRequest(this, null, null);
         }
 
         @Nonnull
-        private PubSubPublishRequest build(@Nonnull final List<String> errors) {
+        private PubSubPublishRequest build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors, true);
-            return new PubSubPublishRequest(this, errors);
+            return new PubSubPublishRequest(this, errors, originalElement);
         }
     }
 
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.PubSubSubscriptionRequestResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.PubSubNodeId;
@@ -23,11 +23,15 @@ public class PubSubSubscriptionRequest extends OpenlinkIQ {
     @Nullable private final JID jid;
     @Nullable private final SubscriptionState subscriptionState;
 
-    private PubSubSubscriptionRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private PubSubSubscriptionRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.pubSubNodeId = builder.getPubSubNodeId().orElse(null);
         this.jid = builder.getJID().orElse(null);
         this.subscriptionState = builder.getSubscriptionState().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element pubSubElement = this.getElement().addElement(ELEMENT_PUBSUB, OpenlinkXmppNamespace.XMPP_PUBSUB.uri());
         final Element actionElement;
         if (SubscriptionState.SUBSCRIBED == subscriptionState) {
@@ -52,7 +56,7 @@ public class PubSubSubscriptionRequest extends OpenlinkIQ {
     @SuppressWarnings("unchecked")
     @Nonnull
     public static PubSubSubscriptionRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Builder builder = Builder.start(iq);
         Element actionElement = TinderPacketUtil.getChildElement(iq.getElement(), ELEMENT_PUBSUB, "subscribe");
         if (actionElement != null) {
@@ -67,9 +71,7 @@ public class PubSubSubscriptionRequest extends OpenlinkIQ {
             PubSubNodeId.from(TinderPacketUtil.getNullableStringAttribute(actionElement, "node")).ifPresent(builder::setPubSubNodeId);
             TinderPacketUtil.getJID(TinderPacketUtil.getNullableStringAttribute(actionElement, "jid")).ifPresent(builder::setJID);
         }
-        final PubSubSubscriptionRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     @Nonnull
@@ -104,13 +106,13 @@ public class PubSubSubscriptionRequest extends OpenlinkIQ {
         @Nonnull
         public PubSubSubscriptionRequest build() {
             super.validate();
-            return new PubSubSubscriptionRequest(this, null);
+            return new PubSubSubscriptionRequest(this, null, null);
         }
 
         @Nonnull
-        private PubSubSubscriptionRequest build(@Nonnull final List<String> errors) {
+        private PubSubSubscriptionRequest build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors, true);
-            return new PubSubSubscriptionRequest(this, errors);
+            return new PubSubSubscriptionRequest(this, errors, originalElement);
         }
     }
 
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.PubSubSubscriptionRequestResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.PubSubNodeId;
@@ -23,11 +23,15 @@ public class PubSubSubscriptionResult extends OpenlinkIQ {
     @Nullable private final JID jid;
     @Nullable private final SubscriptionState subscriptionState;
 
-    private PubSubSubscriptionResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private PubSubSubscriptionResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.pubSubNodeId = builder.getPubSubNodeId().orElse(null);
         this.jid = builder.getJID().orElse(null);
         this.subscriptionState = builder.getSubscriptionState().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element pubSubElement = this.getElement().addElement("pubsub", OpenlinkXmppNamespace.XMPP_PUBSUB.uri());
         final Element subscriptionElement = pubSubElement.addElement(ELEMENT_SUBSCRIPTION);
         getPubSubNodeId().ifPresent(nodeId -> subscriptionElement.addAttribute("node", nodeId.value()));
@@ -48,7 +52,7 @@ public class PubSubSubscriptionResult extends OpenlinkIQ {
     @SuppressWarnings("unchecked")
     @Nonnull
     public static PubSubSubscriptionResult from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Builder builder = Builder.start(iq);
         Element actionElement = TinderPacketUtil.getChildElement(iq.getElement(), "pubsub", ELEMENT_SUBSCRIPTION);
         if (actionElement != null) {
@@ -56,9 +60,7 @@ public class PubSubSubscriptionResult extends OpenlinkIQ {
             TinderPacketUtil.getJID(TinderPacketUtil.getNullableStringAttribute(actionElement, "jid")).ifPresent(builder::setJID);
             SubscriptionState.from(TinderPacketUtil.getNullableStringAttribute(actionElement, ELEMENT_SUBSCRIPTION)).ifPresent(builder::setSubscriptionState);
         }
-        final PubSubSubscriptionResult request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     @Nonnull
@@ -93,13 +95,13 @@ public class PubSubSubscriptionResult extends OpenlinkIQ {
         @Nonnull
         public PubSubSubscriptionResult build() {
             super.validate();
-            return new PubSubSubscriptionResult(this, null);
+            return new PubSubSubscriptionResult(this, null, null);
         }
 
         @Nonnull
-        private PubSubSubscriptionResult build(@Nonnull final List<String> errors) {
+        private PubSubSubscriptionResult build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors, true);
-            return new PubSubSubscriptionResult(this, errors);
+            return new PubSubSubscriptionResult(this, errors, originalElement);
         }
     }
 
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.QueryFeaturesRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.ProfileId;
@@ -19,9 +19,13 @@ import com.bt.openlink.type.ProfileId;
 public class QueryFeaturesRequest extends OpenlinkIQ {
     @Nullable private final ProfileId profileId;
 
-    private QueryFeaturesRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private QueryFeaturesRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.profileId = builder.getProfileId().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element inElement = TinderPacketUtil.addCommandIOInputElement(this, OpenlinkXmppNamespace.OPENLINK_QUERY_FEATURES);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "profile", profileId);
     }
@@ -33,13 +37,11 @@ public class QueryFeaturesRequest extends OpenlinkIQ {
 
     @Nonnull
     public static QueryFeaturesRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element inElement = TinderPacketUtil.getIOInElement(iq);
         final Builder builder = Builder.start(iq);
         ProfileId.from(TinderPacketUtil.getNullableChildElementString(inElement, "profile")).ifPresent(builder::setProfileId);
-        final QueryFeaturesRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends QueryFeaturesRequestBuilder<Builder, JID, Type> {
@@ -63,13 +65,13 @@ public class QueryFeaturesRequest extends OpenlinkIQ {
         @Nonnull
         public QueryFeaturesRequest build() {
             super.validate();
-            return new QueryFeaturesRequest(this, null);
+            return new QueryFeaturesRequest(this, null, null);
         }
 
         @Nonnull
-        private QueryFeaturesRequest build(@Nonnull final List<String> errors) {
+        private QueryFeaturesRequest build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors, true);
-            return new QueryFeaturesRequest(this, errors);
+            return new QueryFeaturesRequest(this, errors, originalElement);
         }
     }
 
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -13,6 +12,8 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.QueryFeaturesResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.ActiveFeature;
@@ -23,9 +24,13 @@ public class QueryFeaturesResult extends OpenlinkIQ {
     private static final String DESCRIPTION = "query-features result";
     @Nonnull private final List<ActiveFeature> features;
 
-    private QueryFeaturesResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private QueryFeaturesResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.features = Collections.unmodifiableList(builder.getFeatures());
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element outElement = TinderPacketUtil.addCommandIOOutputElement(this, OpenlinkXmppNamespace.OPENLINK_QUERY_FEATURES);
         final Element featuresElement = outElement.addElement("features");
         for (final ActiveFeature feature : features) {
@@ -48,7 +53,7 @@ public class QueryFeaturesResult extends OpenlinkIQ {
     @SuppressWarnings("unchecked")
     @Nonnull
     public static QueryFeaturesResult from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final QueryFeaturesResult.Builder builder = QueryFeaturesResult.Builder.start(iq);
         final Element outElement = TinderPacketUtil.getIOOutElement(iq);
         final Element featuresElement = TinderPacketUtil.getChildElement(outElement, "features");
@@ -65,7 +70,7 @@ public class QueryFeaturesResult extends OpenlinkIQ {
                     if (type.isPresent()) {
                         featureBuilder.setType(type.get());
                     } else {
-                        parseErrors.add(String.format("Invalid %s; invalid feature type - '%s'", DESCRIPTION, featureType));
+                        ParseErrors.report(parseErrors, ParseError.Code.INVALID_FEATURE_TYPE, "type", DESCRIPTION, featureType);
                     }
                 });
                 TinderPacketUtil.getStringAttribute(featureElement, "label", true, DESCRIPTION, parseErrors).ifPresent(featureBuilder::setLabel);
@@ -76,9 +81,7 @@ public class QueryFeaturesResult extends OpenlinkIQ {
             }
         }
 
-        final QueryFeaturesResult request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends QueryFeaturesResultBuilder<Builder, JID, Type> {
@@ -124,13 +127,13 @@ public class QueryFeaturesResult extends OpenlinkIQ {
         @Nonnull
         public QueryFeaturesResult build() {
             validate();
-            return new QueryFeaturesResult(this, null);
+            return new QueryFeaturesResult(this, null, null);
         }
 
         @Nonnull
-        private QueryFeaturesResult build(@Nonnull final List<String> parseErrors) {
+        private QueryFeaturesResult build(@Nonnull final List<String> parseErrors, @Nonnull final Element originalElement) {
             validate(parseErrors);
-            return new QueryFeaturesResult(this, parseErrors);
+            return new QueryFeaturesResult(this, parseErrors, originalElement);
         }
     }
 }
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.RequestActionRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.CallId;
@@ -29,14 +29,18 @@ public class RequestActionRequest extends OpenlinkIQ {
     @Nullable private final RequestActionValue value2;
     @Nonnull private final List<MakeCallFeature> features;
 
-    private RequestActionRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private RequestActionRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.interestId = builder.getInterestId().orElse(null);
         this.action = builder.getAction().orElse(null);
         this.callId = builder.getCallId().orElse(null);
         this.value1 = builder.getValue1().orElse(null);
         this.value2 = builder.getValue2().orElse(null);
         this.features = builder.getFeatures();
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element inElement = TinderPacketUtil.addCommandIOInputElement(this, OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "interest", interestId);
         getAction().ifPresent(requestAction->TinderPacketUtil.addElementWithTextIfNotNull(inElement, OpenlinkXmppNamespace.TAG_ACTION, requestAction.getId()));
@@ -56,7 +60,7 @@ public class RequestActionRequest extends OpenlinkIQ {
     @SuppressWarnings("unchecked")
     @Nonnull
     public static RequestActionRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element inElement = TinderPacketUtil.getIOInElement(iq);
         final Builder builder = Builder.start(iq);
         InterestId.from(TinderPacketUtil.getNullableChildElementString(inElement, "interest")).ifPresent(builder::setInterestId);
@@ -75,9 +79,7 @@ public class RequestActionRequest extends OpenlinkIQ {
                 builder.addFeature(featureBuilder.build());
             });
         }
-        final RequestActionRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     @Nonnull
@@ -131,13 +133,13 @@ public class RequestActionRequest extends OpenlinkIQ {
         @Nonnull
         public RequestActionRequest build() {
             super.validate();
-            return new RequestActionRequest(this, null);
+            return new RequestActionRequest(this, null, null);
         }
 
         @Nonnull
-        private RequestActionRequest build(@Nonnull final List<String> errors) {
+        private RequestActionRequest build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors);
-            return new RequestActionRequest(this, errors);
+            return new RequestActionRequest(this, errors, originalElement);
         }
 
     }
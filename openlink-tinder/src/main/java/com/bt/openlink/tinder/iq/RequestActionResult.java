@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.RequestActionResultBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.CallStatus;
@@ -19,9 +19,13 @@ import com.bt.openlink.type.CallStatus;
 public class RequestActionResult extends OpenlinkIQ {
     @Nullable private final CallStatus callStatus;
 
-    private RequestActionResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private RequestActionResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.callStatus = builder.getCallStatus().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element outElement = TinderPacketUtil.addCommandIOOutputElement(this, OpenlinkXmppNamespace.OPENLINK_REQUEST_ACTION);
         getCallStatus().ifPresent(status->TinderPacketUtil.addCallStatus(outElement, status));
     }
@@ -33,13 +37,11 @@ public class RequestActionResult extends OpenlinkIQ {
 
     @Nonnull
     public static RequestActionResult from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element outElement = TinderPacketUtil.getIOOutElement(iq);
         final Builder builder = Builder.start(iq);
         TinderPacketUtil.getCallStatus(outElement, "request-action result", parseErrors).ifPresent(builder::setCallStatus);
-        final RequestActionResult result = builder.build(parseErrors);
-        result.setID(iq.getID());
-        return result;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends RequestActionResultBuilder<Builder, JID, Type> {
@@ -85,13 +87,19 @@ public class RequestActionResult extends OpenlinkIQ {
         @Nonnull
         public RequestActionResult build() {
             super.validate();
-            return new RequestActionResult(this, null);
+            return new RequestActionResult(this, null, null);
         }
 
         @Nonnull
         public RequestActionResult build(@Nonnull final List<String> errors) {
             super.validate(errors, true);
-            return new RequestActionResult(this, errors);
+            return new RequestActionResult(this, errors, null);
+        }
+
+        @Nonnull
+        private RequestActionResult build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
+            super.validate(errors, true);
+            return new RequestActionResult(this, errors, originalElement);
         }
 
     }
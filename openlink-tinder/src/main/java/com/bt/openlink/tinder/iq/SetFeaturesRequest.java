@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.iq;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +11,7 @@ import org.xmpp.packet.IQ;
 import org.xmpp.packet.JID;
 
 import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.iq.SetFeaturesRequestBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.FeatureId;
@@ -24,13 +24,17 @@ public class SetFeaturesRequest extends OpenlinkIQ {
     @Nullable private String value2;
     @Nullable private String value3;
 
-    private SetFeaturesRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private SetFeaturesRequest(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.profileId = builder.getProfileId().orElse(null);
         this.featureId = builder.getFeatureId().orElse(null);
         this.value1 = builder.getValue1().orElse(null);
         this.value2 = builder.getValue2().orElse(null);
         this.value3 = builder.getValue3().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element inElement = TinderPacketUtil.addCommandIOInputElement(this, OpenlinkXmppNamespace.OPENLINK_SET_FEATURES);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "profile", profileId);
         TinderPacketUtil.addElementWithTextIfNotNull(inElement, "feature", featureId);
@@ -70,7 +74,7 @@ public class SetFeaturesRequest extends OpenlinkIQ {
 
     @Nonnull
     public static SetFeaturesRequest from(@Nonnull IQ iq) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Element inElement = TinderPacketUtil.getIOInElement(iq);
         final Builder builder = Builder.start(iq);
         ProfileId.from(TinderPacketUtil.getNullableChildElementString(inElement, "profile")).ifPresent(builder::setProfileId);
@@ -78,9 +82,7 @@ public class SetFeaturesRequest extends OpenlinkIQ {
         TinderPacketUtil.getOptionalChildElementString(inElement, "value1").ifPresent(builder::setValue1);
         TinderPacketUtil.getOptionalChildElementString(inElement, "value2").ifPresent(builder::setValue2);
         TinderPacketUtil.getOptionalChildElementString(inElement, "value3").ifPresent(builder::setValue3);
-        final SetFeaturesRequest request = builder.build(parseErrors);
-        request.setID(iq.getID());
-        return request;
+        return builder.build(parseErrors, iq.getElement());
     }
 
     public static final class Builder extends SetFeaturesRequestBuilder<Builder, JID, Type> {
@@ -104,13 +106,13 @@ public class SetFeaturesRequest extends OpenlinkIQ {
         @Nonnull
         public SetFeaturesRequest build() {
             super.validate();
-            return new SetFeaturesRequest(this, null);
+            return new SetFeaturesRequest(this, null, null);
         }
 
         @Nonnull
-        private SetFeaturesRequest build(@Nonnull final List<String> errors) {
+        private SetFeaturesRequest build(@Nonnull final List<String> errors, @Nonnull final Element originalElement) {
             super.validate(errors, true);
-            return new SetFeaturesRequest(this, errors);
+            return new SetFeaturesRequest(this, errors, originalElement);
         }
     }
 
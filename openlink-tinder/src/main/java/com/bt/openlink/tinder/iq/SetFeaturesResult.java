@@ -16,8 +16,12 @@ import com.bt.openlink.tinder.internal.TinderPacketUtil;
 
 public class SetFeaturesResult extends OpenlinkIQ {
 
-    private SetFeaturesResult(@Nonnull Builder builder, @Nullable List<String> parseErrors) {
-        super(builder, parseErrors);
+    private SetFeaturesResult(@Nonnull Builder builder, @Nullable List<String> parseErrors, @Nullable Element originalElement) {
+        super(builder, parseErrors, originalElement);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element commandElement = TinderPacketUtil.addCommandElement(this);
         commandElement.addAttribute("status", "completed");
         commandElement.addAttribute("node", OpenlinkXmppNamespace.OPENLINK_SET_FEATURES.uri());
@@ -25,9 +29,7 @@ public class SetFeaturesResult extends OpenlinkIQ {
 
     @Nonnull
     public static SetFeaturesResult from(@Nonnull IQ iq) {
-        final SetFeaturesResult request = Builder.start(iq).build(new ArrayList<>());
-        request.setID(iq.getID());
-        return request;
+        return Builder.start(iq).build(new ArrayList<>(), iq.getElement());
     }
 
     public static final class Builder extends IQBuilder<Builder, JID, Type> {
@@ -79,13 +81,13 @@ public class SetFeaturesResult extends OpenlinkIQ {
         @Nonnull
         public SetFeaturesResult build() {
             validate();
-            return new SetFeaturesResult(this, null);
+            return new SetFeaturesResult(this, null, null);
         }
 
         @Nonnull
-        private SetFeaturesResult build(@Nonnull final List<String> parseErrors) {
+        private SetFeaturesResult build(@Nonnull final List<String> parseErrors, @Nonnull final Element originalElement) {
             validate(parseErrors);
-            return new SetFeaturesResult(this, parseErrors);
+            return new SetFeaturesResult(this, parseErrors, originalElement);
         }
     }
 }
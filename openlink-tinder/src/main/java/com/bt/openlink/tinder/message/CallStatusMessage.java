@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.message;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +10,7 @@ import org.dom4j.Element;
 import org.xmpp.packet.JID;
 import org.xmpp.packet.Message;
 
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.message.CallStatusMessageBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.CallStatus;
@@ -21,13 +21,22 @@ public class CallStatusMessage extends OpenlinkPubSubMessage {
 
     @Nullable private final CallStatus callStatus;
 
-    private CallStatusMessage(@Nonnull final Builder builder, @Nullable final List<String> parseErrors) {
-        super(builder, parseErrors);
+    private CallStatusMessage(@Nonnull final Builder builder, @Nullable final List<String> parseErrors, @Nullable final Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.callStatus = builder.getCallStatus().orElse(null);
+    }
+
+    CallStatusMessage(@Nonnull final CallStatusMessage template, @Nonnull final Element sharedElement, @Nonnull final String sharedContentXml) {
+        super(template, sharedElement, sharedContentXml);
+        this.callStatus = template.callStatus;
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element messageElement = getElement();
-        final Element itemElement = TinderPacketUtil.addPubSubMetaData(messageElement, builder);
+        final Element itemElement = TinderPacketUtil.addPubSubMetaData(messageElement, this);
         getCallStatus().ifPresent(status->TinderPacketUtil.addCallStatus(itemElement, status));
-        TinderPacketUtil.addDelay(messageElement, builder);
+        TinderPacketUtil.addDelay(messageElement, this);
     }
 
     @Nonnull
@@ -37,11 +46,11 @@ public class CallStatusMessage extends OpenlinkPubSubMessage {
 
     @Nonnull
     public static CallStatusMessage from(@Nonnull final Message message) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Builder builder = Builder.start();
         final Element itemElement = TinderPacketUtil.setPubSubMetaData(message, builder, STANZA_DESCRIPTION, parseErrors);
         TinderPacketUtil.getCallStatus(itemElement, "callstatus message", parseErrors).ifPresent(builder::setCallStatus);
-        return builder.build(parseErrors);
+        return builder.build(parseErrors, message.getElement());
     }
 
     public static final class Builder extends CallStatusMessageBuilder<Builder, JID> {
@@ -57,13 +66,19 @@ public class CallStatusMessage extends OpenlinkPubSubMessage {
         @Nonnull
         public CallStatusMessage build() {
             super.validate();
-            return new CallStatusMessage(this, null);
+            return new CallStatusMessage(this, null, null);
         }
 
         @Nonnull
         protected CallStatusMessage build(final List<String> parseErrors) {
             super.validate(parseErrors);
-            return new CallStatusMessage(this, parseErrors);
+            return new CallStatusMessage(this, parseErrors, null);
+        }
+
+        @Nonnull
+        private CallStatusMessage build(@Nonnull final List<String> parseErrors, @Nonnull final Element originalElement) {
+            super.validate(parseErrors);
+            return new CallStatusMessage(this, parseErrors, originalElement);
         }
     }
 }
@@ -0,0 +1,85 @@
+package com.bt.openlink.tinder.message;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.dom4j.Attribute;
+import org.dom4j.Element;
+import org.xmpp.packet.JID;
+
+/**
+ * Sends one call status event to many recipients, e.g. every watcher of an interest. The event is converted to XML
+ * once, from a template message, however many recipients there are; the message for each recipient differs from the
+ * template only in its 'to' and 'id' attributes.
+ * <p>
+ * Each message created shares the XML of the event, so its {@link CallStatusMessage#toXML()} costs little more than
+ * writing its attributes. The message only gets its own copy of the event's elements if they are needed, e.g. by
+ * {@link CallStatusMessage#getElement()}, so it can still be changed without affecting any other.
+ * <p>
+ * A fan-out does not change after it is created, so may be shared between threads. As dom4j may change how an element
+ * holds its content when the content is read, the messages copy the shared event's elements whilst holding its lock.
+ */
+public final class CallStatusMessageFanOut {
+
+    @Nonnull private final CallStatusMessage template;
+    @Nonnull private final Element sharedElement;
+    @Nonnull private final String sharedContentXml;
+
+    /**
+     * @param template
+     *            the message to send, either built or parsed; its 'to' and 'id' attributes are replaced for each
+     *            recipient
+     */
+    public CallStatusMessageFanOut(@Nonnull final CallStatusMessage template) {
+        this.template = template;
+        sharedElement = template.getElement().createCopy();
+        removeAttribute(sharedElement, "to");
+        removeAttribute(sharedElement, "id");
+        final String xml = sharedElement.asXML();
+        // Any '>' within an attribute value is escaped, so the first ends the start tag
+        final int contentStart = xml.indexOf('>') + 1;
+        final int contentEnd = xml.lastIndexOf("</");
+        sharedContentXml = xml.endsWith("/>") || contentEnd < contentStart ? "" : xml.substring(contentStart, contentEnd);
+    }
+
+    @Nonnull
+    public CallStatusMessage getTemplate() {
+        return template;
+    }
+
+    /**
+     * @param to
+     *            the recipient of the message
+     * @param id
+     *            the stanza id of the message, if any
+     * @return a message identical to the template, but for the recipient and id
+     */
+    @Nonnull
+    public CallStatusMessage createMessage(@Nonnull final JID to, @Nullable final String id) {
+        final CallStatusMessage message = new CallStatusMessage(template, sharedElement, sharedContentXml);
+        message.setTo(to);
+        if (id != null) {
+            message.setID(id);
+        }
+        return message;
+    }
+
+    /**
+     * @param to
+     *            the recipient of the message
+     * @param id
+     *            the stanza id of the message, if any
+     * @return the XML of the message that {@link #createMessage(JID, String)} would return
+     */
+    @Nonnull
+    public String toXML(@Nonnull final JID to, @Nullable final String id) {
+        return createMessage(to, id).toXML();
+    }
+
+    private static void removeAttribute(@Nonnull final Element element, @Nonnull final String name) {
+        final Attribute attribute = element.attribute(name);
+        if (attribute != null) {
+            element.remove(attribute);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package com.bt.openlink.tinder.message;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +10,7 @@ import org.dom4j.Element;
 import org.xmpp.packet.JID;
 import org.xmpp.packet.Message;
 
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.message.DeviceStatusMessageBuilder;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 import com.bt.openlink.type.DeviceStatus;
@@ -21,23 +21,27 @@ public class DeviceStatusMessage extends OpenlinkPubSubMessage {
 
     @Nullable private final DeviceStatus deviceStatus;
 
-    private DeviceStatusMessage(@Nonnull final Builder builder, @Nullable final List<String> parseErrors) {
-        super(builder, parseErrors);
+    private DeviceStatusMessage(@Nonnull final Builder builder, @Nullable final List<String> parseErrors, @Nullable final Element originalElement) {
+        super(builder, parseErrors, originalElement);
         this.deviceStatus = builder.getDeviceStatus().orElse(null);
+    }
+
+    @Override
+    protected void addChildElements() {
         final Element messageElement = getElement();
-        final Element itemElement = TinderPacketUtil.addPubSubMetaData(messageElement, builder);
+        final Element itemElement = TinderPacketUtil.addPubSubMetaData(messageElement, this);
         getDeviceStatus().ifPresent(status -> TinderPacketUtil.addDeviceStatus(itemElement, status));
-        TinderPacketUtil.addDelay(messageElement, builder);
+        TinderPacketUtil.addDelay(messageElement, this);
     }
 
     @Nonnull
     public static DeviceStatusMessage from(@Nonnull final Message message) {
-        final List<String> parseErrors = new ArrayList<>();
+        final List<String> parseErrors = ParseErrors.create();
         final Builder builder = Builder.start();
         final Element itemElement = TinderPacketUtil.setPubSubMetaData(message, builder, STANZA_DESCRIPTION, parseErrors);
         final Element deviceStatusElement = TinderPacketUtil.getChildElement(itemElement, "devicestatus");
         TinderPacketUtil.getDeviceStatus(deviceStatusElement, STANZA_DESCRIPTION, parseErrors).ifPresent(builder::setDeviceStatus);
-        return builder.build(parseErrors);
+        return builder.build(parseErrors, message.getElement());
     }
 
     @Nonnull
@@ -58,13 +62,19 @@ public class DeviceStatusMessage extends OpenlinkPubSubMessage {
         @Nonnull
         public DeviceStatusMessage build() {
             super.validate();
-            return new DeviceStatusMessage(this, null);
+            return new DeviceStatusMessage(this, null, null);
         }
 
         @Nonnull
         protected DeviceStatusMessage build(final List<String> parseErrors) {
             super.validate(parseErrors, true);
-            return new DeviceStatusMessage(this, parseErrors);
+            return new DeviceStatusMessage(this, parseErrors, null);
+        }
+
+        @Nonnull
+        private DeviceStatusMessage build(@Nonnull final List<String> parseErrors, @Nonnull final Element originalElement) {
+            super.validate(parseErrors, true);
+            return new DeviceStatusMessage(this, parseErrors, originalElement);
         }
     }
 }
@@ -1,17 +1,34 @@
 package com.bt.openlink.tinder.message;
 
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import org.dom4j.Element;
 import org.xmpp.packet.Message;
 import org.xmpp.packet.Packet;
 
+import com.bt.openlink.OpenlinkXmppNamespace;
+import com.bt.openlink.ScopedDefault;
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.tinder.internal.TinderPacketUtil;
 
 public final class OpenlinkMessageParser {
 
+    private interface MessageFactory {
+        Message from(final Message message);
+    }
+
+    private static final Map<String, MessageFactory> MESSAGE_FACTORIES_BY_PAYLOAD = new HashMap<>();
+    static {
+        MESSAGE_FACTORIES_BY_PAYLOAD.put("callstatus", CallStatusMessage::from);
+        MESSAGE_FACTORIES_BY_PAYLOAD.put("devicestatus", DeviceStatusMessage::from);
+    }
+
     private OpenlinkMessageParser() {
     }
 
@@ -25,23 +42,47 @@ public final class OpenlinkMessageParser {
         }
         final Element childElement = (Element) elements.get(0);
         final String namespace = childElement.getNamespaceURI();
-        if (namespace.equals("http://jabber.org/protocol/pubsub#event")) {
+        if (namespace.equals(OpenlinkXmppNamespace.XMPP_PUBSUB_EVENT.uri())) {
             return (P) parsePubSubEvent(message);
         } else {
             return (P) message;
         }
     }
 
+    /**
+     * Parses a message, validating it according to the given policy instead of the default policy.
+     *
+     * @param message
+     *            the message to parse
+     * @param validationPolicy
+     *            how much of the message to validate
+     * @param <P>
+     *            the type of the parsed message
+     * @return the parsed message, or the original message if it is not an Openlink message
+     */
+    @Nonnull
+    public static <P extends Packet> P parse(@Nonnull final Message message, @Nonnull final ValidationPolicy validationPolicy) {
+        try (ScopedDefault.Scope ignored = validationPolicy.enter()) {
+            return parse(message);
+        }
+    }
+
     @Nonnull
     private static Message parsePubSubEvent(final Message message) {
-        final Element callStatusElement = TinderPacketUtil.getChildElement(message.getElement(), "event", "items", "item", "callstatus");
-        final Element deviceStatusElement = TinderPacketUtil.getChildElement(message.getElement(), "event", "items", "item", "devicestatus");
-        if (callStatusElement != null) {
-            return CallStatusMessage.from(message);
-        } else if (deviceStatusElement != null) {
-            return DeviceStatusMessage.from(message);
-        } else {
-            return message;
+        final MessageFactory messageFactory = getMessageFactory(TinderPacketUtil.getChildElement(message.getElement(), "event", "items", "item"));
+        return messageFactory == null ? message : messageFactory.from(message);
+    }
+
+    @Nullable
+    private static MessageFactory getMessageFactory(@Nullable final Element itemElement) {
+        if (itemElement != null) {
+            for (final Iterator<?> iterator = itemElement.elementIterator(); iterator.hasNext();) {
+                final MessageFactory messageFactory = MESSAGE_FACTORIES_BY_PAYLOAD.get(((Element) iterator.next()).getName());
+                if (messageFactory != null) {
+                    return messageFactory;
+                }
+            }
         }
+        return null;
     }
 }
@@ -1,43 +1,90 @@
 package com.bt.openlink.tinder.message;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.dom4j.Attribute;
+import org.dom4j.Element;
+import org.dom4j.Namespace;
+import org.dom4j.Node;
 import org.xmpp.packet.JID;
 import org.xmpp.packet.Message;
+import org.xmpp.packet.PacketError;
+import org.xmpp.packet.PacketExtension;
 
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrors;
 import com.bt.openlink.message.PubSubMessageBuilder;
 import com.bt.openlink.type.ItemId;
 import com.bt.openlink.type.PubSubNodeId;
 
-public class OpenlinkPubSubMessage extends Message {
+/**
+ * The base class of the Openlink pub-sub event messages. A message built from a builder generates its own XML, but
+ * only when the element is first needed, e.g. by {@link #getElement()} or {@link #toXML()}. A message parsed from a
+ * received stanza wraps the element of that stanza instead, so that it is not re-encoded; the parsed message and the
+ * stanza it was parsed from share the same element, so neither should be changed once the message has been parsed;
+ * change a {@link #createCopy() copy} instead. A message created by a {@link CallStatusMessageFanOut} shares the XML of
+ * its content with every other message of the fan-out.
+ */
+public abstract class OpenlinkPubSubMessage extends Message {
 
     @Nullable private final Instant delay;
     @Nullable private final PubSubNodeId pubSubNodeId;
     @Nullable private final ItemId itemId;
 
     @Nonnull
-    private List<String> parseErrors;
+    private ParseErrors parseErrors;
+    private volatile boolean childElementsPending;
+    @Nullable private final Element sharedElement;
+    @Nullable private final String sharedContentXml;
 
-    OpenlinkPubSubMessage(@Nonnull final PubSubMessageBuilder<?, JID> builder, @Nullable final List<String> parseErrors) {
-        builder.getTo().ifPresent(this::setTo);
-        builder.getFrom().ifPresent(this::setFrom);
-        builder.getId().ifPresent(this::setID);
+    OpenlinkPubSubMessage(@Nonnull final PubSubMessageBuilder<?, JID> builder, @Nullable final List<String> parseErrors, @Nullable final Element originalElement) {
+        if (originalElement == null) {
+            builder.getTo().ifPresent(this::setTo);
+            builder.getFrom().ifPresent(this::setFrom);
+            builder.getId().ifPresent(this::setID);
+            childElementsPending = true;
+        } else {
+            this.element = originalElement;
+        }
         this.delay = builder.getDelay().orElse(null);
         this.pubSubNodeId = builder.getPubSubNodeId().orElse(null);
         this.itemId = builder.getItemId().orElse(null);
-        if (parseErrors == null) {
-            this.parseErrors = Collections.emptyList();
-        } else {
-            this.parseErrors = new ArrayList<>(parseErrors);
-            builder.validate(parseErrors);
+        this.parseErrors = ParseErrors.copyOf(parseErrors);
+        this.sharedElement = null;
+        this.sharedContentXml = null;
+    }
+
+    /**
+     * Creates a message that is identical to another but for its attributes, which are copied from the given shared
+     * element and can then be changed; used to send the same event to many recipients. The content of the message is
+     * only copied from the shared element when the element of the message is first needed; until then,
+     * {@link #toXML()} uses the given XML of that content, so the event is converted to XML only once.
+     * <p>
+     * The shared element is only read whilst holding its lock, as dom4j may change how an element holds its content
+     * when that content is read.
+     */
+    OpenlinkPubSubMessage(@Nonnull final OpenlinkPubSubMessage template, @Nonnull final Element sharedElement, @Nonnull final String sharedContentXml) {
+        this.element = docFactory.createElement(sharedElement.getQName());
+        synchronized (sharedElement) {
+            for (final Object namespace : sharedElement.additionalNamespaces()) {
+                element.add((Namespace) ((Namespace) namespace).clone());
+            }
+            for (final Object attribute : sharedElement.attributes()) {
+                element.addAttribute(((Attribute) attribute).getQName(), ((Attribute) attribute).getValue());
+            }
         }
+        this.sharedElement = sharedElement;
+        this.sharedContentXml = sharedContentXml;
+        childElementsPending = true;
+        this.delay = template.delay;
+        this.pubSubNodeId = template.pubSubNodeId;
+        this.itemId = template.itemId;
+        this.parseErrors = template.parseErrors;
     }
 
     @Nonnull
@@ -45,6 +92,22 @@ public class OpenlinkPubSubMessage extends Message {
         return parseErrors;
     }
 
+    /**
+     * @return the errors found whilst parsing the stanza, unformatted; empty if the stanza was built in code or was
+     *         parsed without collecting its errors
+     */
+    @Nonnull
+    public List<ParseError> getParseErrorDetails() {
+        return parseErrors.getErrors();
+    }
+
+    /**
+     * @return the number of errors found whilst parsing the stanza, including any that were not collected
+     */
+    public int getParseErrorCount() {
+        return parseErrors.getCount();
+    }
+
     @Nonnull
     public Optional<Instant> getDelay() {
         return Optional.ofNullable(delay);
@@ -60,5 +123,114 @@ public class OpenlinkPubSubMessage extends Message {
         return Optional.ofNullable(itemId);
     }
 
+    /**
+     * Adds the pub-sub event and delay elements of a message that was built from a builder. This is called at most
+     * once, the first time the element of the message is needed.
+     */
+    protected abstract void addChildElements();
+
+    private void materialize() {
+        if (childElementsPending) {
+            synchronized (this) {
+                if (childElementsPending) {
+                    childElementsPending = false;
+                    if (sharedElement == null) {
+                        addChildElements();
+                    } else {
+                        copySharedContent(sharedElement);
+                    }
+                }
+            }
+        }
+    }
+
+    private void copySharedContent(@Nonnull final Element sharedElement) {
+        synchronized (sharedElement) {
+            for (final Object node : sharedElement.content()) {
+                if (!(node instanceof Namespace)) {
+                    element.add((Node) ((Node) node).clone());
+                }
+            }
+        }
+    }
+
+    @Override
+    public Element getElement() {
+        materialize();
+        return super.getElement();
+    }
+
+    @Override
+    public String toXML() {
+        if (childElementsPending && sharedContentXml != null) {
+            // The element has only its attributes so far, so can be written as the start tag of the shared content
+            final String emptyElementXml = element.asXML();
+            if (emptyElementXml.endsWith("/>")) {
+                return emptyElementXml.substring(0, emptyElementXml.length() - 2) + '>' + sharedContentXml + "</" + element.getQualifiedName() + '>';
+            }
+        }
+        materialize();
+        return super.toXML();
+    }
+
+    @Override
+    public String toString() {
+        materialize();
+        return super.toString();
+    }
+
+    @Override
+    public Message createCopy() {
+        materialize();
+        return super.createCopy();
+    }
+
+    @Override
+    public Element getChildElement(final String name, final String namespace) {
+        materialize();
+        return super.getChildElement(name, namespace);
+    }
+
+    @Override
+    public Element addChildElement(final String name, final String namespace) {
+        materialize();
+        return super.addChildElement(name, namespace);
+    }
+
+    @Override
+    public PacketExtension getExtension(final String name, final String namespace) {
+        materialize();
+        return super.getExtension(name, namespace);
+    }
+
+    @Override
+    public void addExtension(final PacketExtension extension) {
+        materialize();
+        super.addExtension(extension);
+    }
+
+    @Override
+    public boolean deleteExtension(final String name, final String namespace) {
+        materialize();
+        return super.deleteExtension(name, namespace);
+    }
+
+    @Override
+    public PacketError getError() {
+        materialize();
+        return super.getError();
+    }
+
+    @Override
+    public void setError(final PacketError error) {
+        materialize();
+        super.setError(error);
+    }
+
+    @Override
+    public void setError(final PacketError.Condition condition) {
+        materialize();
+        super.setError(condition);
+    }
 
 }
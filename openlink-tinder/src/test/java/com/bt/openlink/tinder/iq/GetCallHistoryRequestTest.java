@@ -16,6 +16,10 @@ import org.xmpp.packet.IQ;
 
 import com.bt.openlink.CoreFixtures;
 import com.bt.openlink.GetCallHistoryFixtures;
+import com.bt.openlink.ParseError;
+import com.bt.openlink.ParseErrorException;
+import com.bt.openlink.ParseErrorMode;
+import com.bt.openlink.ScopedDefault;
 import com.bt.openlink.tinder.Fixtures;
 import com.bt.openlink.type.CallType;
 
@@ -165,6 +169,32 @@ public class GetCallHistoryRequestTest {
                 "Invalid stanza; missing 'id' attribute is mandatory",
                 "Invalid stanza; incorrect 'type' attribute: result"
                 ));
+        assertThat(request.getParseErrorCount(), is(9));
+        assertThat(request.getParseErrorDetails().get(0).getCode(), is(ParseError.Code.INVALID_CALL_TYPE));
+        assertThat(request.getParseErrorDetails().get(1).getPath(), is("fromdate"));
+    }
+
+    @Test
+    public void willOnlyCountParsingErrorsInCountOnlyMode() {
+
+        final GetCallHistoryRequest request;
+        try (ScopedDefault.Scope ignored = ParseErrorMode.COUNT_ONLY.enter()) {
+            request = GetCallHistoryRequest.from(Fixtures.iqFrom(GetCallHistoryFixtures.GET_CALL_HISTORY_REQUEST_WITH_BAD_VALUES));
+        }
+
+        assertThat(request.getParseErrors().size(), is(0));
+        assertThat(request.getParseErrorCount(), is(9));
+    }
+
+    @Test
+    public void willStopParsingAtTheFirstErrorInFailFastMode() {
+
+        expectedException.expect(ParseErrorException.class);
+        expectedException.expectMessage("Invalid get-call-history request; invalid calltype - 'not-a-call-type' should be 'in', 'out' or 'missed'");
+
+        try (ScopedDefault.Scope ignored = ParseErrorMode.FAIL_FAST.enter()) {
+            GetCallHistoryRequest.from(Fixtures.iqFrom(GetCallHistoryFixtures.GET_CALL_HISTORY_REQUEST_WITH_BAD_VALUES));
+        }
     }
 
     @Test
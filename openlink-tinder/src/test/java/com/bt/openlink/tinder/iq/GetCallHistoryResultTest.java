@@ -9,7 +9,9 @@ import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.TimeZone;
 
@@ -23,6 +25,7 @@ import org.xmpp.packet.JID;
 
 import com.bt.openlink.CoreFixtures;
 import com.bt.openlink.GetCallHistoryFixtures;
+import com.bt.openlink.iq.CallHistoryListener;
 import com.bt.openlink.tinder.Fixtures;
 import com.bt.openlink.type.HistoricalCall;
 
@@ -149,4 +152,30 @@ public class GetCallHistoryResultTest {
         assertThat(result.getFrom(), is(request.getTo()));
         assertThat(result.getType(), is(IQ.Type.result));
     }
+
+    @Test
+    public void willStreamTheCallsToAListener() {
+
+        final List<Long> header = new ArrayList<>();
+        final List<HistoricalCall<JID>> calls = new ArrayList<>();
+
+        final GetCallHistoryResult result = GetCallHistoryResult.from(Fixtures.iqFrom(GetCallHistoryFixtures.CALL_HISTORY_RESULT), new CallHistoryListener<JID>() {
+            @Override
+            public void onCallHistory(final Long totalRecordCount, final Long firstRecordNumber, final Long recordCountInBatch) {
+                header.addAll(Arrays.asList(totalRecordCount, firstRecordNumber, recordCountInBatch));
+            }
+
+            @Override
+            public void onHistoricalCall(final HistoricalCall<JID> call) {
+                calls.add(call);
+            }
+        });
+
+        assertThat(header, contains(2L, 0L, 1L));
+        assertReflectionEquals(Collections.singletonList(GetCallHistoryFixtures.getHistoricalCall(new JID(CoreFixtures.TSC))), calls);
+        assertThat(result.getCalls(), is(empty()));
+        assertThat(result.getRecordCountInBatch(), is(Optional.of(1L)));
+        assertThat(result.getParseErrors(), is(empty()));
+    }
+
 }
\ No newline at end of file
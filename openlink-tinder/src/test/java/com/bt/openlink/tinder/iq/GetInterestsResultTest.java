@@ -2,6 +2,7 @@ package com.bt.openlink.tinder.iq;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.junit.Assert.assertThat;
 import static org.unitils.reflectionassert.ReflectionAssert.assertReflectionEquals;
 import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
@@ -15,6 +16,7 @@ import org.xmpp.packet.IQ;
 
 import com.bt.openlink.CoreFixtures;
 import com.bt.openlink.GetInterestsFixtures;
+import com.bt.openlink.ValidationPolicy;
 import com.bt.openlink.tinder.Fixtures;
 import com.bt.openlink.type.Interest;
 import com.bt.openlink.type.InterestId;
@@ -109,6 +111,14 @@ public class GetInterestsResultTest {
         ));
     }
 
+    @Test
+    public void willNotReturnParsingErrorsWithoutAValidationPolicy() {
+
+        final GetInterestsResult result = OpenlinkIQParser.parse(Fixtures.iqFrom(GetInterestsFixtures.GET_INTERESTS_RESULT_WITH_BAD_VALUES), ValidationPolicy.NONE);
+
+        assertThat(result.getParseErrors(), is(empty()));
+    }
+
     @Test
     public void willBuildAResultFromARequest() {
 
@@ -1,6 +1,8 @@
 package com.bt.openlink.tinder.iq;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertThat;
 import static org.unitils.reflectionassert.ReflectionAssert.assertReflectionEquals;
@@ -11,6 +13,7 @@ import java.util.List;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.xmpp.packet.IQ;
 
 import com.bt.openlink.CoreFixtures;
 import com.bt.openlink.MakeCallFixtures;
@@ -47,6 +50,22 @@ public class MakeCallResultTest {
         assertThat(result.toXML(), isIdenticalTo(MakeCallFixtures.MAKE_CALL_RESULT).ignoreWhitespace());
     }
 
+    @Test
+    public void willOnlyGenerateTheChildElementsOnce() {
+
+        final MakeCallResult result = MakeCallResult.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setCallStatus(CoreFixtures.CALL_STATUS)
+                .build();
+
+        assertThat(result.getChildElement().getName(), is("command"));
+        assertThat(result.getElement(), is(sameInstance(result.getElement())));
+        assertThat(result.createCopy().toXML(), isIdenticalTo(MakeCallFixtures.MAKE_CALL_RESULT).ignoreWhitespace());
+        assertThat(result.toXML(), isIdenticalTo(MakeCallFixtures.MAKE_CALL_RESULT).ignoreWhitespace());
+    }
+
     @Test
     public void willEnsureTheStanzaHasACall() {
 
@@ -70,6 +89,34 @@ public class MakeCallResultTest {
         assertThat(result.getParseErrors().size(), is(0));
     }
 
+    @Test
+    public void willWrapTheElementOfAParsedStanza() {
+
+        final IQ iq = Fixtures.iqFrom(MakeCallFixtures.MAKE_CALL_RESULT);
+
+        final MakeCallResult result = MakeCallResult.from(iq);
+
+        assertThat(result.getElement(), is(sameInstance(iq.getElement())));
+        assertReflectionEquals(CoreFixtures.CALL_STATUS, result.getCallStatus().get());
+    }
+
+    @Test
+    public void willCopyTheElementOfAParsedStanzaWhenFirstChanged() {
+
+        final IQ iq = Fixtures.iqFrom(MakeCallFixtures.MAKE_CALL_RESULT);
+        final MakeCallResult result = MakeCallResult.from(iq);
+
+        result.setTo(Fixtures.USER_FULL_JID);
+        result.setID("changed-id");
+
+        assertThat(result.getElement(), is(not(sameInstance(iq.getElement()))));
+        assertThat(result.getTo(), is(Fixtures.USER_FULL_JID));
+        assertThat(result.getID(), is("changed-id"));
+        assertThat(iq.getTo(), is(Fixtures.TO_JID));
+        assertThat(iq.getID(), is(CoreFixtures.STANZA_ID));
+        assertThat(result.getChildElement().asXML(), is(iq.getChildElement().asXML()));
+    }
+
     @Test
     public void willReturnParsingErrors() {
 
@@ -0,0 +1,123 @@
+package com.bt.openlink.tinder.message;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.xmlunit.matchers.CompareMatcher.isIdenticalTo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.xmpp.packet.JID;
+
+import com.bt.openlink.CoreFixtures;
+import com.bt.openlink.PubSubMessageFixtures;
+import com.bt.openlink.tinder.Fixtures;
+import com.bt.openlink.type.ItemId;
+
+public class CallStatusMessageFanOutTest {
+
+    private static final CallStatusMessage TEMPLATE = CallStatusMessage.Builder.start()
+            .setId("template-id")
+            .setTo(Fixtures.USER_FULL_JID)
+            .setFrom(Fixtures.FROM_JID)
+            .setPubSubNodeId(CoreFixtures.CALL_OUTGOING_CONFERENCED.getInterestId().get())
+            .setItemId(ItemId.from("test-item-id").get())
+            .setCallStatus(CoreFixtures.CALL_STATUS)
+            .build();
+
+    @Test
+    public void willCreateAMessageForEachRecipient() {
+        final CallStatusMessageFanOut fanOut = new CallStatusMessageFanOut(TEMPLATE);
+
+        final CallStatusMessage message = fanOut.createMessage(Fixtures.TO_JID, CoreFixtures.STANZA_ID);
+
+        assertThat(message.getTo(), is(Fixtures.TO_JID));
+        assertThat(message.getID(), is(CoreFixtures.STANZA_ID));
+        assertThat(message.getFrom(), is(Fixtures.FROM_JID));
+        assertThat(message.getPubSubNodeId(), is(TEMPLATE.getPubSubNodeId()));
+        assertThat(message.getCallStatus().get(), is(sameInstance(CoreFixtures.CALL_STATUS)));
+        assertThat(message.toXML(), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+    }
+
+    @Test
+    public void willGenerateTheXmlOfEachRecipientsMessage() {
+        final CallStatusMessageFanOut fanOut = new CallStatusMessageFanOut(TEMPLATE);
+
+        final String xml = fanOut.toXML(Fixtures.TO_JID, CoreFixtures.STANZA_ID);
+
+        assertThat(xml, isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+        assertThat(xml, is(fanOut.createMessage(Fixtures.TO_JID, CoreFixtures.STANZA_ID).getElement().asXML()));
+    }
+
+    @Test
+    public void willNotShareTheElementOfEachMessage() {
+        final CallStatusMessageFanOut fanOut = new CallStatusMessageFanOut(TEMPLATE);
+        final CallStatusMessage message1 = fanOut.createMessage(Fixtures.TO_JID, "id-1");
+
+        final CallStatusMessage message2 = fanOut.createMessage(Fixtures.USER_BARE_JID, null);
+        message1.setFrom(Fixtures.USER_FULL_JID);
+        message1.getChildElement("event", "http://jabber.org/protocol/pubsub#event").detach();
+
+        assertThat(message1.getElement(), is(not(sameInstance(message2.getElement()))));
+        assertThat(message2.toXML(), is(message2.getElement().asXML()));
+        assertThat(message2.getChildElement("event", "http://jabber.org/protocol/pubsub#event"), is(notNullValue()));
+        assertThat(message2.getTo(), is(Fixtures.USER_BARE_JID));
+        assertThat(message2.getID(), is(nullValue()));
+        assertThat(message2.getFrom(), is(Fixtures.FROM_JID));
+        assertThat(TEMPLATE.getTo(), is(Fixtures.USER_FULL_JID));
+        assertThat(TEMPLATE.getID(), is("template-id"));
+    }
+
+    @Test
+    public void willCreateTheMessagesOnManyThreads() throws Exception {
+        final CallStatusMessageFanOut fanOut = new CallStatusMessageFanOut(TEMPLATE);
+        final String expectedXml = fanOut.createMessage(Fixtures.TO_JID, CoreFixtures.STANZA_ID).getElement().asXML();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Callable<String>> tasks = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                tasks.add(() -> fanOut.createMessage(Fixtures.TO_JID, CoreFixtures.STANZA_ID).getElement().asXML());
+            }
+
+            for (final Future<String> xml : executor.invokeAll(tasks)) {
+                assertThat(xml.get(), is(expectedXml));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void willEscapeTheRecipientAndId() {
+        final CallStatusMessageFanOut fanOut = new CallStatusMessageFanOut(TEMPLATE);
+        final JID to = new JID("user", "example.com", "a&b\"<c>");
+        final String id = "id&\"<>";
+
+        final String xml = fanOut.toXML(to, id);
+
+        assertThat(Fixtures.messageFrom(xml).getTo(), is(to));
+        assertThat(Fixtures.messageFrom(xml).getID(), is(id));
+        assertThat(xml, is(fanOut.createMessage(to, id).getElement().asXML()));
+    }
+
+    @Test
+    public void willFanOutAParsedMessage() {
+        final CallStatusMessage parsedMessage = OpenlinkMessageParser.parse(Fixtures.messageFrom(PubSubMessageFixtures.CALL_STATUS_MESSAGE));
+        final CallStatusMessageFanOut fanOut = new CallStatusMessageFanOut(parsedMessage);
+
+        final CallStatusMessage message = fanOut.createMessage(Fixtures.USER_FULL_JID, CoreFixtures.STANZA_ID);
+
+        assertThat(message.getTo(), is(Fixtures.USER_FULL_JID));
+        assertThat(message.getCallStatus(), is(parsedMessage.getCallStatus()));
+        assertThat(fanOut.toXML(Fixtures.TO_JID, CoreFixtures.STANZA_ID), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+    }
+}
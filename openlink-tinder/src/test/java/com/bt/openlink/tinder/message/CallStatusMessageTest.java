@@ -1,6 +1,7 @@
 package com.bt.openlink.tinder.message;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.Assert.assertThat;
@@ -84,6 +85,34 @@ public class CallStatusMessageTest {
         assertThat(message.getParseErrors().size(), is(0));
     }
 
+    @Test
+    public void willOnlyGenerateTheChildElementsOnce() {
+
+        final CallStatusMessage message = CallStatusMessage.Builder.start()
+                .setId(CoreFixtures.STANZA_ID)
+                .setTo(Fixtures.TO_JID)
+                .setFrom(Fixtures.FROM_JID)
+                .setPubSubNodeId(CoreFixtures.CALL_OUTGOING_CONFERENCED.getInterestId().get())
+                .setItemId(PubSubMessageFixtures.ITEM_ID)
+                .setCallStatus(CoreFixtures.CALL_STATUS)
+                .build();
+
+        assertThat(message.getChildElement("event", "http://jabber.org/protocol/pubsub#event"), is(notNullValue()));
+        assertThat(message.createCopy().toXML(), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+        assertThat(message.toXML(), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+    }
+
+    @Test
+    public void willWrapTheElementOfAParsedStanza() {
+
+        final Message stanza = Fixtures.messageFrom(PubSubMessageFixtures.CALL_STATUS_MESSAGE);
+
+        final CallStatusMessage message = OpenlinkMessageParser.parse(stanza);
+
+        assertThat(message.getElement(), is(sameInstance(stanza.getElement())));
+        assertThat(message.toXML(), isIdenticalTo(PubSubMessageFixtures.CALL_STATUS_MESSAGE).ignoreWhitespace());
+    }
+
     @Test
     public void willReturnOriginalMessageForADeviceStatusEvent() {
 